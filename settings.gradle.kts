@@ -2,5 +2,5 @@
 
 include(
     ":", // root project
-    "docs",
+    // "docs",
 )
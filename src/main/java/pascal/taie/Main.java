@@ -25,8 +25,11 @@ package pascal.taie;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.AnalysisManager;
+import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
+import pascal.taie.analysis.pta.PointerAnalysis;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.AnalysisPlanner;
+import pascal.taie.config.ConfigException;
 import pascal.taie.config.ConfigManager;
 import pascal.taie.config.Configs;
 import pascal.taie.config.LoggerConfigs;
@@ -123,6 +126,9 @@ public class Main {
     }
 
     private static void buildWorld(Options options, List<AnalysisConfig> analyses) {
+        if (options.isLazyClassLoading()) {
+            checkLazyClassLoading(analyses);
+        }
         Timer.runAndCount(() -> {
             try {
                 Class<? extends WorldBuilder> builderClass = options.getWorldBuilderClass();
@@ -150,6 +156,47 @@ public class Main {
         }, "WorldBuilder");
     }
 
+    /**
+     * In lazy class loading mode, the class hierarchy only contains
+     * the classes that have been built so far, thus the analyses that
+     * enumerate the subclasses of arbitrary classes would be silently
+     * unsound. Such analyses are rejected in this mode, together with
+     * the parallel solver of pointer analysis, whose threads read the
+     * class hierarchy while the classes are built.
+     */
+    private static void checkLazyClassLoading(List<AnalysisConfig> analyses) {
+        for (AnalysisConfig config : analyses) {
+            String id = config.getId();
+            if (id.equals(CallGraphBuilder.ID) &&
+                    "cha".equals(config.getOptions().getString("algorithm"))) {
+                throw new ConfigException("Conflict options: " +
+                        "--lazy-class-loading and CHA-based call graph" +
+                        " construction (cg=algorithm:cha) should not be used" +
+                        " simultaneously");
+            }
+            if (id.equals(PointerAnalysis.ID) && "solar".equals(
+                    config.getOptions().getString("reflection-inference"))) {
+                throw new ConfigException("Conflict options: " +
+                        "--lazy-class-loading and Solar reflection inference" +
+                        " (pta=reflection-inference:solar) should not be used" +
+                        " simultaneously");
+            }
+            if (id.equals(PointerAnalysis.ID) && "collection".equals(
+                    config.getOptions().getString("advanced"))) {
+                throw new ConfigException("Conflict options: " +
+                        "--lazy-class-loading and collection-based selective" +
+                        " context sensitivity (pta=advanced:collection) should" +
+                        " not be used simultaneously");
+            }
+            if (id.equals(PointerAnalysis.ID) && "parallel".equals(
+                    config.getOptions().getString("solver"))) {
+                throw new ConfigException("Conflict options: " +
+                        "--lazy-class-loading and parallel solver" +
+                        " (pta=solver:parallel) should not be used simultaneously");
+            }
+        }
+    }
+
     private static void executePlan(Plan plan) {
         new AnalysisManager(plan).execute();
     }
@@ -23,7 +23,6 @@
 package pascal.taie;
 
 import pascal.taie.config.Options;
-import pascal.taie.frontend.cache.CachedIRBuilder;
 import pascal.taie.ir.IRBuilder;
 import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.JMethod;
@@ -31,10 +30,6 @@ import pascal.taie.language.natives.NativeModel;
 import pascal.taie.language.type.TypeSystem;
 import pascal.taie.util.AbstractResultHolder;
 
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.Serial;
 import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
@@ -71,11 +66,8 @@ public final class World extends AbstractResultHolder
     private ClassHierarchy classHierarchy;
 
     /**
-     * Notes: add {@code transient} to wrap this {@link IRBuilder} using
-     * {@link pascal.taie.frontend.cache.CachedIRBuilder} in serialization.
-     *
-     * @see #writeObject(ObjectOutputStream)
-     * @see #readObject(ObjectInputStream)
+     * Notes: This field is {@code transient} because the IR is cached
+     * separately, see {@link pascal.taie.frontend.cache.CachedWorldBuilder}.
      */
     private transient IRBuilder irBuilder;
 
@@ -180,17 +172,4 @@ public final class World extends AbstractResultHolder
             throw new RuntimeException("Failed to set World." + fieldName);
         }
     }
-
-    @Serial
-    private void writeObject(ObjectOutputStream s) throws IOException {
-        s.defaultWriteObject();
-        s.writeObject(new CachedIRBuilder(irBuilder, classHierarchy));
-    }
-
-    @Serial
-    private void readObject(ObjectInputStream s) throws IOException,
-            ClassNotFoundException {
-        s.defaultReadObject();
-        setIRBuilder((IRBuilder) s.readObject());
-    }
 }
@@ -0,0 +1,281 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.util.AnalysisException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Executes class and method analyses on a dedicated pool of worker threads.
+ * <p>
+ * The items (classes or methods) are sorted by their estimated costs, and
+ * each worker repeatedly takes the most expensive item that has not been
+ * taken, so that the largest items start first and do not end up serialized
+ * at the tail of the execution, while the cheap items fill the gaps.
+ * Each worker collects its results in its own sink, and the results are
+ * stored by the calling thread after all items have been analyzed, so that
+ * the workers of an analysis never modify the result holders concurrently.
+ * The executor may be shared by several calling threads, e.g., when
+ * independent analyses in a plan run concurrently, in which case
+ * their items are analyzed by the same pool of worker threads.
+ * <p>
+ * The executor also measures the time of analyzing each item, and logs
+ * a histogram of the times for each analysis.
+ */
+class AnalysisExecutor {
+
+    private static final Logger logger = LogManager.getLogger(AnalysisExecutor.class);
+
+    /**
+     * Upper bounds (in milliseconds, exclusive) of the buckets of
+     * timing histograms. The last bucket has no upper bound.
+     */
+    private static final long[] BUCKET_BOUNDS = {1, 10, 100, 1000, 10000};
+
+    private final int parallelism;
+
+    private ExecutorService executor;
+
+    /**
+     * @param parallelism number of worker threads, non-positive value means
+     *                    the number of available processors
+     */
+    AnalysisExecutor(int parallelism) {
+        this.parallelism = parallelism > 0 ? parallelism :
+                Runtime.getRuntime().availableProcessors();
+    }
+
+    int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Applies {@code task} to all {@code items} and passes the non-null
+     * results to {@code sink}. The sink is invoked by the calling thread
+     * after all items have been processed.
+     *
+     * @param name  name of the task, used in the log
+     * @param items items to be processed
+     * @param costs estimated costs of items, indexed as {@code items}
+     * @param task  task applied to each item
+     * @param sink  consumer of the item-result pairs
+     */
+    <T, R> void execute(String name, List<T> items, int[] costs,
+                        Function<? super T, R> task,
+                        BiConsumer<? super T, ? super R> sink) {
+        int[] order = sortByCost(costs);
+        int nWorkers = Math.min(parallelism, items.size());
+        List<Worker<T, R>> workers = new ArrayList<>(nWorkers);
+        AtomicInteger next = new AtomicInteger();
+        for (int i = 0; i < nWorkers; ++i) {
+            workers.add(new Worker<>(items, order, next, task));
+        }
+        long start = System.nanoTime();
+        if (nWorkers == 1) {
+            workers.get(0).call();
+        } else if (nWorkers > 1) {
+            invokeAll(name, workers);
+        }
+        long elapsed = System.nanoTime() - start;
+        // store results and merge histograms in the calling thread
+        Histogram histogram = new Histogram();
+        for (Worker<T, R> worker : workers) {
+            for (int i = 0; i < worker.resultItems.size(); ++i) {
+                sink.accept(worker.resultItems.get(i), worker.results.get(i));
+            }
+            histogram.merge(worker.histogram);
+        }
+        logger.info("[{}] {} items, {} threads, wall time: {}, {}",
+                name, items.size(), nWorkers,
+                String.format("%.2fs", elapsed / 1e9), histogram);
+    }
+
+    private void invokeAll(String name, List<? extends Callable<Void>> tasks) {
+        try {
+            for (Future<Void> future : getExecutor().invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnalysisException(name + " is interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            } else if (e.getCause() instanceof Error err) {
+                throw err;
+            }
+            throw new AnalysisException(name + " fails", e.getCause());
+        }
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            AtomicInteger counter = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(parallelism, r -> {
+                Thread t = new Thread(r,
+                        "analysis-worker-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Shuts down the worker threads. The executor can still be used
+     * after shutdown, and it will create new worker threads on demand.
+     */
+    synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * @return indexes of the items in descending order of costs.
+     * The items with equal costs keep their original order.
+     */
+    private static int[] sortByCost(int[] costs) {
+        long[] keys = new long[costs.length];
+        for (int i = 0; i < costs.length; ++i) {
+            // sort by descending cost, then by ascending index
+            keys[i] = ((long) (Integer.MAX_VALUE - Math.max(costs[i], 0)) << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[costs.length];
+        for (int i = 0; i < keys.length; ++i) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    private static class Worker<T, R> implements Callable<Void> {
+
+        private final List<T> items;
+
+        private final int[] order;
+
+        private final AtomicInteger next;
+
+        private final Function<? super T, R> task;
+
+        private final List<T> resultItems = new ArrayList<>();
+
+        private final List<R> results = new ArrayList<>();
+
+        private final Histogram histogram = new Histogram();
+
+        private Worker(List<T> items, int[] order, AtomicInteger next,
+                       Function<? super T, R> task) {
+            this.items = items;
+            this.order = order;
+            this.next = next;
+            this.task = task;
+        }
+
+        @Override
+        public Void call() {
+            int i;
+            while ((i = next.getAndIncrement()) < order.length) {
+                T item = items.get(order[i]);
+                long start = System.nanoTime();
+                R result = task.apply(item);
+                histogram.add(item, System.nanoTime() - start);
+                if (result != null) {
+                    resultItems.add(item);
+                    results.add(result);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Histogram of the times of analyzing items.
+     */
+    private static class Histogram {
+
+        private final int[] counts = new int[BUCKET_BOUNDS.length + 1];
+
+        private long total;
+
+        private long max = -1;
+
+        private Object slowest;
+
+        private void add(Object item, long nanos) {
+            long millis = nanos / 1_000_000;
+            int i = 0;
+            while (i < BUCKET_BOUNDS.length && millis >= BUCKET_BOUNDS[i]) {
+                ++i;
+            }
+            ++counts[i];
+            total += nanos;
+            if (nanos > max) {
+                max = nanos;
+                slowest = item;
+            }
+        }
+
+        private void merge(Histogram other) {
+            for (int i = 0; i < counts.length; ++i) {
+                counts[i] += other.counts[i];
+            }
+            total += other.total;
+            if (other.max > max) {
+                max = other.max;
+                slowest = other.slowest;
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("item times: ");
+            for (int i = 0; i < counts.length; ++i) {
+                sb.append(i < BUCKET_BOUNDS.length ?
+                                "<" + BUCKET_BOUNDS[i] + "ms" :
+                                ">=" + BUCKET_BOUNDS[i - 1] + "ms")
+                        .append(':').append(counts[i]).append(' ');
+            }
+            sb.append(String.format("(total: %.2fs", total / 1e9));
+            if (slowest != null) {
+                sb.append(String.format(", slowest: %s %.2fs", slowest, max / 1e9));
+            }
+            return sb.append(')').toString();
+        }
+    }
+}
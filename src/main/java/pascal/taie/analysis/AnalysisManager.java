@@ -28,15 +28,17 @@ import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
 import pascal.taie.analysis.graph.callgraph.CallGraph;
 import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
+import pascal.taie.analysis.misc.ResultProcessor;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.ConfigException;
 import pascal.taie.config.Plan;
 import pascal.taie.config.Scope;
-import pascal.taie.ir.IR;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AbstractResultHolder;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.util.Timer;
+import pascal.taie.util.collection.Maps;
 import pascal.taie.util.graph.SimpleGraph;
 
 import java.lang.reflect.Constructor;
@@ -44,9 +46,23 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 /**
  * Creates and executes analyses based on given analysis plan.
+ * <p>
+ * By default, the analyses are executed one by one in the order of the plan.
+ * If more than one plan thread is given, the analyses are scheduled
+ * according to their dependencies, and each analysis starts as soon as
+ * all the analyses it depends on have finished, so that independent
+ * analyses run concurrently.
  */
 public class AnalysisManager {
 
@@ -77,9 +93,33 @@ public class AnalysisManager {
 
     private List<JMethod> methodScope;
 
+    /**
+     * Estimated costs of classes in {@link #classScope}.
+     */
+    private int[] classCosts;
+
+    /**
+     * Estimated costs of methods in {@link #methodScope}.
+     */
+    private volatile int[] methodCosts;
+
+    /**
+     * Executor for class and method analyses.
+     */
+    private final AnalysisExecutor executor;
+
+    /**
+     * Number of analyses in the plan that can run concurrently.
+     */
+    private final int planThreads;
+
     public AnalysisManager(Plan plan) {
         this.plan = plan;
         this.keepAllResults = plan.keepResult().contains(Plan.KEEP_ALL);
+        this.executor = new AnalysisExecutor(
+                World.get().getOptions().getAnalysisThreads());
+        int n = World.get().getOptions().getPlanThreads();
+        this.planThreads = n > 0 ? n : Runtime.getRuntime().availableProcessors();
     }
 
     /**
@@ -98,15 +138,134 @@ public class AnalysisManager {
         }
         classScope = null;
         methodScope = null;
+        classCosts = null;
+        methodCosts = null;
         // execute analyses
-        plan.analyses().forEach(config -> {
-            Analysis analysis = Timer.runAndCount(
-                    () -> runAnalysis(config), config.getId(), Level.INFO);
-            if (!keepAllResults) {
-                executedAnalyses.add(analysis);
-                clearUnusedResults(analysis);
+        try {
+            if (planThreads > 1 && plan.analyses().size() > 1) {
+                executeConcurrently();
+            } else {
+                plan.analyses().forEach(config ->
+                        finishAnalysis(runAndCount(config)));
             }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Executes the analyses in the plan on {@link #planThreads} threads.
+     * An analysis is submitted once all its predecessors in the schedule
+     * graph have finished. The finished analyses are processed
+     * (i.e., clearing unused results) by the calling thread,
+     * thus {@link #clearUnusedResults(Analysis)} is never executed
+     * concurrently with itself.
+     */
+    private void executeConcurrently() {
+        SimpleGraph<AnalysisConfig> schedule = buildSchedule();
+        Map<String, AnalysisConfig> configs = Maps.newMap();
+        Map<AnalysisConfig, Integer> inDegrees = Maps.newMap();
+        for (AnalysisConfig config : plan.analyses()) {
+            configs.put(config.getId(), config);
+            inDegrees.put(config, schedule.getInDegreeOf(config));
+        }
+        int nThreads = Math.min(planThreads, plan.analyses().size());
+        logger.info("Executing {} analyses on {} plan threads",
+                plan.analyses().size(), nThreads);
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService scheduler = Executors.newFixedThreadPool(nThreads, r -> {
+            Thread t = new Thread(r, "plan-worker-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
         });
+        CompletionService<Analysis> completion =
+                new ExecutorCompletionService<>(scheduler);
+        AbstractResultHolder.setConcurrentUpdates(true);
+        try {
+            for (AnalysisConfig config : plan.analyses()) {
+                if (inDegrees.get(config) == 0) {
+                    completion.submit(() -> runAndCount(config));
+                }
+            }
+            for (int remaining = plan.analyses().size(); remaining > 0; --remaining) {
+                Analysis analysis = completion.take().get();
+                finishAnalysis(analysis);
+                for (AnalysisConfig succ :
+                        schedule.getSuccsOf(configs.get(analysis.getId()))) {
+                    int inDegree = inDegrees.get(succ) - 1;
+                    inDegrees.put(succ, inDegree);
+                    if (inDegree == 0) {
+                        completion.submit(() -> runAndCount(succ));
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnalysisException("Analysis plan is interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            } else if (e.getCause() instanceof Error err) {
+                throw err;
+            }
+            throw new AnalysisException("Analysis plan fails", e.getCause());
+        } finally {
+            scheduler.shutdownNow();
+            AbstractResultHolder.setConcurrentUpdates(false);
+        }
+    }
+
+    /**
+     * Builds the graph that decides the order of analyses when they
+     * are executed concurrently. Besides the dependencies declared by
+     * the analyses, the graph also respects the implicit orders in the plan:
+     * <ul>
+     *     <li>{@link ResultProcessor} may process the results of
+     *     any analysis, thus it runs after all its preceding analyses,
+     *     and before all its following analyses.</li>
+     *     <li>If the scope is {@link Scope#REACHABLE}, the scope of
+     *     class and method analyses is computed from the result of
+     *     call graph builder, thus the analyses following the call
+     *     graph builder run after it.</li>
+     * </ul>
+     */
+    private SimpleGraph<AnalysisConfig> buildSchedule() {
+        SimpleGraph<AnalysisConfig> schedule = new SimpleGraph<>();
+        List<AnalysisConfig> analyses = plan.analyses();
+        boolean reachable = World.get().getOptions().getScope() == Scope.REACHABLE;
+        for (int i = 0; i < analyses.size(); ++i) {
+            AnalysisConfig config = analyses.get(i);
+            schedule.addNode(config);
+            for (AnalysisConfig succ : plan.dependenceGraph().getSuccsOf(config)) {
+                schedule.addEdge(config, succ);
+            }
+            boolean isBarrier = config.getId().equals(ResultProcessor.ID) ||
+                    (reachable && config.getId().equals(CallGraphBuilder.ID));
+            if (isBarrier) {
+                analyses.subList(i + 1, analyses.size())
+                        .forEach(succ -> schedule.addEdge(config, succ));
+            }
+            if (config.getId().equals(ResultProcessor.ID)) {
+                analyses.subList(0, i)
+                        .forEach(pred -> schedule.addEdge(pred, config));
+            }
+        }
+        return schedule;
+    }
+
+    private Analysis runAndCount(AnalysisConfig config) {
+        return Timer.runAndCount(
+                () -> runAnalysis(config), config.getId(), Level.INFO);
+    }
+
+    /**
+     * Processes the analysis that just finished.
+     */
+    private void finishAnalysis(Analysis analysis) {
+        if (!keepAllResults) {
+            executedAnalyses.add(analysis);
+            clearUnusedResults(analysis);
+        }
     }
 
     private Analysis runAnalysis(AnalysisConfig config) {
@@ -152,16 +311,12 @@ public class AnalysisManager {
     }
 
     private void runClassAnalysis(ClassAnalysis<?> analysis) {
-        getClassScope().parallelStream()
-                .forEach(c -> {
-                    Object result = analysis.analyze(c);
-                    if (result != null) {
-                        c.storeResult(analysis.getId(), result);
-                    }
-                });
+        executor.execute(analysis.getId(), getClassScope(), getClassCosts(),
+                analysis::analyze,
+                (c, result) -> c.storeResult(analysis.getId(), result));
     }
 
-    private List<JClass> getClassScope() {
+    private synchronized List<JClass> getClassScope() {
         if (classScope == null) {
             Scope scope = World.get().getOptions().getScope();
             classScope = switch (scope) {
@@ -187,19 +342,58 @@ public class AnalysisManager {
         return classScope;
     }
 
+    /**
+     * Estimates the cost of analyzing each class in class scope
+     * by the number of its declared methods.
+     */
+    private synchronized int[] getClassCosts() {
+        if (classCosts == null) {
+            classCosts = getClassScope()
+                    .stream()
+                    .mapToInt(c -> 1 + c.getDeclaredMethods().size())
+                    .toArray();
+        }
+        return classCosts;
+    }
+
     private void runMethodAnalysis(MethodAnalysis<?> analysis) {
-        getMethodScope()
-                .parallelStream()
-                .forEach(m -> {
-                    IR ir = m.getIR();
-                    Object result = analysis.analyze(ir);
-                    if (result != null) {
-                        ir.storeResult(analysis.getId(), result);
-                    }
-                });
+        executor.execute(analysis.getId(), getMethodScope(), getMethodCosts(),
+                m -> analysis.analyze(m.getIR()),
+                (m, result) -> m.getIR().storeResult(analysis.getId(), result));
+    }
+
+    /**
+     * Estimates the cost of analyzing each method in method scope
+     * by the number of statements in its IR. This also builds the IRs
+     * (in parallel) if they have not been built.
+     * <p>
+     * The costs are computed without holding the lock of this manager,
+     * so that concurrent analyses are not blocked by the IR building.
+     * If several analyses compute the costs at the same time, the results
+     * are the same, and only the first one is published.
+     */
+    private int[] getMethodCosts() {
+        int[] costs = methodCosts;
+        if (costs == null) {
+            List<JMethod> methods = getMethodScope();
+            int[] newCosts = new int[methods.size()];
+            List<Integer> indexes = IntStream.range(0, methods.size())
+                    .boxed()
+                    .toList();
+            executor.execute("estimate-method-costs", indexes, new int[newCosts.length],
+                    i -> methods.get(i).getIR().getStmts().size(),
+                    (i, size) -> newCosts[i] = size);
+            synchronized (this) {
+                if (methodCosts == null) {
+                    methodCosts = newCosts;
+                }
+                costs = methodCosts;
+            }
+        }
+        return costs;
     }
 
-    private List<JMethod> getMethodScope() {
+    private synchronized List<JMethod> getMethodScope() {
         if (methodScope == null) {
             Scope scope = World.get().getOptions().getScope();
             methodScope = switch (scope) {
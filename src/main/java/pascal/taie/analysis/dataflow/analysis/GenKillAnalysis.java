@@ -0,0 +1,194 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.fact.BitVectorFact;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.dataflow.solver.Solver;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGNodeIndexer;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.IndexMap;
+import pascal.taie.util.collection.IndexerBitSet;
+
+/**
+ * Template of gen/kill (bit-vector) analyses, whose facts are sets of
+ * elements with dense indexes, e.g., {@link pascal.taie.ir.exp.Var}s
+ * or {@link pascal.taie.ir.stmt.Stmt}s.
+ * <p>
+ * The gen and kill sets of all nodes are computed once (on the first
+ * transfer) as bit masks, then the transfer function of each node is
+ * simply {@code (in & ~kill) | gen}, which is applied word by word
+ * without allocating memory. The analysis is solved by the solver which
+ * visits nodes in reverse post-order, and the results are converted to
+ * {@link SetFact}s, so that the clients of the analysis are unaware of
+ * the bit-vector representation.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <E>    type of elements of the facts
+ */
+public abstract class GenKillAnalysis<Node, E>
+        extends AbstractDataflowAnalysis<Node, BitVectorFact> {
+
+    /**
+     * Whether the meet operator is intersection (for must analyses)
+     * or union (for may analyses).
+     */
+    private final boolean isMust;
+
+    /**
+     * Gen sets of nodes (indexed by node indexes), {@code null} elements
+     * represent empty sets.
+     */
+    private BitVectorFact[] gens;
+
+    /**
+     * Kill sets of nodes (indexed by node indexes), {@code null} elements
+     * represent empty sets.
+     */
+    private BitVectorFact[] kills;
+
+    protected GenKillAnalysis(CFG<Node> cfg, boolean isMust) {
+        super(cfg);
+        this.isMust = isMust;
+    }
+
+    /**
+     * @return the indexer of elements.
+     */
+    protected abstract Indexer<E> getIndexer();
+
+    /**
+     * @return the number of elements. The elements should be indexed
+     * from 0 to the number minus one.
+     */
+    protected abstract int getSize();
+
+    /**
+     * Computes the gen set of given node. The result can be shared
+     * among nodes, and it will not be modified.
+     *
+     * @return the gen set, or {@code null} if the gen set is empty.
+     */
+    protected abstract BitVectorFact computeGen(Node node);
+
+    /**
+     * Computes the kill set of given node. The result can be shared
+     * among nodes, and it will not be modified.
+     *
+     * @return the kill set, or {@code null} if the kill set is empty.
+     */
+    protected abstract BitVectorFact computeKill(Node node);
+
+    /**
+     * @return a new empty fact.
+     */
+    protected BitVectorFact newFact() {
+        return new BitVectorFact(getSize());
+    }
+
+    @Override
+    public BitVectorFact newBoundaryFact() {
+        return newFact();
+    }
+
+    @Override
+    public BitVectorFact newInitialFact() {
+        BitVectorFact fact = newFact();
+        if (isMust) {
+            fact.setAll();
+        }
+        return fact;
+    }
+
+    @Override
+    public void meetInto(BitVectorFact fact, BitVectorFact target) {
+        if (isMust) {
+            target.intersect(fact);
+        } else {
+            target.union(fact);
+        }
+    }
+
+    @Override
+    public boolean transferNode(Node node, BitVectorFact in, BitVectorFact out) {
+        if (gens == null) {
+            computeMasks();
+        }
+        BitVectorFact kill = kills[cfg.getIndex(node)];
+        return isForward() ?
+                out.transfer(in, getGen(node, in), kill) :
+                in.transfer(out, getGen(node, out), kill);
+    }
+
+    private void computeMasks() {
+        int n = cfg.getNumberOfNodes();
+        gens = new BitVectorFact[n];
+        kills = new BitVectorFact[n];
+        for (Node node : cfg) {
+            int i = cfg.getIndex(node);
+            gens[i] = computeGen(node);
+            kills[i] = computeKill(node);
+        }
+    }
+
+    /**
+     * Obtains the gen set of given node. Subclasses can override this method
+     * to make the gen set depend on the fact before the node, e.g., for
+     * strongly live variable analysis.
+     *
+     * @param source the fact before the node, i.e., in fact for forward
+     *               analyses, and out fact for backward analyses
+     * @return the gen set, or {@code null} if the gen set is empty.
+     */
+    protected BitVectorFact getGen(Node node, BitVectorFact source) {
+        return gens[cfg.getIndex(node)];
+    }
+
+    /**
+     * Solves this analysis and converts the results to {@link SetFact}s.
+     */
+    public DataflowResult<Node, SetFact<E>> solve() {
+        DataflowResult<Node, BitVectorFact> bvResult =
+                Solver.<Node, BitVectorFact>getRPOSolver().solve(this);
+        CFGNodeIndexer<Node> nodeIndexer = new CFGNodeIndexer<>(cfg);
+        DataflowResult<Node, SetFact<E>> result = new DataflowResult<>(
+                new IndexMap<>(nodeIndexer, cfg.getNumberOfNodes()),
+                new IndexMap<>(nodeIndexer, cfg.getNumberOfNodes()));
+        for (Node node : cfg) {
+            result.setInFact(node, toSetFact(bvResult.getInFact(node)));
+            result.setOutFact(node, toSetFact(bvResult.getOutFact(node)));
+        }
+        return result;
+    }
+
+    private SetFact<E> toSetFact(BitVectorFact fact) {
+        Indexer<E> indexer = getIndexer();
+        SetFact<E> setFact = new SetFact<>(new IndexerBitSet<>(indexer, false));
+        for (int i = fact.nextSetBit(0); i >= 0; i = fact.nextSetBit(i + 1)) {
+            setFact.add(indexer.getObject(i));
+        }
+        return setFact;
+    }
+}
@@ -22,9 +22,14 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import pascal.taie.analysis.dataflow.fact.BitVectorFact;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.RValue;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Copy;
 import pascal.taie.ir.stmt.Stmt;
@@ -42,6 +47,20 @@ public class LiveVariable extends AnalysisDriver<Stmt, SetFact<Var>> {
         super(config);
     }
 
+    @Override
+    public DataflowResult<Stmt, SetFact<Var>> analyze(IR ir) {
+        boolean strongly = getOptions().getBoolean("strongly");
+        if (getOptions().getBoolean("sparse")) {
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            return new SparseLiveVarSolver(cfg, strongly).solve();
+        }
+        if (getOptions().getBoolean("bit-vector")) {
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            return new BitVectorAnalysis(cfg, strongly).solve();
+        }
+        return super.analyze(ir);
+    }
+
     @Override
     protected Analysis makeAnalysis(CFG<Stmt> cfg) {
         return new Analysis(cfg, getOptions().getBoolean("strongly"));
@@ -126,4 +145,81 @@ public class LiveVariable extends AnalysisDriver<Stmt, SetFact<Var>> {
             return !in.equals(oldIn);
         }
     }
+
+    /**
+     * Live variable analysis on bit vectors, which are indexed by
+     * the indexes of variables.
+     */
+    private static class BitVectorAnalysis extends GenKillAnalysis<Stmt, Var> {
+
+        private final boolean strongly;
+
+        private final Indexer<Var> varIndexer;
+
+        /**
+         * Kill sets of variables, i.e., singleton sets of the variables,
+         * which are shared among the definitions of the same variable.
+         */
+        private final BitVectorFact[] varKills;
+
+        private BitVectorAnalysis(CFG<Stmt> cfg, boolean strongly) {
+            super(cfg, false);
+            this.strongly = strongly;
+            this.varIndexer = cfg.getIR().getVarIndexer();
+            this.varKills = new BitVectorFact[getSize()];
+        }
+
+        @Override
+        public boolean isForward() {
+            return false;
+        }
+
+        @Override
+        protected Indexer<Var> getIndexer() {
+            return varIndexer;
+        }
+
+        @Override
+        protected int getSize() {
+            return cfg.getIR().getVars().size();
+        }
+
+        @Override
+        protected BitVectorFact computeGen(Stmt stmt) {
+            BitVectorFact gen = null;
+            for (RValue use : stmt.getUses()) {
+                if (use instanceof Var var) {
+                    if (gen == null) {
+                        gen = newFact();
+                    }
+                    gen.set(varIndexer.getIndex(var));
+                }
+            }
+            return gen;
+        }
+
+        @Override
+        protected BitVectorFact computeKill(Stmt stmt) {
+            if (stmt.getDef().orElse(null) instanceof Var def) {
+                int index = varIndexer.getIndex(def);
+                if (varKills[index] == null) {
+                    varKills[index] = newFact();
+                    varKills[index].set(index);
+                }
+                return varKills[index];
+            }
+            return null;
+        }
+
+        @Override
+        protected BitVectorFact getGen(Stmt stmt, BitVectorFact out) {
+            // for a Copy statement, say x = y, we consider y as
+            // strongly live only when x is also strongly live
+            if (strongly && stmt instanceof Copy copy &&
+                    !out.get(varIndexer.getIndex(copy.getLValue()))) {
+                return null;
+            }
+            return super.getGen(stmt, out);
+        }
+    }
 }
@@ -22,8 +22,11 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import pascal.taie.analysis.dataflow.fact.BitVectorFact;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.analysis.graph.cfg.CFGNodeIndexer;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
@@ -43,6 +46,15 @@ public class ReachingDefinition extends AnalysisDriver<Stmt, SetFact<Stmt>> {
         super(config);
     }
 
+    @Override
+    public DataflowResult<Stmt, SetFact<Stmt>> analyze(IR ir) {
+        if (getOptions().getBoolean("bit-vector")) {
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            return new BitVectorAnalysis(cfg).solve();
+        }
+        return super.analyze(ir);
+    }
+
     @Override
     protected Analysis makeAnalysis(CFG<Stmt> cfg) {
         return new Analysis(cfg);
@@ -121,4 +133,66 @@ public class ReachingDefinition extends AnalysisDriver<Stmt, SetFact<Stmt>> {
             return !out.equals(oldOut);
         }
     }
+
+    /**
+     * Reaching definition analysis on bit vectors, which are indexed by
+     * the indexes of statements (nodes) in the CFG.
+     */
+    private static class BitVectorAnalysis extends GenKillAnalysis<Stmt, Stmt> {
+
+        private final Indexer<Stmt> stmtIndexer;
+
+        /**
+         * Maps a variable to all statements that define it, i.e.,
+         * the kill set shared among the definitions of the variable.
+         */
+        private final Map<Var, BitVectorFact> defs;
+
+        private BitVectorAnalysis(CFG<Stmt> cfg) {
+            super(cfg, false);
+            stmtIndexer = new CFGNodeIndexer<>(cfg);
+            defs = new IndexMap<>(cfg.getIR().getVarIndexer(),
+                    cfg.getIR().getVars().size());
+            for (Stmt stmt : cfg) {
+                if (stmt.getDef().orElse(null) instanceof Var defVar) {
+                    defs.computeIfAbsent(defVar, __ -> newFact())
+                            .set(stmtIndexer.getIndex(stmt));
+                }
+            }
+        }
+
+        @Override
+        public boolean isForward() {
+            return true;
+        }
+
+        @Override
+        protected Indexer<Stmt> getIndexer() {
+            return stmtIndexer;
+        }
+
+        @Override
+        protected int getSize() {
+            return cfg.getNumberOfNodes();
+        }
+
+        @Override
+        protected BitVectorFact computeGen(Stmt stmt) {
+            if (stmt.getDef().orElse(null) instanceof Var) {
+                BitVectorFact gen = newFact();
+                gen.set(stmtIndexer.getIndex(stmt));
+                return gen;
+            }
+            return null;
+        }
+
+        @Override
+        protected BitVectorFact computeKill(Stmt stmt) {
+            if (stmt.getDef().orElse(null) instanceof Var defVar) {
+                // kill previous definitions of defVar
+                return defs.get(defVar);
+            }
+            return null;
+        }
+    }
 }
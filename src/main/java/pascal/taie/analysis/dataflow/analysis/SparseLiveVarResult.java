@@ -0,0 +1,59 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.dataflow.fact.SparseDataflowResult;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Result of {@link SparseLiveVarSolver}. Besides the in/out facts, which
+ * are reconstructed from the live ranges of all variables, it answers
+ * whether a single variable is live at a statement, which only looks up
+ * the live range of the variable.
+ */
+public class SparseLiveVarResult extends SparseDataflowResult<Stmt, SetFact<Var>> {
+
+    private final BiPredicate<Stmt, Var> liveOutChecker;
+
+    SparseLiveVarResult(Function<Stmt, SetFact<Var>> inFactBuilder,
+                        Function<Stmt, SetFact<Var>> outFactBuilder,
+                        BiPredicate<Stmt, Var> liveOutChecker) {
+        super(inFactBuilder, outFactBuilder);
+        this.liveOutChecker = liveOutChecker;
+    }
+
+    /**
+     * @return {@code true} if given variable is live just after given
+     * statement, i.e., the same as {@code getOutFact(stmt).contains(var)}.
+     */
+    public boolean isLiveOut(Stmt stmt, Var var) {
+        SetFact<Var> out = getExplicitOutFact(stmt);
+        return out != null ? out.contains(var) : liveOutChecker.test(stmt, var);
+    }
+}
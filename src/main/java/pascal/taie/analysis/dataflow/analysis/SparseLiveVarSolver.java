@@ -0,0 +1,161 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.IndexerBitSet;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Sparse solver for live variable analysis.
+ * <p>
+ * Instead of propagating a set of live variables through every statement,
+ * this solver explores the live range of each variable separately: starting
+ * from the uses of a variable, it walks backward along the CFG and stops at
+ * the definitions of the variable. Thus, the cost of the solver is
+ * proportional to the total size of live ranges, and the per-statement
+ * facts are reconstructed from the live ranges on demand. Whether a single
+ * variable is live at a statement can also be queried via
+ * {@link SparseLiveVarResult#isLiveOut(Stmt, Var)}, which avoids building
+ * the whole fact.
+ */
+class SparseLiveVarSolver {
+
+    private final CFG<Stmt> cfg;
+
+    private final boolean strongly;
+
+    private final Indexer<Var> varIndexer;
+
+    /**
+     * Live range of each variable, i.e., indexes of the nodes
+     * at which the variable is live-in.
+     */
+    private final BitSet[] liveIns;
+
+    /**
+     * Stack of (variable, node) pairs whose live-in status is just set.
+     */
+    private long[] workList = new long[16];
+
+    private int workListSize;
+
+    SparseLiveVarSolver(CFG<Stmt> cfg, boolean strongly) {
+        this.cfg = cfg;
+        this.strongly = strongly;
+        this.varIndexer = cfg.getIR().getVarIndexer();
+        this.liveIns = new BitSet[cfg.getIR().getVars().size()];
+    }
+
+    SparseLiveVarResult solve() {
+        for (Stmt stmt : cfg) {
+            // for a Copy statement in strongly live variable analysis,
+            // its used variable is live only when its defined variable
+            // is live, which is handled during the exploration
+            if (!(strongly && stmt instanceof Copy)) {
+                for (RValue use : stmt.getUses()) {
+                    if (use instanceof Var var) {
+                        setLiveIn(var, cfg.getIndex(stmt));
+                    }
+                }
+            }
+        }
+        int n = cfg.getNumberOfNodes();
+        while (workListSize > 0) {
+            long item = workList[--workListSize];
+            Var var = varIndexer.getObject((int) (item / n));
+            Stmt node = cfg.getNode((int) (item % n));
+            for (Stmt pred : cfg.getPredsOf(node)) {
+                // var is live-out at pred
+                if (strongly && pred instanceof Copy copy &&
+                        copy.getLValue().equals(var)) {
+                    setLiveIn(copy.getRValue(), cfg.getIndex(pred));
+                }
+                if (!var.equals(pred.getDef().orElse(null))) {
+                    setLiveIn(var, cfg.getIndex(pred));
+                }
+            }
+        }
+        return new SparseLiveVarResult(this::getInFact, this::getOutFact,
+                this::isLiveOut);
+    }
+
+    private void setLiveIn(Var var, int node) {
+        int varIndex = varIndexer.getIndex(var);
+        BitSet liveIn = liveIns[varIndex];
+        if (liveIn == null) {
+            liveIn = liveIns[varIndex] = new BitSet();
+        }
+        if (!liveIn.get(node)) {
+            liveIn.set(node);
+            if (workListSize == workList.length) {
+                workList = Arrays.copyOf(workList, workList.length * 2);
+            }
+            workList[workListSize++] =
+                    (long) varIndex * cfg.getNumberOfNodes() + node;
+        }
+    }
+
+    private SetFact<Var> newFact() {
+        return new SetFact<>(new IndexerBitSet<>(varIndexer, false));
+    }
+
+    private SetFact<Var> getInFact(Stmt stmt) {
+        SetFact<Var> in = newFact();
+        int node = cfg.getIndex(stmt);
+        for (int i = 0; i < liveIns.length; ++i) {
+            if (liveIns[i] != null && liveIns[i].get(node)) {
+                in.add(varIndexer.getObject(i));
+            }
+        }
+        return in;
+    }
+
+    private boolean isLiveOut(Stmt stmt, Var var) {
+        BitSet liveIn = liveIns[varIndexer.getIndex(var)];
+        if (liveIn != null) {
+            for (Stmt succ : cfg.getSuccsOf(stmt)) {
+                if (liveIn.get(cfg.getIndex(succ))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private SetFact<Var> getOutFact(Stmt stmt) {
+        SetFact<Var> out = newFact();
+        for (Stmt succ : cfg.getSuccsOf(stmt)) {
+            out.union(getInFact(succ));
+        }
+        return out;
+    }
+}
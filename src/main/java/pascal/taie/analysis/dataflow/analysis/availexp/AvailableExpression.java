@@ -24,21 +24,32 @@ package pascal.taie.analysis.dataflow.analysis.availexp;
 
 import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
 import pascal.taie.analysis.dataflow.analysis.AnalysisDriver;
+import pascal.taie.analysis.dataflow.analysis.GenKillAnalysis;
+import pascal.taie.analysis.dataflow.fact.BitVectorFact;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.BinaryExp;
 import pascal.taie.ir.exp.CastExp;
 import pascal.taie.ir.exp.Exp;
 import pascal.taie.ir.exp.InstanceOfExp;
+import pascal.taie.ir.exp.RValue;
 import pascal.taie.ir.exp.UnaryExp;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.DefinitionStmt;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.util.Indexer;
 import pascal.taie.util.SimpleIndexer;
+import pascal.taie.util.collection.IndexMap;
 import pascal.taie.util.collection.IndexerBitSet;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Available expression analysis on local variables.
  * In Tai-e IR, Exp.equals(Object) test equality by object identity,
@@ -56,6 +67,15 @@ public class AvailableExpression extends AnalysisDriver<Stmt, SetFact<ExpWrapper
         super(config);
     }
 
+    @Override
+    public DataflowResult<Stmt, SetFact<ExpWrapper>> analyze(IR ir) {
+        if (getOptions().getBoolean("bit-vector")) {
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            return new BitVectorAnalysis(cfg).solve();
+        }
+        return super.analyze(ir);
+    }
+
     @Override
     protected Analysis makeAnalysis(CFG<Stmt> cfg) {
         return new Analysis(cfg);
@@ -145,4 +165,84 @@ public class AvailableExpression extends AnalysisDriver<Stmt, SetFact<ExpWrapper
                     exp instanceof UnaryExp;
         }
     }
+
+    /**
+     * Available expression analysis on bit vectors, which are indexed by
+     * the indexes of (relevant) expressions in the CFG.
+     */
+    private static class BitVectorAnalysis extends GenKillAnalysis<Stmt, ExpWrapper> {
+
+        private final Indexer<ExpWrapper> expIndexer;
+
+        /**
+         * Number of expressions in the CFG.
+         */
+        private final int size;
+
+        /**
+         * Maps a variable to the expressions that use it, i.e.,
+         * the kill set of the definitions of the variable.
+         */
+        private final Map<Var, BitVectorFact> kills;
+
+        private BitVectorAnalysis(CFG<Stmt> cfg) {
+            super(cfg, true);
+            expIndexer = new SimpleIndexer<>();
+            List<Exp> exps = new ArrayList<>();
+            cfg.forEach(stmt -> {
+                if (stmt instanceof DefinitionStmt<?, ?> defStmt
+                        && Analysis.isRelevant(defStmt.getRValue())) {
+                    ExpWrapper expWrapper = new ExpWrapper(defStmt.getRValue());
+                    if (expIndexer.getIndex(expWrapper) == exps.size()) {
+                        exps.add(expWrapper.get());
+                    }
+                }
+            });
+            size = exps.size();
+            IR ir = cfg.getIR();
+            kills = new IndexMap<>(ir.getVarIndexer(), ir.getVars().size());
+            for (int i = 0; i < size; ++i) {
+                for (RValue use : exps.get(i).getUses()) {
+                    if (use instanceof Var var) {
+                        kills.computeIfAbsent(var, __ -> newFact()).set(i);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean isForward() {
+            return true;
+        }
+
+        @Override
+        protected Indexer<ExpWrapper> getIndexer() {
+            return expIndexer;
+        }
+
+        @Override
+        protected int getSize() {
+            return size;
+        }
+
+        @Override
+        protected BitVectorFact computeGen(Stmt stmt) {
+            if (stmt instanceof DefinitionStmt<?, ?> defStmt
+                    && Analysis.isRelevant(defStmt.getRValue())) {
+                BitVectorFact gen = newFact();
+                gen.set(expIndexer.getIndex(new ExpWrapper(defStmt.getRValue())));
+                return gen;
+            }
+            return null;
+        }
+
+        @Override
+        protected BitVectorFact computeKill(Stmt stmt) {
+            if (stmt instanceof DefinitionStmt<?, ?> defStmt
+                    && defStmt.getLValue() instanceof Var defVar) {
+                return kills.get(defVar);
+            }
+            return null;
+        }
+    }
 }
@@ -22,9 +22,13 @@
 
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
 import pascal.taie.analysis.dataflow.analysis.AnalysisDriver;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.analysis.graph.cfg.CFGEdge;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
@@ -44,8 +48,24 @@ public class ConstantPropagation extends AnalysisDriver<Stmt, CPFact> {
 
     public static final String ID = "const-prop";
 
+    private static final Logger logger = LogManager.getLogger(ConstantPropagation.class);
+
     public ConstantPropagation(AnalysisConfig config) {
         super(config);
+        if (getOptions().getBoolean("sparse")
+                && getOptions().getBoolean("edge-refine")) {
+            logger.warn("Sparse constant propagation does not support" +
+                    " edge-refine, which is ignored");
+        }
+    }
+
+    @Override
+    public DataflowResult<Stmt, CPFact> analyze(IR ir) {
+        if (getOptions().getBoolean("sparse")) {
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            return new SparseCPSolver(makeAnalysis(cfg)).solve();
+        }
+        return super.analyze(ir);
     }
 
     @Override
@@ -0,0 +1,58 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.SparseDataflowResult;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Result of {@link SparseCPSolver}. Besides the in/out facts, which are
+ * reconstructed from the values of all variables, it answers the value
+ * of a single variable at a statement, which only looks up the version
+ * of the variable reaching the statement.
+ */
+public class SparseCPResult extends SparseDataflowResult<Stmt, CPFact> {
+
+    private final BiFunction<Stmt, Var, Value> valueGetter;
+
+    SparseCPResult(Function<Stmt, CPFact> inFactBuilder,
+                   Function<Stmt, CPFact> outFactBuilder,
+                   BiFunction<Stmt, Var, Value> valueGetter) {
+        super(inFactBuilder, outFactBuilder);
+        this.valueGetter = valueGetter;
+    }
+
+    /**
+     * @return the value of given variable just before given statement,
+     * i.e., the same as {@code getInFact(stmt).get(var)}.
+     */
+    public Value getValue(Stmt stmt, Var var) {
+        CPFact in = getExplicitInFact(stmt);
+        return in != null ? in.get(var) : valueGetter.apply(stmt, var);
+    }
+}
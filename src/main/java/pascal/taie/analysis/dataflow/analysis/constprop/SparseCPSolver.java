@@ -0,0 +1,147 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.defuse.SSADefUse;
+import pascal.taie.analysis.defuse.SSADefUse.Version;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.exp.Exps;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.SetQueue;
+
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Sparse solver for constant propagation.
+ * <p>
+ * Instead of propagating a {@link CPFact} through every statement,
+ * this solver keeps one {@link Value} for each version of int variables
+ * in {@link SSADefUse}, i.e., only at definitions and merge points, and
+ * propagates changed values along def-use chains. The in/out facts of
+ * statements are reconstructed on demand from the versions reaching
+ * the statements, and they are not cached, so that the memory of
+ * the result is bounded by the values of the versions. The value of
+ * a single variable at a statement can also be queried via
+ * {@link SparseCPResult#getValue(Stmt, Var)}, which avoids building
+ * the whole fact.
+ * <p>
+ * The results are the same as the ones of the dense solver without
+ * edge refinement, which is not supported by this solver.
+ */
+class SparseCPSolver {
+
+    private final ConstantPropagation.Analysis analysis;
+
+    private final SSADefUse ssa;
+
+    private final Map<Version, Value> values;
+
+    SparseCPSolver(ConstantPropagation.Analysis analysis) {
+        this.analysis = analysis;
+        CFG<Stmt> cfg = analysis.getCFG();
+        this.ssa = new SSADefUse(cfg, v -> Exps.holdsInt(v) && !v.isConst());
+        this.values = Maps.newHybridMap();
+    }
+
+    SparseCPResult solve() {
+        Queue<Version> workList = new SetQueue<>();
+        for (Var var : ssa.getVars()) {
+            for (Version v : ssa.getVersions(var)) {
+                if (v.getKind() == SSADefUse.Kind.PARAM) {
+                    // make conservative assumption about parameters
+                    values.put(v, Value.getNAC());
+                    addUsers(v, workList);
+                } else {
+                    workList.add(v);
+                }
+            }
+        }
+        while (!workList.isEmpty()) {
+            Version v = workList.poll();
+            Value value = v.getKind() == SSADefUse.Kind.PHI ?
+                    meetOperands(v) : evaluateDef(v);
+            if (!value.equals(getValue(v))) {
+                values.put(v, value);
+                addUsers(v, workList);
+            }
+        }
+        return new SparseCPResult(this::getInFact, this::getOutFact,
+                this::getValueBefore);
+    }
+
+    private void addUsers(Version v, Queue<Version> workList) {
+        for (Stmt user : v.getUsers()) {
+            Version def = ssa.getDef(user);
+            if (def != null) {
+                workList.add(def);
+            }
+        }
+        workList.addAll(v.getPhiUsers());
+    }
+
+    private Value getValue(Version v) {
+        return values.getOrDefault(v, Value.getUndef());
+    }
+
+    private Value meetOperands(Version phi) {
+        Value result = Value.getUndef();
+        for (Version op : phi.getOperands()) {
+            result = analysis.meetValue(result, getValue(op));
+        }
+        return result;
+    }
+
+    private Value evaluateDef(Version def) {
+        Stmt stmt = def.getStmt();
+        CPFact env = new CPFact();
+        for (RValue use : stmt.getUses()) {
+            if (use instanceof Var var) {
+                env.update(var, getValueBefore(stmt, var));
+            }
+        }
+        return Evaluator.evaluate(((DefinitionStmt<?, ?>) stmt).getRValue(), env);
+    }
+
+    private Value getValueBefore(Stmt stmt, Var var) {
+        return getValue(ssa.getVersionBefore(stmt, var));
+    }
+
+    private CPFact getInFact(Stmt stmt) {
+        CPFact in = new CPFact();
+        for (Var var : ssa.getVars()) {
+            in.update(var, getValueBefore(stmt, var));
+        }
+        return in;
+    }
+
+    private CPFact getOutFact(Stmt stmt) {
+        CPFact out = new CPFact();
+        analysis.transferNode(stmt, getInFact(stmt), out);
+        return out;
+    }
+}
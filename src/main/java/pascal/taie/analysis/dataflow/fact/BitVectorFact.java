@@ -0,0 +1,256 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.Copyable;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+/**
+ * Fixed-size bit vector for data-flow facts of gen/kill analyses, whose
+ * elements are represented by their dense indexes. All operations work
+ * word by word on the underlying array, and none of them (except
+ * {@link #copy()}) allocates memory, so they can be used in the hot
+ * loop of data-flow solvers.
+ */
+public class BitVectorFact implements Copyable<BitVectorFact> {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    private final int size;
+
+    private final long[] words;
+
+    /**
+     * Creates an empty bit vector which can hold elements
+     * indexed from 0 to {@code size - 1}.
+     */
+    public BitVectorFact(int size) {
+        this.size = size;
+        this.words = new long[(size + 63) >>> ADDRESS_BITS_PER_WORD];
+    }
+
+    private BitVectorFact(BitVectorFact other) {
+        this.size = other.size;
+        this.words = other.words.clone();
+    }
+
+    /**
+     * @return the number of elements that this bit vector can hold.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean get(int index) {
+        return (words[index >>> ADDRESS_BITS_PER_WORD] & (1L << index)) != 0;
+    }
+
+    /**
+     * Adds the element at given index.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean set(int index) {
+        int i = index >>> ADDRESS_BITS_PER_WORD;
+        long old = words[i];
+        words[i] = old | (1L << index);
+        return words[i] != old;
+    }
+
+    /**
+     * Removes the element at given index.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean clear(int index) {
+        int i = index >>> ADDRESS_BITS_PER_WORD;
+        long old = words[i];
+        words[i] = old & ~(1L << index);
+        return words[i] != old;
+    }
+
+    /**
+     * Adds all elements to this fact.
+     */
+    public void setAll() {
+        Arrays.fill(words, -1L);
+        int rest = size & 63;
+        if (rest != 0) {
+            words[words.length - 1] = (1L << rest) - 1;
+        }
+    }
+
+    /**
+     * Clears all content in this fact.
+     */
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+
+    /**
+     * Sets the content of this fact to the same as other fact.
+     */
+    public void set(BitVectorFact other) {
+        System.arraycopy(other.words, 0, words, 0, words.length);
+    }
+
+    /**
+     * Unions other fact into this fact.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean union(BitVectorFact other) {
+        boolean changed = false;
+        for (int i = 0; i < words.length; ++i) {
+            long old = words[i];
+            long w = old | other.words[i];
+            if (w != old) {
+                words[i] = w;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Intersects this fact with other fact.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean intersect(BitVectorFact other) {
+        boolean changed = false;
+        for (int i = 0; i < words.length; ++i) {
+            long old = words[i];
+            long w = old & other.words[i];
+            if (w != old) {
+                words[i] = w;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Sets the content of this fact to {@code (source - kill) + gen},
+     * i.e., applies a gen/kill transfer function to {@code source}.
+     * Either {@code gen} or {@code kill} can be {@code null}, which
+     * represents the empty set.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean transfer(BitVectorFact source,
+                            BitVectorFact gen, BitVectorFact kill) {
+        long[] src = source.words;
+        boolean changed = false;
+        for (int i = 0; i < words.length; ++i) {
+            long w = src[i];
+            if (kill != null) {
+                w &= ~kill.words[i];
+            }
+            if (gen != null) {
+                w |= gen.words[i];
+            }
+            if (w != words[i]) {
+                words[i] = w;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return the index of the first element that occurs on or after
+     * the given index, or -1 if there is no such element.
+     */
+    public int nextSetBit(int fromIndex) {
+        int i = fromIndex >>> ADDRESS_BITS_PER_WORD;
+        if (i >= words.length) {
+            return -1;
+        }
+        long word = words[i] & (-1L << fromIndex);
+        while (true) {
+            if (word != 0) {
+                return (i << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            }
+            if (++i == words.length) {
+                return -1;
+            }
+            word = words[i];
+        }
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of elements in this fact.
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Creates and returns a copy of this fact.
+     */
+    @Override
+    public BitVectorFact copy() {
+        return new BitVectorFact(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BitVectorFact that)) {
+            return false;
+        }
+        return size == that.size && Arrays.equals(words, that.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            joiner.add(Integer.toString(i));
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import java.util.function.Function;
+
+/**
+ * A {@link DataflowResult} produced by sparse solvers, which do not keep
+ * the data-flow facts of every node. Instead, the in/out facts of a node
+ * are reconstructed from the sparse solution on demand, and they are not
+ * cached, so that the memory consumed by the result is still bounded by
+ * the sparse solution. Facts that are explicitly associated with nodes
+ * via {@link #setInFact} and {@link #setOutFact} take precedence over
+ * the reconstructed ones.
+ *
+ * @param <Node> type of nodes
+ * @param <Fact> type of data-flow facts
+ */
+public class SparseDataflowResult<Node, Fact> extends DataflowResult<Node, Fact> {
+
+    private final Function<Node, Fact> inFactBuilder;
+
+    private final Function<Node, Fact> outFactBuilder;
+
+    /**
+     * @param inFactBuilder  reconstructs the flowing-in fact of a node
+     * @param outFactBuilder reconstructs the flowing-out fact of a node
+     */
+    public SparseDataflowResult(Function<Node, Fact> inFactBuilder,
+                                Function<Node, Fact> outFactBuilder) {
+        this.inFactBuilder = inFactBuilder;
+        this.outFactBuilder = outFactBuilder;
+    }
+
+    @Override
+    public Fact getInFact(Node node) {
+        Fact fact = super.getInFact(node);
+        return fact != null ? fact : inFactBuilder.apply(node);
+    }
+
+    @Override
+    public Fact getOutFact(Node node) {
+        Fact fact = super.getOutFact(node);
+        return fact != null ? fact : outFactBuilder.apply(node);
+    }
+
+    /**
+     * @return the flowing-in fact explicitly associated with given node,
+     * or {@code null} if the fact of the node is reconstructed on demand.
+     */
+    protected Fact getExplicitInFact(Node node) {
+        return super.getInFact(node);
+    }
+
+    /**
+     * @return the flowing-out fact explicitly associated with given node,
+     * or {@code null} if the fact of the node is reconstructed on demand.
+     */
+    protected Fact getExplicitOutFact(Node node) {
+        return super.getOutFact(node);
+    }
+}
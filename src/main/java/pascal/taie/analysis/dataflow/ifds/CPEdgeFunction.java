@@ -0,0 +1,212 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ifds;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Evaluator;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.ir.exp.Exp;
+import pascal.taie.ir.exp.Var;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Edge functions of {@link IDEConstantPropagation}. Each function has
+ * the form {@code λv. meet(g(v), c)}, where {@code c} is a constant part
+ * and {@code g} is one of:
+ * <ul>
+ *     <li>TOP: ignores {@code v} and returns UNDEF;</li>
+ *     <li>OPS: applies a sequence of operations to {@code v}, e.g.,
+ *     {@code λv. (v + 1) * 2}, and the empty sequence is the identity;</li>
+ *     <li>NAC: returns UNDEF if {@code v} is UNDEF, otherwise NAC.</li>
+ * </ul>
+ * The functions are closed under composition and meet. To guarantee
+ * termination, the length of operation sequences is bounded by
+ * {@link #MAX_OPERATIONS}, and longer sequences are approximated by NAC.
+ */
+final class CPEdgeFunction implements EdgeFunction<Value> {
+
+    /**
+     * Maximum number of composed operations.
+     */
+    private static final int MAX_OPERATIONS = 8;
+
+    private static final ConstantPropagation.Analysis cp =
+            new ConstantPropagation.Analysis(null, false);
+
+    static final CPEdgeFunction IDENTITY =
+            new CPEdgeFunction(Kind.OPS, List.of(), Value.getUndef());
+
+    static final CPEdgeFunction NAC =
+            new CPEdgeFunction(Kind.NAC, List.of(), Value.getUndef());
+
+    private enum Kind {
+        TOP, OPS, NAC
+    }
+
+    private final Kind kind;
+
+    private final List<Operation> operations;
+
+    private final Value constant;
+
+    private CPEdgeFunction(Kind kind, List<Operation> operations, Value constant) {
+        this.kind = kind;
+        this.operations = operations;
+        this.constant = constant;
+    }
+
+    private static CPEdgeFunction of(Kind kind, List<Operation> operations,
+                                     Value constant) {
+        if (constant.isNAC()) {
+            // λv. meet(g(v), NAC) always returns NAC
+            return constant(constant);
+        }
+        return new CPEdgeFunction(kind, operations, constant);
+    }
+
+    /**
+     * @return the function which always returns {@code value}.
+     */
+    static CPEdgeFunction constant(Value value) {
+        return new CPEdgeFunction(Kind.TOP, List.of(), value);
+    }
+
+    /**
+     * @return the function which evaluates {@code exp} with {@code var}
+     * bound to the argument, and other variables bound to {@code env}.
+     */
+    static CPEdgeFunction operation(Exp exp, Var var, CPFact env) {
+        return new CPEdgeFunction(Kind.OPS,
+                List.of(new Operation(exp, var, env)), Value.getUndef());
+    }
+
+    @Override
+    public Value computeTarget(Value source) {
+        return cp.meetValue(apply(source), constant);
+    }
+
+    private Value apply(Value v) {
+        return switch (kind) {
+            case TOP -> Value.getUndef();
+            case NAC -> v.isUndef() ? v : Value.getNAC();
+            case OPS -> {
+                for (Operation op : operations) {
+                    v = op.apply(v);
+                }
+                yield v;
+            }
+        };
+    }
+
+    @Override
+    public EdgeFunction<Value> composeWith(EdgeFunction<Value> second) {
+        CPEdgeFunction g = (CPEdgeFunction) second;
+        if (kind == Kind.TOP || g.kind == Kind.TOP) {
+            // this function or the second one is a constant function
+            return constant(g.computeTarget(computeTarget(Value.getUndef())));
+        }
+        if (constant.isConstant()) {
+            // g(meet(f(v), c)) may differ from meet(g(f(v)), g(c)) when
+            // g is not injective, thus conservatively return NAC when
+            // f(v) is defined
+            return of(Kind.NAC, List.of(), g.computeTarget(constant));
+        }
+        // now this function is λv. f(v), where f is OPS or NAC
+        if (kind == Kind.OPS && g.kind == Kind.OPS &&
+                operations.size() + g.operations.size() <= MAX_OPERATIONS) {
+            List<Operation> ops = new ArrayList<>(operations);
+            ops.addAll(g.operations);
+            return of(Kind.OPS, List.copyOf(ops), g.constant);
+        }
+        return of(Kind.NAC, List.of(), g.constant);
+    }
+
+    @Override
+    public EdgeFunction<Value> meetWith(EdgeFunction<Value> other) {
+        CPEdgeFunction g = (CPEdgeFunction) other;
+        if (equals(g)) {
+            return this;
+        }
+        Value c = cp.meetValue(constant, g.constant);
+        if (kind == Kind.TOP) {
+            return of(g.kind, g.operations, c);
+        } else if (g.kind == Kind.TOP) {
+            return of(kind, operations, c);
+        } else if (kind == g.kind && operations.equals(g.operations)) {
+            return of(kind, operations, c);
+        } else {
+            return of(Kind.NAC, List.of(), c);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CPEdgeFunction that)) {
+            return false;
+        }
+        return kind == that.kind &&
+                operations.equals(that.operations) &&
+                constant.equals(that.constant);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, operations, constant);
+    }
+
+    @Override
+    public String toString() {
+        String g = switch (kind) {
+            case TOP -> "TOP";
+            case NAC -> "NAC";
+            case OPS -> operations.isEmpty() ? "v" : operations.toString();
+        };
+        return constant.isUndef() ? "λv." + g : "λv.meet(" + g + ", " + constant + ")";
+    }
+
+    /**
+     * Evaluates {@code exp} with {@code var} bound to the argument value.
+     *
+     * @param env values of the other variables in {@code exp}
+     */
+    private record Operation(Exp exp, Var var, CPFact env) {
+
+        Value apply(Value v) {
+            CPFact in = env.copy();
+            in.update(var, v);
+            return Evaluator.evaluate(exp, in);
+        }
+
+        @Override
+        public String toString() {
+            return exp + "[" + var + "]";
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ifds;
+
+/**
+ * Edge function of IDE problems, which transforms the value associated
+ * with a data-flow fact along an edge of the exploded super-graph.
+ * <p>
+ * The solver relies on {@link #equals(Object)} to detect whether
+ * a jump function has changed, thus implementations must provide
+ * value-based equality, and the meet of edge functions must form
+ * a lattice of finite height to guarantee termination.
+ *
+ * @param <Value> type of values
+ */
+public interface EdgeFunction<Value> {
+
+    /**
+     * @return the value obtained by applying this function to {@code source}.
+     */
+    Value computeTarget(Value source);
+
+    /**
+     * @return the function that first applies this function,
+     * and then applies {@code second}.
+     */
+    EdgeFunction<Value> composeWith(EdgeFunction<Value> second);
+
+    /**
+     * @return the meet (greatest lower bound) of this function and {@code other}.
+     */
+    EdgeFunction<Value> meetWith(EdgeFunction<Value> other);
+}
@@ -0,0 +1,439 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ifds;
+
+import pascal.taie.World;
+import pascal.taie.analysis.ProgramAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Evaluator;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.solver.Solver;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.Exp;
+import pascal.taie.ir.exp.Exps;
+import pascal.taie.ir.exp.InvokeDynamic;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.IntType;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static pascal.taie.ir.exp.Exps.holdsInt;
+
+/**
+ * Implementation of interprocedural constant propagation for int values
+ * as an IDE problem (linear constant propagation of Sagiv et al.),
+ * which distinguishes the values of a method under different calling
+ * contexts, and summarizes each method once for each entry fact.
+ * <p>
+ * The data-flow facts are int variables, and the value of each variable
+ * is computed by {@link CPEdgeFunction}s. An expression which depends on
+ * more than one non-constant variable is not distributive, thus the
+ * analysis evaluates its operands by intra-procedural constant propagation,
+ * which is sound for all calling contexts, and treats the result as NAC if
+ * more than one operand is still not a constant. In that case, the analysis
+ * is solved again, where the operands are also evaluated by the result of
+ * the previous round (which is the meet over all calling contexts, thus
+ * also sound for all of them), until the non-distributive expressions
+ * do not change, or the number of rounds reaches option {@code max-rounds}.
+ * <p>
+ * The intra-procedural results are computed privately for each method
+ * (thus they do not overwrite the results of {@link ConstantPropagation}
+ * stored in IR, which may use different options), and the result of the
+ * analysis is the {@link IDEResult}, from which the value of a variable
+ * at a statement is queried directly.
+ */
+public class IDEConstantPropagation extends
+        ProgramAnalysis<IDEResult<Stmt, Var, Value>> {
+
+    public static final String ID = "ide-const-prop";
+
+    /**
+     * Whether the intra-procedural constant propagation, which is used to
+     * evaluate the operands of expressions, uses control-flow edge
+     * information to refine analysis results.
+     */
+    private final boolean edgeRefine;
+
+    /**
+     * Maximum number of solving rounds.
+     */
+    private final int maxRounds;
+
+    /**
+     * Intra-procedural constant propagation results of the methods,
+     * which are computed on demand, and shared by all rounds.
+     */
+    private final Map<JMethod, DataflowResult<Stmt, CPFact>> intraResults =
+            Maps.newMap();
+
+    public IDEConstantPropagation(AnalysisConfig config) {
+        super(config);
+        edgeRefine = getOptions().getBoolean("edge-refine");
+        maxRounds = getOptions().getInt("max-rounds");
+    }
+
+    @Override
+    public IDEResult<Stmt, Var, Value> analyze() {
+        ICFG<JMethod, Stmt> icfg = World.get().getResult(ICFGBuilder.ID);
+        Problem problem = new Problem(icfg, null);
+        IDEResult<Stmt, Var, Value> result = new IDESolver<>(problem, icfg).solve();
+        Map<Stmt, List<Var>> nonDistributive = problem.getNonDistributiveUses();
+        for (int round = 1; round < maxRounds && !nonDistributive.isEmpty(); ++round) {
+            problem = new Problem(icfg, result);
+            result = new IDESolver<>(problem, icfg).solve();
+            Map<Stmt, List<Var>> newNonDistributive = problem.getNonDistributiveUses();
+            if (newNonDistributive.equals(nonDistributive)) {
+                break;
+            }
+            nonDistributive = newNonDistributive;
+        }
+        intraResults.clear();
+        return result;
+    }
+
+    private DataflowResult<Stmt, CPFact> getIntraResult(JMethod method) {
+        return intraResults.computeIfAbsent(method, m ->
+                Solver.<Stmt, CPFact>getSolver().solve(
+                        new ConstantPropagation.Analysis(
+                                m.getIR().getResult(CFGBuilder.ID), edgeRefine)));
+    }
+
+    /**
+     * Information about a statement which defines an int variable.
+     *
+     * @param lhs      the defined variable
+     * @param uses     the operands of the right-hand side which are not
+     *                 constants according to intra-procedural constant propagation
+     * @param function the edge function from zero fact (if {@code uses}
+     *                 is empty) or from each variable in {@code uses} to {@code lhs}
+     */
+    private record Definition(Var lhs, List<Var> uses, CPEdgeFunction function) {
+    }
+
+    private class Problem implements IDEProblem<JMethod, Stmt, Var, Value> {
+
+        private final ICFG<JMethod, Stmt> icfg;
+
+        private final Var zero = new Var(null, "@zero", IntType.INT, -1);
+
+        private final ConstantPropagation.Analysis cp =
+                new ConstantPropagation.Analysis(null, false);
+
+        /**
+         * Result of the previous round, or {@code null} in the first round.
+         */
+        @Nullable
+        private final IDEResult<Stmt, Var, Value> previous;
+
+        /**
+         * Lazily-computed information of the reachable int definitions.
+         */
+        private final Map<Stmt, Definition> definitions = Maps.newMap();
+
+        /**
+         * Lazily-computed IN facts refined by the result of
+         * the previous round, which are sound for all calling contexts.
+         */
+        private final Map<Stmt, CPFact> inFacts = Maps.newMap();
+
+        private Problem(ICFG<JMethod, Stmt> icfg,
+                        @Nullable IDEResult<Stmt, Var, Value> previous) {
+            this.icfg = icfg;
+            this.previous = previous;
+        }
+
+        /**
+         * @return the non-constant operands of the reachable definitions
+         * which are not distributive, i.e., have more than one such operand.
+         */
+        private Map<Stmt, List<Var>> getNonDistributiveUses() {
+            Map<Stmt, List<Var>> result = Maps.newMap();
+            definitions.forEach((stmt, def) -> {
+                if (def.uses().size() > 1) {
+                    result.put(stmt, def.uses());
+                }
+            });
+            return result;
+        }
+
+        @Override
+        public Var zeroFact() {
+            return zero;
+        }
+
+        @Override
+        public MultiMap<Stmt, Var> initialSeeds() {
+            // make conservative assumption about parameters of entry methods
+            MultiMap<Stmt, Var> seeds = Maps.newMultiMap();
+            icfg.entryMethods().forEach(method -> {
+                Stmt entry = icfg.getEntryOf(method);
+                seeds.put(entry, zero);
+                method.getIR().getParams()
+                        .stream()
+                        .filter(Exps::holdsInt)
+                        .forEach(p -> seeds.put(entry, p));
+            });
+            return seeds;
+        }
+
+        @Override
+        public FlowFunction<Var> getNormalFlowFunction(NormalEdge<Stmt> edge) {
+            Definition def = getDefinition(edge.source());
+            if (def == null) {
+                return Set::of;
+            }
+            return d -> {
+                if (d == zero) {
+                    return def.uses().isEmpty() ? Set.of(zero, def.lhs()) : Set.of(zero);
+                } else if (def.uses().contains(d)) {
+                    return d.equals(def.lhs()) ? Set.of(d) : Set.of(d, def.lhs());
+                } else {
+                    // kill the old value of LHS variable
+                    return d.equals(def.lhs()) ? Set.of() : Set.of(d);
+                }
+            };
+        }
+
+        @Override
+        public EdgeFunction<Value> getNormalEdgeFunction(
+                NormalEdge<Stmt> edge, Var source, Var target) {
+            Definition def = getDefinition(edge.source());
+            return def != null && target.equals(def.lhs()) ?
+                    def.function() : CPEdgeFunction.IDENTITY;
+        }
+
+        @Override
+        public FlowFunction<Var> getCallFlowFunction(CallEdge<Stmt> edge) {
+            // Passing arguments at call site to parameters of the callee
+            InvokeExp invokeExp = ((Invoke) edge.source()).getInvokeExp();
+            JMethod callee = edge.getCallee();
+            if (invokeExp instanceof InvokeDynamic ||
+                    !invokeExp.getMethodRef().getSubsignature()
+                            .equals(callee.getSubsignature())) {
+                // skip invokedynamic and the special call edges
+                // whose call-site subsignature does not equal to callee's
+                return d -> d == zero ? Set.of(zero) : Set.of();
+            }
+            List<Var> args = invokeExp.getArgs();
+            List<Var> params = callee.getIR().getParams();
+            CPFact in = getInFact(edge.source());
+            return d -> {
+                Set<Var> targets = Sets.newHybridSet();
+                if (d == zero) {
+                    targets.add(zero);
+                }
+                for (int i = 0; i < args.size(); ++i) {
+                    Var param = params.get(i);
+                    if (holdsInt(param)) {
+                        // constant arguments are generated from zero fact
+                        boolean isConstant = in.get(args.get(i)).isConstant();
+                        if (d == zero ? isConstant :
+                                !isConstant && d.equals(args.get(i))) {
+                            targets.add(param);
+                        }
+                    }
+                }
+                return targets;
+            };
+        }
+
+        @Override
+        public EdgeFunction<Value> getCallEdgeFunction(
+                CallEdge<Stmt> edge, Var source, Var target) {
+            if (source == zero && target != zero) {
+                InvokeExp invokeExp = ((Invoke) edge.source()).getInvokeExp();
+                int i = edge.getCallee().getIR().getParams().indexOf(target);
+                return CPEdgeFunction.constant(
+                        getInFact(edge.source()).get(invokeExp.getArg(i)));
+            }
+            return CPEdgeFunction.IDENTITY;
+        }
+
+        @Override
+        public FlowFunction<Var> getReturnFlowFunction(ReturnEdge<Stmt> edge) {
+            // Passing return value to the LHS of the call statement
+            Var lhs = ((Invoke) edge.getCallSite()).getResult();
+            if (lhs == null || !holdsInt(lhs)) {
+                return d -> d == zero ? Set.of(zero) : Set.of();
+            }
+            Value constant = getReturnConstant(edge);
+            return d -> {
+                if (d == zero) {
+                    // constant return values are generated from zero fact
+                    return constant.isUndef() ? Set.of(zero) : Set.of(zero, lhs);
+                } else if (edge.getReturnVars().contains(d) &&
+                        !getInFact(edge.source()).get(d).isConstant()) {
+                    return Set.of(lhs);
+                } else {
+                    return Set.of();
+                }
+            };
+        }
+
+        @Override
+        public EdgeFunction<Value> getReturnEdgeFunction(
+                ReturnEdge<Stmt> edge, Var source, Var target) {
+            return source == zero && target != zero ?
+                    CPEdgeFunction.constant(getReturnConstant(edge)) :
+                    CPEdgeFunction.IDENTITY;
+        }
+
+        /**
+         * @return meet of the return values which are constants according to
+         * intra-procedural constant propagation, or UNDEF if there is none.
+         */
+        private Value getReturnConstant(ReturnEdge<Stmt> edge) {
+            CPFact exitIn = getInFact(edge.source());
+            return edge.getReturnVars()
+                    .stream()
+                    .map(exitIn::get)
+                    .filter(Value::isConstant)
+                    .reduce(Value.getUndef(), cp::meetValue);
+        }
+
+        @Override
+        public FlowFunction<Var> getCallToReturnFlowFunction(CallToReturnEdge<Stmt> edge) {
+            // Kill the value of LHS variable
+            Var lhs = ((Invoke) edge.source()).getResult();
+            return d -> d.equals(lhs) ? Set.of() : Set.of(d);
+        }
+
+        @Override
+        public EdgeFunction<Value> getCallToReturnEdgeFunction(
+                CallToReturnEdge<Stmt> edge, Var source, Var target) {
+            return CPEdgeFunction.IDENTITY;
+        }
+
+        @Override
+        public EdgeFunction<Value> identity() {
+            return CPEdgeFunction.IDENTITY;
+        }
+
+        @Override
+        public Value topValue() {
+            return Value.getUndef();
+        }
+
+        @Override
+        public Value bottomValue() {
+            return Value.getNAC();
+        }
+
+        @Override
+        public Value meetValue(Value v1, Value v2) {
+            return cp.meetValue(v1, v2);
+        }
+
+        /**
+         * @return the definition information of {@code stmt},
+         * or {@code null} if it does not define an int variable.
+         */
+        private Definition getDefinition(Stmt stmt) {
+            if (stmt instanceof DefinitionStmt<?, ?> def &&
+                    !(stmt instanceof Invoke) &&
+                    def.getLValue() instanceof Var lhs && holdsInt(lhs)) {
+                return definitions.computeIfAbsent(stmt, __ ->
+                        computeDefinition(lhs, def.getRValue(), getInFact(stmt)));
+            }
+            return null;
+        }
+
+        private static Definition computeDefinition(Var lhs, Exp rhs, CPFact in) {
+            List<Var> operands;
+            if (rhs instanceof Var var) {
+                operands = List.of(var);
+            } else if (rhs instanceof BinaryExp binary) {
+                operands = List.of(binary.getOperand1(), binary.getOperand2());
+            } else {
+                // Evaluator handles other expressions without variables
+                operands = List.of();
+            }
+            List<Var> uses = new ArrayList<>(operands.size());
+            CPFact env = new CPFact();
+            for (Var operand : operands) {
+                if (holdsInt(operand)) {
+                    Value value = in.get(operand);
+                    if (value.isConstant()) {
+                        env.update(operand, value);
+                    } else if (!uses.contains(operand)) {
+                        uses.add(operand);
+                    }
+                }
+            }
+            CPEdgeFunction function = switch (uses.size()) {
+                case 0 -> CPEdgeFunction.constant(Evaluator.evaluate(rhs, env));
+                case 1 -> CPEdgeFunction.operation(rhs, uses.get(0), env);
+                default -> CPEdgeFunction.NAC;
+            };
+            return new Definition(lhs, List.copyOf(uses), function);
+        }
+
+        /**
+         * @return the IN fact of {@code stmt} computed by intra-procedural
+         * constant propagation, refined by the constants in the result of
+         * the previous round (if any), which is sound for all calling contexts.
+         */
+        private CPFact getInFact(Stmt stmt) {
+            CPFact in = getIntraResult(icfg.getContainingMethodOf(stmt))
+                    .getInFact(stmt);
+            if (in == null) {
+                in = new CPFact();
+            }
+            if (previous == null) {
+                return in;
+            }
+            CPFact intra = in;
+            return inFacts.computeIfAbsent(stmt, s -> {
+                CPFact refined = intra.copy();
+                previous.getValues(s).forEach((var, value) -> {
+                    if (value.isConstant() && !refined.get(var).isConstant()) {
+                        refined.update(var, value);
+                    }
+                });
+                return refined;
+            });
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ifds;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+
+/**
+ * Template interface for defining IDE problems. In addition to the flow
+ * functions of {@link IFDSProblem}, an IDE problem associates an
+ * {@link EdgeFunction} with each edge of the exploded super-graph,
+ * which computes the value of the target fact from the value of the
+ * source fact.
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ * @param <Fact>   type of data-flow facts
+ * @param <Value>  type of values associated with data-flow facts
+ */
+public interface IDEProblem<Method, Node, Fact, Value>
+        extends IFDSProblem<Method, Node, Fact> {
+
+    /**
+     * @return edge function for {@code source -> target}
+     * along the given intra-procedural edge.
+     */
+    EdgeFunction<Value> getNormalEdgeFunction(
+            NormalEdge<Node> edge, Fact source, Fact target);
+
+    /**
+     * @return edge function for {@code source -> target} along the given call edge.
+     */
+    EdgeFunction<Value> getCallEdgeFunction(
+            CallEdge<Node> edge, Fact source, Fact target);
+
+    /**
+     * @return edge function for {@code source -> target} along the given return edge.
+     */
+    EdgeFunction<Value> getReturnEdgeFunction(
+            ReturnEdge<Node> edge, Fact source, Fact target);
+
+    /**
+     * @return edge function for {@code source -> target}
+     * along the given call-to-return edge.
+     */
+    EdgeFunction<Value> getCallToReturnEdgeFunction(
+            CallToReturnEdge<Node> edge, Fact source, Fact target);
+
+    /**
+     * @return the identity edge function.
+     */
+    EdgeFunction<Value> identity();
+
+    /**
+     * @return the top value of the value lattice, which is associated
+     * with the facts that do not hold at a node.
+     */
+    Value topValue();
+
+    /**
+     * @return the bottom value of the value lattice, which is associated
+     * with the initial seeds.
+     */
+    Value bottomValue();
+
+    /**
+     * Meets two values.
+     * This method computes the greatest lower bound of two values.
+     */
+    Value meetValue(Value v1, Value v2);
+}
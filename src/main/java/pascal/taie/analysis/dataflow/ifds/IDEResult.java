@@ -0,0 +1,78 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ifds;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Result of IDE problems, which associates each node with
+ * the facts holding at the node and their values.
+ * The zero fact is not included in the result.
+ *
+ * @param <Node>  type of ICFG nodes
+ * @param <Fact>  type of data-flow facts
+ * @param <Value> type of values
+ */
+public class IDEResult<Node, Fact, Value> {
+
+    private final Map<Node, Map<Fact, Value>> values;
+
+    private final Value topValue;
+
+    IDEResult(Map<Node, Map<Fact, Value>> values, Value topValue) {
+        this.values = values;
+        this.topValue = topValue;
+    }
+
+    /**
+     * @return the value of {@code fact} at {@code node}. If the fact
+     * does not hold at the node, returns the top value of the problem.
+     */
+    public Value getValue(Node node, Fact fact) {
+        return getValues(node).getOrDefault(fact, topValue);
+    }
+
+    /**
+     * @return the facts holding at {@code node} together with their values.
+     */
+    public Map<Fact, Value> getValues(Node node) {
+        Map<Fact, Value> result = values.get(node);
+        return result == null ? Map.of() : Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * @return the facts holding at {@code node}.
+     */
+    public Set<Fact> getFacts(Node node) {
+        return getValues(node).keySet();
+    }
+
+    /**
+     * @return the nodes which are reached by at least one fact.
+     */
+    public Set<Node> getNodes() {
+        return Collections.unmodifiableSet(values.keySet());
+    }
+}
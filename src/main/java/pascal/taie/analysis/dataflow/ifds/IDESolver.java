@@ -0,0 +1,397 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ifds;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.TwoKeyMap;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Tabulation solver for IDE problems, based on the algorithm in
+ * Sagiv, Reps and Horwitz, "Precise interprocedural dataflow analysis
+ * with applications to constant propagation" (TCS'96), with the
+ * demand-driven fact creation of Naeem, Lhoták and Rodriguez,
+ * "Practical extensions to the IFDS algorithm" (CC'10).
+ * <p>
+ * The solver works in two phases:
+ * <ol>
+ *     <li>Phase I computes jump functions, i.e., the composed edge functions
+ *     of the same-level realizable paths from the entry of a method to each
+ *     node reachable from the initial seeds. Whenever the exit of a method
+ *     is reached, the jump function is recorded as an end summary of the
+ *     method for the entry fact, which is reused by all call sites that
+ *     pass the same fact to the method.</li>
+ *     <li>Phase II computes the values at method entries and call sites,
+ *     then evaluates the jump functions of the other nodes.</li>
+ * </ol>
+ * To keep the memory footprint proportional to the reachable part of
+ * the exploded super-graph, the solver does not allocate anything for
+ * the nodes and facts that are never reached, releases the summaries once
+ * phase I finishes, and releases the jump functions of each node as soon
+ * as its values are computed.
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ * @param <Fact>   type of data-flow facts
+ * @param <Value>  type of values
+ */
+public class IDESolver<Method, Node, Fact, Value> {
+
+    private static final Logger logger = LogManager.getLogger(IDESolver.class);
+
+    private final IDEProblem<Method, Node, Fact, Value> problem;
+
+    private final ICFG<Method, Node> icfg;
+
+    /**
+     * Jump functions indexed by target node, target fact and source fact
+     * (at the entry of the method containing the target node).
+     */
+    private Map<Node, Map<Fact, Map<Fact, EdgeFunction<Value>>>> jumpFunctions;
+
+    /**
+     * End summaries indexed by method entry and entry fact.
+     * Each summary maps a fact at the method exit to the jump function
+     * from the entry fact to the exit fact.
+     */
+    private TwoKeyMap<Node, Fact, Map<Fact, EdgeFunction<Value>>> endSummaries;
+
+    /**
+     * Incoming call sites indexed by method entry and entry fact.
+     * Each call site is associated with the facts at the call site
+     * which generate the entry fact.
+     */
+    private TwoKeyMap<Node, Fact, MultiMap<Node, Fact>> incoming;
+
+    /**
+     * Reachable call sites indexed by the entry of their containing methods.
+     */
+    private MultiMap<Node, Node> callSites;
+
+    private Deque<PathEdge<Node, Fact>> workList;
+
+    private long nPathEdges;
+
+    public IDESolver(IDEProblem<Method, Node, Fact, Value> problem,
+                     ICFG<Method, Node> icfg) {
+        this.problem = problem;
+        this.icfg = icfg;
+    }
+
+    /**
+     * Solves the given IFDS problem.
+     *
+     * @return the result which maps each fact holding at a node to {@code true}.
+     */
+    public static <Method, Node, Fact> IDEResult<Node, Fact, Boolean> solve(
+            IFDSProblem<Method, Node, Fact> problem, ICFG<Method, Node> icfg) {
+        return new IDESolver<>(new IFDSProblemAdapter<>(problem), icfg).solve();
+    }
+
+    public IDEResult<Node, Fact, Value> solve() {
+        jumpFunctions = Maps.newMap();
+        endSummaries = Maps.newTwoKeyMap();
+        incoming = Maps.newTwoKeyMap();
+        callSites = Maps.newMultiMap();
+        workList = new ArrayDeque<>();
+        computeJumpFunctions();
+        logger.info("IDE solver: {} path edges, {} nodes, {} end summaries",
+                nPathEdges, jumpFunctions.size(), endSummaries.size());
+        // summaries are only used by phase I
+        endSummaries = null;
+        incoming = null;
+        workList = null;
+        IDEResult<Node, Fact, Value> result = computeValues();
+        jumpFunctions = null;
+        callSites = null;
+        return result;
+    }
+
+    // ---------- Phase I: computing jump functions ----------
+
+    private void computeJumpFunctions() {
+        problem.initialSeeds().forEach((node, fact) ->
+                propagate(fact, node, fact, problem.identity()));
+        while (!workList.isEmpty()) {
+            PathEdge<Node, Fact> edge = workList.poll();
+            Node node = edge.target();
+            EdgeFunction<Value> f = getJumpFunction(
+                    edge.source(), node, edge.fact());
+            if (icfg.isCallSite(node)) {
+                processCall(edge, f);
+            } else if (isExit(node)) {
+                processExit(edge, f);
+            } else {
+                processNormal(edge, f);
+            }
+        }
+    }
+
+    private void processNormal(PathEdge<Node, Fact> edge, EdgeFunction<Value> f) {
+        Fact d2 = edge.fact();
+        for (ICFGEdge<Node> outEdge : icfg.getOutEdgesOf(edge.target())) {
+            if (outEdge instanceof NormalEdge<Node> normalEdge) {
+                FlowFunction<Fact> flow = problem.getNormalFlowFunction(normalEdge);
+                for (Fact d3 : flow.computeTargets(d2)) {
+                    EdgeFunction<Value> f3 = problem.getNormalEdgeFunction(
+                            normalEdge, d2, d3);
+                    propagate(edge.source(), normalEdge.target(), d3,
+                            f.composeWith(f3));
+                }
+            }
+        }
+    }
+
+    private void processCall(PathEdge<Node, Fact> edge, EdgeFunction<Value> f) {
+        Fact d1 = edge.source();
+        Node callSite = edge.target();
+        Fact d2 = edge.fact();
+        callSites.put(getEntryOf(callSite), callSite);
+        for (ICFGEdge<Node> outEdge : icfg.getOutEdgesOf(callSite)) {
+            if (outEdge instanceof CallEdge<Node> callEdge) {
+                Node entry = callEdge.target();
+                FlowFunction<Fact> flow = problem.getCallFlowFunction(callEdge);
+                for (Fact d3 : flow.computeTargets(d2)) {
+                    propagate(d3, entry, d3, problem.identity());
+                    incoming.computeIfAbsent(entry, d3,
+                                    (__, ___) -> Maps.newMultiMap())
+                            .put(callSite, d2);
+                    // reuse end summaries of the callee
+                    Map<Fact, EdgeFunction<Value>> summaries =
+                            endSummaries.get(entry, d3);
+                    if (summaries != null) {
+                        EdgeFunction<Value> fCall = f.composeWith(
+                                problem.getCallEdgeFunction(callEdge, d2, d3));
+                        Node exit = icfg.getExitOf(icfg.getContainingMethodOf(entry));
+                        summaries.forEach((d4, fSummary) ->
+                                processReturn(exit, callSite, d1, d4,
+                                        fCall.composeWith(fSummary)));
+                    }
+                }
+            } else if (outEdge instanceof CallToReturnEdge<Node> ctrEdge) {
+                FlowFunction<Fact> flow = problem.getCallToReturnFlowFunction(ctrEdge);
+                for (Fact d3 : flow.computeTargets(d2)) {
+                    EdgeFunction<Value> f3 = problem.getCallToReturnEdgeFunction(
+                            ctrEdge, d2, d3);
+                    propagate(d1, ctrEdge.target(), d3, f.composeWith(f3));
+                }
+            }
+        }
+    }
+
+    private void processExit(PathEdge<Node, Fact> edge, EdgeFunction<Value> f) {
+        Fact d1 = edge.source();
+        Node exit = edge.target();
+        Fact d2 = edge.fact();
+        Node entry = getEntryOf(exit);
+        endSummaries.computeIfAbsent(entry, d1, (__, ___) -> Maps.newHybridMap())
+                .put(d2, f);
+        MultiMap<Node, Fact> callers = incoming.get(entry, d1);
+        if (callers == null) {
+            return;
+        }
+        callers.forEach((callSite, d4) -> {
+            Map<Fact, EdgeFunction<Value>> callerSources =
+                    jumpFunctions.get(callSite).get(d4);
+            for (ICFGEdge<Node> outEdge : icfg.getOutEdgesOf(callSite)) {
+                if (outEdge instanceof CallEdge<Node> callEdge
+                        && callEdge.target().equals(entry)) {
+                    EdgeFunction<Value> fSummary = problem.getCallEdgeFunction(
+                            callEdge, d4, d1).composeWith(f);
+                    callerSources.forEach((d3, f3) ->
+                            processReturn(exit, callSite, d3, d2,
+                                    f3.composeWith(fSummary)));
+                }
+            }
+        });
+    }
+
+    /**
+     * Propagates fact {@code d4} at {@code exit} to the return sites
+     * of {@code callSite}.
+     *
+     * @param d1 the fact at the entry of the method containing the call site
+     * @param f  the function from {@code d1} to {@code d4}
+     */
+    private void processReturn(Node exit, Node callSite, Fact d1, Fact d4,
+                               EdgeFunction<Value> f) {
+        for (Node returnSite : icfg.getReturnSitesOf(callSite)) {
+            for (ICFGEdge<Node> inEdge : icfg.getInEdgesOf(returnSite)) {
+                if (inEdge instanceof ReturnEdge<Node> returnEdge
+                        && returnEdge.source().equals(exit)
+                        && returnEdge.getCallSite().equals(callSite)) {
+                    FlowFunction<Fact> flow = problem.getReturnFlowFunction(returnEdge);
+                    for (Fact d5 : flow.computeTargets(d4)) {
+                        EdgeFunction<Value> f5 = problem.getReturnEdgeFunction(
+                                returnEdge, d4, d5);
+                        propagate(d1, returnSite, d5, f.composeWith(f5));
+                    }
+                }
+            }
+        }
+    }
+
+    private void propagate(Fact source, Node target, Fact fact,
+                           EdgeFunction<Value> f) {
+        Map<Fact, EdgeFunction<Value>> sources = jumpFunctions
+                .computeIfAbsent(target, __ -> Maps.newHybridMap())
+                .computeIfAbsent(fact, __ -> Maps.newHybridMap());
+        EdgeFunction<Value> oldF = sources.get(source);
+        EdgeFunction<Value> newF = oldF == null ? f : oldF.meetWith(f);
+        if (!newF.equals(oldF)) {
+            sources.put(source, newF);
+            workList.add(new PathEdge<>(source, target, fact));
+            ++nPathEdges;
+        }
+    }
+
+    private EdgeFunction<Value> getJumpFunction(Fact source, Node target, Fact fact) {
+        return jumpFunctions.get(target).get(fact).get(source);
+    }
+
+    // ---------- Phase II: computing values ----------
+
+    private IDEResult<Node, Fact, Value> computeValues() {
+        Map<Node, Map<Fact, Value>> values = Maps.newMap();
+        // (i) propagate values to method entries and call sites
+        Deque<NodeFact<Node, Fact>> nodeFacts = new ArrayDeque<>();
+        problem.initialSeeds().forEach((node, fact) ->
+                propagateValue(values, nodeFacts, node, fact, problem.bottomValue()));
+        while (!nodeFacts.isEmpty()) {
+            NodeFact<Node, Fact> nodeFact = nodeFacts.poll();
+            Node node = nodeFact.node();
+            Fact fact = nodeFact.fact();
+            Value value = values.get(node).get(fact);
+            if (icfg.isCallSite(node)) {
+                for (ICFGEdge<Node> outEdge : icfg.getOutEdgesOf(node)) {
+                    if (outEdge instanceof CallEdge<Node> callEdge) {
+                        FlowFunction<Fact> flow = problem.getCallFlowFunction(callEdge);
+                        for (Fact d3 : flow.computeTargets(fact)) {
+                            Value v3 = problem.getCallEdgeFunction(callEdge, fact, d3)
+                                    .computeTarget(value);
+                            propagateValue(values, nodeFacts, callEdge.target(), d3, v3);
+                        }
+                    }
+                }
+            } else { // node is a method entry
+                for (Node callSite : callSites.get(node)) {
+                    jumpFunctions.get(callSite).forEach((d2, sources) -> {
+                        EdgeFunction<Value> f = sources.get(fact);
+                        if (f != null) {
+                            propagateValue(values, nodeFacts, callSite, d2,
+                                    f.computeTarget(value));
+                        }
+                    });
+                }
+            }
+        }
+        // (ii) compute values of the other nodes, and release
+        // the jump functions which are no longer needed
+        Map<Node, Map<Fact, Value>> results = Maps.newMap(jumpFunctions.size());
+        Iterator<Map.Entry<Node, Map<Fact, Map<Fact, EdgeFunction<Value>>>>> it =
+                jumpFunctions.entrySet().iterator();
+        while (it.hasNext()) {
+            var entry = it.next();
+            Node node = entry.getKey();
+            Map<Fact, Value> nodeValues = values.get(node);
+            if (nodeValues == null || !isEntryOrCallSite(node)) {
+                Map<Fact, Value> entryValues = values.getOrDefault(
+                        getEntryOf(node), Map.of());
+                nodeValues = Maps.newHybridMap();
+                for (var factSources : entry.getValue().entrySet()) {
+                    Value value = null;
+                    for (var sourceF : factSources.getValue().entrySet()) {
+                        Value entryValue = entryValues.get(sourceF.getKey());
+                        if (entryValue != null) {
+                            Value v = sourceF.getValue().computeTarget(entryValue);
+                            value = value == null ? v : problem.meetValue(value, v);
+                        }
+                    }
+                    if (value != null) {
+                        nodeValues.put(factSources.getKey(), value);
+                    }
+                }
+            }
+            results.put(node, nodeValues);
+            it.remove();
+        }
+        // the zero fact is an artifact of the analysis, thus we exclude
+        // it from the result after all values have been computed
+        Fact zero = problem.zeroFact();
+        results.values().removeIf(nodeValues -> {
+            nodeValues.remove(zero);
+            return nodeValues.isEmpty();
+        });
+        return new IDEResult<>(results, problem.topValue());
+    }
+
+    private void propagateValue(Map<Node, Map<Fact, Value>> values,
+                                Deque<NodeFact<Node, Fact>> nodeFacts,
+                                Node node, Fact fact, Value value) {
+        Map<Fact, Value> nodeValues = values.computeIfAbsent(node,
+                __ -> Maps.newHybridMap());
+        Value oldV = nodeValues.get(fact);
+        Value newV = oldV == null ? value : problem.meetValue(oldV, value);
+        if (!newV.equals(oldV)) {
+            nodeValues.put(fact, newV);
+            nodeFacts.add(new NodeFact<>(node, fact));
+        }
+    }
+
+    // ---------- helper methods ----------
+
+    private Node getEntryOf(Node node) {
+        return icfg.getEntryOf(icfg.getContainingMethodOf(node));
+    }
+
+    private boolean isExit(Node node) {
+        return icfg.getExitOf(icfg.getContainingMethodOf(node)).equals(node);
+    }
+
+    private boolean isEntryOrCallSite(Node node) {
+        return icfg.isCallSite(node) || getEntryOf(node).equals(node);
+    }
+
+    /**
+     * Represents a path edge from {@code source} at the entry of
+     * a method to {@code fact} at {@code target}.
+     */
+    private record PathEdge<Node, Fact>(Fact source, Node target, Fact fact) {
+    }
+
+    private record NodeFact<Node, Fact>(Node node, Fact fact) {
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ifds;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.MultiMap;
+
+/**
+ * Template interface for defining IFDS problems.
+ * <p>
+ * Data-flow facts are created on demand by the flow functions, i.e.,
+ * the solver only explores the facts that are reachable from the initial
+ * seeds, thus the domain of facts needs not be enumerated in advance.
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ * @param <Fact>   type of data-flow facts
+ */
+public interface IFDSProblem<Method, Node, Fact> {
+
+    /**
+     * @return the special zero (Λ) fact, which holds at every reachable node.
+     */
+    Fact zeroFact();
+
+    /**
+     * @return the facts which hold at the given (entry) nodes when
+     * the analysis starts. They typically include {@link #zeroFact()}.
+     */
+    MultiMap<Node, Fact> initialSeeds();
+
+    /**
+     * @return flow function for the given intra-procedural edge.
+     * The function should take the effect of the source node into account.
+     */
+    FlowFunction<Fact> getNormalFlowFunction(NormalEdge<Node> edge);
+
+    /**
+     * @return flow function which maps facts at the call site to the facts
+     * at the entry of the callee, e.g., passing arguments to parameters.
+     */
+    FlowFunction<Fact> getCallFlowFunction(CallEdge<Node> edge);
+
+    /**
+     * @return flow function which maps facts at the exit of the callee
+     * to the facts at the return site, e.g., passing return values.
+     */
+    FlowFunction<Fact> getReturnFlowFunction(ReturnEdge<Node> edge);
+
+    /**
+     * @return flow function which propagates the facts that are not
+     * affected by the callees from the call site to the return site.
+     */
+    FlowFunction<Fact> getCallToReturnFlowFunction(CallToReturnEdge<Node> edge);
+}
@@ -0,0 +1,138 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ifds;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.MultiMap;
+
+/**
+ * Adapts an {@link IFDSProblem} to an {@link IDEProblem} over the
+ * two-point lattice {false (top), true (bottom)}, where every edge
+ * function is the identity. A fact holds at a node iff its value is true.
+ */
+class IFDSProblemAdapter<Method, Node, Fact>
+        implements IDEProblem<Method, Node, Fact, Boolean> {
+
+    private final IFDSProblem<Method, Node, Fact> problem;
+
+    IFDSProblemAdapter(IFDSProblem<Method, Node, Fact> problem) {
+        this.problem = problem;
+    }
+
+    @Override
+    public Fact zeroFact() {
+        return problem.zeroFact();
+    }
+
+    @Override
+    public MultiMap<Node, Fact> initialSeeds() {
+        return problem.initialSeeds();
+    }
+
+    @Override
+    public FlowFunction<Fact> getNormalFlowFunction(NormalEdge<Node> edge) {
+        return problem.getNormalFlowFunction(edge);
+    }
+
+    @Override
+    public FlowFunction<Fact> getCallFlowFunction(CallEdge<Node> edge) {
+        return problem.getCallFlowFunction(edge);
+    }
+
+    @Override
+    public FlowFunction<Fact> getReturnFlowFunction(ReturnEdge<Node> edge) {
+        return problem.getReturnFlowFunction(edge);
+    }
+
+    @Override
+    public FlowFunction<Fact> getCallToReturnFlowFunction(CallToReturnEdge<Node> edge) {
+        return problem.getCallToReturnFlowFunction(edge);
+    }
+
+    @Override
+    public EdgeFunction<Boolean> getNormalEdgeFunction(
+            NormalEdge<Node> edge, Fact source, Fact target) {
+        return Identity.INSTANCE;
+    }
+
+    @Override
+    public EdgeFunction<Boolean> getCallEdgeFunction(
+            CallEdge<Node> edge, Fact source, Fact target) {
+        return Identity.INSTANCE;
+    }
+
+    @Override
+    public EdgeFunction<Boolean> getReturnEdgeFunction(
+            ReturnEdge<Node> edge, Fact source, Fact target) {
+        return Identity.INSTANCE;
+    }
+
+    @Override
+    public EdgeFunction<Boolean> getCallToReturnEdgeFunction(
+            CallToReturnEdge<Node> edge, Fact source, Fact target) {
+        return Identity.INSTANCE;
+    }
+
+    @Override
+    public EdgeFunction<Boolean> identity() {
+        return Identity.INSTANCE;
+    }
+
+    @Override
+    public Boolean topValue() {
+        return false;
+    }
+
+    @Override
+    public Boolean bottomValue() {
+        return true;
+    }
+
+    @Override
+    public Boolean meetValue(Boolean v1, Boolean v2) {
+        return v1 || v2;
+    }
+
+    private enum Identity implements EdgeFunction<Boolean> {
+
+        INSTANCE;
+
+        @Override
+        public Boolean computeTarget(Boolean source) {
+            return source;
+        }
+
+        @Override
+        public EdgeFunction<Boolean> composeWith(EdgeFunction<Boolean> second) {
+            return second;
+        }
+
+        @Override
+        public EdgeFunction<Boolean> meetWith(EdgeFunction<Boolean> other) {
+            return this;
+        }
+    }
+}
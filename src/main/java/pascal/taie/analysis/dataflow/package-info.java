@@ -25,5 +25,6 @@
  *
  * @see pascal.taie.analysis.dataflow.analysis.DataflowAnalysis
  * @see pascal.taie.analysis.dataflow.inter.InterDataflowAnalysis
+ * @see pascal.taie.analysis.dataflow.ifds.IDEProblem
  */
 package pascal.taie.analysis.dataflow;
@@ -0,0 +1,222 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGEdge;
+import pascal.taie.util.collection.CollectionUtils;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Work-list solver which visits nodes in reverse post-order (of the CFG for
+ * forward analyses, and of the reversed CFG for backward analyses).
+ * <p>
+ * The work list is a bit set of reverse post-order numbers, which is swept
+ * round-robin, so that each node is visited after its predecessors (except
+ * the ones on back edges) in every sweep, and no objects are allocated for
+ * managing the work list. This makes the solver suitable for analyses
+ * whose transfer functions are cheap, e.g., bit-vector analyses.
+ */
+class RPOWorkListSolver<Node, Fact> extends WorkListSolver<Node, Fact> {
+
+    @Override
+    protected void doSolveForward(DataflowAnalysis<Node, Fact> analysis,
+                                  DataflowResult<Node, Fact> result) {
+        CFG<Node> cfg = analysis.getCFG();
+        int[] order = computeReversePostorder(cfg, true);
+        int[] rank = computeRanks(order);
+        BitSet workList = new BitSet(order.length);
+        workList.set(0, order.length);
+        workList.clear(rank[cfg.getIndex(cfg.getEntry())]);
+        int cursor = 0;
+        while (!workList.isEmpty()) {
+            int r = workList.nextSetBit(cursor);
+            if (r < 0) {
+                r = workList.nextSetBit(0);
+            }
+            workList.clear(r);
+            cursor = r + 1;
+            Node node = cfg.getNode(order[r]);
+            // meet incoming facts
+            Fact in;
+            Set<CFGEdge<Node>> inEdges = cfg.getInEdgesOf(node);
+            int inDegree = inEdges.size();
+            if (inDegree > 1) {
+                in = result.getInFact(node);
+                for (CFGEdge<Node> inEdge : inEdges) {
+                    Fact fact = result.getOutFact(inEdge.source());
+                    if (analysis.needTransferEdge(inEdge)) {
+                        fact = analysis.transferEdge(inEdge, fact);
+                    }
+                    analysis.meetInto(fact, in);
+                }
+            } else if (inDegree == 1) {
+                CFGEdge<Node> inEdge = CollectionUtils.getOne(inEdges);
+                if (analysis.needTransferEdge(inEdge)) {
+                    in = analysis.transferEdge(inEdge,
+                            result.getOutFact(inEdge.source()));
+                    result.setInFact(node, in);
+                } else {
+                    in = result.getInFact(node);
+                }
+            } else {
+                in = result.getInFact(node);
+            }
+            // apply node transfer function
+            Fact out = result.getOutFact(node);
+            if (analysis.transferNode(node, in, out)) {
+                for (Node succ : cfg.getSuccsOf(node)) {
+                    workList.set(rank[cfg.getIndex(succ)]);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void doSolveBackward(DataflowAnalysis<Node, Fact> analysis,
+                                   DataflowResult<Node, Fact> result) {
+        CFG<Node> cfg = analysis.getCFG();
+        int[] order = computeReversePostorder(cfg, false);
+        int[] rank = computeRanks(order);
+        BitSet workList = new BitSet(order.length);
+        workList.set(0, order.length);
+        workList.clear(rank[cfg.getIndex(cfg.getExit())]);
+        int cursor = 0;
+        while (!workList.isEmpty()) {
+            int r = workList.nextSetBit(cursor);
+            if (r < 0) {
+                r = workList.nextSetBit(0);
+            }
+            workList.clear(r);
+            cursor = r + 1;
+            Node node = cfg.getNode(order[r]);
+            // meet incoming facts
+            Fact out;
+            Set<CFGEdge<Node>> outEdges = cfg.getOutEdgesOf(node);
+            int outDegree = outEdges.size();
+            if (outDegree > 1) {
+                out = result.getOutFact(node);
+                for (CFGEdge<Node> outEdge : outEdges) {
+                    Fact fact = result.getInFact(outEdge.target());
+                    if (analysis.needTransferEdge(outEdge)) {
+                        fact = analysis.transferEdge(outEdge, fact);
+                    }
+                    analysis.meetInto(fact, out);
+                }
+            } else if (outDegree == 1) {
+                CFGEdge<Node> outEdge = CollectionUtils.getOne(outEdges);
+                if (analysis.needTransferEdge(outEdge)) {
+                    out = analysis.transferEdge(outEdge,
+                            result.getInFact(outEdge.target()));
+                    result.setOutFact(node, out);
+                } else {
+                    out = result.getOutFact(node);
+                }
+            } else {
+                out = result.getOutFact(node);
+            }
+            // apply node transfer function
+            Fact in = result.getInFact(node);
+            if (analysis.transferNode(node, in, out)) {
+                for (Node pred : cfg.getPredsOf(node)) {
+                    workList.set(rank[cfg.getIndex(pred)]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes reverse post-order of the nodes by depth-first search
+     * from the entry (or exit, if {@code forward} is {@code false}).
+     * The nodes which are not visited from the entry (or exit) are
+     * used as the roots of subsequent searches.
+     *
+     * @return indexes of the nodes in reverse post-order.
+     */
+    private static <Node> int[] computeReversePostorder(CFG<Node> cfg, boolean forward) {
+        int n = cfg.getNumberOfNodes();
+        int[] postorder = new int[n];
+        int count = 0;
+        boolean[] visited = new boolean[n];
+        Object[] stack = new Object[n];
+        int[] nodes = new int[n];
+        int root = cfg.getIndex(forward ? cfg.getEntry() : cfg.getExit());
+        for (int start = -1; start < n; ++start) {
+            int head = start == -1 ? root : start;
+            if (visited[head]) {
+                continue;
+            }
+            // use iterative (non-recursive) algorithm to avoid stack overflow
+            // for large CFG
+            int top = 0;
+            visited[head] = true;
+            stack[0] = iterator(cfg, cfg.getNode(head), forward);
+            nodes[0] = head;
+            while (top >= 0) {
+                @SuppressWarnings("unchecked")
+                Iterator<Node> it = (Iterator<Node>) stack[top];
+                if (it.hasNext()) {
+                    Node next = it.next();
+                    int index = cfg.getIndex(next);
+                    if (!visited[index]) {
+                        visited[index] = true;
+                        ++top;
+                        stack[top] = iterator(cfg, next, forward);
+                        nodes[top] = index;
+                    }
+                } else {
+                    postorder[count++] = nodes[top];
+                    stack[top] = null;
+                    --top;
+                }
+            }
+        }
+        int[] order = new int[n];
+        for (int i = 0; i < n; ++i) {
+            order[i] = postorder[n - 1 - i];
+        }
+        return order;
+    }
+
+    private static <Node> Iterator<Node> iterator(
+            CFG<Node> cfg, Node node, boolean forward) {
+        return (forward ? cfg.getSuccsOf(node) : cfg.getPredsOf(node)).iterator();
+    }
+
+    /**
+     * @return the inverse of the given order, i.e., the position of
+     * each node (by index) in the order.
+     */
+    private static int[] computeRanks(int[] order) {
+        int[] rank = new int[order.length];
+        for (int i = 0; i < order.length; ++i) {
+            rank[order[i]] = i;
+        }
+        return rank;
+    }
+}
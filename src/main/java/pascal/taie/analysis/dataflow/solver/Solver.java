@@ -47,6 +47,22 @@ public interface Solver<Node, Fact> {
         return (Solver<Node, Fact>) SOLVER;
     }
 
+    /**
+     * The solver which visits nodes in reverse post-order.
+     */
+    @SuppressWarnings("rawtypes")
+    Solver RPO_SOLVER = new RPOWorkListSolver<>();
+
+    /**
+     * Static factory method for obtaining a solver which visits nodes
+     * in reverse post-order. It is preferable for the analyses whose
+     * transfer functions are cheap, e.g., bit-vector analyses.
+     */
+    @SuppressWarnings("unchecked")
+    static <Node, Fact> Solver<Node, Fact> getRPOSolver() {
+        return (Solver<Node, Fact>) RPO_SOLVER;
+    }
+
     /**
      * Solves the given analysis problem.
      *
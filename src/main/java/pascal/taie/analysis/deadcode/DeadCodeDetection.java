@@ -24,9 +24,11 @@ package pascal.taie.analysis.deadcode;
 
 import pascal.taie.analysis.MethodAnalysis;
 import pascal.taie.analysis.dataflow.analysis.LiveVariable;
+import pascal.taie.analysis.dataflow.analysis.SparseLiveVarResult;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
 import pascal.taie.analysis.dataflow.analysis.constprop.Evaluator;
+import pascal.taie.analysis.dataflow.analysis.constprop.SparseCPResult;
 import pascal.taie.analysis.dataflow.analysis.constprop.Value;
 import pascal.taie.analysis.dataflow.fact.NodeResult;
 import pascal.taie.analysis.dataflow.fact.SetFact;
@@ -111,7 +113,7 @@ public class DeadCodeDetection extends MethodAnalysis<Set<Stmt>> {
             Stmt stmt, NodeResult<Stmt, SetFact<Var>> liveVars) {
         if (stmt instanceof AssignStmt<?, ?> assign) {
             if (assign.getLValue() instanceof Var lhs) {
-                return !liveVars.getOutFact(assign).contains(lhs) &&
+                return !isLiveOut(assign, lhs, liveVars) &&
                         hasNoSideEffect(assign.getRValue());
             }
         }
@@ -123,7 +125,7 @@ public class DeadCodeDetection extends MethodAnalysis<Set<Stmt>> {
         Stmt src = edge.source();
         if (src instanceof If ifStmt) {
             Value cond = Evaluator.evaluate(
-                    ifStmt.getCondition(), constants.getInFact(ifStmt));
+                    ifStmt.getCondition(), getInFact(ifStmt, constants));
             if (cond.isConstant()) {
                 int v = cond.getConstant();
                 return v == 1 && edge.getKind() == CFGEdge.Kind.IF_FALSE ||
@@ -131,7 +133,7 @@ public class DeadCodeDetection extends MethodAnalysis<Set<Stmt>> {
             }
         } else if (src instanceof SwitchStmt switchStmt) {
             Value condV = Evaluator.evaluate(
-                    switchStmt.getVar(), constants.getInFact(switchStmt));
+                    switchStmt.getVar(), getInFact(switchStmt, constants));
             if (condV.isConstant()) {
                 int v = condV.getConstant();
                 if (edge.isSwitchCase()) {
@@ -148,6 +150,36 @@ public class DeadCodeDetection extends MethodAnalysis<Set<Stmt>> {
         return false;
     }
 
+    /**
+     * Sparse results answer the queries of single variables without
+     * reconstructing the whole facts, which makes the detection
+     * linear in the size of IR instead of (#statements * #variables).
+     */
+    private static boolean isLiveOut(
+            Stmt stmt, Var var, NodeResult<Stmt, SetFact<Var>> liveVars) {
+        return liveVars instanceof SparseLiveVarResult sparse
+                ? sparse.isLiveOut(stmt, var)
+                : liveVars.getOutFact(stmt).contains(var);
+    }
+
+    /**
+     * @return the in fact of given statement. For sparse results, the fact
+     * only contains the values of the variables used by the statement.
+     */
+    private static CPFact getInFact(
+            Stmt stmt, NodeResult<Stmt, CPFact> constants) {
+        if (constants instanceof SparseCPResult sparse) {
+            CPFact in = new CPFact();
+            stmt.getUses().forEach(use -> {
+                if (use instanceof Var var) {
+                    in.update(var, sparse.getValue(stmt, var));
+                }
+            });
+            return in;
+        }
+        return constants.getInFact(stmt);
+    }
+
     /**
      * @return true if given RValue has no side effect, otherwise false.
      */
@@ -0,0 +1,591 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.defuse;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Builds SSA-like def-use chains of a method without rewriting its IR.
+ * <p>
+ * Each definition of a tracked variable creates a {@link Version} of the
+ * variable, and versions of the same variable are merged by phi versions,
+ * which are placed at the iterated dominance frontiers of the definitions.
+ * Thus, every use of a tracked variable is reached by exactly one version,
+ * and sparse analyses can propagate facts along the chains from versions
+ * to their users, instead of through all statements of the method.
+ * <p>
+ * Unlike {@link DefUseAnalysis}, this class does not rely on reaching
+ * definition analysis, so its cost is nearly linear in the size of the
+ * method. Parameters are defined at the entry of the CFG, and the uses
+ * that are not reached by any definition are reached by the root version.
+ * Nodes that are unreachable from the entry are also handled: they are
+ * treated as if they were reachable from a virtual root of the CFG.
+ */
+public class SSADefUse {
+
+    /**
+     * Kinds of versions.
+     */
+    public enum Kind {
+        /**
+         * The version of undefined variables.
+         */
+        ROOT,
+        /**
+         * Version defined by the parameter passing.
+         */
+        PARAM,
+        /**
+         * Version defined by a statement.
+         */
+        DEF,
+        /**
+         * Version merging versions at control-flow confluence.
+         */
+        PHI,
+    }
+
+    /**
+     * A version of a variable.
+     */
+    public static final class Version {
+
+        private final Kind kind;
+
+        private final Var var;
+
+        /**
+         * The statement where this version is defined or merged.
+         */
+        private final Stmt stmt;
+
+        /**
+         * Position of this version in dominator-tree pre-order, where
+         * phi and parameter versions come before the def at the same node.
+         */
+        private final int position;
+
+        /**
+         * The version of the same variable which reaches this version,
+         * i.e., the nearest dominating version.
+         */
+        private Version up;
+
+        private List<Version> operands = List.of();
+
+        private final List<Stmt> users = new ArrayList<>(2);
+
+        private final List<Version> phiUsers = new ArrayList<>(0);
+
+        private Version(Kind kind, Var var, Stmt stmt, int position) {
+            this.kind = kind;
+            this.var = var;
+            this.stmt = stmt;
+            this.position = position;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * @return the variable of this version, or {@code null}
+         * if this version is the root.
+         */
+        public Var getVar() {
+            return var;
+        }
+
+        /**
+         * @return the statement where this version is defined (for DEF),
+         * merged (for PHI), or the entry of CFG (for PARAM).
+         */
+        public Stmt getStmt() {
+            return stmt;
+        }
+
+        /**
+         * @return the versions merged by this phi version, in the order of
+         * predecessors of the merging statement; empty for other kinds.
+         */
+        public List<Version> getOperands() {
+            return operands;
+        }
+
+        /**
+         * @return the statements which use this version.
+         */
+        public List<Stmt> getUsers() {
+            return Collections.unmodifiableList(users);
+        }
+
+        /**
+         * @return the phi versions which merge this version.
+         */
+        public List<Version> getPhiUsers() {
+            return Collections.unmodifiableList(phiUsers);
+        }
+
+        @Override
+        public String toString() {
+            return kind == Kind.ROOT ? "ROOT" :
+                    var + "@" + kind + "(" + stmt + ")";
+        }
+    }
+
+    private final CFG<Stmt> cfg;
+
+    private final Predicate<Var> isTracked;
+
+    /**
+     * Index of the virtual root, which precedes the entry and the nodes
+     * that are unreachable from the entry.
+     */
+    private final int root;
+
+    private final int[][] preds;
+
+    private final int[] idom;
+
+    private final int[] pre;
+
+    private final int[] size;
+
+    private final Version rootVersion = new Version(Kind.ROOT, null, null, -1);
+
+    /**
+     * DEF version of each statement, indexed by node index.
+     */
+    private final Version[] defs;
+
+    /**
+     * Sorted (by position) versions of each tracked variable.
+     */
+    private final Map<Var, Version[]> varVersions = Maps.newLinkedHashMap();
+
+    /**
+     * @param cfg       control-flow graph of the method
+     * @param isTracked predicate that decides whether a variable is tracked
+     */
+    public SSADefUse(CFG<Stmt> cfg, Predicate<Var> isTracked) {
+        this.cfg = cfg;
+        this.isTracked = isTracked;
+        int n = cfg.getNumberOfNodes();
+        root = n;
+        int[][] succs = new int[n + 1][];
+        for (int i = 0; i < n; ++i) {
+            succs[i] = cfg.getSuccsOf(cfg.getNode(i))
+                    .stream()
+                    .mapToInt(cfg::getIndex)
+                    .toArray();
+        }
+        int[] postorder = new int[n + 1];
+        int[] postNum = new int[n + 1];
+        succs[root] = computePostorder(succs, postorder, postNum);
+        preds = computePreds(succs);
+        idom = computeIdoms(postorder, postNum);
+        pre = new int[n + 1];
+        size = new int[n + 1];
+        numberDomTree();
+        defs = new Version[n];
+        placeVersions(computeFrontiers());
+        linkVersions();
+    }
+
+    /**
+     * Computes post-order of nodes with a depth-first search from the entry,
+     * then from each node that has not been visited yet.
+     *
+     * @return successors of the virtual root.
+     */
+    private int[] computePostorder(int[][] succs, int[] postorder, int[] postNum) {
+        int n = root;
+        boolean[] visited = new boolean[n + 1];
+        int[] stack = new int[n];
+        int[] next = new int[n];
+        List<Integer> heads = new ArrayList<>();
+        int count = 0;
+        int entry = cfg.getIndex(cfg.getEntry());
+        for (int start = -1; start < n; ++start) {
+            int head = start == -1 ? entry : start;
+            if (visited[head]) {
+                continue;
+            }
+            heads.add(head);
+            int top = 0;
+            stack[0] = head;
+            next[0] = 0;
+            visited[head] = true;
+            while (top >= 0) {
+                int node = stack[top];
+                if (next[top] < succs[node].length) {
+                    int succ = succs[node][next[top]++];
+                    if (!visited[succ]) {
+                        visited[succ] = true;
+                        ++top;
+                        stack[top] = succ;
+                        next[top] = 0;
+                    }
+                } else {
+                    postNum[node] = count;
+                    postorder[count++] = node;
+                    --top;
+                }
+            }
+        }
+        postNum[root] = count;
+        postorder[count] = root;
+        return heads.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[][] computePreds(int[][] succs) {
+        int[] counts = new int[succs.length];
+        for (int[] ss : succs) {
+            for (int s : ss) {
+                ++counts[s];
+            }
+        }
+        int[][] preds = new int[succs.length][];
+        for (int i = 0; i < succs.length; ++i) {
+            preds[i] = new int[counts[i]];
+            counts[i] = 0;
+        }
+        for (int p = 0; p < succs.length; ++p) {
+            for (int s : succs[p]) {
+                preds[s][counts[s]++] = p;
+            }
+        }
+        return preds;
+    }
+
+    /**
+     * Computes immediate dominators by the algorithm of Cooper, Harvey
+     * and Kennedy, "A Simple, Fast Dominance Algorithm".
+     */
+    private int[] computeIdoms(int[] postorder, int[] postNum) {
+        int[] idom = new int[root + 1];
+        Arrays.fill(idom, -1);
+        idom[root] = root;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            // traverse nodes (except root) in reverse post-order
+            for (int i = root - 1; i >= 0; --i) {
+                int node = postorder[i];
+                int newIdom = -1;
+                for (int p : preds[node]) {
+                    if (idom[p] != -1) {
+                        newIdom = newIdom == -1 ? p :
+                                intersect(idom, postNum, p, newIdom);
+                    }
+                }
+                if (idom[node] != newIdom) {
+                    idom[node] = newIdom;
+                    changed = true;
+                }
+            }
+        }
+        return idom;
+    }
+
+    private static int intersect(int[] idom, int[] postNum, int n1, int n2) {
+        while (n1 != n2) {
+            while (postNum[n1] < postNum[n2]) {
+                n1 = idom[n1];
+            }
+            while (postNum[n2] < postNum[n1]) {
+                n2 = idom[n2];
+            }
+        }
+        return n1;
+    }
+
+    /**
+     * Computes pre-order numbers and subtree sizes of the dominator tree,
+     * so that dominance can be checked in constant time.
+     */
+    private void numberDomTree() {
+        int[][] children = computePreds(idomEdges());
+        int[] stack = new int[root + 1];
+        int[] next = new int[root + 1];
+        int top = 0;
+        int count = 0;
+        stack[0] = root;
+        pre[root] = count++;
+        while (top >= 0) {
+            int node = stack[top];
+            if (next[top] < children[node].length) {
+                int child = children[node][next[top]++];
+                pre[child] = count++;
+                ++top;
+                stack[top] = child;
+                next[top] = 0;
+            } else {
+                size[node] = count - pre[node];
+                --top;
+            }
+        }
+    }
+
+    /**
+     * @return edges from each node to its immediate dominator,
+     * in the form of successor arrays.
+     */
+    private int[][] idomEdges() {
+        int[][] edges = new int[root + 1][];
+        for (int i = 0; i < root; ++i) {
+            edges[i] = new int[]{ idom[i] };
+        }
+        edges[root] = new int[0];
+        return edges;
+    }
+
+    private boolean dominates(int n1, int n2) {
+        return pre[n1] <= pre[n2] && pre[n2] < pre[n1] + size[n1];
+    }
+
+    /**
+     * Computes dominance frontiers of nodes.
+     */
+    private int[][] computeFrontiers() {
+        List<List<Integer>> frontiers = new ArrayList<>(root + 1);
+        for (int i = 0; i <= root; ++i) {
+            frontiers.add(new ArrayList<>(0));
+        }
+        for (int node = 0; node < root; ++node) {
+            if (preds[node].length >= 2) {
+                for (int p : preds[node]) {
+                    int runner = p;
+                    while (runner != idom[node]) {
+                        List<Integer> df = frontiers.get(runner);
+                        if (df.isEmpty() || df.get(df.size() - 1) != node) {
+                            df.add(node);
+                        }
+                        runner = idom[runner];
+                    }
+                }
+            }
+        }
+        int[][] result = new int[root + 1][];
+        for (int i = 0; i <= root; ++i) {
+            result[i] = frontiers.get(i)
+                    .stream()
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        return result;
+    }
+
+    /**
+     * Creates PARAM and DEF versions, and places PHI versions at
+     * iterated dominance frontiers of them.
+     */
+    private void placeVersions(int[][] frontiers) {
+        Map<Var, List<Version>> versions = Maps.newLinkedHashMap();
+        Stmt entry = cfg.getEntry();
+        int entryIndex = cfg.getIndex(entry);
+        for (Var param : getParams()) {
+            if (isTracked.test(param)) {
+                versions.computeIfAbsent(param, v -> new ArrayList<>())
+                        .add(new Version(Kind.PARAM, param, entry,
+                                2 * pre[entryIndex]));
+            }
+        }
+        for (int i = 0; i < root; ++i) {
+            Stmt stmt = cfg.getNode(i);
+            if (stmt.getDef().orElse(null) instanceof Var var
+                    && isTracked.test(var)) {
+                Version def = new Version(Kind.DEF, var, stmt, 2 * pre[i] + 1);
+                defs[i] = def;
+                versions.computeIfAbsent(var, v -> new ArrayList<>()).add(def);
+            }
+        }
+        // place phi versions
+        int[] hasPhi = new int[root + 1];
+        int[] inWorkList = new int[root + 1];
+        int iteration = 0;
+        int[] workList = new int[root + 1];
+        for (Map.Entry<Var, List<Version>> e : versions.entrySet()) {
+            Var var = e.getKey();
+            List<Version> vs = e.getValue();
+            ++iteration;
+            int size = 0;
+            for (Version v : vs) {
+                int node = cfg.getIndex(v.stmt);
+                if (inWorkList[node] != iteration) {
+                    inWorkList[node] = iteration;
+                    workList[size++] = node;
+                }
+            }
+            List<Version> phis = new ArrayList<>();
+            while (size > 0) {
+                int node = workList[--size];
+                for (int df : frontiers[node]) {
+                    if (hasPhi[df] != iteration) {
+                        hasPhi[df] = iteration;
+                        phis.add(new Version(Kind.PHI, var,
+                                cfg.getNode(df), 2 * pre[df]));
+                        if (inWorkList[df] != iteration) {
+                            inWorkList[df] = iteration;
+                            workList[size++] = df;
+                        }
+                    }
+                }
+            }
+            vs.addAll(phis);
+            Version[] sorted = vs.toArray(new Version[0]);
+            Arrays.sort(sorted, (v1, v2) ->
+                    Integer.compare(v1.position, v2.position));
+            varVersions.put(var, sorted);
+        }
+    }
+
+    private List<Var> getParams() {
+        List<Var> params = new ArrayList<>(cfg.getIR().getParams());
+        Var thisVar = cfg.getIR().getThis();
+        if (thisVar != null) {
+            params.add(thisVar);
+        }
+        return params;
+    }
+
+    /**
+     * Connects versions to the versions reaching them, and connects
+     * the uses to the versions.
+     */
+    private void linkVersions() {
+        // up-links are computed in the order of positions, so that
+        // the up-links of all versions before the current one are ready
+        varVersions.values().forEach(versions -> {
+            for (Version v : versions) {
+                int node = cfg.getIndex(v.stmt);
+                v.up = lookup(versions, node, v.position - 1);
+            }
+        });
+        for (Version[] versions : varVersions.values()) {
+            for (Version v : versions) {
+                if (v.kind == Kind.PHI) {
+                    int node = cfg.getIndex(v.stmt);
+                    List<Version> operands = new ArrayList<>(preds[node].length);
+                    for (int p : preds[node]) {
+                        Version op = p == root ? rootVersion :
+                                lookup(versions, p, 2 * pre[p] + 1);
+                        operands.add(op);
+                        if (op != rootVersion) {
+                            op.phiUsers.add(v);
+                        }
+                    }
+                    v.operands = Collections.unmodifiableList(operands);
+                }
+            }
+        }
+        for (int i = 0; i < root; ++i) {
+            Stmt stmt = cfg.getNode(i);
+            for (RValue use : stmt.getUses()) {
+                if (use instanceof Var var && isTracked.test(var)) {
+                    Version v = getVersionBefore(stmt, var);
+                    if (v != rootVersion && (v.users.isEmpty() ||
+                            v.users.get(v.users.size() - 1) != stmt)) {
+                        v.users.add(stmt);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the version which is nearest to the given position of given
+     * node, among the versions at or before the position and dominating
+     * the node.
+     */
+    private Version lookup(Version[] versions, int node, int position) {
+        // binary search the last version whose position <= given position
+        int low = 0, high = versions.length - 1, found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (versions[mid].position <= position) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        Version v = found == -1 ? null : versions[found];
+        // the found version may lie in a dominator-tree branch that
+        // precedes the node, then walks up to the dominating version
+        while (v != null && v != rootVersion
+                && !dominates(cfg.getIndex(v.stmt), node)) {
+            v = v.up;
+        }
+        return v == null ? rootVersion : v;
+    }
+
+    /**
+     * @return the tracked variables which have at least one version
+     * other than the root.
+     */
+    public Iterable<Var> getVars() {
+        return varVersions.keySet();
+    }
+
+    /**
+     * @return the versions (except the root) of given variable,
+     * in dominator-tree pre-order.
+     */
+    public List<Version> getVersions(Var var) {
+        Version[] versions = varVersions.get(var);
+        return versions == null ? List.of() : List.of(versions);
+    }
+
+    /**
+     * @return the DEF version defined by given statement, or {@code null}
+     * if the statement does not define any tracked variable.
+     */
+    public Version getDef(Stmt stmt) {
+        return defs[cfg.getIndex(stmt)];
+    }
+
+    /**
+     * @return the version of given variable which reaches the point
+     * just before given statement (after the phi versions at it).
+     */
+    public Version getVersionBefore(Stmt stmt, Var var) {
+        Version[] versions = varVersions.get(var);
+        if (versions == null) {
+            return rootVersion;
+        }
+        int node = cfg.getIndex(stmt);
+        return lookup(versions, node, 2 * pre[node]);
+    }
+}
@@ -35,11 +35,14 @@ import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.ir.stmt.Throw;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.Sets;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 
 import static pascal.taie.util.collection.Maps.newHybridMap;
@@ -52,10 +55,12 @@ class IntraExplicitThrowAnalysis implements ExplicitThrowAnalysis {
     @Override
     public void analyze(IR ir, ThrowResult result) {
         Map<Throw, ClassType> definiteThrows = findDefiniteThrows(ir);
+        boolean lazy = World.get().getOptions().isLazyClassLoading();
         ir.forEach(stmt -> {
             if (stmt instanceof Throw throwStmt) {
-                result.addExplicit(throwStmt,
-                        mayThrowExplicitly(throwStmt, definiteThrows));
+                result.addExplicit(throwStmt, lazy
+                        ? mayThrowExplicitlyLazily(ir, throwStmt, definiteThrows)
+                        : mayThrowExplicitly(throwStmt, definiteThrows));
             } else if (stmt instanceof Invoke invoke) {
                 result.addExplicit(invoke, mayThrowExplicitly(invoke));
             }
@@ -117,6 +122,32 @@ class IntraExplicitThrowAnalysis implements ExplicitThrowAnalysis {
         }
     }
 
+    /**
+     * In lazy class loading mode, the class hierarchy only contains the
+     * classes built so far, thus the subclasses of the type of thrown
+     * variable cannot be enumerated. Instead, we take the type itself
+     * (like the exceptions declared by callees), together with the catch
+     * types of the IR that are its subtypes, so that the handlers of
+     * these subtypes are still considered by {@link CatchAnalysis}.
+     */
+    private static Collection<ClassType> mayThrowExplicitlyLazily(
+            IR ir, Throw throwStmt, Map<Throw, ClassType> definiteThrows) {
+        ClassType throwType = definiteThrows.get(throwStmt);
+        if (throwType != null) {
+            return List.of(throwType);
+        }
+        ClassType varType = (ClassType) throwStmt.getExceptionRef().getType();
+        TypeSystem typeSystem = World.get().getTypeSystem();
+        Set<ClassType> types = Sets.newHybridSet();
+        types.add(varType);
+        ir.getExceptionEntries().forEach(entry -> {
+            if (typeSystem.isSubtype(varType, entry.catchType())) {
+                types.add(entry.catchType());
+            }
+        });
+        return types;
+    }
+
     private static Collection<ClassType> mayThrowExplicitly(Invoke invoke) {
         try {
             return invoke.isDynamic() ?
@@ -25,16 +25,22 @@ package pascal.taie.analysis.pta;
 import org.apache.logging.log4j.Level;
 import pascal.taie.World;
 import pascal.taie.analysis.ProgramAnalysis;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.ConcurrentCSManager;
+import pascal.taie.analysis.pta.core.cs.element.IndexedCSManager;
 import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
+import pascal.taie.analysis.pta.core.cs.selector.BudgetedSelector;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelectorFactory;
 import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.solver.DefaultSolver;
+import pascal.taie.analysis.pta.core.solver.ParallelSolver;
 import pascal.taie.analysis.pta.core.solver.Solver;
 import pascal.taie.analysis.pta.plugin.AnalysisTimer;
 import pascal.taie.analysis.pta.plugin.ClassInitializer;
 import pascal.taie.analysis.pta.plugin.CompositePlugin;
+import pascal.taie.analysis.pta.plugin.ContextBudgetMonitor;
 import pascal.taie.analysis.pta.plugin.EntryPointHandler;
 import pascal.taie.analysis.pta.plugin.Plugin;
 import pascal.taie.analysis.pta.plugin.ReferenceHandler;
@@ -48,18 +54,24 @@ import pascal.taie.analysis.pta.plugin.natives.NativeModeller;
 import pascal.taie.analysis.pta.plugin.reflection.ReflectionAnalysis;
 import pascal.taie.analysis.pta.plugin.taint.TaintAnalysis;
 import pascal.taie.analysis.pta.toolkit.CollectionMethods;
+import pascal.taie.analysis.pta.toolkit.PreAnalysisCache;
 import pascal.taie.analysis.pta.toolkit.mahjong.Mahjong;
 import pascal.taie.analysis.pta.toolkit.scaler.Scaler;
 import pascal.taie.analysis.pta.toolkit.zipper.Zipper;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.AnalysisOptions;
 import pascal.taie.config.ConfigException;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.util.Timer;
 
+import javax.annotation.Nullable;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
 
@@ -81,37 +93,101 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
                 selector = ContextSelectorFactory.makeSelectiveSelector(cs,
                         new CollectionMethods(World.get().getClassHierarchy()).get());
             } else {
-                // run context-insensitive analysis as pre-analysis
-                PointerAnalysisResult preResult = runAnalysis(heapModel,
-                        ContextSelectorFactory.makeCISelector());
-                if (advanced.startsWith("scaler")) {
-                    selector = Timer.runAndCount(() -> ContextSelectorFactory
-                                    .makeGuidedSelector(Scaler.run(preResult, advanced)),
-                            "Scaler", Level.INFO);
-                } else if (advanced.startsWith("zipper")) {
-                    selector = Timer.runAndCount(() -> ContextSelectorFactory
-                                    .makeSelectiveSelector(cs, Zipper.run(preResult, advanced)),
-                            "Zipper", Level.INFO);
-                } else if (advanced.equals("mahjong")) {
-                    heapModel = Timer.runAndCount(() -> Mahjong.run(preResult, options),
-                            "Mahjong", Level.INFO);
-                } else {
-                    throw new IllegalArgumentException(
-                            "Illegal advanced analysis argument: " + advanced);
+                selector = runAdvancedAnalysis(heapModel, advanced, cs, options);
+                if (selector == null) { // Mahjong
+                    heapModel = runMahjong(heapModel, options);
                 }
             }
         }
         if (selector == null) {
             selector = ContextSelectorFactory.makePlainSelector(cs);
         }
+        if (options.getInt("budget-time") != -1 ||
+                options.getInt("budget-memory") != -1) {
+            selector = ContextSelectorFactory.makeBudgetedSelector(selector);
+        }
         return runAnalysis(heapModel, selector);
     }
 
+    /**
+     * Runs the advanced analysis (except Mahjong) which is based on
+     * context-insensitive pre-analysis. If pre-analysis cache is enabled,
+     * and the result of the advanced analysis is cached, then the
+     * pre-analysis is skipped.
+     *
+     * @return the context selector computed by the advanced analysis,
+     * or {@code null} if the advanced analysis is Mahjong.
+     */
+    @Nullable
+    private ContextSelector runAdvancedAnalysis(
+            HeapModel heapModel, String advanced, String cs,
+            AnalysisOptions options) {
+        PreAnalysisCache cache = options.getBoolean("pre-analysis-cache")
+                ? new PreAnalysisCache(options, advanced) : null;
+        if (advanced.startsWith("scaler")) {
+            Map<JMethod, String> csMap = cache != null
+                    ? cache.loadContextVariants() : null;
+            if (csMap == null) {
+                PointerAnalysisResult preResult = runPreAnalysis(heapModel);
+                csMap = Timer.runAndCount(() -> Scaler.run(preResult, advanced),
+                        "Scaler", Level.INFO);
+                if (cache != null) {
+                    cache.storeContextVariants(csMap);
+                }
+            }
+            return ContextSelectorFactory.makeGuidedSelector(csMap);
+        } else if (advanced.startsWith("zipper")) {
+            Set<JMethod> pcms = cache != null ? cache.loadMethods() : null;
+            if (pcms == null) {
+                PointerAnalysisResult preResult = runPreAnalysis(heapModel);
+                int threads = getAdvancedThreads(options);
+                pcms = Timer.runAndCount(() -> Zipper.run(preResult, advanced, threads),
+                        "Zipper", Level.INFO);
+                if (cache != null) {
+                    cache.storeMethods(pcms);
+                }
+            }
+            return ContextSelectorFactory.makeSelectiveSelector(cs, pcms);
+        } else if (advanced.equals("mahjong")) {
+            return null;
+        } else {
+            throw new IllegalArgumentException(
+                    "Illegal advanced analysis argument: " + advanced);
+        }
+    }
+
+    private HeapModel runMahjong(HeapModel heapModel, AnalysisOptions options) {
+        PreAnalysisCache cache = options.getBoolean("pre-analysis-cache")
+                ? new PreAnalysisCache(options, "mahjong") : null;
+        List<Set<New>> siteGroups = cache != null ? cache.loadSiteGroups() : null;
+        if (siteGroups == null) {
+            PointerAnalysisResult preResult = runPreAnalysis(heapModel);
+            siteGroups = Timer.runAndCount(
+                    () -> Mahjong.mergeAllocationSites(preResult),
+                    "Mahjong", Level.INFO);
+            if (cache != null) {
+                cache.storeSiteGroups(siteGroups);
+            }
+        }
+        return Mahjong.makeHeapModel(options, siteGroups);
+    }
+
+    /**
+     * Runs context-insensitive analysis as pre-analysis.
+     */
+    private PointerAnalysisResult runPreAnalysis(HeapModel heapModel) {
+        return runAnalysis(heapModel, ContextSelectorFactory.makeCISelector());
+    }
+
+    private static int getAdvancedThreads(AnalysisOptions options) {
+        int threads = options.getInt("advanced-threads");
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
     private PointerAnalysisResult runAnalysis(HeapModel heapModel,
                                               ContextSelector selector) {
         AnalysisOptions options = getOptions();
-        Solver solver = new DefaultSolver(options,
-                heapModel, selector, new MapBasedCSManager());
+        Solver solver = makeSolver(options, heapModel, selector);
         // The initialization of some Plugins may read the fields in solver,
         // e.g., contextSelector or csManager, thus we initialize Plugins
         // after setting all other fields of solver.
@@ -120,6 +196,30 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
         return solver.getResult();
     }
 
+    private static Solver makeSolver(AnalysisOptions options,
+                                     HeapModel heapModel,
+                                     ContextSelector selector) {
+        String solver = options.getString("solver");
+        return switch (solver) {
+            case "default" -> new DefaultSolver(options,
+                    heapModel, selector, makeCSManager(options));
+            case "parallel" -> new ParallelSolver(options,
+                    heapModel, selector, new ConcurrentCSManager());
+            default -> throw new ConfigException(
+                    "Unknown pointer analysis solver: " + solver);
+        };
+    }
+
+    private static CSManager makeCSManager(AnalysisOptions options) {
+        String csManager = options.getString("cs-manager");
+        return switch (csManager) {
+            case "map" -> new MapBasedCSManager();
+            case "indexed" -> new IndexedCSManager();
+            default -> throw new ConfigException(
+                    "Unknown context-sensitive element manager: " + csManager);
+        };
+    }
+
     private static void setPlugin(Solver solver, AnalysisOptions options) {
         CompositePlugin plugin = new CompositePlugin();
         // add builtin plugins
@@ -154,6 +254,9 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
         if (options.getString("taint-config") != null) {
             plugin.addPlugin(new TaintAnalysis());
         }
+        if (solver.getContextSelector() instanceof BudgetedSelector) {
+            plugin.addPlugin(new ContextBudgetMonitor());
+        }
         plugin.addPlugin(new ResultProcessor());
         // add plugins specified in options
         // noinspection unchecked
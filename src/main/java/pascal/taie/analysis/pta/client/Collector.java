@@ -27,19 +27,27 @@ import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
 import pascal.taie.analysis.ProgramAnalysis;
 import pascal.taie.analysis.StmtResult;
-import pascal.taie.analysis.graph.callgraph.CallGraph;
 import pascal.taie.analysis.pta.PointerAnalysis;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.store.StoredResult;
 import pascal.taie.config.AnalysisConfig;
-import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.collection.Sets;
 
+import java.io.File;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * Collects statements in program that the client wants.
+ * <p>
+ * If option {@code stored-result} is given, the client queries the pointer
+ * analysis result stored in the file (dumped by option {@code dump-binary}
+ * of pointer analysis) instead of the result of pointer analysis, so that
+ * the client can run without re-running pointer analysis.
  */
 abstract class Collector extends ProgramAnalysis<StmtResult<Boolean>> {
 
@@ -51,13 +59,27 @@ abstract class Collector extends ProgramAnalysis<StmtResult<Boolean>> {
 
     @Override
     public StmtResult<Boolean> analyze() {
-        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
-        CallGraph<Invoke, JMethod> callGraph = result.getCallGraph();
+        String storedResultPath = getOptions().getString("stored-result");
+        Iterable<JMethod> reachableMethods;
+        Predicate<Stmt> isWanted;
+        if (storedResultPath != null) {
+            StoredResult result = StoredResult.load(new File(storedResultPath));
+            ClassHierarchy hierarchy = World.get().getClassHierarchy();
+            reachableMethods = result.reachableMethods()
+                    .map(hierarchy::getMethod)
+                    .filter(Objects::nonNull)
+                    .toList();
+            isWanted = stmt -> isWanted(stmt, result);
+        } else {
+            PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+            reachableMethods = result.getCallGraph();
+            isWanted = stmt -> isWanted(stmt, result);
+        }
         Set<Stmt> wantedStmts = Sets.newSet();
         int nRelevantStmts = 0;
         int nWantedAppStmts = 0, nRelevantAppStmts = 0;
         // collect want statements and count
-        for (JMethod method : callGraph) {
+        for (JMethod method : reachableMethods) {
             boolean isApp = method.isApplication();
             for (Stmt stmt : method.getIR()) {
                 if (isRelevant(stmt)) {
@@ -65,7 +87,7 @@ abstract class Collector extends ProgramAnalysis<StmtResult<Boolean>> {
                     if (isApp) {
                         ++nRelevantAppStmts;
                     }
-                    if (isWanted(stmt, result)) {
+                    if (isWanted.test(stmt)) {
                         wantedStmts.add(stmt);
                         if (isApp) {
                             ++nWantedAppStmts;
@@ -104,6 +126,12 @@ abstract class Collector extends ProgramAnalysis<StmtResult<Boolean>> {
      */
     abstract boolean isWanted(Stmt stmt, PointerAnalysisResult result);
 
+    /**
+     * @return {@code true} if the given statement is wanted by the client
+     * according to the stored pointer analysis result.
+     */
+    abstract boolean isWanted(Stmt stmt, StoredResult result);
+
     /**
      * @return description of wanted statements
      */
@@ -25,11 +25,13 @@ package pascal.taie.analysis.pta.client;
 import pascal.taie.World;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.store.StoredResult;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Cast;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
 
 public class MayFailCast extends Collector {
 
@@ -58,6 +60,23 @@ public class MayFailCast extends Collector {
         return false;
     }
 
+    @Override
+    boolean isWanted(Stmt stmt, StoredResult result) {
+        Cast cast = (Cast) stmt;
+        Type castType = cast.getRValue().getCastType();
+        Var from = cast.getRValue().getValue();
+        TypeSystem typeSystem = World.get().getTypeSystem();
+        for (String obj : result.getPointsToSet(
+                from.getMethod().getSignature(), from.getName())) {
+            String objType = result.getObjectType(obj);
+            if (objType != null && !typeSystem.isSubtype(
+                    castType, typeSystem.getType(objType))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     String getDescription() {
         return ID;
@@ -23,6 +23,7 @@
 package pascal.taie.analysis.pta.client;
 
 import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.store.StoredResult;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.ir.stmt.Stmt;
@@ -47,6 +48,17 @@ public class PolymorphicCallSite extends Collector {
         return result.getCallGraph().getCalleesOf(invoke).size() > 1;
     }
 
+    @Override
+    boolean isWanted(Stmt stmt, StoredResult result) {
+        Invoke invoke = (Invoke) stmt;
+        return result.getCallEdgesOutOf(invoke.getContainer().getSignature())
+                .stream()
+                .filter(e -> e.callSiteIndex() == invoke.getIndex())
+                .map(StoredResult.CallEdge::callee)
+                .distinct()
+                .count() > 1;
+    }
+
     @Override
     String getDescription() {
         return ID;
@@ -83,6 +83,33 @@ public class CSCallGraph extends AbstractCallGraph<CSCallSite, CSMethod> {
         }
     }
 
+    /**
+     * Removes a call graph edge from this call graph.
+     *
+     * @param edge the call edge to be removed
+     * @return true if the call graph changed as a result of the call,
+     * otherwise false.
+     */
+    public boolean removeEdge(Edge<CSCallSite, CSMethod> edge) {
+        if (edge.getCallSite().removeEdge(edge)) {
+            edge.getCallee().removeEdge(edge);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Removes a reachable method from this call graph. The call edges
+     * to and from the method are not removed by this method.
+     *
+     * @return true if this call graph changed as a result of the call,
+     * otherwise false.
+     */
+    public boolean removeReachableMethod(CSMethod csMethod) {
+        return reachableMethods.remove(csMethod);
+    }
+
     @Override
     public Set<CSCallSite> getCallersOf(CSMethod callee) {
         return Views.toMappedSet(callee.getEdges(), Edge::getCallSite);
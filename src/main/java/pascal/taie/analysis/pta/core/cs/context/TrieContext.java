@@ -22,6 +22,7 @@
 
 package pascal.taie.analysis.pta.core.cs.context;
 
+import pascal.taie.util.Indexable;
 import pascal.taie.util.collection.Maps;
 
 import java.util.Arrays;
@@ -29,8 +30,10 @@ import java.util.Map;
 
 /**
  * An implementation of {@link Context}, which organizes contexts as Trie.
+ * Each context is given a unique index, and the indexes of the contexts
+ * produced by the same factory are dense, starting from 0 (the empty context).
  */
-public class TrieContext implements Context {
+public class TrieContext implements Context, Indexable {
 
     private final TrieContext parent;
 
@@ -38,18 +41,27 @@ public class TrieContext implements Context {
 
     private final int length;
 
+    private final int index;
+
     private Map<Object, TrieContext> children;
 
-    private TrieContext() {
+    private TrieContext(int index) {
         parent = null;
         elem = null;
         length = 0;
+        this.index = index;
     }
 
-    private TrieContext(TrieContext parent, Object elem) {
+    private TrieContext(TrieContext parent, Object elem, int index) {
         this.parent = parent;
         this.elem = elem;
         this.length = parent.getLength() + 1;
+        this.index = index;
+    }
+
+    @Override
+    public int getIndex() {
+        return index;
     }
 
     @Override
@@ -71,14 +83,6 @@ public class TrieContext implements Context {
         return parent;
     }
 
-    TrieContext getChild(Object elem) {
-        if (children == null) {
-            children = Maps.newHybridMap();
-        }
-        return children.computeIfAbsent(elem,
-                e -> new TrieContext(this, e));
-    }
-
     Object getElem() {
         return elem;
     }
@@ -96,11 +100,25 @@ public class TrieContext implements Context {
 
     public static class Factory<T> implements ContextFactory<T> {
 
+        /**
+         * Counter for assigning indexes to the contexts
+         * produced by this factory.
+         */
+        private int counter = 0;
+
         /**
          * Root context of all tree contexts produced by this factory.
          * It also acts as the default context.
          */
-        private final TrieContext rootContext = new TrieContext();
+        private final TrieContext rootContext = new TrieContext(counter++);
+
+        private TrieContext getChild(TrieContext parent, Object elem) {
+            if (parent.children == null) {
+                parent.children = Maps.newHybridMap();
+            }
+            return parent.children.computeIfAbsent(elem,
+                    e -> new TrieContext(parent, e, counter++));
+        }
 
         @Override
         public TrieContext getEmptyContext() {
@@ -109,14 +127,14 @@ public class TrieContext implements Context {
 
         @Override
         public Context make(T elem) {
-            return rootContext.getChild(elem);
+            return getChild(rootContext, elem);
         }
 
         @Override
         public TrieContext make(T... elems) {
             TrieContext result = rootContext;
             for (T elem : elems) {
-                result = result.getChild(elem);
+                result = getChild(result, elem);
             }
             return result;
         }
@@ -142,9 +160,9 @@ public class TrieContext implements Context {
         public TrieContext append(Context parent, T elem, int limit) {
             TrieContext p = (TrieContext) parent;
             if (parent.getLength() < limit) {
-                return p.getChild(elem);
+                return getChild(p, elem);
             } else {
-                return makeLastK(p, limit - 1).getChild(elem);
+                return getChild(makeLastK(p, limit - 1), elem);
             }
         }
     }
@@ -37,7 +37,12 @@ import java.util.stream.Stream;
 
 abstract class AbstractPointer implements Pointer {
 
-    private PointsToSet pointsToSet;
+    /**
+     * Points-to set of this pointer, which is created lazily. It is
+     * volatile, as {@link pascal.taie.analysis.pta.core.solver.ParallelSolver}
+     * creates and reads the sets in multiple threads.
+     */
+    private volatile PointsToSet pointsToSet;
 
     private final int index;
 
@@ -74,6 +79,13 @@ abstract class AbstractPointer implements Pointer {
         filters.add(filter);
     }
 
+    @Override
+    public void removeFilter(Predicate<CSObj> filter) {
+        if (!filters.isEmpty()) {
+            filters.remove(filter);
+        }
+    }
+
     @Override
     public Set<Predicate<CSObj>> getFilters() {
         return filters;
@@ -90,8 +102,14 @@ abstract class AbstractPointer implements Pointer {
         return getObjects().stream();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method is synchronized, so that PFG edges can be added
+     * safely by the worker threads of a parallel solver.
+     */
     @Override
-    public PointerFlowEdge addEdge(PointerFlowEdge edge) {
+    public synchronized PointerFlowEdge addEdge(PointerFlowEdge edge) {
         assert edge.source() == this;
         if (successors.add(edge.target())) {
             outEdges.add(edge);
@@ -109,8 +127,13 @@ abstract class AbstractPointer implements Pointer {
     }
 
     @Override
-    public void removeEdgesIf(Predicate<PointerFlowEdge> filter) {
-        outEdges.removeIf(filter);
+    public synchronized void removeEdgesIf(Predicate<PointerFlowEdge> filter) {
+        if (outEdges.removeIf(filter)) {
+            // a target may still be reached by other edges, e.g.,
+            // edges of different kinds, thus successors are recomputed
+            successors.clear();
+            outEdges.forEach(edge -> successors.add(edge.target()));
+        }
     }
 
     @Override
@@ -68,6 +68,10 @@ public class CSCallSite extends AbstractCSElement {
         return edges.add(edge);
     }
 
+    public boolean removeEdge(Edge<CSCallSite, CSMethod> edge) {
+        return edges.remove(edge);
+    }
+
     public Set<Edge<CSCallSite, CSMethod>> getEdges() {
         return Collections.unmodifiableSet(edges);
     }
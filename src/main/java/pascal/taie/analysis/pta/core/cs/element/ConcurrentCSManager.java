@@ -0,0 +1,379 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.World;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.ClassNames;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Streams;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+/**
+ * Thread-safe counterpart of {@link MapBasedCSManager}, which can be
+ * accessed by multiple threads concurrently. All context-sensitive
+ * elements are stored in concurrent maps, and their indexes are
+ * assigned by atomic counters.
+ * <p>
+ * The collections returned by the query methods, e.g., {@link #getCSVars()},
+ * are snapshots of the elements at the time of the query.
+ */
+public class ConcurrentCSManager implements CSManager {
+
+    private final PointerManager ptrManager = new PointerManager();
+
+    private final CSObjManager objManager = new CSObjManager();
+
+    private final ConcurrentMap<Invoke, ConcurrentMap<Context, CSCallSite>> callSites
+            = Maps.newConcurrentMap();
+
+    private final ConcurrentMap<JMethod, ConcurrentMap<Context, CSMethod>> methods
+            = Maps.newConcurrentMap();
+
+    @Override
+    public CSVar getCSVar(Context context, Var var) {
+        return ptrManager.getCSVar(context, var);
+    }
+
+    @Override
+    public StaticField getStaticField(JField field) {
+        return ptrManager.getStaticField(field);
+    }
+
+    @Override
+    public InstanceField getInstanceField(CSObj base, JField field) {
+        return ptrManager.getInstanceField(base, field);
+    }
+
+    @Override
+    public ArrayIndex getArrayIndex(CSObj array) {
+        return ptrManager.getArrayIndex(array);
+    }
+
+    @Override
+    public Collection<Var> getVars() {
+        return ptrManager.getVars();
+    }
+
+    @Override
+    public Collection<CSVar> getCSVars() {
+        return ptrManager.getCSVars();
+    }
+
+    @Override
+    public Collection<CSVar> getCSVarsOf(Var var) {
+        return ptrManager.getCSVarsOf(var);
+    }
+
+    @Override
+    public Collection<StaticField> getStaticFields() {
+        return ptrManager.getStaticFields();
+    }
+
+    @Override
+    public Collection<InstanceField> getInstanceFields() {
+        return ptrManager.getInstanceFields();
+    }
+
+    @Override
+    public Collection<ArrayIndex> getArrayIndexes() {
+        return ptrManager.getArrayIndexes();
+    }
+
+    @Override
+    public Stream<Pointer> pointers() {
+        return ptrManager.pointers();
+    }
+
+    @Override
+    public CSObj getCSObj(Context heapContext, Obj obj) {
+        return objManager.getCSObj(heapContext, obj);
+    }
+
+    @Override
+    public Collection<CSObj> getObjects() {
+        return objManager.getObjects();
+    }
+
+    @Override
+    public Collection<CSObj> getCSObjsOf(Obj obj) {
+        return objManager.getCSObjsOf(obj);
+    }
+
+    @Override
+    public Indexer<CSObj> getObjectIndexer() {
+        return objManager;
+    }
+
+    @Override
+    public CSCallSite getCSCallSite(Context context, Invoke callSite) {
+        return getOrCreate(callSites, callSite, context, (cs, ctx) -> {
+            CSMethod container = getCSMethod(ctx, cs.getContainer());
+            return new CSCallSite(cs, ctx, container);
+        });
+    }
+
+    @Override
+    public CSMethod getCSMethod(Context context, JMethod method) {
+        return getOrCreate(methods, method, context, CSMethod::new);
+    }
+
+    /**
+     * Retrieves the value of (key1, key2) in given two-level map,
+     * and creates the value by {@code creator} if it is absent.
+     * The creator is invoked at most once for each pair of keys.
+     */
+    private static <K1, K2, V> V getOrCreate(
+            ConcurrentMap<K1, ConcurrentMap<K2, V>> map, K1 key1, K2 key2,
+            BiFunction<K1, K2, V> creator) {
+        return map.computeIfAbsent(key1, __ -> Maps.newConcurrentMap())
+                .computeIfAbsent(key2, k2 -> creator.apply(key1, k2));
+    }
+
+    /**
+     * @return snapshot of all values in given two-level map.
+     */
+    private static <V> List<V> values(Map<?, ? extends Map<?, V>> map) {
+        return map.values()
+                .stream()
+                .flatMap(m -> m.values().stream())
+                .toList();
+    }
+
+    private static class PointerManager {
+
+        private final ConcurrentMap<Var, ConcurrentMap<Context, CSVar>> vars
+                = Maps.newConcurrentMap();
+
+        private final ConcurrentMap<JField, StaticField> staticFields
+                = Maps.newConcurrentMap();
+
+        private final ConcurrentMap<CSObj, ConcurrentMap<JField, InstanceField>> instanceFields
+                = Maps.newConcurrentMap();
+
+        private final ConcurrentMap<CSObj, ArrayIndex> arrayIndexes
+                = Maps.newConcurrentMap();
+
+        /**
+         * Counter for assigning unique indexes to Pointers.
+         */
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private CSVar getCSVar(Context context, Var var) {
+            return getOrCreate(vars, var, context,
+                    (v, c) -> new CSVar(v, c, counter.getAndIncrement()));
+        }
+
+        private StaticField getStaticField(JField field) {
+            return staticFields.computeIfAbsent(field,
+                    f -> new StaticField(f, counter.getAndIncrement()));
+        }
+
+        private InstanceField getInstanceField(CSObj base, JField field) {
+            return getOrCreate(instanceFields, base, field,
+                    (b, f) -> new InstanceField(b, f, counter.getAndIncrement()));
+        }
+
+        private ArrayIndex getArrayIndex(CSObj array) {
+            return arrayIndexes.computeIfAbsent(array,
+                    a -> new ArrayIndex(a, counter.getAndIncrement()));
+        }
+
+        private Collection<Var> getVars() {
+            return Collections.unmodifiableCollection(vars.keySet());
+        }
+
+        private Collection<CSVar> getCSVars() {
+            return values(vars);
+        }
+
+        private Collection<CSVar> getCSVarsOf(Var var) {
+            var csVars = vars.get(var);
+            return csVars != null ?
+                    Collections.unmodifiableCollection(csVars.values()) : Set.of();
+        }
+
+        private Collection<StaticField> getStaticFields() {
+            return Collections.unmodifiableCollection(staticFields.values());
+        }
+
+        private Collection<InstanceField> getInstanceFields() {
+            return values(instanceFields);
+        }
+
+        private Collection<ArrayIndex> getArrayIndexes() {
+            return Collections.unmodifiableCollection(arrayIndexes.values());
+        }
+
+        private Stream<Pointer> pointers() {
+            return Streams.concat(
+                    getCSVars().stream(),
+                    getInstanceFields().stream(),
+                    getArrayIndexes().stream(),
+                    getStaticFields().stream());
+        }
+    }
+
+    /**
+     * Assigns indexes to CSObjs in the same way as the counterpart
+     * in {@link MapBasedCSManager}, i.e., reserves small indexes for
+     * throwable and string objects.
+     */
+    private static class CSObjManager implements Indexer<CSObj> {
+
+        private final ConcurrentMap<Obj, ConcurrentMap<Context, CSObj>> objMap
+                = Maps.newConcurrentMap();
+
+        private final TypeSystem typeSystem = World.get().getTypeSystem();
+
+        private final Type throwable = typeSystem.getClassType(ClassNames.THROWABLE);
+
+        private final Type string = typeSystem.getClassType(ClassNames.STRING);
+
+        /**
+         * Number of indexes reserved for throwable objects.
+         */
+        private static final int THROWABLE_BUDGET = 2048;
+
+        /**
+         * Number of indexes reserved for string objects.
+         */
+        private static final int STRING_BUDGET = 4096;
+
+        /**
+         * Counter for assign unique indexes to throwable objects.
+         */
+        private final AtomicInteger throwableCounter = new AtomicInteger(0);
+
+        /**
+         * Counter for assign unique indexes to string objects.
+         */
+        private final AtomicInteger stringCounter = new AtomicInteger(THROWABLE_BUDGET);
+
+        /**
+         * Counter for assigning unique indexes to other CSObjs.
+         */
+        private final AtomicInteger counter = new AtomicInteger(THROWABLE_BUDGET + STRING_BUDGET);
+
+        /**
+         * Maps index to CSObj. The array may be replaced by a larger one
+         * when new CSObjs are stored, thus it is declared as volatile.
+         */
+        private volatile CSObj[] objs = new CSObj[65536];
+
+        CSObj getCSObj(Context heapContext, Obj obj) {
+            return getOrCreate(objMap, obj, heapContext, (o, c) -> {
+                int index = getCSObjIndex(o);
+                CSObj csObj = new CSObj(o, c, index);
+                storeCSObj(csObj, index);
+                return csObj;
+            });
+        }
+
+        private int getCSObjIndex(Obj obj) {
+            if (typeSystem.isSubtype(throwable, obj.getType())) {
+                int index = getIndexWithin(throwableCounter, THROWABLE_BUDGET);
+                if (index != -1) {
+                    return index;
+                }
+            } else if (obj.getType().equals(string)) {
+                int index = getIndexWithin(stringCounter,
+                        THROWABLE_BUDGET + STRING_BUDGET);
+                if (index != -1) {
+                    return index;
+                }
+            }
+            return counter.getAndIncrement();
+        }
+
+        /**
+         * Increments the counter if its value is less than the bound.
+         *
+         * @return the value of the counter before increment, or -1 if
+         * the counter has reached the bound.
+         */
+        private static int getIndexWithin(AtomicInteger counter, int bound) {
+            int index;
+            do {
+                index = counter.get();
+                if (index >= bound) {
+                    return -1;
+                }
+            } while (!counter.compareAndSet(index, index + 1));
+            return index;
+        }
+
+        /**
+         * Stores {@code csObj} to the {@code objs} array with the position
+         * specified by {@code index}.
+         */
+        private synchronized void storeCSObj(CSObj csObj, int index) {
+            CSObj[] arr = objs;
+            if (index >= arr.length) {
+                int newLength = Math.max(index + 1, (int) (arr.length * 1.5));
+                arr = Arrays.copyOf(arr, newLength);
+            }
+            arr[index] = csObj;
+            // publish the (possibly new) array
+            objs = arr;
+        }
+
+        Collection<CSObj> getObjects() {
+            return values(objMap);
+        }
+
+        Collection<CSObj> getCSObjsOf(Obj obj) {
+            var csObjs = objMap.get(obj);
+            return csObjs != null ?
+                    Collections.unmodifiableCollection(csObjs.values()) : Set.of();
+        }
+
+        @Override
+        public int getIndex(CSObj o) {
+            return o.getIndex();
+        }
+
+        @Override
+        public CSObj getObject(int index) {
+            return objs[index];
+        }
+    }
+}
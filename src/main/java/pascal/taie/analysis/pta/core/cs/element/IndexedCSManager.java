@@ -0,0 +1,433 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.TrieContext;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.LongObjectTable;
+import pascal.taie.util.collection.Streams;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static pascal.taie.util.collection.LongObjectTable.key;
+
+/**
+ * Manages data by maintaining the data and their context-sensitive
+ * counterparts by tables keyed by dense {@code int} indexes.
+ * <p>
+ * Each context-sensitive element is looked up by a {@code long} key
+ * composed of two indexes, e.g., the index of a variable and the index
+ * of a context, in an open-addressing {@link LongObjectTable}, so that
+ * the lookups on the hot paths of the solver neither box the keys nor
+ * allocate map entries. The indexes of contexts are given by
+ * {@link TrieContext}, the indexes of {@link Obj}s and {@link CSObj}s
+ * are given by heap model and this manager respectively, and the indexes
+ * of other elements (e.g., variables and fields) are assigned by this
+ * manager when they are first seen.
+ * <p>
+ * This manager is not thread-safe, and it requires all contexts
+ * to be {@link TrieContext}s.
+ */
+public class IndexedCSManager implements CSManager {
+
+    private final Numbering<Var> varNumbering = new Numbering<>(4096);
+
+    private final Numbering<JField> fieldNumbering = new Numbering<>(1024);
+
+    private final Numbering<Invoke> callSiteNumbering = new Numbering<>(4096);
+
+    private final Numbering<JMethod> methodNumbering = new Numbering<>(1024);
+
+    private final PointerManager ptrManager = new PointerManager();
+
+    private final CSObjManager objManager = new CSObjManager();
+
+    private final LongObjectTable<CSCallSite> callSites = new LongObjectTable<>(4096);
+
+    private final LongObjectTable<CSMethod> methods = new LongObjectTable<>(1024);
+
+    @Override
+    public CSVar getCSVar(Context context, Var var) {
+        return ptrManager.getCSVar(context, var);
+    }
+
+    @Override
+    public StaticField getStaticField(JField field) {
+        return ptrManager.getStaticField(field);
+    }
+
+    @Override
+    public InstanceField getInstanceField(CSObj base, JField field) {
+        return ptrManager.getInstanceField(base, field);
+    }
+
+    @Override
+    public ArrayIndex getArrayIndex(CSObj array) {
+        return ptrManager.getArrayIndex(array);
+    }
+
+    @Override
+    public Collection<Var> getVars() {
+        return ptrManager.getVars();
+    }
+
+    @Override
+    public Collection<CSVar> getCSVars() {
+        return ptrManager.getCSVars();
+    }
+
+    @Override
+    public Collection<CSVar> getCSVarsOf(Var var) {
+        return ptrManager.getCSVarsOf(var);
+    }
+
+    @Override
+    public Collection<StaticField> getStaticFields() {
+        return ptrManager.getStaticFields();
+    }
+
+    @Override
+    public Collection<InstanceField> getInstanceFields() {
+        return ptrManager.getInstanceFields();
+    }
+
+    @Override
+    public Collection<ArrayIndex> getArrayIndexes() {
+        return ptrManager.getArrayIndexes();
+    }
+
+    @Override
+    public Stream<Pointer> pointers() {
+        return ptrManager.pointers();
+    }
+
+    @Override
+    public CSObj getCSObj(Context heapContext, Obj obj) {
+        return objManager.getCSObj(heapContext, obj);
+    }
+
+    @Override
+    public Collection<CSObj> getObjects() {
+        return objManager.getObjects();
+    }
+
+    @Override
+    public Collection<CSObj> getCSObjsOf(Obj obj) {
+        return objManager.getCSObjsOf(obj);
+    }
+
+    @Override
+    public Indexer<CSObj> getObjectIndexer() {
+        return objManager;
+    }
+
+    @Override
+    public CSCallSite getCSCallSite(Context context, Invoke callSite) {
+        long key = key(callSiteNumbering.getIndex(callSite), indexOf(context));
+        CSCallSite csCallSite = callSites.get(key);
+        if (csCallSite == null) {
+            CSMethod container = getCSMethod(context, callSite.getContainer());
+            csCallSite = new CSCallSite(callSite, context, container);
+            callSites.put(key, csCallSite);
+        }
+        return csCallSite;
+    }
+
+    @Override
+    public CSMethod getCSMethod(Context context, JMethod method) {
+        long key = key(methodNumbering.getIndex(method), indexOf(context));
+        CSMethod csMethod = methods.get(key);
+        if (csMethod == null) {
+            csMethod = new CSMethod(method, context);
+            methods.put(key, csMethod);
+        }
+        return csMethod;
+    }
+
+    private static int indexOf(Context context) {
+        return ((TrieContext) context).getIndex();
+    }
+
+    private class PointerManager {
+
+        private final LongObjectTable<CSVar> vars = new LongObjectTable<>(8192);
+
+        /**
+         * Context-sensitive variables of each variable, indexed by
+         * the index of the variable given by {@link #varNumbering}.
+         */
+        private final List<List<CSVar>> csVarsOfVar = new ArrayList<>(4096);
+
+        private final List<Var> varList = new ArrayList<>(4096);
+
+        private final List<CSVar> csVarList = new ArrayList<>(8192);
+
+        /**
+         * Static fields, indexed by the index of the field
+         * given by {@link #fieldNumbering}.
+         */
+        private StaticField[] staticFields = new StaticField[1024];
+
+        private final List<StaticField> staticFieldList = new ArrayList<>();
+
+        private final LongObjectTable<InstanceField> instanceFields = new LongObjectTable<>(4096);
+
+        private final List<InstanceField> instanceFieldList = new ArrayList<>(4096);
+
+        /**
+         * Array indexes, indexed by the index of the array {@link CSObj}.
+         */
+        private ArrayIndex[] arrayIndexes = new ArrayIndex[1024];
+
+        private final List<ArrayIndex> arrayIndexList = new ArrayList<>();
+
+        /**
+         * Counter for assigning unique indexes to Pointers.
+         */
+        private int counter = 0;
+
+        private CSVar getCSVar(Context context, Var var) {
+            int varIndex = varNumbering.getIndex(var);
+            long key = key(varIndex, indexOf(context));
+            CSVar csVar = vars.get(key);
+            if (csVar == null) {
+                csVar = new CSVar(var, context, counter++);
+                vars.put(key, csVar);
+                csVarList.add(csVar);
+                if (varIndex == csVarsOfVar.size()) {
+                    csVarsOfVar.add(new ArrayList<>(2));
+                    varList.add(var);
+                }
+                csVarsOfVar.get(varIndex).add(csVar);
+            }
+            return csVar;
+        }
+
+        private StaticField getStaticField(JField field) {
+            int fieldIndex = fieldNumbering.getIndex(field);
+            if (fieldIndex >= staticFields.length) {
+                staticFields = Arrays.copyOf(staticFields,
+                        Math.max(fieldIndex + 1, staticFields.length << 1));
+            }
+            StaticField staticField = staticFields[fieldIndex];
+            if (staticField == null) {
+                staticField = new StaticField(field, counter++);
+                staticFields[fieldIndex] = staticField;
+                staticFieldList.add(staticField);
+            }
+            return staticField;
+        }
+
+        private InstanceField getInstanceField(CSObj base, JField field) {
+            long key = key(base.getIndex(), fieldNumbering.getIndex(field));
+            InstanceField instanceField = instanceFields.get(key);
+            if (instanceField == null) {
+                instanceField = new InstanceField(base, field, counter++);
+                instanceFields.put(key, instanceField);
+                instanceFieldList.add(instanceField);
+            }
+            return instanceField;
+        }
+
+        private ArrayIndex getArrayIndex(CSObj array) {
+            int index = array.getIndex();
+            if (index >= arrayIndexes.length) {
+                arrayIndexes = Arrays.copyOf(arrayIndexes,
+                        Math.max(index + 1, arrayIndexes.length << 1));
+            }
+            ArrayIndex arrayIndex = arrayIndexes[index];
+            if (arrayIndex == null) {
+                arrayIndex = new ArrayIndex(array, counter++);
+                arrayIndexes[index] = arrayIndex;
+                arrayIndexList.add(arrayIndex);
+            }
+            return arrayIndex;
+        }
+
+        private Collection<Var> getVars() {
+            return Collections.unmodifiableList(varList);
+        }
+
+        private Collection<CSVar> getCSVars() {
+            return Collections.unmodifiableList(csVarList);
+        }
+
+        private Collection<CSVar> getCSVarsOf(Var var) {
+            int varIndex = varNumbering.getIndexIfPresent(var);
+            return varIndex >= 0 && varIndex < csVarsOfVar.size() ?
+                    Collections.unmodifiableList(csVarsOfVar.get(varIndex)) :
+                    List.of();
+        }
+
+        private Collection<StaticField> getStaticFields() {
+            return Collections.unmodifiableList(staticFieldList);
+        }
+
+        private Collection<InstanceField> getInstanceFields() {
+            return Collections.unmodifiableList(instanceFieldList);
+        }
+
+        private Collection<ArrayIndex> getArrayIndexes() {
+            return Collections.unmodifiableList(arrayIndexList);
+        }
+
+        private Stream<Pointer> pointers() {
+            return Streams.concat(
+                    getCSVars().stream(),
+                    getInstanceFields().stream(),
+                    getArrayIndexes().stream(),
+                    getStaticFields().stream());
+        }
+    }
+
+    private static class CSObjManager extends AbstractCSObjManager {
+
+        private final LongObjectTable<CSObj> objMap = new LongObjectTable<>(4096);
+
+        private final List<CSObj> objList = new ArrayList<>(4096);
+
+        /**
+         * Context-sensitive objects of each object, indexed by
+         * the index of the object.
+         */
+        private final List<List<CSObj>> csObjsOfObj = new ArrayList<>(4096);
+
+        CSObj getCSObj(Context heapContext, Obj obj) {
+            long key = key(obj.getIndex(), indexOf(heapContext));
+            CSObj csObj = objMap.get(key);
+            if (csObj == null) {
+                csObj = newCSObj(obj, heapContext);
+                objMap.put(key, csObj);
+                objList.add(csObj);
+                while (csObjsOfObj.size() <= obj.getIndex()) {
+                    csObjsOfObj.add(null);
+                }
+                List<CSObj> csObjs = csObjsOfObj.get(obj.getIndex());
+                if (csObjs == null) {
+                    csObjs = new ArrayList<>(2);
+                    csObjsOfObj.set(obj.getIndex(), csObjs);
+                }
+                csObjs.add(csObj);
+            }
+            return csObj;
+        }
+
+        Collection<CSObj> getObjects() {
+            return Collections.unmodifiableList(objList);
+        }
+
+        Collection<CSObj> getCSObjsOf(Obj obj) {
+            int index = obj.getIndex();
+            List<CSObj> csObjs = index < csObjsOfObj.size() ?
+                    csObjsOfObj.get(index) : null;
+            return csObjs != null ? Collections.unmodifiableList(csObjs) : List.of();
+        }
+    }
+
+    /**
+     * Assigns dense indexes to objects by their identities.
+     * The objects are stored in an open-addressing table,
+     * so that looking up an index does not allocate.
+     */
+    private static class Numbering<T> {
+
+        private Object[] keys;
+
+        private int[] indexes;
+
+        private int size = 0;
+
+        private Numbering(int initialCapacity) {
+            keys = new Object[Integer.highestOneBit(initialCapacity - 1) << 1];
+            indexes = new int[keys.length];
+        }
+
+        /**
+         * @return the index of {@code o}. If {@code o} has not been
+         * numbered, assigns it the next index.
+         */
+        private int getIndex(T o) {
+            int mask = keys.length - 1;
+            int i = slot(o, mask);
+            for (Object k; (k = keys[i]) != null; i = (i + 1) & mask) {
+                if (k == o) {
+                    return indexes[i];
+                }
+            }
+            int index = size++;
+            keys[i] = o;
+            indexes[i] = index;
+            if (size > (keys.length >>> 1) + (keys.length >>> 2)) {
+                resize();
+            }
+            return index;
+        }
+
+        /**
+         * @return the index of {@code o}, or -1 if it has not been numbered.
+         */
+        private int getIndexIfPresent(T o) {
+            int mask = keys.length - 1;
+            for (int i = slot(o, mask); keys[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == o) {
+                    return indexes[i];
+                }
+            }
+            return -1;
+        }
+
+        private static int slot(Object o, int mask) {
+            int h = System.identityHashCode(o) * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private void resize() {
+            Object[] oldKeys = keys;
+            int[] oldIndexes = indexes;
+            keys = new Object[oldKeys.length << 1];
+            indexes = new int[keys.length];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; ++j) {
+                if (oldKeys[j] != null) {
+                    int i = slot(oldKeys[j], mask);
+                    while (keys[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    indexes[i] = oldIndexes[j];
+                }
+            }
+        }
+    }
+}
@@ -62,6 +62,11 @@ public interface Pointer extends Indexable {
      */
     void addFilter(Predicate<CSObj> filter);
 
+    /**
+     * Removes a filter added to this pointer.
+     */
+    void removeFilter(Predicate<CSObj> filter);
+
     /**
      * @return all filters added to this pointer.
      */
@@ -0,0 +1,111 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.selector;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Context selector which applies context sensitivity of the delegate
+ * selector to the methods that have not been demoted, and analyzes
+ * the demoted methods (and the objects allocated in them)
+ * context-insensitively.
+ * <p>
+ * Methods can be demoted during the analysis, e.g., when the analysis
+ * exceeds its budget. After a method is demoted, the new calls to it
+ * are analyzed with the empty context, while the contexts of the method
+ * that have been created are still analyzed, thus the analysis still
+ * reaches a sound fixpoint.
+ */
+public class BudgetedSelector implements ContextSelector {
+
+    /**
+     * Delegate context selector.
+     */
+    private final ContextSelector delegate;
+
+    /**
+     * Methods that are analyzed context-insensitively.
+     * This set may be read by multiple threads of the solver.
+     */
+    private final Set<JMethod> demotedMethods = Sets.newConcurrentSet();
+
+    BudgetedSelector(ContextSelector delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Demotes given method, so that it will be analyzed
+     * context-insensitively from now on.
+     *
+     * @return {@code true} if the method has not been demoted before.
+     */
+    public boolean demote(JMethod method) {
+        return demotedMethods.add(method);
+    }
+
+    public boolean isDemoted(JMethod method) {
+        return demotedMethods.contains(method);
+    }
+
+    /**
+     * @return the methods that have been demoted.
+     */
+    public Set<JMethod> getDemotedMethods() {
+        return Collections.unmodifiableSet(demotedMethods);
+    }
+
+    @Override
+    public Context getEmptyContext() {
+        return delegate.getEmptyContext();
+    }
+
+    @Override
+    public Context selectContext(CSCallSite callSite, JMethod callee) {
+        return isDemoted(callee) ?
+                delegate.getEmptyContext() :
+                delegate.selectContext(callSite, callee);
+    }
+
+    @Override
+    public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
+        return isDemoted(callee) ?
+                delegate.getEmptyContext() :
+                delegate.selectContext(callSite, recv, callee);
+    }
+
+    @Override
+    public Context selectHeapContext(CSMethod method, Obj obj) {
+        return isDemoted(method.getMethod()) ?
+                delegate.getEmptyContext() :
+                delegate.selectHeapContext(method, obj);
+    }
+}
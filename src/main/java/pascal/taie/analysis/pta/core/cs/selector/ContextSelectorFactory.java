@@ -102,6 +102,15 @@ public class ContextSelectorFactory {
         return new SelectiveSelector(makePlainSelector(cs), isCSMethod, isCSObj);
     }
 
+    /**
+     * @return a budgeted context selector which applies the given selector
+     * to all methods until they are demoted.
+     * @see BudgetedSelector
+     */
+    public static BudgetedSelector makeBudgetedSelector(ContextSelector selector) {
+        return new BudgetedSelector(selector);
+    }
+
     /**
      * @return a guided context selector which applies the context sensitivity
      * variants to the methods according to given map.
@@ -23,6 +23,7 @@
 package pascal.taie.analysis.pta.core.heap;
 
 import pascal.taie.World;
+import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.ClassMember;
 import pascal.taie.language.classes.StringReps;
 import pascal.taie.util.collection.Sets;
@@ -40,7 +41,16 @@ public class IsReflectionString implements Predicate<String> {
     private final Set<String> reflectionStrings = Sets.newSet(4096);
 
     public IsReflectionString() {
-        World.get().getClassHierarchy().allClasses().forEach(c -> {
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        if (World.get().getOptions().isLazyClassLoading()) {
+            // the class hierarchy only contains the classes built so far,
+            // thus we take the names from the class loaders, which also
+            // cover the classes that have not been built
+            hierarchy.getClassLoaders().forEach(loader ->
+                    reflectionStrings.addAll(loader.getAvailableNames()));
+            return;
+        }
+        hierarchy.allClasses().forEach(c -> {
             reflectionStrings.add(c.getName());
             Streams.concat(c.getDeclaredMethods().stream(),
                             c.getDeclaredFields().stream())
@@ -47,6 +47,7 @@ import pascal.taie.analysis.pta.core.heap.Descriptor;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.heap.MockObj;
 import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.plugin.CompositePlugin;
 import pascal.taie.analysis.pta.plugin.Plugin;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.analysis.pta.pts.PointsToSetFactory;
@@ -83,6 +84,7 @@ import pascal.taie.language.type.TypeSystem;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.Sets;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -101,7 +103,7 @@ public class DefaultSolver implements Solver {
     /**
      * Descriptor for array objects created implicitly by multiarray instruction.
      */
-    private static final Descriptor MULTI_ARRAY_DESC = () -> "MultiArrayObj";
+    static final Descriptor MULTI_ARRAY_DESC = () -> "MultiArrayObj";
 
     /**
      * Number that represents unlimited elapsed time.
@@ -122,6 +124,11 @@ public class DefaultSolver implements Solver {
 
     private final PointsToSetFactory ptsFactory;
 
+    /**
+     * Type filters shared by the PFG edges with the same type.
+     */
+    private final Map<Type, TypeFilter> typeFilters = Maps.newConcurrentMap();
+
     private final PropagateTypes propTypes;
 
     /**
@@ -134,6 +141,11 @@ public class DefaultSolver implements Solver {
      */
     private final long timeLimit;
 
+    /**
+     * Whether merges the pointers in cycles of pointer flow graph.
+     */
+    private final boolean mergePFGCycles;
+
     private TimeLimiter timeLimiter;
 
     /**
@@ -149,6 +161,11 @@ public class DefaultSolver implements Solver {
 
     private PointerFlowGraph pointerFlowGraph;
 
+    /**
+     * Detects cycles in PFG, {@code null} if PFG cycles are not merged.
+     */
+    private PFGCycleEliminator cycleEliminator;
+
     private Set<JMethod> reachableMethods;
 
     /**
@@ -161,10 +178,25 @@ public class DefaultSolver implements Solver {
      */
     private Set<JMethod> ignoredMethods;
 
+    /**
+     * Entry points added to this solver.
+     */
+    private Set<EntryPoint> entryPoints;
+
     private StmtProcessor stmtProcessor;
 
     private PointerAnalysisResult result;
 
+    /**
+     * Number of processed pointer entries.
+     */
+    private long processedEntries;
+
+    /**
+     * Total size of the difference sets of processed pointer entries.
+     */
+    private long processedDiffSize;
+
     @SuppressWarnings("unchecked")
     public DefaultSolver(AnalysisOptions options, HeapModel heapModel,
                          ContextSelector contextSelector, CSManager csManager) {
@@ -174,12 +206,14 @@ public class DefaultSolver implements Solver {
         this.csManager = csManager;
         hierarchy = World.get().getClassHierarchy();
         typeSystem = World.get().getTypeSystem();
-        ptsFactory = new PointsToSetFactory(csManager.getObjectIndexer());
+        ptsFactory = new PointsToSetFactory(csManager.getObjectIndexer(),
+                options.getString("points-to-set"));
         propTypes = new PropagateTypes(
                 (List<String>) options.get("propagate-types"),
                 typeSystem);
         onlyApp = options.getBoolean("only-app");
         timeLimit = options.getInt("time-limit");
+        mergePFGCycles = options.getBoolean("merge-pfg-cycles");
     }
 
     @Override
@@ -232,6 +266,19 @@ public class DefaultSolver implements Solver {
         return ptsFactory.make();
     }
 
+    @Override
+    public Transfer getTypeFilter(Type type) {
+        return typeFilters.computeIfAbsent(type, this::newTypeFilter);
+    }
+
+    /**
+     * @return a new type filter for given type, which is used by
+     * a single thread.
+     */
+    TypeFilter newTypeFilter(Type type) {
+        return new TypeFilter(type, this, false);
+    }
+
     @Override
     public void setPlugin(Plugin plugin) {
         this.plugin = plugin;
@@ -248,16 +295,75 @@ public class DefaultSolver implements Solver {
         analyze();
     }
 
+    /**
+     * Updates the result of this solver after the bodies of given methods
+     * are changed, so that the result equals the result of solving
+     * the changed program from scratch. Instead of re-solving the whole
+     * program, this method deletes the facts which may be derived from
+     * the old bodies, re-derives the ones which are still derivable,
+     * and propagates the facts derived from the new bodies.
+     * See {@link IncrementalUpdater} for the details.
+     * <p>
+     * This method must be called after {@link #solve()}, and it supports
+     * only solvers whose plugins do not handle the new facts (e.g.,
+     * {@link pascal.taie.analysis.pta.plugin.EntryPointHandler}),
+     * as the facts derived by plugins cannot be retracted.
+     * The elements (e.g., variables and objects with contexts) of
+     * the old bodies are kept with empty points-to sets.
+     *
+     * @param changes the new IR of each changed method
+     * @throws UnsupportedOperationException if this solver merges PFG
+     *                                       cycles, has reached time limit,
+     *                                       or has plugins which handle
+     *                                       the new facts
+     */
+    public void update(Map<JMethod, IR> changes) {
+        if (callGraph == null) {
+            throw new IllegalStateException("update() is called before solve()");
+        }
+        if (cycleEliminator != null) {
+            throw new UnsupportedOperationException(
+                    "Incremental update does not support merge-pfg-cycles");
+        }
+        if (isTimeout) {
+            throw new UnsupportedOperationException(
+                    "Cannot update the result as the analysis has reached time limit");
+        }
+        CompositePlugin plugins;
+        if (plugin instanceof CompositePlugin composite) {
+            plugins = composite;
+        } else {
+            plugins = new CompositePlugin();
+            plugins.addPlugin(plugin);
+        }
+        if (plugins.handlesNewFacts()) {
+            throw new UnsupportedOperationException(
+                    "Incremental update does not support plugins which handle new facts");
+        }
+        new IncrementalUpdater(this).update(changes);
+        processWorkList();
+        // the result is rebuilt on demand from the updated facts
+        result = null;
+    }
+
     /**
      * Initializes pointer analysis.
      */
     private void initialize() {
         callGraph = new CSCallGraph(csManager);
         pointerFlowGraph = new PointerFlowGraph(csManager);
-        workList = new WorkList();
+        cycleEliminator = mergesPFGCycles()
+                ? new PFGCycleEliminator(pointerFlowGraph,
+                options.getInt("merge-pfg-cycles-threshold")) : null;
+        workList = new WorkList(SchedulingPolicies.make(
+                options.getString("worklist-policy"), pointerFlowGraph,
+                options.getInt("worklist-rerank-interval")));
+        processedEntries = 0;
+        processedDiffSize = 0;
         reachableMethods = Sets.newSet();
         initializedClasses = Sets.newSet();
         ignoredMethods = Sets.newSet();
+        entryPoints = Sets.newLinkedSet();
         stmtProcessor = new StmtProcessor();
         isTimeout = false;
         if (timeLimit != UNLIMITED) {
@@ -267,6 +373,13 @@ public class DefaultSolver implements Solver {
         plugin.onStart();
     }
 
+    /**
+     * @return whether this solver merges the pointers in PFG cycles.
+     */
+    boolean mergesPFGCycles() {
+        return mergePFGCycles;
+    }
+
     private class TimeLimiter {
 
         private static final long MILLIS_FACTOR = 1000;
@@ -307,24 +420,7 @@ public class DefaultSolver implements Solver {
     private void analyze() {
         while (!workList.isEmpty() && !isTimeout) {
             // phase starts
-            while (!workList.isEmpty() && !isTimeout) {
-                WorkList.Entry entry = workList.pollEntry();
-                if (entry instanceof WorkList.PointerEntry pEntry) {
-                    Pointer p = pEntry.pointer();
-                    PointsToSet pts = pEntry.pointsToSet();
-                    PointsToSet diff = propagate(p, pts);
-                    if (!diff.isEmpty() && p instanceof CSVar v) {
-                        processInstanceStore(v, diff);
-                        processInstanceLoad(v, diff);
-                        processArrayStore(v, diff);
-                        processArrayLoad(v, diff);
-                        processCall(v, diff);
-                        plugin.onNewPointsToSet(v, diff);
-                    }
-                } else if (entry instanceof WorkList.CallEdgeEntry eEntry) {
-                    processCallEdge(eEntry.edge());
-                }
-            }
+            processWorkList();
             plugin.onPhaseFinish();
         }
         if (!workList.isEmpty() && isTimeout) {
@@ -333,31 +429,168 @@ public class DefaultSolver implements Solver {
         } else if (timeLimiter != null) { // finish normally but time limiter is still running
             timeLimiter.stop();
         }
+        logger.info("Processed {} pointer entries (work list policy: {})," +
+                        " total size of difference sets: {}", processedEntries,
+                options.getString("worklist-policy"), processedDiffSize);
+        if (cycleEliminator != null) {
+            logger.info("Merged {} PFG cycles ({} pointers) in {} detections," +
+                            " {} cycles are split",
+                    cycleEliminator.getMergedCycles(),
+                    cycleEliminator.getMergedPointers(),
+                    cycleEliminator.getDetections(),
+                    cycleEliminator.getSplitCycles());
+        }
         plugin.onFinish();
     }
 
     /**
-     * Propagates pointsToSet to pt(pointer) and its PFG successors,
-     * returns the difference set of pointsToSet and pt(pointer).
+     * Processes entries in the work list until the work list is empty
+     * or the analysis reaches time limit. This method is invoked once
+     * in each phase of the analysis.
      */
-    private PointsToSet propagate(Pointer pointer, PointsToSet pointsToSet) {
+    void processWorkList() {
+        while (!workList.isEmpty() && !isTimeout) {
+            if (cycleEliminator != null && cycleEliminator.needsDetection()) {
+                mergePFGCycles();
+            }
+            WorkList.Entry entry = workList.pollEntry();
+            if (entry instanceof WorkList.PointerEntry pEntry) {
+                Pointer p = pEntry.pointer();
+                PointsToSet pts = pEntry.pointsToSet();
+                PointsToSet diff = updatePointsTo(p, pts);
+                countProcessedEntry(diff);
+                if (!diff.isEmpty()) {
+                    if (cycleEliminator != null) {
+                        // the pointers merged with p share the same
+                        // points-to set, thus they all receive diff
+                        for (Pointer member : cycleEliminator.getMembers(p)) {
+                            processNewPointsTo(member, diff);
+                        }
+                    } else {
+                        processNewPointsTo(p, diff);
+                    }
+                }
+            } else if (entry instanceof WorkList.CallEdgeEntry eEntry) {
+                processCallEdge(eEntry.edge());
+            }
+        }
+    }
+
+    /**
+     * Records statistics of a processed pointer entry.
+     *
+     * @param diff the difference set of the entry.
+     */
+    void countProcessedEntry(PointsToSet diff) {
+        ++processedEntries;
+        processedDiffSize += diff.size();
+    }
+
+    /**
+     * Processes the objects that are newly added to pt(pointer), i.e.,
+     * propagates them to the PFG successors of the pointer, and if the
+     * pointer is a variable, processes the statements on the variable.
+     */
+    private void processNewPointsTo(Pointer pointer, PointsToSet diff) {
+        pointerFlowGraph.getOutEdgesOf(pointer).forEach(edge -> {
+            Pointer target = edge.target();
+            // merged pointers share the same points-to set, thus
+            // identity transfers between them can be skipped
+            boolean merged = cycleEliminator != null
+                    && cycleEliminator.isMerged(pointer, target);
+            edge.getTransfers().forEach(transfer -> {
+                if (!merged || transfer != Identity.get()) {
+                    addPointsTo(target, transfer.apply(edge, diff));
+                }
+            });
+        });
+        if (pointer instanceof CSVar v) {
+            processHeapAccesses(v, diff);
+            processCall(v, diff);
+            plugin.onNewPointsToSet(v, diff);
+        }
+    }
+
+    /**
+     * Merges the pointers in newly-detected cycles of PFG. The pointers
+     * in each cycle share a points-to set which is the union of their
+     * original points-to sets, and each pointer processes the objects
+     * that it does not point to before merging.
+     */
+    private void mergePFGCycles() {
+        for (List<Pointer> cycle : cycleEliminator.detectCycles()) {
+            List<PointsToSet> oldSets = new ArrayList<>(cycle.size());
+            PointsToSet merged = makePointsToSet();
+            for (Pointer pointer : cycle) {
+                PointsToSet pts = getPointsToSetOf(pointer);
+                oldSets.add(pts);
+                merged.addAll(pts);
+            }
+            cycleEliminator.merge(cycle);
+            cycle.forEach(pointer -> pointer.setPointsToSet(merged));
+            for (int i = 0; i < cycle.size(); ++i) {
+                // compute the objects which are new to the pointer
+                PointsToSet diff = oldSets.get(i).copy().addAllDiff(merged);
+                if (!diff.isEmpty()) {
+                    processNewPointsTo(cycle.get(i), diff);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds pointsToSet to pt(pointer) after applying the filters of
+     * the pointer, and returns the difference set of pointsToSet and
+     * pt(pointer). Note that this method does not propagate the difference
+     * set to the PFG successors of the pointer.
+     */
+    PointsToSet updatePointsTo(Pointer pointer, PointsToSet pointsToSet) {
         logger.trace("Propagate {} to {}", pointsToSet, pointer);
         Set<Predicate<CSObj>> filters = pointer.getFilters();
         if (!filters.isEmpty()) {
             // apply filters (of the pointer) on pointsToSet
-            pointsToSet = pointsToSet.objects()
-                    .filter(o -> filters.stream().allMatch(f -> f.test(o)))
-                    .collect(ptsFactory::make, PointsToSet::addObject, PointsToSet::addAll);
-        }
-        PointsToSet diff = getPointsToSetOf(pointer).addAllDiff(pointsToSet);
-        if (!diff.isEmpty()) {
-            pointerFlowGraph.getOutEdgesOf(pointer).forEach(edge -> {
-                Pointer target = edge.target();
-                edge.getTransfers().forEach(transfer ->
-                        addPointsTo(target, transfer.apply(edge, diff)));
-            });
+            pointsToSet = applyFilters(filters, pointsToSet);
         }
-        return diff;
+        return getPointsToSetOf(pointer).addAllDiff(pointsToSet);
+    }
+
+    /**
+     * @return the objects in pointsToSet that pass all filters.
+     * If all objects pass, returns pointsToSet itself without copying it.
+     */
+    private PointsToSet applyFilters(
+            Set<Predicate<CSObj>> filters, PointsToSet pointsToSet) {
+        for (CSObj o : pointsToSet) {
+            if (!passes(filters, o)) {
+                PointsToSet result = pointsToSet.copy();
+                result.removeIf(obj -> !passes(filters, obj));
+                return result;
+            }
+        }
+        return pointsToSet;
+    }
+
+    private static boolean passes(Set<Predicate<CSObj>> filters, CSObj o) {
+        for (Predicate<CSObj> filter : filters) {
+            if (!filter.test(o)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Processes instance field and array accesses on given variable
+     * when its points-to set changes.
+     *
+     * @param var the base variable of the accesses
+     * @param pts set of new discovered objects pointed by the variable.
+     */
+    void processHeapAccesses(CSVar var, PointsToSet pts) {
+        processInstanceStore(var, pts);
+        processInstanceLoad(var, pts);
+        processArrayStore(var, pts);
+        processArrayLoad(var, pts);
     }
 
     /**
@@ -464,7 +697,7 @@ public class DefaultSolver implements Solver {
      * @param recv the receiver variable
      * @param pts  set of new discovered objects pointed by the variable.
      */
-    private void processCall(CSVar recv, PointsToSet pts) {
+    void processCall(CSVar recv, PointsToSet pts) {
         Context context = recv.getContext();
         Var var = recv.getVar();
         for (Invoke callSite : var.getInvokes()) {
@@ -493,45 +726,109 @@ public class DefaultSolver implements Solver {
         }
     }
 
-    private void processCallEdge(Edge<CSCallSite, CSMethod> edge) {
+    void processCallEdge(Edge<CSCallSite, CSMethod> edge) {
         if (callGraph.addEdge(edge)) {
             // process new call edge
-            CSMethod csCallee = edge.getCallee();
-            addCSMethod(csCallee);
-            if (edge.getKind() != CallKind.OTHER
-                    && !isIgnored(csCallee.getMethod())) {
-                Context callerCtx = edge.getCallSite().getContext();
-                Invoke callSite = edge.getCallSite().getCallSite();
-                Context calleeCtx = csCallee.getContext();
-                JMethod callee = csCallee.getMethod();
-                InvokeExp invokeExp = callSite.getInvokeExp();
-                // pass arguments to parameters
-                for (int i = 0; i < invokeExp.getArgCount(); ++i) {
-                    Var arg = invokeExp.getArg(i);
-                    if (propTypes.isAllowed(arg)) {
-                        Var param = callee.getIR().getParam(i);
-                        CSVar argVar = csManager.getCSVar(callerCtx, arg);
-                        CSVar paramVar = csManager.getCSVar(calleeCtx, param);
-                        addPFGEdge(argVar, paramVar, FlowKind.PARAMETER_PASSING);
-                    }
+            addCSMethod(edge.getCallee());
+            passArgsAndResult(edge);
+            plugin.onNewCallEdge(edge);
+        }
+    }
+
+    /**
+     * Adds the PFG edges which pass the arguments of the call site of
+     * given call edge to the parameters of the callee, and the results
+     * of the callee to the LHS variable of the call site.
+     */
+    void passArgsAndResult(Edge<CSCallSite, CSMethod> edge) {
+        CSMethod csCallee = edge.getCallee();
+        if (edge.getKind() != CallKind.OTHER
+                && !isIgnored(csCallee.getMethod())) {
+            Context callerCtx = edge.getCallSite().getContext();
+            Invoke callSite = edge.getCallSite().getCallSite();
+            Context calleeCtx = csCallee.getContext();
+            JMethod callee = csCallee.getMethod();
+            InvokeExp invokeExp = callSite.getInvokeExp();
+            // pass arguments to parameters
+            for (int i = 0; i < invokeExp.getArgCount(); ++i) {
+                Var arg = invokeExp.getArg(i);
+                if (propTypes.isAllowed(arg)) {
+                    Var param = callee.getIR().getParam(i);
+                    CSVar argVar = csManager.getCSVar(callerCtx, arg);
+                    CSVar paramVar = csManager.getCSVar(calleeCtx, param);
+                    addPFGEdge(argVar, paramVar, FlowKind.PARAMETER_PASSING);
                 }
-                // pass results to LHS variable
-                Var lhs = callSite.getResult();
-                if (lhs != null && propTypes.isAllowed(lhs)) {
-                    CSVar csLHS = csManager.getCSVar(callerCtx, lhs);
-                    for (Var ret : callee.getIR().getReturnVars()) {
-                        if (propTypes.isAllowed(ret)) {
-                            CSVar csRet = csManager.getCSVar(calleeCtx, ret);
-                            addPFGEdge(csRet, csLHS, FlowKind.RETURN);
-                        }
+            }
+            // pass results to LHS variable
+            Var lhs = callSite.getResult();
+            if (lhs != null && propTypes.isAllowed(lhs)) {
+                CSVar csLHS = csManager.getCSVar(callerCtx, lhs);
+                for (Var ret : callee.getIR().getReturnVars()) {
+                    if (propTypes.isAllowed(ret)) {
+                        CSVar csRet = csManager.getCSVar(calleeCtx, ret);
+                        addPFGEdge(csRet, csLHS, FlowKind.RETURN);
                     }
                 }
             }
-            plugin.onNewCallEdge(edge);
         }
     }
 
-    private boolean isIgnored(JMethod method) {
+    /**
+     * @return the work list of this solver.
+     */
+    WorkList getWorkList() {
+        return workList;
+    }
+
+    /**
+     * @return the plugin of this solver.
+     */
+    Plugin getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * @return whether the analysis has reached time limit.
+     */
+    boolean isTimeout() {
+        return isTimeout;
+    }
+
+    /**
+     * @return the types of the pointers whose points-to sets are propagated.
+     */
+    PropagateTypes getPropagateTypes() {
+        return propTypes;
+    }
+
+    /**
+     * @return the entry points added to this solver.
+     */
+    Set<EntryPoint> getEntryPoints() {
+        return entryPoints;
+    }
+
+    /**
+     * @return the call sites in the IR of given method, and the calls
+     * to Finalizer.register() which are added by this solver for
+     * the allocation sites in the method.
+     */
+    List<Invoke> getCallSitesIn(JMethod method) {
+        List<Invoke> callSites = new ArrayList<>();
+        for (Stmt stmt : method.getIR()) {
+            if (stmt instanceof Invoke invoke) {
+                callSites.add(invoke);
+            } else if (stmt instanceof New newStmt) {
+                Invoke registerInvoke = stmtProcessor.registerInvokes.get(newStmt);
+                if (registerInvoke != null) {
+                    callSites.add(registerInvoke);
+                }
+            }
+        }
+        return callSites;
+    }
+
+    boolean isIgnored(JMethod method) {
         return ignoredMethods.contains(method) ||
                 onlyApp && !method.isApplication();
     }
@@ -772,6 +1069,15 @@ public class DefaultSolver implements Solver {
 
     @Override
     public void addPointerFilter(Pointer pointer, Predicate<CSObj> filter) {
+        if (cycleEliminator != null && cycleEliminator.isMerged(pointer)) {
+            // the filter cannot be applied to the points-to set shared
+            // with other pointers, thus we split the cycle of the pointer,
+            // and each pointer in the cycle gets its own points-to set
+            PointsToSet shared = getPointsToSetOf(pointer);
+            for (Pointer member : cycleEliminator.split(pointer)) {
+                member.setPointsToSet(shared.copy());
+            }
+        }
         pointer.addFilter(filter);
     }
 
@@ -779,6 +1085,9 @@ public class DefaultSolver implements Solver {
     public void addPFGEdge(PointerFlowEdge edge, Transfer transfer) {
         edge = pointerFlowGraph.addEdge(edge);
         if (edge != null && edge.addTransfer(transfer)) {
+            if (cycleEliminator != null) {
+                cycleEliminator.onNewTransfer(transfer);
+            }
             PointsToSet targetSet = transfer.apply(
                     edge, getPointsToSetOf(edge.source()));
             if (!targetSet.isEmpty()) {
@@ -789,6 +1098,7 @@ public class DefaultSolver implements Solver {
 
     @Override
     public void addEntryPoint(EntryPoint entryPoint) {
+        entryPoints.add(entryPoint);
         Context entryCtx = contextSelector.getEmptyContext();
         JMethod entryMethod = entryPoint.method();
         CSMethod csEntryMethod = csManager.getCSMethod(entryCtx, entryMethod);
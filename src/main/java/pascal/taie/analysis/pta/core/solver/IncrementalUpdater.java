@@ -0,0 +1,661 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.graph.callgraph.CallGraphs;
+import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.pta.core.cs.CSCallGraph;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.core.heap.MockObj;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.NewMultiArray;
+import pascal.taie.ir.exp.ReferenceLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Cast;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.StmtVisitor;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Updates the result of a {@link DefaultSolver} after the bodies of
+ * some methods are changed, in the manner of DRed (Delete and Re-derive)
+ * algorithm for incremental maintenance of Datalog programs:
+ * <ol>
+ *     <li><b>Over-deletion.</b> Starting from the facts derived from
+ *     the old bodies (i.e., the points-to relations of their variables,
+ *     the objects allocated by them, their PFG edges and call edges),
+ *     deletes every fact that has a derivation which uses a deleted fact,
+ *     e.g., the objects propagated along the PFG edges, the PFG edges
+ *     and call edges built for the deleted objects, and the statements
+ *     of the methods which lose a call edge.
+ *     <li><b>Removal.</b> Removes the deleted facts from the points-to
+ *     sets, the PFG and the call graph, and installs the new bodies.
+ *     <li><b>Re-derivation.</b> Re-processes the methods which may
+ *     derive the deleted facts again (with the new bodies), re-adds
+ *     the entry points, and re-propagates the points-to sets along the
+ *     remaining PFG edges to the pointers which lose objects. The solver
+ *     then propagates the re-derived facts to the fixpoint.
+ * </ol>
+ * As a fact is deleted if <em>any</em> of its derivations uses a
+ * deleted fact, the over-deletion may cascade much further than the
+ * changed methods, thus the cost of an update depends on how the changed
+ * methods are connected to the rest of the program, and is not bounded
+ * by the size of the change.
+ * <p>
+ * The updater relies on that the solver derives all facts by itself,
+ * i.e., its plugins do not handle the new facts, and that the pointers
+ * in PFG cycles are not merged.
+ */
+class IncrementalUpdater {
+
+    private static final Logger logger = LogManager.getLogger(IncrementalUpdater.class);
+
+    private final DefaultSolver solver;
+
+    private final CSManager csManager;
+
+    private final CSCallGraph callGraph;
+
+    private final HeapModel heapModel;
+
+    private final ContextSelector contextSelector;
+
+    private final PropagateTypes propTypes;
+
+    private final Set<CSMethod> entryMethods = Sets.newSet();
+
+    /**
+     * Deleted objects of each pointer.
+     */
+    private final Map<Pointer, PointsToSet> deletedObjs = Maps.newMap();
+
+    /**
+     * Deleted objects whose consequences have not been deleted.
+     */
+    private final Queue<DeletedEntry> entries = new ArrayDeque<>();
+
+    /**
+     * Deleted methods whose statements have not been processed.
+     */
+    private final Queue<CSMethod> methods = new ArrayDeque<>();
+
+    private final Set<PointerFlowEdge> deletedEdges = Sets.newSet();
+
+    private final Set<Edge<CSCallSite, CSMethod>> deletedCallEdges = Sets.newSet();
+
+    private final Set<CSMethod> deletedMethods = Sets.newSet();
+
+    /**
+     * Context-sensitive variables of the old bodies of changed methods.
+     */
+    private final Set<Pointer> oldVars = Sets.newSet();
+
+    /**
+     * Methods which may derive the deleted facts again.
+     */
+    private final Set<CSMethod> anchors = Sets.newLinkedSet();
+
+    /**
+     * Reachable contexts of each method, built on demand.
+     */
+    private MultiMap<JMethod, CSMethod> reachableContexts;
+
+    IncrementalUpdater(DefaultSolver solver) {
+        this.solver = solver;
+        csManager = solver.getCSManager();
+        callGraph = solver.getCallGraph();
+        heapModel = solver.getHeapModel();
+        contextSelector = solver.getContextSelector();
+        propTypes = solver.getPropagateTypes();
+        callGraph.entryMethods().forEach(entryMethods::add);
+    }
+
+    /**
+     * Deletes the facts which may be derived from the old bodies of
+     * the changed methods, installs the new bodies, and re-derives
+     * the facts. The re-derived facts are added to the work list of
+     * the solver, and the caller should process the work list.
+     *
+     * @param changes the new IR of each changed method
+     */
+    void update(Map<JMethod, IR> changes) {
+        changes.keySet().forEach(this::deleteMethodBody);
+        processDeletions();
+        int nDeletedObjs = deletedObjs.values()
+                .stream()
+                .mapToInt(PointsToSet::size)
+                .sum();
+        List<PointerFlowEdge> inEdges = removeDeletedFacts();
+        changes.forEach(JMethod::setIR);
+        rederive(inEdges);
+        logger.info("Incremental update: {} changed methods, deleted {} points-to" +
+                        " relations, {} PFG edges, {} call edges, {} methods," +
+                        " re-derived from {} methods and {} PFG edges",
+                changes.size(), nDeletedObjs, deletedEdges.size(),
+                deletedCallEdges.size(), deletedMethods.size(),
+                anchors.size(), inEdges.size());
+    }
+
+    // ---------- over-deletion ----------
+
+    /**
+     * Deletes the facts derived from the old body of given method.
+     */
+    private void deleteMethodBody(JMethod method) {
+        for (Var var : method.getIR().getVars()) {
+            for (CSVar csVar : csManager.getCSVarsOf(var)) {
+                oldVars.add(csVar);
+                PointsToSet pts = csVar.getPointsToSet();
+                if (pts != null) {
+                    deleteObjects(csVar, pts);
+                }
+            }
+        }
+        for (CSMethod csMethod : getReachableContextsOf(method)) {
+            anchors.add(csMethod);
+            addCallerAnchors(csMethod);
+            deleteStmtFacts(csMethod);
+        }
+    }
+
+    private void processDeletions() {
+        while (!entries.isEmpty() || !methods.isEmpty()) {
+            DeletedEntry entry = entries.poll();
+            if (entry != null) {
+                processDeletedObjects(entry.pointer(), entry.objects());
+            } else {
+                CSMethod csMethod = methods.poll();
+                anchors.add(csMethod);
+                deleteStmtFacts(csMethod);
+            }
+        }
+    }
+
+    /**
+     * Deletes the facts derived from the statements of given method,
+     * i.e., the counterpart of {@link DefaultSolver#addStmts}.
+     */
+    private void deleteStmtFacts(CSMethod csMethod) {
+        JMethod method = csMethod.getMethod();
+        if (solver.isIgnored(method)) {
+            return;
+        }
+        StmtVisitor<Void> visitor = new StmtDeleter(csMethod);
+        method.getIR().forEach(stmt -> stmt.accept(visitor));
+        for (Invoke callSite : solver.getCallSitesIn(method)) {
+            if (callSite.isStatic()) {
+                CSCallSite csCallSite = csManager.getCSCallSite(
+                        csMethod.getContext(), callSite);
+                List.copyOf(csCallSite.getEdges()).forEach(this::deleteCallEdge);
+            }
+        }
+    }
+
+    /**
+     * Deletes the consequences of the objects deleted from given pointer,
+     * i.e., the counterpart of {@link DefaultSolver#processWorkList()}.
+     */
+    private void processDeletedObjects(Pointer pointer, PointsToSet diff) {
+        for (PointerFlowEdge edge : pointer.getOutEdges()) {
+            if (!deletedEdges.contains(edge)) {
+                edge.getTransfers().forEach(transfer ->
+                        deleteObjects(edge.target(), transfer.apply(edge, diff)));
+            }
+        }
+        if (pointer instanceof CSVar csVar) {
+            Var var = csVar.getVar();
+            CSMethod container = csManager.getCSMethod(
+                    csVar.getContext(), var.getMethod());
+            anchors.add(container);
+            if (var.equals(var.getMethod().getIR().getThis())) {
+                // the receiver objects are passed by the callers
+                addCallerAnchors(container);
+            }
+            deleteHeapAccesses(csVar, diff);
+            deleteCalls(csVar, diff);
+        } else if (pointer instanceof ArrayIndex) {
+            for (CSObj array : diff) {
+                if (array.getObject() instanceof MockObj mockObj
+                        && mockObj.getDescriptor().equals(DefaultSolver.MULTI_ARRAY_DESC)) {
+                    // the array may be created again by its multiarray instruction
+                    New allocSite = (New) mockObj.getAllocation();
+                    anchors.addAll(getReachableContextsOf(allocSite.getContainer()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes the PFG edges of the instance field and array accesses
+     * on the objects deleted from given variable.
+     */
+    private void deleteHeapAccesses(CSVar baseVar, PointsToSet diff) {
+        Context context = baseVar.getContext();
+        Var var = baseVar.getVar();
+        for (StoreField store : var.getStoreFields()) {
+            Var fromVar = store.getRValue();
+            if (propTypes.isAllowed(fromVar)) {
+                CSVar from = csManager.getCSVar(context, fromVar);
+                JField field = store.getFieldRef().resolve();
+                for (CSObj baseObj : diff) {
+                    if (baseObj.getObject().isFunctional()) {
+                        deleteEdge(from, csManager.getInstanceField(baseObj, field));
+                    }
+                }
+            }
+        }
+        for (LoadField load : var.getLoadFields()) {
+            Var toVar = load.getLValue();
+            if (propTypes.isAllowed(toVar)) {
+                CSVar to = csManager.getCSVar(context, toVar);
+                JField field = load.getFieldRef().resolve();
+                for (CSObj baseObj : diff) {
+                    if (baseObj.getObject().isFunctional()) {
+                        deleteEdge(csManager.getInstanceField(baseObj, field), to);
+                    }
+                }
+            }
+        }
+        for (StoreArray store : var.getStoreArrays()) {
+            Var rvalue = store.getRValue();
+            if (propTypes.isAllowed(rvalue)) {
+                CSVar from = csManager.getCSVar(context, rvalue);
+                for (CSObj array : diff) {
+                    if (array.getObject().isFunctional()) {
+                        deleteEdge(from, csManager.getArrayIndex(array));
+                    }
+                }
+            }
+        }
+        for (LoadArray load : var.getLoadArrays()) {
+            Var lvalue = load.getLValue();
+            if (propTypes.isAllowed(lvalue)) {
+                CSVar to = csManager.getCSVar(context, lvalue);
+                for (CSObj array : diff) {
+                    if (array.getObject().isFunctional()) {
+                        deleteEdge(csManager.getArrayIndex(array), to);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes the call edges built for the receiver objects deleted
+     * from given variable, and the receiver objects passed to
+     * <i>this</i> variables of the callees.
+     */
+    private void deleteCalls(CSVar recv, PointsToSet diff) {
+        Context context = recv.getContext();
+        for (Invoke callSite : recv.getVar().getInvokes()) {
+            for (CSObj recvObj : diff) {
+                JMethod callee = CallGraphs.resolveCallee(
+                        recvObj.getObject().getType(), callSite);
+                if (callee != null) {
+                    CSCallSite csCallSite = csManager.getCSCallSite(context, callSite);
+                    Context calleeContext = contextSelector.selectContext(
+                            csCallSite, recvObj, callee);
+                    CSMethod csCallee = csManager.getCSMethod(calleeContext, callee);
+                    deleteCallEdge(new Edge<>(CallGraphs.getCallKind(callSite),
+                            csCallSite, csCallee));
+                    if (!solver.isIgnored(callee)) {
+                        CSVar thisVar = csManager.getCSVar(
+                                calleeContext, callee.getIR().getThis());
+                        deleteObjects(thisVar, singleton(recvObj));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes given call edge, the PFG edges which pass the arguments
+     * and results along the edge, and the callee (if it is not
+     * an entry method).
+     */
+    private void deleteCallEdge(Edge<CSCallSite, CSMethod> edge) {
+        CSCallSite csCallSite = edge.getCallSite();
+        if (!csCallSite.getEdges().contains(edge)
+                || !deletedCallEdges.add(edge)) {
+            return;
+        }
+        anchors.add(csCallSite.getContainer());
+        CSMethod csCallee = edge.getCallee();
+        JMethod callee = csCallee.getMethod();
+        if (edge.getKind() != CallKind.OTHER && !solver.isIgnored(callee)) {
+            Context callerCtx = csCallSite.getContext();
+            Context calleeCtx = csCallee.getContext();
+            Invoke callSite = csCallSite.getCallSite();
+            InvokeExp invokeExp = callSite.getInvokeExp();
+            for (int i = 0; i < invokeExp.getArgCount(); ++i) {
+                Var arg = invokeExp.getArg(i);
+                if (propTypes.isAllowed(arg)) {
+                    deleteEdge(csManager.getCSVar(callerCtx, arg),
+                            csManager.getCSVar(calleeCtx, callee.getIR().getParam(i)));
+                }
+            }
+            Var lhs = callSite.getResult();
+            if (lhs != null && propTypes.isAllowed(lhs)) {
+                CSVar csLHS = csManager.getCSVar(callerCtx, lhs);
+                for (Var ret : callee.getIR().getReturnVars()) {
+                    if (propTypes.isAllowed(ret)) {
+                        deleteEdge(csManager.getCSVar(calleeCtx, ret), csLHS);
+                    }
+                }
+            }
+        }
+        if (!entryMethods.contains(csCallee) && deletedMethods.add(csCallee)) {
+            methods.add(csCallee);
+        }
+    }
+
+    /**
+     * Deletes the PFG edge from source to target (if it exists),
+     * and the objects propagated along the edge.
+     */
+    private void deleteEdge(Pointer source, Pointer target) {
+        for (PointerFlowEdge edge : source.getOutEdges()) {
+            if (edge.target().equals(target)) {
+                if (deletedEdges.add(edge)) {
+                    PointsToSet pts = solver.getPointsToSetOf(source);
+                    edge.getTransfers().forEach(transfer ->
+                            deleteObjects(target, transfer.apply(edge, pts)));
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Deletes given objects from the points-to set of given pointer.
+     * The objects which are not pointed to by the pointer, or have
+     * been deleted, are skipped.
+     */
+    private void deleteObjects(Pointer pointer, PointsToSet objs) {
+        PointsToSet pts = pointer.getPointsToSet();
+        if (pts == null || objs.isEmpty()) {
+            return;
+        }
+        PointsToSet deleted = deletedObjs.computeIfAbsent(pointer,
+                unused -> solver.makePointsToSet());
+        PointsToSet diff = null;
+        for (CSObj obj : objs) {
+            if (pts.contains(obj) && deleted.addObject(obj)) {
+                if (diff == null) {
+                    diff = solver.makePointsToSet();
+                }
+                diff.addObject(obj);
+            }
+        }
+        if (diff != null) {
+            entries.add(new DeletedEntry(pointer, diff));
+        }
+    }
+
+    private PointsToSet singleton(CSObj obj) {
+        PointsToSet pts = solver.makePointsToSet();
+        pts.addObject(obj);
+        return pts;
+    }
+
+    private void addCallerAnchors(CSMethod csMethod) {
+        callGraph.getCallersOf(csMethod)
+                .forEach(csCallSite -> anchors.add(csCallSite.getContainer()));
+    }
+
+    private Set<CSMethod> getReachableContextsOf(JMethod method) {
+        if (reachableContexts == null) {
+            reachableContexts = Maps.newMultiMap();
+            callGraph.reachableMethods().forEach(csMethod ->
+                    reachableContexts.put(csMethod.getMethod(), csMethod));
+        }
+        return reachableContexts.get(method);
+    }
+
+    /**
+     * Deletes the facts derived from the statements, i.e., the counterpart
+     * of the visitor of {@link DefaultSolver}.
+     */
+    private class StmtDeleter implements StmtVisitor<Void> {
+
+        private final CSMethod csMethod;
+
+        private final Context context;
+
+        private StmtDeleter(CSMethod csMethod) {
+            this.csMethod = csMethod;
+            this.context = csMethod.getContext();
+        }
+
+        @Override
+        public Void visit(New stmt) {
+            Obj obj = heapModel.getObj(stmt);
+            Context heapContext = contextSelector.selectHeapContext(csMethod, obj);
+            CSObj csObj = csManager.getCSObj(heapContext, obj);
+            deleteObjects(csManager.getCSVar(context, stmt.getLValue()),
+                    singleton(csObj));
+            if (stmt.getRValue() instanceof NewMultiArray) {
+                deleteMultiArrays(stmt, csObj);
+            }
+            return null;
+        }
+
+        /**
+         * Deletes the arrays created implicitly by given multiarray
+         * instruction, which are stored in the arrays it creates.
+         */
+        private void deleteMultiArrays(New allocSite, CSObj array) {
+            CSObj elem;
+            do {
+                ArrayIndex arrayIndex = csManager.getArrayIndex(array);
+                elem = null;
+                for (CSObj obj : solver.getPointsToSetOf(arrayIndex)) {
+                    if (obj.getObject() instanceof MockObj mockObj
+                            && mockObj.getDescriptor().equals(DefaultSolver.MULTI_ARRAY_DESC)
+                            && mockObj.getAllocation() == allocSite) {
+                        elem = obj;
+                        break;
+                    }
+                }
+                if (elem != null) {
+                    deleteObjects(arrayIndex, singleton(elem));
+                    array = elem;
+                }
+            } while (elem != null);
+        }
+
+        @Override
+        public Void visit(AssignLiteral stmt) {
+            if (stmt.getRValue().getType() instanceof ClassType) {
+                Obj obj = heapModel.getConstantObj((ReferenceLiteral) stmt.getRValue());
+                Context heapContext = contextSelector.selectHeapContext(csMethod, obj);
+                deleteObjects(csManager.getCSVar(context, stmt.getLValue()),
+                        singleton(csManager.getCSObj(heapContext, obj)));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(Copy stmt) {
+            if (propTypes.isAllowed(stmt.getRValue())) {
+                deleteEdge(csManager.getCSVar(context, stmt.getRValue()),
+                        csManager.getCSVar(context, stmt.getLValue()));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(Cast stmt) {
+            Var from = stmt.getRValue().getValue();
+            if (propTypes.isAllowed(from)) {
+                deleteEdge(csManager.getCSVar(context, from),
+                        csManager.getCSVar(context, stmt.getLValue()));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(LoadField stmt) {
+            if (stmt.isStatic() && propTypes.isAllowed(stmt.getRValue())) {
+                JField field = stmt.getFieldRef().resolve();
+                deleteEdge(csManager.getStaticField(field),
+                        csManager.getCSVar(context, stmt.getLValue()));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(StoreField stmt) {
+            if (stmt.isStatic() && propTypes.isAllowed(stmt.getRValue())) {
+                JField field = stmt.getFieldRef().resolve();
+                deleteEdge(csManager.getCSVar(context, stmt.getRValue()),
+                        csManager.getStaticField(field));
+            }
+            return null;
+        }
+    }
+
+    // ---------- removal ----------
+
+    /**
+     * Removes the deleted facts from the points-to sets, the PFG
+     * and the call graph.
+     *
+     * @return the remaining PFG edges to the pointers which lose objects,
+     * along which the points-to sets should be propagated again.
+     */
+    private List<PointerFlowEdge> removeDeletedFacts() {
+        deletedObjs.forEach((pointer, objs) ->
+                pointer.getPointsToSet().removeIf(objs::contains));
+        List<PointerFlowEdge> inEdges = new ArrayList<>();
+        csManager.pointers().forEach(pointer -> {
+            if (oldVars.contains(pointer)) {
+                pointer.removeEdgesIf(edge -> true);
+            } else {
+                pointer.removeEdgesIf(edge -> deletedEdges.contains(edge)
+                        || oldVars.contains(edge.target()));
+                for (PointerFlowEdge edge : pointer.getOutEdges()) {
+                    if (deletedObjs.containsKey(edge.target())) {
+                        inEdges.add(edge);
+                    }
+                }
+            }
+        });
+        deletedCallEdges.forEach(callGraph::removeEdge);
+        deletedMethods.forEach(callGraph::removeReachableMethod);
+        return inEdges;
+    }
+
+    // ---------- re-derivation ----------
+
+    private void rederive(List<PointerFlowEdge> inEdges) {
+        for (CSMethod csMethod : anchors) {
+            JMethod method = csMethod.getMethod();
+            if (deletedMethods.contains(csMethod)) {
+                if (csMethod.getEdges().isEmpty()) {
+                    // not reachable any more
+                    continue;
+                }
+                // ignored methods are still reachable via remaining edges
+                solver.addCSMethod(csMethod);
+                if (solver.isIgnored(method)) {
+                    continue;
+                }
+            } else if (callGraph.contains(csMethod) && !solver.isIgnored(method)) {
+                solver.addStmts(csMethod, method.getIR().getStmts());
+            } else {
+                continue;
+            }
+            Context context = csMethod.getContext();
+            for (Var var : method.getIR().getVars()) {
+                if (!var.getStoreFields().isEmpty() || !var.getLoadFields().isEmpty()
+                        || !var.getStoreArrays().isEmpty() || !var.getLoadArrays().isEmpty()
+                        || !var.getInvokes().isEmpty()) {
+                    CSVar csVar = csManager.getCSVar(context, var);
+                    PointsToSet pts = csVar.getPointsToSet();
+                    if (pts != null && !pts.isEmpty()) {
+                        solver.processHeapAccesses(csVar, pts);
+                        solver.processCall(csVar, pts);
+                    }
+                }
+            }
+            for (Invoke callSite : solver.getCallSitesIn(method)) {
+                CSCallSite csCallSite = csManager.getCSCallSite(context, callSite);
+                for (Edge<CSCallSite, CSMethod> edge : List.copyOf(csCallSite.getEdges())) {
+                    solver.addCSMethod(edge.getCallee());
+                    solver.passArgsAndResult(edge);
+                }
+            }
+        }
+        List.copyOf(solver.getEntryPoints()).forEach(solver::addEntryPoint);
+        for (PointerFlowEdge edge : inEdges) {
+            PointsToSet pts = solver.getPointsToSetOf(edge.source());
+            edge.getTransfers().forEach(transfer -> {
+                PointsToSet targetSet = transfer.apply(edge, pts);
+                if (!targetSet.isEmpty()) {
+                    solver.addPointsTo(edge.target(), targetSet);
+                }
+            });
+        }
+    }
+
+    /**
+     * Objects deleted from a pointer.
+     */
+    private record DeletedEntry(Pointer pointer, PointsToSet objects) {
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.SCC;
+import pascal.taie.util.graph.SimpleGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Detects cycles in pointer flow graph, so that the pointers in each
+ * cycle can be merged, i.e., share the same points-to set.
+ * <p>
+ * A cycle can be merged only if all its edges propagate points-to sets
+ * without changes (i.e., they carry only {@link Identity} transfer
+ * function), and none of its pointers has filters. In this case, all
+ * pointers in the cycle must point to the same objects at the fixpoint.
+ * <p>
+ * Cycles are detected periodically by computing strongly-connected
+ * components of the mergeable subgraph of PFG. To keep the detection
+ * cost linear in the size of PFG, a detection is performed only when
+ * the number of mergeable edges has doubled since the previous one.
+ * <p>
+ * A merged cycle may later become unmergeable: when a non-identity
+ * transfer function is added to an edge in the cycle, the solver still
+ * applies the transfer function (the edge still carries {@link Identity},
+ * so the pointers still point to the same objects); when a filter is
+ * added to a pointer in the cycle, the cycle is split, i.e., its pointers
+ * get their own points-to sets again.
+ */
+class PFGCycleEliminator {
+
+    private final PointerFlowGraph pointerFlowGraph;
+
+    /**
+     * Minimum number of new mergeable edges that triggers a detection.
+     */
+    private final int minThreshold;
+
+    /**
+     * Maps each merged pointer to the pointers in the same cycle.
+     */
+    private final Map<Pointer, List<Pointer>> components = Maps.newMap();
+
+    /**
+     * Number of edges that carry {@link Identity} transfer function.
+     */
+    private int identityEdges = 0;
+
+    /**
+     * A detection is triggered when {@link #identityEdges} reaches this value.
+     */
+    private int threshold;
+
+    /**
+     * Number of performed detections.
+     */
+    private int detections = 0;
+
+    /**
+     * Number of merged cycles.
+     */
+    private int mergedCycles = 0;
+
+    /**
+     * Number of merged cycles that have been split.
+     */
+    private int splitCycles = 0;
+
+    PFGCycleEliminator(PointerFlowGraph pointerFlowGraph, int minThreshold) {
+        this.pointerFlowGraph = pointerFlowGraph;
+        this.minThreshold = minThreshold;
+        this.threshold = minThreshold;
+    }
+
+    /**
+     * Notifies this eliminator that a transfer is added to a PFG edge.
+     */
+    void onNewTransfer(Transfer transfer) {
+        if (transfer == Identity.get()) {
+            ++identityEdges;
+        }
+    }
+
+    /**
+     * @return {@code true} if enough mergeable edges have been added since
+     * the previous detection.
+     */
+    boolean needsDetection() {
+        return identityEdges >= threshold;
+    }
+
+    /**
+     * Finds the cycles in PFG that have not been merged.
+     * Each returned cycle contains all pointers of the merged cycles
+     * that it overlaps with, thus the returned cycles are disjoint.
+     */
+    List<List<Pointer>> detectCycles() {
+        ++detections;
+        threshold = Math.max(minThreshold, identityEdges * 2);
+        SimpleGraph<Pointer> graph = new SimpleGraph<>();
+        pointerFlowGraph.pointers()
+                .filter(this::isMergeable)
+                .forEach(source -> {
+                    for (PointerFlowEdge edge : source.getOutEdges()) {
+                        Pointer target = edge.target();
+                        if (isMergeable(edge) && isMergeable(target)) {
+                            graph.addEdge(source, target);
+                        }
+                    }
+                });
+        List<List<Pointer>> cycles = new ArrayList<>();
+        for (List<Pointer> component : new SCC<>(graph).getTrueComponents()) {
+            // each merged cycle is strongly connected, so it is either
+            // equal to, or contained by, a component of the graph
+            if (getMembers(component.get(0)).size() < component.size()) {
+                cycles.add(component);
+            }
+        }
+        return cycles;
+    }
+
+    /**
+     * Records that the pointers in given cycle have been merged.
+     */
+    void merge(List<Pointer> cycle) {
+        cycle.forEach(p -> components.put(p, cycle));
+        ++mergedCycles;
+    }
+
+    /**
+     * Splits the merged cycle which contains given pointer.
+     *
+     * @return the pointers in the cycle.
+     */
+    List<Pointer> split(Pointer pointer) {
+        List<Pointer> cycle = getMembers(pointer);
+        cycle.forEach(components::remove);
+        ++splitCycles;
+        return cycle;
+    }
+
+    /**
+     * @return the pointers which share the points-to set with given pointer,
+     * including the pointer itself.
+     */
+    List<Pointer> getMembers(Pointer pointer) {
+        List<Pointer> members = components.get(pointer);
+        return members != null ? members : List.of(pointer);
+    }
+
+    /**
+     * @return {@code true} if given pointer has been merged with others.
+     */
+    boolean isMerged(Pointer pointer) {
+        return components.containsKey(pointer);
+    }
+
+    /**
+     * @return {@code true} if given two pointers have been merged together.
+     */
+    boolean isMerged(Pointer p1, Pointer p2) {
+        List<Pointer> members = components.get(p1);
+        return members != null && members == components.get(p2);
+    }
+
+    int getDetections() {
+        return detections;
+    }
+
+    int getMergedCycles() {
+        return mergedCycles;
+    }
+
+    int getSplitCycles() {
+        return splitCycles;
+    }
+
+    int getMergedPointers() {
+        return components.size();
+    }
+
+    private boolean isMergeable(Pointer pointer) {
+        return pointer.getFilters().isEmpty();
+    }
+
+    private static boolean isMergeable(PointerFlowEdge edge) {
+        Set<Transfer> transfers = edge.getTransfers();
+        return transfers.size() == 1 && transfers.contains(Identity.get());
+    }
+}
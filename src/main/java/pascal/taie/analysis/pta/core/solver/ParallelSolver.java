@@ -0,0 +1,390 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Solver which processes the pointer entries in the work list with
+ * multiple worker threads.
+ * <p>
+ * The solver drains the work list in rounds. Each round takes all pending
+ * pointer entries as a batch (each pointer appears at most once in a batch),
+ * and processes the batch in four steps:
+ * <ol>
+ *     <li>(parallel) updates the points-to sets of the pointers, and
+ *     propagates the difference sets along the PFG edges whose transfer
+ *     functions are known to be thread-safe, i.e., {@link Identity}
+ *     and {@link TypeFilter};</li>
+ *     <li>(sequential) propagates the difference sets along the PFG edges
+ *     with other transfer functions, which are usually provided by plugins;</li>
+ *     <li>(parallel) processes instance field and array accesses on the
+ *     variables whose points-to sets changed, and collects the resulting
+ *     PFG edges, which are then added to PFG by the current thread
+ *     (different variables may add transfers to the same edge, e.g.,
+ *     {@code a.f = y} and {@code b.f = y} where a and b point to
+ *     the same object);</li>
+ *     <li>(sequential) processes instance calls and notifies plugins
+ *     about the new points-to sets.</li>
+ * </ol>
+ * The pending call edges are processed sequentially before each step 1,
+ * and after processing the new points-to set of each variable in step 4,
+ * so that call edges are still processed prior to the pointer entries
+ * (see {@link WorkList}). During the parallel steps, new points-to
+ * relations are collected into a concurrent buffer, which is flushed
+ * into the work list after each step. Since all processed rules are
+ * monotonic, this solver reaches the same fixpoint as {@link DefaultSolver}.
+ * <p>
+ * Plugins, context selectors and heap models are still accessed by one
+ * thread at a time, thus they do not need to be thread-safe.
+ * The parallel steps only read the class hierarchy and type system,
+ * i.e., subtype checks of {@link TypeFilter} and field resolution,
+ * whose caches are concurrent maps or volatile fields. The classes are
+ * not changed during the analysis, as this solver is rejected in lazy
+ * class loading mode.
+ * The solver does not merge PFG cycles, as the merged points-to sets
+ * would be updated by multiple threads.
+ * The given {@link CSManager}, however, must be thread-safe, e.g.,
+ * {@link pascal.taie.analysis.pta.core.cs.element.ConcurrentCSManager}.
+ */
+public class ParallelSolver extends DefaultSolver {
+
+    private static final Logger logger = LogManager.getLogger(ParallelSolver.class);
+
+    /**
+     * Number of tasks per worker thread for each parallel step,
+     * which balances the loads among the worker threads.
+     */
+    private static final int TASKS_PER_THREAD = 4;
+
+    /**
+     * Number of worker threads.
+     */
+    private final int threads;
+
+    /**
+     * Batches that are smaller than this threshold are processed by
+     * the current thread, as dispatching them to worker threads costs
+     * more than what it saves.
+     */
+    private final int minBatch;
+
+    private ExecutorService executor;
+
+    /**
+     * Buffer for points-to relations added during parallel steps.
+     * It is {@code null} when the solver is not in a parallel step.
+     */
+    private volatile ConcurrentMap<Pointer, PointsToSet> buffer;
+
+    /**
+     * Collects the PFG edges added by the current thread when it processes
+     * heap accesses in parallel step, or {@code null} otherwise.
+     */
+    private final ThreadLocal<List<PendingEdge>> pendingEdges = new ThreadLocal<>();
+
+    /**
+     * Number of processed rounds.
+     */
+    private int rounds;
+
+    /**
+     * Elapsed (wall-clock) time of the parallel steps, in nanoseconds.
+     */
+    private long parallelTime;
+
+    /**
+     * Sum of the elapsed time of all tasks in parallel steps, in nanoseconds.
+     */
+    private final AtomicLong taskTime = new AtomicLong();
+
+    public ParallelSolver(AnalysisOptions options, HeapModel heapModel,
+                          ContextSelector contextSelector, CSManager csManager) {
+        super(options, heapModel, contextSelector, csManager);
+        int n = options.getInt("solver-threads");
+        threads = n > 0 ? n : Runtime.getRuntime().availableProcessors();
+        minBatch = options.getInt("solver-min-batch");
+        if (options.getBoolean("merge-pfg-cycles")) {
+            logger.warn("Parallel solver does not merge PFG cycles," +
+                    " option 'merge-pfg-cycles' is ignored");
+        }
+    }
+
+    @Override
+    boolean mergesPFGCycles() {
+        return false;
+    }
+
+    @Override
+    TypeFilter newTypeFilter(Type type) {
+        return new TypeFilter(type, this, true);
+    }
+
+    @Override
+    public void solve() {
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "pta-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            super.solve();
+        } finally {
+            executor.shutdownNow();
+        }
+        logStatistics();
+    }
+
+    /**
+     * Incremental update relies on the sequential worklist of
+     * {@link DefaultSolver}, thus it is not supported by this solver.
+     */
+    @Override
+    public void update(Map<JMethod, IR> changes) {
+        throw new UnsupportedOperationException(
+                "Parallel solver does not support incremental update");
+    }
+
+    /**
+     * Points-to sets are created lazily by double-checked locking,
+     * which relies on the volatile points-to set field of pointers.
+     */
+    @Override
+    public PointsToSet getPointsToSetOf(Pointer pointer) {
+        PointsToSet pts = pointer.getPointsToSet();
+        if (pts == null) {
+            synchronized (pointer) {
+                pts = super.getPointsToSetOf(pointer);
+            }
+        }
+        return pts;
+    }
+
+    @Override
+    public void addPointsTo(Pointer pointer, PointsToSet pts) {
+        ConcurrentMap<Pointer, PointsToSet> buf = buffer;
+        if (buf != null) {
+            buf.compute(pointer, (p, set) -> {
+                if (set == null) {
+                    return pts.copy();
+                }
+                set.addAll(pts);
+                return set;
+            });
+        } else {
+            super.addPointsTo(pointer, pts);
+        }
+    }
+
+    @Override
+    void processWorkList() {
+        WorkList workList = getWorkList();
+        while (!workList.isEmpty() && !isTimeout()) {
+            processCallEdges();
+            List<WorkList.PointerEntry> batch = workList.pollPointerEntries();
+            if (batch.isEmpty()) {
+                continue;
+            }
+            ++rounds;
+            // step 1: update points-to sets and propagate the differences
+            List<PointsToSet> diffs = runInParallel(batch, entry -> {
+                Pointer pointer = entry.pointer();
+                PointsToSet diff = updatePointsTo(pointer, entry.pointsToSet());
+                if (!diff.isEmpty()) {
+                    propagateToSuccessors(pointer, diff, true);
+                }
+                return diff;
+            });
+            // step 2: propagate along edges with other transfer functions
+            List<WorkList.PointerEntry> changedVars = new ArrayList<>();
+            for (int i = 0; i < batch.size(); ++i) {
+                Pointer pointer = batch.get(i).pointer();
+                PointsToSet diff = diffs.get(i);
+                countProcessedEntry(diff);
+                if (!diff.isEmpty()) {
+                    propagateToSuccessors(pointer, diff, false);
+                    if (pointer instanceof CSVar) {
+                        changedVars.add(new WorkList.PointerEntry(pointer, diff));
+                    }
+                }
+            }
+            // step 3: process instance field and array accesses
+            List<List<PendingEdge>> newEdges = runInParallel(changedVars, entry -> {
+                List<PendingEdge> edges = new ArrayList<>();
+                pendingEdges.set(edges);
+                try {
+                    processHeapAccesses((CSVar) entry.pointer(), entry.pointsToSet());
+                } finally {
+                    pendingEdges.remove();
+                }
+                return edges;
+            });
+            newEdges.forEach(edges -> edges.forEach(e ->
+                    super.addPFGEdge(e.edge(), e.transfer())));
+            // step 4: process instance calls and notify plugins
+            for (WorkList.PointerEntry entry : changedVars) {
+                CSVar var = (CSVar) entry.pointer();
+                PointsToSet diff = entry.pointsToSet();
+                processCall(var, diff);
+                getPlugin().onNewPointsToSet(var, diff);
+                processCallEdges();
+            }
+        }
+    }
+
+    @Override
+    public void addPFGEdge(PointerFlowEdge edge, Transfer transfer) {
+        List<PendingEdge> edges = pendingEdges.get();
+        if (edges != null) {
+            edges.add(new PendingEdge(edge, transfer));
+        } else {
+            super.addPFGEdge(edge, transfer);
+        }
+    }
+
+    /**
+     * PFG edge (and its transfer function) to be added by the current thread.
+     */
+    private record PendingEdge(PointerFlowEdge edge, Transfer transfer) {
+    }
+
+    /**
+     * Processes all pending call edges in the work list.
+     */
+    private void processCallEdges() {
+        WorkList workList = getWorkList();
+        while (workList.hasCallEdges()) {
+            processCallEdge(workList.pollCallEdge());
+        }
+    }
+
+    /**
+     * Propagates diff to the PFG successors of given pointer.
+     *
+     * @param threadSafe if true, only propagates along the edges whose
+     *                   transfer functions are thread-safe; otherwise,
+     *                   only propagates along the other edges.
+     */
+    private void propagateToSuccessors(
+            Pointer pointer, PointsToSet diff, boolean threadSafe) {
+        for (PointerFlowEdge edge : pointer.getOutEdges()) {
+            Pointer target = edge.target();
+            for (Transfer transfer : edge.getTransfers()) {
+                if (isThreadSafe(transfer) == threadSafe) {
+                    addPointsTo(target, transfer.apply(edge, diff));
+                }
+            }
+        }
+    }
+
+    private static boolean isThreadSafe(Transfer transfer) {
+        return transfer == Identity.get() || transfer instanceof TypeFilter;
+    }
+
+    /**
+     * Applies given function on each item by the worker threads,
+     * and returns the results in the same order as the items.
+     * The points-to relations added by the function are buffered,
+     * and they are added to the work list after all items are processed.
+     */
+    private <T, R> List<R> runInParallel(List<T> items, Function<T, R> function) {
+        if (items.size() < minBatch) {
+            return items.stream().map(function).toList();
+        }
+        long start = System.nanoTime();
+        buffer = Maps.newConcurrentMap();
+        Object[] results = new Object[items.size()];
+        int nTasks = Math.min(items.size(), threads * TASKS_PER_THREAD);
+        int chunkSize = (items.size() + nTasks - 1) / nTasks;
+        List<Callable<Void>> tasks = new ArrayList<>(nTasks);
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            int begin = from;
+            int end = Math.min(from + chunkSize, items.size());
+            tasks.add(() -> {
+                long taskStart = System.nanoTime();
+                for (int i = begin; i < end; ++i) {
+                    results[i] = function.apply(items.get(i));
+                }
+                taskTime.addAndGet(System.nanoTime() - taskStart);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnalysisException("Parallel solver is interrupted", e);
+        } catch (ExecutionException e) {
+            throw new AnalysisException("Parallel solver fails", e.getCause());
+        } finally {
+            ConcurrentMap<Pointer, PointsToSet> buf = buffer;
+            buffer = null;
+            buf.forEach(super::addPointsTo);
+            parallelTime += System.nanoTime() - start;
+        }
+        @SuppressWarnings("unchecked")
+        List<R> list = (List<R>) Arrays.asList(results);
+        return list;
+    }
+
+    private void logStatistics() {
+        double parallelSeconds = parallelTime / 1e9;
+        double taskSeconds = taskTime.get() / 1e9;
+        logger.info("Parallel solver: {} threads, {} rounds", threads, rounds);
+        logger.info("Parallel steps: elapsed time {}s, accumulated task time {}s," +
+                        " speedup {}x with {} threads",
+                String.format("%.2f", parallelSeconds),
+                String.format("%.2f", taskSeconds),
+                String.format("%.2f", parallelSeconds > 0 ?
+                        taskSeconds / parallelSeconds : 1.0),
+                threads);
+    }
+}
@@ -72,6 +72,15 @@ public class PointerFlowEdge implements Edge<Pointer> {
         return transfers.add(transfer);
     }
 
+    /**
+     * Removes a transfer function from this edge. Like
+     * {@link Pointer#removeEdgesIf}, this method should only be called
+     * in {@link pascal.taie.analysis.pta.plugin.Plugin#onPhaseFinish()}.
+     */
+    public boolean removeTransfer(Transfer transfer) {
+        return transfers.remove(transfer);
+    }
+
     public Set<Transfer> getTransfers() {
         return transfers;
     }
@@ -0,0 +1,319 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.config.ConfigException;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.SCC;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+/**
+ * Provides static factory method and implementations of {@link SchedulingPolicy}.
+ */
+final class SchedulingPolicies {
+
+    private SchedulingPolicies() {
+    }
+
+    /**
+     * Creates a scheduling policy.
+     *
+     * @param policy           name of the policy, i.e., one of {@code fifo},
+     *                         {@code lifo}, {@code topo}, and {@code pts-size}
+     * @param pointerFlowGraph the pointer flow graph being solved.
+     * @param rerankInterval   minimum number of processed entries that
+     *                         triggers re-ranking of pointers in {@code topo}.
+     */
+    static SchedulingPolicy make(String policy, PointerFlowGraph pointerFlowGraph,
+                                 int rerankInterval) {
+        return switch (policy) {
+            case "fifo" -> new FIFOPolicy();
+            case "lifo" -> new LIFOPolicy();
+            case "topo" -> new TopologicalPolicy(pointerFlowGraph, rerankInterval);
+            case "pts-size" -> new PointsToSizePolicy();
+            default -> throw new ConfigException(
+                    "Unknown work list policy: " + policy);
+        };
+    }
+
+    /**
+     * Stores the pending entries in a map, and leaves the order of
+     * the pending pointers to subclasses.
+     */
+    private abstract static class MapBasedPolicy implements SchedulingPolicy {
+
+        protected final Map<Pointer, PointsToSet> pending;
+
+        private MapBasedPolicy(Map<Pointer, PointsToSet> pending) {
+            this.pending = pending;
+        }
+
+        @Override
+        public void addEntry(Pointer pointer, PointsToSet pointsToSet) {
+            PointsToSet set = pending.get(pointer);
+            if (set != null) {
+                set.addAll(pointsToSet);
+            } else {
+                pending.put(pointer, pointsToSet.copy());
+                onNewPointer(pointer);
+            }
+        }
+
+        @Override
+        public WorkList.PointerEntry pollEntry() {
+            if (pending.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Pointer pointer = nextPointer();
+            return new WorkList.PointerEntry(pointer, pending.remove(pointer));
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return pending.isEmpty();
+        }
+
+        /**
+         * Invoked when a pointer without pending entry is added.
+         */
+        protected abstract void onNewPointer(Pointer pointer);
+
+        /**
+         * @return the next pending pointer to be processed.
+         * This method is invoked only when there are pending pointers.
+         */
+        protected abstract Pointer nextPointer();
+    }
+
+    /**
+     * Processes the pointers in the order in which they are added,
+     * which is the default policy.
+     */
+    private static class FIFOPolicy extends MapBasedPolicy {
+
+        private FIFOPolicy() {
+            super(Maps.newLinkedHashMap());
+        }
+
+        @Override
+        protected void onNewPointer(Pointer pointer) {
+            // the insertion order is maintained by the linked hash map
+        }
+
+        @Override
+        protected Pointer nextPointer() {
+            return pending.keySet().iterator().next();
+        }
+    }
+
+    /**
+     * Processes the most recently added pointer first.
+     */
+    private static class LIFOPolicy extends MapBasedPolicy {
+
+        private final Deque<Pointer> stack = new ArrayDeque<>();
+
+        private LIFOPolicy() {
+            super(Maps.newMap());
+        }
+
+        @Override
+        protected void onNewPointer(Pointer pointer) {
+            stack.push(pointer);
+        }
+
+        @Override
+        protected Pointer nextPointer() {
+            return stack.pop();
+        }
+    }
+
+    /**
+     * Processes the pointers with smaller points-to sets first. The pointers
+     * with small points-to sets are usually close to the allocation sites,
+     * and processing them first lets the objects flowing to downstream
+     * pointers accumulate, so that they are propagated in fewer entries.
+     * The pointers with the same priority are processed in FIFO order.
+     */
+    private static class PointsToSizePolicy extends MapBasedPolicy {
+
+        private record Node(Pointer pointer, int size, long order) {
+        }
+
+        private final Queue<Node> queue = new PriorityQueue<>(
+                Comparator.comparingInt(Node::size)
+                        .thenComparingLong(Node::order));
+
+        /**
+         * Counter of added pointers, which decides the order of
+         * the pointers with the same priority.
+         */
+        private long counter = 0;
+
+        private PointsToSizePolicy() {
+            super(Maps.newMap());
+        }
+
+        @Override
+        protected void onNewPointer(Pointer pointer) {
+            // points-to set of a pointer does not change until its pending
+            // entry is processed, so the priority of the node is stable
+            PointsToSet pts = pointer.getPointsToSet();
+            queue.add(new Node(pointer, pts == null ? 0 : pts.size(), counter++));
+        }
+
+        @Override
+        protected Pointer nextPointer() {
+            return queue.remove().pointer();
+        }
+    }
+
+    /**
+     * Processes pointers in topological order of the DAG of strongly-connected
+     * components of pointer flow graph, so that the objects flowing into a
+     * pointer from its predecessors are likely to be merged before the pointer
+     * is processed.
+     * <p>
+     * The pending pointers are processed in rounds. At the beginning of each
+     * round, the pending pointers are sorted by their topological ranks,
+     * and the pointers added during the round are processed in the next round.
+     * The ranks are computed at the first round. As the PFG grows during
+     * the analysis, the ranks are recomputed when the number of processed
+     * entries since the last computation exceeds both the given minimum
+     * interval and the number of pointers ranked in the last computation,
+     * which keeps the cost of ranking proportional to the processing work.
+     */
+    private static class TopologicalPolicy extends MapBasedPolicy {
+
+        private final PointerFlowGraph pointerFlowGraph;
+
+        /**
+         * Minimum number of processed entries that triggers re-ranking.
+         */
+        private final int minRerankInterval;
+
+        /**
+         * Pointers to be processed in current round.
+         */
+        private final Deque<Pointer> current = new ArrayDeque<>();
+
+        /**
+         * Maps index of pointer to its topological rank plus one,
+         * 0 means that the pointer has not been ranked.
+         * {@code null} if the ranks have not been computed.
+         */
+        private int[] ranks;
+
+        private int processedSinceRanking = 0;
+
+        private int rerankInterval;
+
+        private TopologicalPolicy(PointerFlowGraph pointerFlowGraph,
+                                  int minRerankInterval) {
+            super(Maps.newLinkedHashMap());
+            this.pointerFlowGraph = pointerFlowGraph;
+            this.minRerankInterval = minRerankInterval;
+        }
+
+        @Override
+        protected void onNewPointer(Pointer pointer) {
+            // the pointer will be processed in the next round
+        }
+
+        @Override
+        protected Pointer nextPointer() {
+            if (current.isEmpty()) {
+                current.addAll(sortPendingPointers());
+            }
+            ++processedSinceRanking;
+            return current.poll();
+        }
+
+        @Override
+        public List<WorkList.PointerEntry> pollEntries() {
+            List<WorkList.PointerEntry> entries = new ArrayList<>(pending.size());
+            // the pointers of current round are processed first
+            for (Pointer p : current) {
+                entries.add(new WorkList.PointerEntry(p, pending.remove(p)));
+            }
+            current.clear();
+            for (Pointer p : sortPendingPointers()) {
+                entries.add(new WorkList.PointerEntry(p, pending.remove(p)));
+            }
+            processedSinceRanking += entries.size();
+            return entries;
+        }
+
+        /**
+         * @return pending pointers sorted by their topological ranks.
+         */
+        private List<Pointer> sortPendingPointers() {
+            if (ranks == null || processedSinceRanking >= rerankInterval) {
+                computeRanks();
+            }
+            List<Pointer> pointers = new ArrayList<>(pending.keySet());
+            // unranked pointers are processed after the ranked ones,
+            // and List.sort() is stable
+            pointers.sort(Comparator.comparingInt(p -> {
+                int index = p.getIndex();
+                int rank = index < ranks.length ? ranks[index] : 0;
+                return rank == 0 ? Integer.MAX_VALUE : rank;
+            }));
+            return pointers;
+        }
+
+        private void computeRanks() {
+            // Tarjan's algorithm outputs the components in reverse
+            // topological order
+            List<List<Pointer>> components = new SCC<>(pointerFlowGraph)
+                    .getComponents();
+            int maxIndex = -1;
+            for (List<Pointer> component : components) {
+                for (Pointer p : component) {
+                    maxIndex = Math.max(maxIndex, p.getIndex());
+                }
+            }
+            ranks = new int[maxIndex + 1];
+            int rank = components.size();
+            for (List<Pointer> component : components) {
+                for (Pointer p : component) {
+                    ranks[p.getIndex()] = rank;
+                }
+                --rank;
+            }
+            rerankInterval = Math.max(minRerankInterval, ranks.length);
+            processedSinceRanking = 0;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scheduling policy for the pointer entries in {@link WorkList}.
+ * A policy stores the pending pointer entries, and decides the order
+ * in which they are processed. The points-to sets that are added to
+ * the same pending pointer are merged into one entry.
+ *
+ * @see SchedulingPolicies
+ */
+interface SchedulingPolicy {
+
+    /**
+     * Adds a pointer entry. If the pointer already has a pending entry,
+     * then given points-to set is merged into the pending one.
+     */
+    void addEntry(Pointer pointer, PointsToSet pointsToSet);
+
+    /**
+     * Removes and returns the next pointer entry to be processed.
+     *
+     * @throws java.util.NoSuchElementException if there is no pending entry.
+     */
+    WorkList.PointerEntry pollEntry();
+
+    /**
+     * Removes and returns all pending pointer entries, in the order
+     * in which they would be processed.
+     */
+    default List<WorkList.PointerEntry> pollEntries() {
+        List<WorkList.PointerEntry> entries = new ArrayList<>();
+        while (!isEmpty()) {
+            entries.add(pollEntry());
+        }
+        return entries;
+    }
+
+    /**
+     * @return whether there is no pending pointer entry.
+     */
+    boolean isEmpty();
+}
@@ -170,7 +170,17 @@ public interface Solver {
      * can be propagated to {@code edge.target()}.
      */
     default void addPFGEdge(PointerFlowEdge edge, Type type) {
-        addPFGEdge(edge, new TypeFilter(type, this));
+        addPFGEdge(edge, getTypeFilter(type));
+    }
+
+    /**
+     * @return the transfer function that filters out the objects whose
+     * types are NOT subtypes of {@code type}. Implementations may return
+     * the same filter for the same type, so that the results of type
+     * checks are shared.
+     */
+    default Transfer getTypeFilter(Type type) {
+        return new TypeFilter(type, this);
     }
 
     /**
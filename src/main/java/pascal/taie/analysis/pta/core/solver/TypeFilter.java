@@ -22,17 +22,36 @@
 
 package pascal.taie.analysis.pta.core.solver;
 
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.language.type.NullType;
 import pascal.taie.language.type.ReferenceType;
 import pascal.taie.language.type.Type;
 import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.IBitSet;
+import pascal.taie.util.collection.SparseBitSet;
 
-import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Transfer function that filters out the objects whose types are NOT
  * subtypes of specific type.
+ * <p>
+ * The filter caches the result of type check for each object in
+ * two sparse bit sets over the indexes of {@link CSObj}s, i.e.,
+ * the objects that have been checked and the ones that pass the check.
+ * The bit sets only hold the blocks of bits for the objects that
+ * reach the filter. Once all objects of the input have been checked,
+ * filtering is a word-wise AND of the bits of the input and the accepted
+ * objects (and is a no-op if all objects pass the check), without
+ * type checks.
+ * <p>
+ * The filter should be shared by all PFG edges with the same type
+ * (see {@link Solver#getTypeFilter(Type)}), so that each object is
+ * checked at most once for each type. A concurrent filter can be
+ * applied by multiple threads, and it guards its bit sets with a lock.
  */
 public class TypeFilter implements Transfer {
 
@@ -43,21 +62,81 @@ public class TypeFilter implements Transfer {
 
     private final TypeSystem typeSystem;
 
-    private final Supplier<PointsToSet> ptsFactory;
+    /**
+     * Indexes of the objects that have been checked against {@link #type}.
+     */
+    private final IBitSet checked = new SparseBitSet();
+
+    /**
+     * Indexes of the objects whose types are subtypes of {@link #type}.
+     */
+    private final IBitSet accepted = new SparseBitSet();
+
+    /**
+     * Guards {@link #checked} and {@link #accepted}, {@code null} if
+     * this filter is not concurrent.
+     */
+    @Nullable
+    private final ReadWriteLock lock;
 
     public TypeFilter(Type type, Solver solver) {
+        this(type, solver, true);
+    }
+
+    /**
+     * @param isConcurrent whether the filter may be applied by multiple
+     *                     threads at the same time
+     */
+    public TypeFilter(Type type, Solver solver, boolean isConcurrent) {
         this.type = type;
         this.typeSystem = solver.getTypeSystem();
-        this.ptsFactory = solver::makePointsToSet;
+        this.lock = isConcurrent ? new ReentrantReadWriteLock() : null;
     }
 
     @Override
     public PointsToSet apply(PointerFlowEdge edge, PointsToSet input) {
-        PointsToSet result = ptsFactory.get();
-        input.objects()
-                .filter(o -> isAssignable(o.getObject().getType(), type))
-                .forEach(result::addObject);
-        return result;
+        if (lock == null) {
+            check(input);
+            return filter(input);
+        }
+        lock.readLock().lock();
+        try {
+            if (input.isSubsetOf(checked)) {
+                return filter(input);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            check(input);
+            return filter(input);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks the objects of the input that have not been checked.
+     */
+    private void check(PointsToSet input) {
+        if (!input.isSubsetOf(checked)) {
+            for (CSObj o : input) {
+                if (checked.set(o.getIndex())
+                        && isAssignable(o.getObject().getType(), type)) {
+                    accepted.set(o.getIndex());
+                }
+            }
+        }
+    }
+
+    /**
+     * Filters the input whose objects have all been checked.
+     */
+    private PointsToSet filter(PointsToSet input) {
+        // like Identity, the input can be returned as it is not
+        // modified by the solver
+        return input.isSubsetOf(accepted) ? input : input.intersect(accepted);
     }
 
     private boolean isAssignable(Type from, Type to) {
@@ -27,10 +27,9 @@ import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.analysis.pta.pts.PointsToSet;
-import pascal.taie.util.collection.Maps;
 
 import java.util.ArrayDeque;
-import java.util.Map;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Queue;
 
@@ -42,20 +41,22 @@ final class WorkList {
     /**
      * Pointer entries to be processed.
      */
-    private final Map<Pointer, PointsToSet> pointerEntries = Maps.newLinkedHashMap();
+    private final SchedulingPolicy pointerEntries;
 
     /**
      * Call edges to be processed.
      */
     private final Queue<Edge<CSCallSite, CSMethod>> callEdges = new ArrayDeque<>();
 
+    /**
+     * @param policy the scheduling policy of pointer entries.
+     */
+    WorkList(SchedulingPolicy policy) {
+        this.pointerEntries = policy;
+    }
+
     void addEntry(Pointer pointer, PointsToSet pointsToSet) {
-        PointsToSet set = pointerEntries.get(pointer);
-        if (set != null) {
-            set.addAll(pointsToSet);
-        } else {
-            pointerEntries.put(pointer, pointsToSet.copy());
-        }
+        pointerEntries.addEntry(pointer, pointsToSet);
     }
 
     void addEntry(Edge<CSCallSite, CSMethod> edge) {
@@ -68,15 +69,38 @@ final class WorkList {
             // the work list must be processed prior to the pointer entries
             return new CallEdgeEntry(callEdges.poll());
         } else if (!pointerEntries.isEmpty()) {
-            var it = pointerEntries.entrySet().iterator();
-            var e = it.next();
-            it.remove();
-            return new PointerEntry(e.getKey(), e.getValue());
+            return pointerEntries.pollEntry();
         } else {
             throw new NoSuchElementException();
         }
     }
 
+    /**
+     * @return whether there are call edges to be processed.
+     */
+    boolean hasCallEdges() {
+        return !callEdges.isEmpty();
+    }
+
+    /**
+     * Removes and returns the first call edge in this work list.
+     */
+    Edge<CSCallSite, CSMethod> pollCallEdge() {
+        Edge<CSCallSite, CSMethod> edge = callEdges.poll();
+        if (edge == null) {
+            throw new NoSuchElementException();
+        }
+        return edge;
+    }
+
+    /**
+     * Removes and returns all pointer entries in this work list.
+     * Each pointer appears in at most one of the returned entries.
+     */
+    List<PointerEntry> pollPointerEntries() {
+        return pointerEntries.pollEntries();
+    }
+
     boolean isEmpty() {
         return pointerEntries.isEmpty() && callEdges.isEmpty();
     }
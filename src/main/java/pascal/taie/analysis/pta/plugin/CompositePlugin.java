@@ -90,6 +90,19 @@ public class CompositePlugin implements Plugin {
         }
     }
 
+    /**
+     * @return {@code true} if any of the plugins overwrites a method
+     * that handles the new facts found by the solver, i.e., new points-to
+     * sets, call edges, (context-sensitive) methods, statements,
+     * or unresolved calls.
+     */
+    public boolean handlesNewFacts() {
+        return Stream.of(onNewPointsToSetPlugins, onNewCallEdgePlugins,
+                onNewMethodPlugins, onNewStmtPlugins, onNewCSMethodPlugins,
+                onUnresolvedCallPlugins
+        ).anyMatch(plugins -> !plugins.isEmpty());
+    }
+
     public void clearPlugins() {
         Stream.of(allPlugins,
                 onNewPointsToSetPlugins, onNewCallEdgePlugins, onNewMethodPlugins,
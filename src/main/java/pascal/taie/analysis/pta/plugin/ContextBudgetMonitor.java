@@ -0,0 +1,206 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.selector.BudgetedSelector;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.MutableInt;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Monitors the time and memory consumed by pointer analysis, and when
+ * a budget is exceeded, demotes the hot methods, i.e., the methods
+ * which receive the most new contexts since the last check, to
+ * context-insensitive analysis via {@link BudgetedSelector}.
+ * <p>
+ * Unlike time limit, which stops the analysis early, this plugin keeps
+ * the analysis running until it reaches a (less precise but) sound fixpoint.
+ * The demoted methods are stored in the result of pointer analysis
+ * with the key of the name of this class.
+ */
+public class ContextBudgetMonitor implements Plugin {
+
+    private static final Logger logger = LogManager.getLogger(ContextBudgetMonitor.class);
+
+    private static final int UNLIMITED = -1;
+
+    /**
+     * Number of new context-sensitive methods between two checks.
+     */
+    private static final int CS_METHOD_INTERVAL = 1024;
+
+    /**
+     * Number of new points-to sets of variables between two checks.
+     */
+    private static final int PTS_INTERVAL = 1 << 16;
+
+    private static final long MB = 1024 * 1024;
+
+    private Solver solver;
+
+    private BudgetedSelector selector;
+
+    /**
+     * Time budget in milliseconds.
+     */
+    private long timeBudget;
+
+    /**
+     * Memory budget in bytes.
+     */
+    private long memoryBudget;
+
+    private long startTime;
+
+    private long lastCheckTime;
+
+    private int csMethodEvents;
+
+    private int ptsEvents;
+
+    /**
+     * Number of new contexts of each method since last check.
+     */
+    private final Map<JMethod, MutableInt> newContexts = Maps.newMap();
+
+    private int totalNewContexts;
+
+    @Override
+    public void setSolver(Solver solver) {
+        this.solver = solver;
+        this.selector = (BudgetedSelector) solver.getContextSelector();
+        AnalysisOptions options = solver.getOptions();
+        int time = options.getInt("budget-time");
+        timeBudget = time == UNLIMITED ? UNLIMITED : time * 1000L;
+        int memory = options.getInt("budget-memory");
+        memoryBudget = memory == UNLIMITED ? UNLIMITED : memory * MB;
+    }
+
+    @Override
+    public void onStart() {
+        startTime = lastCheckTime = System.currentTimeMillis();
+    }
+
+    @Override
+    public void onNewCSMethod(CSMethod csMethod) {
+        if (!csMethod.getContext().equals(selector.getEmptyContext())) {
+            newContexts.computeIfAbsent(csMethod.getMethod(),
+                    m -> new MutableInt(0)).add(1);
+            ++totalNewContexts;
+        }
+        if (++csMethodEvents >= CS_METHOD_INTERVAL) {
+            check();
+        }
+    }
+
+    @Override
+    public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
+        if (++ptsEvents >= PTS_INTERVAL) {
+            check();
+        }
+    }
+
+    @Override
+    public void onPhaseFinish() {
+        check();
+    }
+
+    @Override
+    public void onFinish() {
+        Set<JMethod> demoted = selector.getDemotedMethods();
+        if (!demoted.isEmpty()) {
+            logger.info("{} methods were demoted to context-insensitive" +
+                    " analysis as the budget was exceeded", demoted.size());
+        }
+        solver.getResult().storeResult(getClass().getName(), Sets.newSet(demoted));
+    }
+
+    /**
+     * Checks the consumed time and memory, and demotes hot methods
+     * if the budget is exceeded.
+     */
+    private void check() {
+        csMethodEvents = 0;
+        ptsEvents = 0;
+        long now = System.currentTimeMillis();
+        long elapsed = now - startTime;
+        Runtime runtime = Runtime.getRuntime();
+        long usedMemory = runtime.totalMemory() - runtime.freeMemory();
+        boolean overTime = timeBudget != UNLIMITED && elapsed > timeBudget;
+        boolean overMemory = memoryBudget != UNLIMITED && usedMemory > memoryBudget;
+        if ((overTime || overMemory) && totalNewContexts > 0) {
+            List<JMethod> demoted = demoteHotMethods();
+            if (!demoted.isEmpty()) {
+                double seconds = Math.max(now - lastCheckTime, 1) / 1000.0;
+                logger.info("Budget exceeded (elapsed time: {}s, used memory: {}MB," +
+                                " new contexts: {}/s), demoted {} methods, e.g., {}",
+                        elapsed / 1000, usedMemory / MB,
+                        (long) (totalNewContexts / seconds),
+                        demoted.size(), demoted.get(0));
+            }
+        }
+        newContexts.clear();
+        totalNewContexts = 0;
+        lastCheckTime = now;
+    }
+
+    /**
+     * Demotes the methods which receive the most new contexts since last
+     * check, until the demoted methods cover at least half of the new contexts.
+     *
+     * @return the newly-demoted methods.
+     */
+    private List<JMethod> demoteHotMethods() {
+        List<Map.Entry<JMethod, MutableInt>> entries =
+                new ArrayList<>(newContexts.entrySet());
+        entries.sort(Comparator.comparingInt(
+                (Map.Entry<JMethod, MutableInt> e) -> e.getValue().intValue())
+                .reversed());
+        List<JMethod> demoted = new ArrayList<>();
+        int covered = 0;
+        for (var entry : entries) {
+            if (covered * 2 >= totalNewContexts) {
+                break;
+            }
+            if (selector.demote(entry.getKey())) {
+                demoted.add(entry.getKey());
+            }
+            covered += entry.getValue().intValue();
+        }
+        return demoted;
+    }
+}
@@ -34,6 +34,7 @@ import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.core.solver.Solver;
 import pascal.taie.analysis.pta.plugin.taint.TaintFlow;
+import pascal.taie.analysis.pta.store.StoredResultWriter;
 import pascal.taie.config.AnalysisOptions;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.language.classes.JMethod;
@@ -79,6 +80,8 @@ public class ResultProcessor implements Plugin {
 
     public static final String RESULTS_YAML_FILE = "pta-results.yml";
 
+    public static final String RESULTS_BINARY_FILE = "pta-results.bin";
+
     private static final String CI_RESULTS_FILE = "pta-ci-results.txt";
 
     private static final String HEADER = "Points-to sets of all ";
@@ -119,6 +122,10 @@ public class ResultProcessor implements Plugin {
             dumpPointsToSetInYaml(result);
         }
 
+        if (options.getBoolean("dump-binary")) {
+            dumpBinaryResult(result);
+        }
+
         String expectedFile = options.getString("expected-file");
         if (expectedFile != null) {
             if (taintEnabled) {
@@ -330,6 +337,23 @@ public class ResultProcessor implements Plugin {
         }
     }
 
+    /**
+     * Dumps pointer analysis result in the binary format
+     * which can be loaded by
+     * {@link pascal.taie.analysis.pta.store.StoredResult}.
+     */
+    private static void dumpBinaryResult(PointerAnalysisResult result) {
+        File outFile = new File(World.get().getOptions().getOutputDir(),
+                RESULTS_BINARY_FILE);
+        logger.info("Dumping pointer analysis result in binary format to {}",
+                outFile.getAbsolutePath());
+        try {
+            StoredResultWriter.write(result, outFile);
+        } catch (IOException e) {
+            logger.error("Failed to write output file {}", outFile, e);
+        }
+    }
+
     /**
      * Dumps points-to sets for all variables (without contexts).
      */
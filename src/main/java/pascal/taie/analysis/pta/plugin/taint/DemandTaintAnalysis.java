@@ -0,0 +1,90 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.taint;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.analysis.ProgramAnalysis;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Map;
+
+/**
+ * Demand-driven taint analysis, which queries every sink point
+ * in the call graph by {@link TaintQueryEngine} instead of running
+ * whole-program pointer analysis. The call graph is expected to be
+ * built by a cheap algorithm, e.g., {@code cg=algorithm:cha}.
+ */
+public class DemandTaintAnalysis extends ProgramAnalysis<Map<SinkPoint, TaintQueryEngine.Result>> {
+
+    public static final String ID = "demand-taint";
+
+    private static final Logger logger = LogManager.getLogger(DemandTaintAnalysis.class);
+
+    public DemandTaintAnalysis(AnalysisConfig config) {
+        super(config);
+    }
+
+    @Override
+    public Map<SinkPoint, TaintQueryEngine.Result> analyze() {
+        String configPath = getOptions().getString("taint-config");
+        if (configPath == null) {
+            throw new ConfigException("Option 'taint-config' of "
+                    + ID + " is not given");
+        }
+        int budget = getOptions().getInt("budget");
+        CallGraph<Invoke, JMethod> callGraph = World.get().getResult(CallGraphBuilder.ID);
+        TaintQueryEngine engine = new TaintQueryEngine(configPath, callGraph,
+                World.get().getClassHierarchy(), World.get().getTypeSystem(),
+                budget > 0 ? budget : Integer.MAX_VALUE);
+        Map<SinkPoint, TaintQueryEngine.Result> results = Maps.newLinkedHashMap();
+        int tainted = 0;
+        int unknown = 0;
+        for (SinkPoint sinkPoint : engine.getSinkPoints()) {
+            TaintQueryEngine.Result result = engine.query(sinkPoint);
+            results.put(sinkPoint, result);
+            switch (result.answer()) {
+                case TAINTED -> {
+                    ++tainted;
+                    logger.info("{}: tainted, witness: {}",
+                            sinkPoint, result.witness());
+                }
+                case UNKNOWN -> {
+                    ++unknown;
+                    logger.info("{}: unknown (budget exhausted)", sinkPoint);
+                }
+                case NOT_TAINTED -> logger.debug("{}: not tainted", sinkPoint);
+            }
+        }
+        logger.info("Queried {} sink point(s), #tainted: {}, #unknown: {}",
+                results.size(), tainted, unknown);
+        return results;
+    }
+}
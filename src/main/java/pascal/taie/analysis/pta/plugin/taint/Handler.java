@@ -38,10 +38,16 @@ abstract class Handler {
 
     protected final boolean callSiteMode;
 
+    protected final TaintRules rules;
+
+    protected final TaintFacts facts;
+
     protected Handler(HandlerContext context) {
         solver = context.solver();
         csManager = solver.getCSManager();
         manager = context.manager();
         callSiteMode = context.config().callSiteMode();
+        rules = context.rules();
+        facts = context.facts();
     }
 }
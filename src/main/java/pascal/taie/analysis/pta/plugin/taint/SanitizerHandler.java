@@ -29,9 +29,8 @@ import pascal.taie.analysis.pta.core.cs.element.CSVar;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.language.classes.JMethod;
-import pascal.taie.util.collection.Maps;
-import pascal.taie.util.collection.MultiMap;
 
+import java.util.List;
 import java.util.function.Predicate;
 
 import static pascal.taie.analysis.pta.plugin.util.InvokeUtils.BASE;
@@ -41,8 +40,6 @@ import static pascal.taie.analysis.pta.plugin.util.InvokeUtils.BASE;
  */
 class SanitizerHandler extends OnFlyHandler {
 
-    private final MultiMap<JMethod, ParamSanitizer> paramSanitizers = Maps.newMultiMap();
-
     /**
      * Used to filter out taint objects from points-to set.
      */
@@ -50,9 +47,7 @@ class SanitizerHandler extends OnFlyHandler {
 
     SanitizerHandler(HandlerContext context) {
         super(context);
-        taintFilter = o -> !context.manager().isTaint(o.getObject());
-        context.config().paramSanitizers()
-                .forEach(s -> this.paramSanitizers.put(s.method(), s));
+        taintFilter = facts.getTaintFilter();
     }
 
     /**
@@ -62,13 +57,15 @@ class SanitizerHandler extends OnFlyHandler {
     @Override
     public void onNewCSMethod(CSMethod csMethod) {
         JMethod method = csMethod.getMethod();
-        if (paramSanitizers.containsKey(method)) {
+        List<ParamSanitizer> paramSanitizers = rules.get(method).sanitizers();
+        if (!paramSanitizers.isEmpty()) {
             Context context = csMethod.getContext();
             IR ir = method.getIR();
-            paramSanitizers.get(method).forEach(sanitizer -> {
+            paramSanitizers.forEach(sanitizer -> {
                 Var param = getParam(ir, sanitizer.index());
                 CSVar csParam = csManager.getCSVar(context, param);
                 solver.addPointerFilter(csParam, taintFilter);
+                facts.addSanitizedParam(sanitizer, csParam);
             });
         }
     }
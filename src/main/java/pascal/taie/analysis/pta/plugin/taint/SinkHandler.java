@@ -34,8 +34,6 @@ import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.language.classes.JMethod;
-import pascal.taie.util.collection.MultiMap;
-import pascal.taie.util.collection.MultiMapCollector;
 import pascal.taie.util.collection.Sets;
 
 import java.util.List;
@@ -67,8 +65,6 @@ class SinkHandler extends Handler {
                     .forEach(taintFlows::addAll);
         }
         if (callSiteMode) {
-            MultiMap<JMethod, Sink> sinkMap = sinks.stream()
-                    .collect(MultiMapCollector.get(Sink::method, s -> s));
             // scan all reachable call sites to search sink calls
             result.getCallGraph()
                     .reachableMethods()
@@ -76,7 +72,7 @@ class SinkHandler extends Handler {
                     .forEach(callSite -> {
                         JMethod callee = callSite.getMethodRef().resolveNullable();
                         if (callee != null) {
-                            for (Sink sink : sinkMap.get(callee)) {
+                            for (Sink sink : rules.get(callee).sinks()) {
                                 taintFlows.addAll(collectTaintFlows(callSite, sink));
                             }
                         }
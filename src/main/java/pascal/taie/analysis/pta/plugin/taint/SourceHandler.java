@@ -28,6 +28,7 @@ import pascal.taie.analysis.pta.core.cs.context.Context;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
 import pascal.taie.analysis.pta.pts.PointsToSet;
@@ -38,10 +39,10 @@ import pascal.taie.ir.stmt.LoadField;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
-import pascal.taie.language.type.Type;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -50,11 +51,6 @@ import java.util.Set;
  */
 class SourceHandler extends OnFlyHandler {
 
-    /**
-     * Map from a source method to its result sources.
-     */
-    private final MultiMap<JMethod, CallSource> callSources = Maps.newMultiMap();
-
     /**
      * Map from a method to {@link Invoke} statements in the method
      * which matches any call source.
@@ -62,12 +58,7 @@ class SourceHandler extends OnFlyHandler {
      */
     private final MultiMap<JMethod, Invoke> callSiteSources = Maps.newMultiMap();
 
-    /**
-     * Map from a source method to its parameter sources.
-     */
-    private final MultiMap<JMethod, ParamSource> paramSources = Maps.newMultiMap();
-
-    private record SourceInfo(IndexRef indexRef, Obj taint) {
+    private record SourceInfo(Source source, IndexRef indexRef, Obj taint) {
     }
 
     private final MultiMap<Var, SourceInfo> sourceInfos = Maps.newMultiMap();
@@ -78,9 +69,9 @@ class SourceHandler extends OnFlyHandler {
     private final boolean handleFieldSources;
 
     /**
-     * Map from a source field taint objects generated from it.
+     * Map from a source field to the corresponding field source.
      */
-    private final Map<JField, Type> fieldSources = Maps.newMap();
+    private final Map<JField, FieldSource> fieldSources = Maps.newMap();
 
     /**
      * Maps from a method to {@link LoadField} statements in the method
@@ -91,12 +82,8 @@ class SourceHandler extends OnFlyHandler {
     SourceHandler(HandlerContext context) {
         super(context);
         context.config().sources().forEach(src -> {
-            if (src instanceof CallSource callSrc) {
-                callSources.put(callSrc.method(), callSrc);
-            } else if (src instanceof ParamSource paramSrc) {
-                paramSources.put(paramSrc.method(), paramSrc);
-            } else if (src instanceof FieldSource fieldSrc) {
-                fieldSources.put(fieldSrc.field(), fieldSrc.type());
+            if (src instanceof FieldSource fieldSrc) {
+                fieldSources.put(fieldSrc.field(), fieldSrc);
             }
         });
         handleFieldSources = !fieldSources.isEmpty();
@@ -110,7 +97,7 @@ class SourceHandler extends OnFlyHandler {
         if (edge.getKind() == CallKind.OTHER) {
             return;
         }
-        Set<CallSource> sources = callSources.get(edge.getCallee().getMethod());
+        List<CallSource> sources = rules.get(edge.getCallee().getMethod()).callSources();
         if (!sources.isEmpty()) {
             Context context = edge.getCallSite().getContext();
             Invoke callSite = edge.getCallSite().getCallSite();
@@ -132,9 +119,9 @@ class SourceHandler extends OnFlyHandler {
         SourcePoint sourcePoint = new CallSourcePoint(callSite, indexRef);
         Obj taint = manager.makeTaint(sourcePoint, source.type());
         switch (indexRef.kind()) {
-            case VAR -> solver.addVarPointsTo(context, var, taint);
+            case VAR -> addTaint(csManager.getCSVar(context, var), taint, source);
             case ARRAY, FIELD -> {
-                SourceInfo info = new SourceInfo(indexRef, taint);
+                SourceInfo info = new SourceInfo(source, indexRef, taint);
                 sourceInfos.put(var, info);
                 CSVar csVar = csManager.getCSVar(context, var);
                 addArrayFieldTaint(solver.getPointsToSetOf(csVar), info);
@@ -148,17 +135,25 @@ class SourceHandler extends OnFlyHandler {
         switch (indexRef.kind()) {
             case ARRAY -> baseObjs.objects()
                     .map(csManager::getArrayIndex)
-                    .forEach(arrayIndex -> solver.addPointsTo(arrayIndex, taint));
+                    .forEach(arrayIndex -> addTaint(arrayIndex, taint, info.source()));
             case FIELD -> {
                 JField f = indexRef.field();
                 baseObjs.objects()
                         .map(o -> csManager.getInstanceField(o, f))
-                        .forEach(oDotF ->
-                                solver.addPointsTo(oDotF, taint));
+                        .forEach(oDotF -> addTaint(oDotF, taint, info.source()));
             }
         }
     }
 
+    /**
+     * Adds the taint object to the pointer and records it as a fact
+     * of the source.
+     */
+    private void addTaint(Pointer pointer, Obj taint, Source source) {
+        solver.addPointsTo(pointer, taint);
+        facts.addSourcePoint(source, manager.getSourcePoint(taint), pointer);
+    }
+
     @Override
     public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
         sourceInfos.get(csVar.getVar())
@@ -183,7 +178,7 @@ class SourceHandler extends OnFlyHandler {
             // If method references of any {@link Invoke}s are resolved to
             // call source method, then records the {@link Invoke} statements.
             JMethod callee = invoke.getMethodRef().resolveNullable();
-            if (callSources.containsKey(callee)) {
+            if (callee != null && !rules.get(callee).callSources().isEmpty()) {
                 callSiteSources.put(container, invoke);
             }
         }
@@ -202,18 +197,20 @@ class SourceHandler extends OnFlyHandler {
 
     private void handleParamSource(CSMethod csMethod) {
         JMethod method = csMethod.getMethod();
-        if (paramSources.containsKey(method)) {
+        List<ParamSource> paramSources = rules.get(method).paramSources();
+        if (!paramSources.isEmpty()) {
             Context context = csMethod.getContext();
             IR ir = method.getIR();
-            paramSources.get(method).forEach(source -> {
+            paramSources.forEach(source -> {
                 IndexRef indexRef = source.indexRef();
                 Var param = ir.getParam(indexRef.index());
                 SourcePoint sourcePoint = new ParamSourcePoint(method, indexRef);
                 Obj taint = manager.makeTaint(sourcePoint, source.type());
                 switch (indexRef.kind()) {
-                    case VAR -> solver.addVarPointsTo(context, param, taint);
+                    case VAR -> addTaint(
+                            csManager.getCSVar(context, param), taint, source);
                     case ARRAY, FIELD -> sourceInfos.put(
-                            param, new SourceInfo(indexRef, taint));
+                            param, new SourceInfo(source, indexRef, taint));
                 }
             });
         }
@@ -232,9 +229,9 @@ class SourceHandler extends OnFlyHandler {
                 Var lhs = load.getLValue();
                 SourcePoint sourcePoint = new FieldSourcePoint(method, load);
                 JField field = load.getFieldRef().resolve();
-                Type type = fieldSources.get(field);
-                Obj taint = manager.makeTaint(sourcePoint, type);
-                solver.addVarPointsTo(context, lhs, taint);
+                FieldSource source = fieldSources.get(field);
+                Obj taint = manager.makeTaint(sourcePoint, source.type());
+                addTaint(csManager.getCSVar(context, lhs), taint, source);
             });
         }
     }
@@ -250,7 +247,7 @@ class SourceHandler extends OnFlyHandler {
             Context context = csMethod.getContext();
             callSites.forEach(callSite -> {
                 JMethod callee = callSite.getMethodRef().resolve();
-                callSources.get(callee).forEach(source ->
+                rules.get(callee).callSources().forEach(source ->
                         processCallSource(context, callSite, source));
             });
         }
@@ -0,0 +1,289 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.taint;
+
+import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.solver.PointerFlowEdge;
+import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Detects taint flows to sinks on the fly and reports them through
+ * {@link TaintFlowReporter} together with a witness path.
+ * <p>
+ * Sinks of {@link IndexRef.Kind#VAR} are checked when the points-to sets
+ * of the sink arguments change, and the detected flows are reported at
+ * the end of each analysis phase, by {@link #onPhaseFinish()}, so that
+ * the witness searches do not slow down the propagation. The other flows
+ * (i.e., the ones to array/field sinks and the ones found in call-site mode)
+ * are reported when the analysis finishes, by {@link #reportRemaining(Set)}.
+ * <p>
+ * The witness path of a taint flow is found by a breadth-first search on
+ * the pointer flow graph from the source pointers to the sink pointers,
+ * visiting only the pointers which hold taint objects of the same source
+ * point, and the search is bounded by {@link #MAX_VISITED_POINTERS}.
+ */
+class StreamingSinkHandler extends OnFlyHandler {
+
+    /**
+     * Maximum number of pointers visited when searching a witness path.
+     */
+    private static final int MAX_VISITED_POINTERS = 100_000;
+
+    /**
+     * Map from sink argument to its sink points.
+     */
+    private final MultiMap<Var, SinkPoint> sinkPoints = Maps.newMultiMap();
+
+    private final Set<TaintFlow> reported = Sets.newSet();
+
+    /**
+     * Taint flows which are detected but not reported yet.
+     */
+    private final List<TaintFlow> pending = new ArrayList<>();
+
+    private final TaintFlowReporter reporter;
+
+    StreamingSinkHandler(HandlerContext context, TaintFlowReporter reporter) {
+        super(context);
+        this.reporter = reporter;
+    }
+
+    @Override
+    public void onNewCallEdge(Edge<CSCallSite, CSMethod> edge) {
+        if (edge.getKind() == CallKind.OTHER) {
+            return;
+        }
+        List<Sink> calleeSinks = rules.get(edge.getCallee().getMethod()).sinks();
+        if (!calleeSinks.isEmpty()) {
+            Invoke callSite = edge.getCallSite().getCallSite();
+            for (Sink sink : calleeSinks) {
+                if (sink.indexRef().kind() == IndexRef.Kind.VAR) {
+                    Var arg = InvokeUtils.getVar(callSite, sink.indexRef().index());
+                    SinkPoint sinkPoint = new SinkPoint(callSite, sink.indexRef());
+                    if (sinkPoints.put(arg, sinkPoint)) {
+                        // check the taints that have reached the argument
+                        csManager.getCSVarsOf(arg).forEach(csArg ->
+                                checkTaints(sinkPoint, csArg.getPointsToSet()));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
+        sinkPoints.get(csVar.getVar())
+                .forEach(sinkPoint -> checkTaints(sinkPoint, pts));
+    }
+
+    private void checkTaints(SinkPoint sinkPoint, PointsToSet pts) {
+        if (pts == null) {
+            return;
+        }
+        pts.objects()
+                .map(CSObj::getObject)
+                .filter(manager::isTaint)
+                .map(manager::getSourcePoint)
+                .forEach(source -> addFlow(new TaintFlow(source, sinkPoint)));
+    }
+
+    private void addFlow(TaintFlow flow) {
+        if (reported.add(flow)) {
+            pending.add(flow);
+        }
+    }
+
+    /**
+     * Reports the taint flows detected during the phase.
+     */
+    @Override
+    public void onPhaseFinish() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // the taint objects of each source point, which are collected
+        // once for all witness searches of this phase
+        Map<SourcePoint, Set<CSObj>> taintObjs = Maps.newMap();
+        for (TaintFlow flow : pending) {
+            Set<CSObj> taints = taintObjs.computeIfAbsent(
+                    flow.sourcePoint(), this::getTaintObjs);
+            reporter.report(flow, findWitnessPath(flow, taints));
+        }
+        pending.clear();
+    }
+
+    /**
+     * Reports the taint flows which have not been reported on the fly.
+     */
+    void reportRemaining(Set<TaintFlow> taintFlows) {
+        taintFlows.forEach(this::addFlow);
+        onPhaseFinish();
+    }
+
+    /**
+     * Finishes the report.
+     */
+    void close() {
+        reporter.close();
+    }
+
+    /**
+     * @return the taint objects of {@code source} that reach
+     * the source pointers.
+     */
+    private Set<CSObj> getTaintObjs(SourcePoint source) {
+        Set<CSObj> taints = Sets.newSet();
+        for (Pointer root : getPointers(source)) {
+            root.objects()
+                    .filter(o -> manager.isTaint(o.getObject())
+                            && manager.getSourcePoint(o.getObject()).equals(source))
+                    .forEach(taints::add);
+        }
+        return taints;
+    }
+
+    /**
+     * @param taints the taint objects of the source point of {@code flow}.
+     * @return the pointers along which the taint flows from the source
+     * to the sink, or an empty list if the search exceeds the bound.
+     */
+    private List<Pointer> findWitnessPath(TaintFlow flow, Set<CSObj> taints) {
+        if (taints.isEmpty()) {
+            return List.of();
+        }
+        Set<Pointer> targets = Sets.newSet(getPointers(flow.sinkPoint()));
+        Map<Pointer, Pointer> parents = Maps.newMap();
+        Queue<Pointer> queue = new ArrayDeque<>();
+        for (Pointer root : getPointers(flow.sourcePoint())) {
+            if (holdsTaint(root, taints) && !parents.containsKey(root)) {
+                parents.put(root, root);
+                queue.add(root);
+            }
+        }
+        while (!queue.isEmpty() && parents.size() <= MAX_VISITED_POINTERS) {
+            Pointer pointer = queue.poll();
+            if (targets.contains(pointer)) {
+                List<Pointer> path = new ArrayList<>();
+                for (Pointer p = pointer; ; p = parents.get(p)) {
+                    path.add(p);
+                    if (parents.get(p) == p) {
+                        break;
+                    }
+                }
+                Collections.reverse(path);
+                return path;
+            }
+            for (PointerFlowEdge edge : pointer.getOutEdges()) {
+                Pointer target = edge.target();
+                if (!parents.containsKey(target) && holdsTaint(target, taints)) {
+                    parents.put(target, pointer);
+                    queue.add(target);
+                }
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * @return {@code true} if {@code pointer} points to any of
+     * {@code taints}. The number of taint objects of a source point is
+     * small (one for each type and context), thus this check is cheap.
+     */
+    private boolean holdsTaint(Pointer pointer, Set<CSObj> taints) {
+        PointsToSet pts = pointer.getPointsToSet();
+        if (pts == null) {
+            return false;
+        }
+        for (CSObj taint : taints) {
+            if (pts.contains(taint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Collection<Pointer> getPointers(SourcePoint source) {
+        if (source instanceof CallSourcePoint csp) {
+            IndexRef indexRef = csp.indexRef();
+            return getPointers(InvokeUtils.getVar(csp.sourceCall(), indexRef.index()),
+                    indexRef);
+        } else if (source instanceof ParamSourcePoint psp) {
+            IndexRef indexRef = psp.indexRef();
+            IR ir = psp.sourceMethod().getIR();
+            Var param = indexRef.index() == InvokeUtils.BASE
+                    ? ir.getThis() : ir.getParam(indexRef.index());
+            return getPointers(param, indexRef);
+        } else if (source instanceof FieldSourcePoint fsp) {
+            return List.copyOf(csManager.getCSVarsOf(fsp.loadField().getLValue()));
+        } else {
+            return List.of();
+        }
+    }
+
+    private Collection<Pointer> getPointers(SinkPoint sink) {
+        IndexRef indexRef = sink.indexRef();
+        return getPointers(InvokeUtils.getVar(sink.sinkCall(), indexRef.index()),
+                indexRef);
+    }
+
+    /**
+     * @return the pointers indicated by {@code var} and {@code indexRef}.
+     */
+    private Collection<Pointer> getPointers(Var var, IndexRef indexRef) {
+        Collection<CSVar> csVars = csManager.getCSVarsOf(var);
+        return switch (indexRef.kind()) {
+            case VAR -> List.copyOf(csVars);
+            case ARRAY -> csVars.stream()
+                    .flatMap(Pointer::objects)
+                    .map(csManager::getArrayIndex)
+                    .collect(Collectors.toList());
+            case FIELD -> csVars.stream()
+                    .flatMap(Pointer::objects)
+                    .map(o -> csManager.getInstanceField(o, indexRef.field()))
+                    .collect(Collectors.toList());
+        };
+    }
+}
@@ -26,6 +26,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
 import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.Edge;
 import pascal.taie.analysis.pta.core.cs.context.Context;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSManager;
@@ -55,11 +56,11 @@ import java.util.Set;
  * ┌──►│       initialize()        ├───┤Clean Up                     │
  * │   └─────────────┬─────────────┘   │                             │
  * │      on-the-fly │with PTA         │ 1.Clear composited handlers │
- * │                 ▼                 │ 2.Remove taint objects      │
- * │   ┌───────────────────────────┐   │   from points-to set        │
+ * │                 ▼                 │ 2.Retract taint objects     │
+ * │   ┌───────────────────────────┐   │   affected by changed rules │
  * │   │      onPhaseFinish()      │   │ 3.Remove taint transfer     │
- * │Yes│ ┌───────────────────────┐ │   │   edge from pointer flow    │
- * │ ┌─┼─┤In interactive mode and│ │   │   graph                     │
+ * │Yes│ ┌───────────────────────┐ │   │   edges and sanitizer       │
+ * │ ┌─┼─┤In interactive mode and│ │   │   filters of removed rules  │
  * └─┼─┼─┤Enter 'r' from console?│ │   │                             │
  *   │ │ └───────────┬───────────┘ │   │Start Up                     │
  *   │ │             │             │   │                             │
@@ -95,38 +96,93 @@ public class TaintAnalysis extends CompositePlugin {
 
     private HandlerContext context;
 
+    /**
+     * Format of streaming taint flow report, {@code null} if streaming
+     * report is disabled.
+     */
+    @Nullable
+    private String reportFormat;
+
+    @Nullable
+    private StreamingSinkHandler streamingSinkHandler;
+
+    /**
+     * Statistics of taint rule matching.
+     */
+    private float configLoadTime;
+
+    private long callEdges;
+
+    private long matchedCallEdges;
+
+    private long callEdgeTime;
+
+    private long pointsToSetUpdates;
+
+    private long pointsToSetTime;
+
     @Override
     public void setSolver(Solver solver) {
         this.solver = solver;
         isInteractive = solver.getOptions().getBoolean("taint-interactive-mode");
+        reportFormat = solver.getOptions().getString("taint-report");
         initialize();
     }
 
-    private void initialize() {
-        // clean composited plugins, taint objects and taint transfer edges
+    /**
+     * Initializes the handlers with the taint configuration. If the analysis
+     * has been initialized (i.e., the configuration is reloaded in
+     * interactive mode), retracts the facts affected by the changed rules.
+     *
+     * @return {@code true} if the taint objects need to be (re-)propagated.
+     */
+    private boolean initialize() {
         isReported = false;
         clearPlugins();
-        if (context != null) {
-            TaintManager manager = context.manager();
-            solver.getCSManager().pointers().forEach(p -> {
-                PointsToSet pts = p.getPointsToSet();
-                if (pts != null) {
-                    pts.removeIf(csObj -> manager.isTaint(csObj.getObject()));
-                }
-                p.removeEdgesIf(TaintTransferEdge.class::isInstance);
-            });
-        }
         // load taint configuration and create new handlers
+        Timer timer = new Timer("Load taint config");
+        timer.start();
         TaintConfig config = TaintConfig.loadConfig(
                 solver.getOptions().getString("taint-config"),
                 solver.getHierarchy(),
                 solver.getTypeSystem());
+        TaintRules rules = new TaintRules(config);
+        timer.stop();
+        configLoadTime = timer.inSecond();
         logger.info(config);
-        context = new HandlerContext(solver, new TaintManager(
-                solver.getHeapModel()), config);
+        TaintManager manager;
+        TaintFacts facts;
+        boolean propagate;
+        if (context == null) {
+            manager = new TaintManager(solver.getHeapModel());
+            facts = new TaintFacts(solver, manager);
+            propagate = true;
+        } else {
+            // retract only the facts of changed rules, and the handlers
+            // created below re-generate the facts of the retracted
+            // source points and the added rules
+            manager = context.manager();
+            facts = context.facts();
+            TaintConfig oldConfig = context.config();
+            Set<SourcePoint> retracted = facts.retract(oldConfig, config);
+            logger.info("Retracted taint objects of {} source point(s)",
+                    retracted.size());
+            propagate = !retracted.isEmpty()
+                    || !oldConfig.sources().containsAll(config.sources())
+                    || !oldConfig.transfers().containsAll(config.transfers());
+        }
+        context = new HandlerContext(solver, manager, config, rules, facts);
+        callEdges = matchedCallEdges = callEdgeTime = 0;
+        pointsToSetUpdates = pointsToSetTime = 0;
         addPlugin(new SourceHandler(context),
                 new TransferHandler(context),
                 new SanitizerHandler(context));
+        if (reportFormat != null) {
+            streamingSinkHandler = new StreamingSinkHandler(context,
+                    new TaintFlowReporter(reportFormat,
+                            World.get().getOptions().getOutputDir()));
+            addPlugin(streamingSinkHandler);
+        }
         // trigger the creation of taint objects
         CallGraph<CSCallSite, CSMethod> cg = solver.getCallGraph();
         if (cg != null) {
@@ -148,10 +204,37 @@ public class TaintAnalysis extends CompositePlugin {
                 });
             });
         }
+        return propagate;
+    }
+
+    /**
+     * Dispatches the call edge to the handlers only if any rule
+     * is matched at the call sites of the callee.
+     */
+    @Override
+    public void onNewCallEdge(Edge<CSCallSite, CSMethod> edge) {
+        long start = System.nanoTime();
+        ++callEdges;
+        if (context.rules().hasCallRules(edge.getCallee().getMethod())) {
+            ++matchedCallEdges;
+            super.onNewCallEdge(edge);
+        }
+        callEdgeTime += System.nanoTime() - start;
+    }
+
+    @Override
+    public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
+        long start = System.nanoTime();
+        ++pointsToSetUpdates;
+        super.onNewPointsToSet(csVar, pts);
+        pointsToSetTime += System.nanoTime() - start;
     }
 
     @Override
     public void onPhaseFinish() {
+        if (streamingSinkHandler != null) {
+            streamingSinkHandler.onPhaseFinish();
+        }
         if (isInteractive) {
             while (true) {
                 reportTaintFlows();
@@ -165,8 +248,7 @@ public class TaintAnalysis extends CompositePlugin {
                 input = input.strip();
                 System.out.println("You have entered: '" + input + "'");
                 if ("r".equals(input)) {
-                    initialize();
-                    if (!context.manager().getTaintObjs().isEmpty()) {
+                    if (initialize()) {
                         break;
                     }
                 } else if ("e".equals(input)) {
@@ -207,15 +289,40 @@ public class TaintAnalysis extends CompositePlugin {
         reportTaintFlows();
     }
 
+    private void logStatistics() {
+        logger.info("-------------- Taint analysis statistics: --------------");
+        logger.info(String.format("%-30s%d (methods: %d)", "#method rules:",
+                context.rules().getRuleCount(), context.rules().getMethodCount()));
+        logger.info(String.format("%-30s%.2fs", "config loading time:", configLoadTime));
+        logger.info(String.format("%-30s%d (matched: %d)", "#call edges:",
+                callEdges, matchedCallEdges));
+        logger.info(String.format("%-30s%.2fs (%d ns/edge)", "call edge handling time:",
+                callEdgeTime / 1e9, callEdges == 0 ? 0 : callEdgeTime / callEdges));
+        logger.info(String.format("%-30s%d", "#points-to set updates:",
+                pointsToSetUpdates));
+        logger.info(String.format("%-30s%.2fs (%d ns/update)", "points-to set handling time:",
+                pointsToSetTime / 1e9,
+                pointsToSetUpdates == 0 ? 0 : pointsToSetTime / pointsToSetUpdates));
+        logger.info("----------------------------------------");
+    }
+
     private void reportTaintFlows() {
         if (isReported) {
             return;
         }
         isReported = true;
+        logStatistics();
         Set<TaintFlow> taintFlows = new SinkHandler(context).collectTaintFlows();
         logger.info("Detected {} taint flow(s):", taintFlows.size());
         taintFlows.forEach(logger::info);
         solver.getResult().storeResult(getClass().getName(), taintFlows);
+        if (streamingSinkHandler != null) {
+            // the flows have been reported with witness paths,
+            // thus the taint flow graph is not built
+            streamingSinkHandler.reportRemaining(taintFlows);
+            streamingSinkHandler.close();
+            return;
+        }
         TaintManager manager = context.manager();
         Timer.runAndCount(() -> new TFGDumper().dump(
                         new TFGBuilder(solver.getResult(), taintFlows, manager).build(),
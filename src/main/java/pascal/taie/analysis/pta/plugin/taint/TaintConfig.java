@@ -33,17 +33,22 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
 import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
 import pascal.taie.config.ConfigException;
 import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.StringReps;
+import pascal.taie.language.classes.Subsignature;
 import pascal.taie.language.type.ArrayType;
 import pascal.taie.language.type.ClassType;
 import pascal.taie.language.type.Type;
 import pascal.taie.language.type.TypeSystem;
+import pascal.taie.language.type.VoidType;
 import pascal.taie.util.collection.Lists;
+import pascal.taie.util.collection.Sets;
 
 import javax.annotation.Nullable;
 import java.io.File;
@@ -53,6 +58,9 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static pascal.taie.analysis.pta.plugin.taint.IndexRef.ARRAY_SUFFIX;
@@ -174,6 +182,11 @@ record TaintConfig(List<Source> sources,
      */
     private static class Deserializer extends JsonDeserializer<TaintConfig> {
 
+        /**
+         * Wildcard in method signatures of taint rules.
+         */
+        private static final String WILDCARD = "*";
+
         private final ClassHierarchy hierarchy;
 
         private final TypeSystem typeSystem;
@@ -210,25 +223,22 @@ record TaintConfig(List<Source> sources,
                 List<Source> sources = new ArrayList<>(arrayNode.size());
                 for (JsonNode elem : arrayNode) {
                     JsonNode sourceKind = elem.get("kind");
-                    Source source;
                     if (sourceKind != null) {
-                        source = switch (sourceKind.asText()) {
-                            case "call" -> deserializeCallSource(elem);
-                            case "param" -> deserializeParamSource(elem);
-                            case "field" -> deserializeFieldSource(elem);
-                            default -> {
-                                logger.warn("Unknown source kind \"{}\" in {}",
-                                        sourceKind.asText(), elem.toString());
-                                yield null;
+                        switch (sourceKind.asText()) {
+                            case "call" -> sources.addAll(deserializeCallSources(elem));
+                            case "param" -> sources.addAll(deserializeParamSources(elem));
+                            case "field" -> {
+                                FieldSource source = deserializeFieldSource(elem);
+                                if (source != null) {
+                                    sources.add(source);
+                                }
                             }
-                        };
+                            default -> logger.warn("Unknown source kind \"{}\" in {}",
+                                    sourceKind.asText(), elem.toString());
+                        }
                     } else {
                         logger.warn("Ignore {} due to missing source \"kind\"",
                                 elem.toString());
-                        source = null;
-                    }
-                    if (source != null) {
-                        sources.add(source);
                     }
                 }
                 return Collections.unmodifiableList(sources);
@@ -238,44 +248,32 @@ record TaintConfig(List<Source> sources,
             }
         }
 
-        @Nullable
-        private CallSource deserializeCallSource(JsonNode node) {
-            String methodSig = node.get("method").asText();
-            JMethod method = hierarchy.getMethod(methodSig);
-            if (method != null) {
+        private List<CallSource> deserializeCallSources(JsonNode node) {
+            List<CallSource> sources = new ArrayList<>();
+            for (JMethod method : resolveMethods(node, "source", "index")) {
                 IndexRef indexRef = toIndexRef(method, node.get("index").asText());
                 JsonNode typeNode = node.get("type");
                 Type type = (typeNode != null)
                         ? typeSystem.getType(typeNode.asText())
                         // type not given, retrieve it from method signature
                         : getMethodType(method, indexRef.index());
-                return new CallSource(method, indexRef, type);
-            } else {
-                // if the method (given in config file) is absent in
-                // the class hierarchy, just ignore it.
-                logger.warn("Cannot find source method '{}'", methodSig);
-                return null;
+                sources.add(new CallSource(method, indexRef, type));
             }
+            return sources;
         }
 
-        @Nullable
-        private ParamSource deserializeParamSource(JsonNode node) {
-            String methodSig = node.get("method").asText();
-            JMethod method = hierarchy.getMethod(methodSig);
-            if (method != null) {
+        private List<ParamSource> deserializeParamSources(JsonNode node) {
+            List<ParamSource> sources = new ArrayList<>();
+            for (JMethod method : resolveMethods(node, "source", "index")) {
                 IndexRef indexRef = toIndexRef(method, node.get("index").asText());
                 JsonNode typeNode = node.get("type");
                 Type type = (typeNode != null)
                         ? typeSystem.getType(typeNode.asText())
                         // type not given, retrieve it from method signature
                         : getMethodType(method, indexRef.index());
-                return new ParamSource(method, indexRef, type);
-            } else {
-                // if the method (given in config file) is absent in
-                // the class hierarchy, just ignore it.
-                logger.warn("Cannot find source method '{}'", methodSig);
-                return null;
+                sources.add(new ParamSource(method, indexRef, type));
             }
+            return sources;
         }
 
         @Nullable
@@ -318,15 +316,9 @@ record TaintConfig(List<Source> sources,
             if (node instanceof ArrayNode arrayNode) {
                 List<Sink> sinks = new ArrayList<>(arrayNode.size());
                 for (JsonNode elem : arrayNode) {
-                    String methodSig = elem.get("method").asText();
-                    JMethod method = hierarchy.getMethod(methodSig);
-                    if (method != null) {
-                        // if the method (given in config file) is absent in
-                        // the class hierarchy, just ignore it.
+                    for (JMethod method : resolveMethods(elem, "sink", "index")) {
                         IndexRef indexRef = toIndexRef(method, elem.get("index").asText());
                         sinks.add(new Sink(method, indexRef));
-                    } else {
-                        logger.warn("Cannot find sink method '{}'", methodSig);
                     }
                 }
                 return Collections.unmodifiableList(sinks);
@@ -347,11 +339,8 @@ record TaintConfig(List<Source> sources,
             if (node instanceof ArrayNode arrayNode) {
                 List<TaintTransfer> transfers = new ArrayList<>(arrayNode.size());
                 for (JsonNode elem : arrayNode) {
-                    String methodSig = elem.get("method").asText();
-                    JMethod method = hierarchy.getMethod(methodSig);
-                    if (method != null) {
-                        // if the method (given in config file) is absent in
-                        // the class hierarchy, just ignore it.
+                    for (JMethod method : resolveMethods(
+                            elem, "taint-transfer", "from", "to")) {
                         IndexRef from = toIndexRef(method, elem.get("from").asText());
                         IndexRef to = toIndexRef(method, elem.get("to").asText());
                         JsonNode typeNode = elem.get("type");
@@ -368,8 +357,6 @@ record TaintConfig(List<Source> sources,
                             };
                         }
                         transfers.add(new TaintTransfer(method, from, to, type));
-                    } else {
-                        logger.warn("Cannot find taint-transfer method '{}'", methodSig);
                     }
                 }
                 return Collections.unmodifiableList(transfers);
@@ -379,6 +366,126 @@ record TaintConfig(List<Source> sources,
             }
         }
 
+        /**
+         * Resolves the methods specified by the "method" of a rule.
+         * The method signature may contain wildcard {@code *} in its
+         * class name and/or subsignature, and if "match-overriders" is
+         * {@code true}, the rule is also applied to all methods that
+         * override the specified methods.
+         * <p>
+         * For the methods expanded by wildcards or overriders, the ones
+         * that do not have all given indexes are ignored.
+         *
+         * @param elem      the node of the rule
+         * @param kind      kind of the rule, used for logging
+         * @param indexKeys keys of the indexes used by the rule
+         * @return list of resolved methods. If no method is found, returns
+         * an empty list, i.e., the rule is ignored.
+         */
+        private List<JMethod> resolveMethods(
+                JsonNode elem, String kind, String... indexKeys) {
+            String methodSig = elem.get("method").asText();
+            JsonNode overridersNode = elem.get("match-overriders");
+            boolean matchOverriders = overridersNode != null
+                    && overridersNode.asBoolean();
+            List<JMethod> methods;
+            boolean expanded;
+            if (methodSig.contains(WILDCARD)) {
+                methods = matchMethods(methodSig);
+                expanded = true;
+            } else {
+                JMethod method = hierarchy.getMethod(methodSig);
+                methods = method != null ? List.of(method) : List.of();
+                expanded = false;
+            }
+            if ((expanded || matchOverriders)
+                    && World.get().getOptions().isLazyClassLoading()) {
+                // wildcards and overriders are matched against the classes
+                // that have been built, which are incomplete in lazy mode
+                throw new ConfigException("Rule of " + kind + " method '"
+                        + methodSig + "' uses wildcards or overriders, which"
+                        + " should not be used with --lazy-class-loading");
+            }
+            if (matchOverriders) {
+                Set<JMethod> overriders = Sets.newLinkedSet();
+                overriders.addAll(methods);
+                methods.forEach(m -> {
+                    Subsignature subsig = m.getSubsignature();
+                    hierarchy.getAllSubclassesOf(m.getDeclaringClass())
+                            .forEach(c -> {
+                                JMethod overrider = c.getDeclaredMethod(subsig);
+                                if (overrider != null && !overrider.isAbstract()) {
+                                    overriders.add(overrider);
+                                }
+                            });
+                });
+                methods = new ArrayList<>(overriders);
+                expanded = true;
+            }
+            if (expanded) {
+                methods = methods.stream()
+                        .filter(m -> Stream.of(indexKeys).allMatch(key ->
+                                hasIndex(m, elem.get(key).asText())))
+                        .toList();
+            }
+            if (methods.isEmpty()) {
+                // if the method (given in config file) is absent in
+                // the class hierarchy, just ignore it.
+                logger.warn("Cannot find {} method '{}'", kind, methodSig);
+            }
+            return methods;
+        }
+
+        /**
+         * @return the methods whose signatures match the given signature
+         * pattern, where {@code *} matches any sequence of characters.
+         */
+        private List<JMethod> matchMethods(String sigPattern) {
+            String classPattern = StringReps.getClassNameOf(sigPattern);
+            Pattern subsigPattern = toRegex(
+                    StringReps.getSubsignatureOf(sigPattern));
+            Stream<JClass> classes;
+            if (classPattern.contains(WILDCARD)) {
+                Pattern pattern = toRegex(classPattern);
+                classes = hierarchy.allClasses()
+                        .filter(c -> pattern.matcher(c.getName()).matches());
+            } else {
+                JClass c = hierarchy.getClass(classPattern);
+                classes = c != null ? Stream.of(c) : Stream.of();
+            }
+            return classes.flatMap(c -> c.getDeclaredMethods().stream())
+                    .filter(m -> subsigPattern.matcher(
+                            m.getSubsignature().toString()).matches())
+                    .toList();
+        }
+
+        private static Pattern toRegex(String glob) {
+            return Pattern.compile(Stream.of(glob.split("\\*", -1))
+                    .map(Pattern::quote)
+                    .collect(Collectors.joining(".*")));
+        }
+
+        /**
+         * @return {@code true} if the index (in string form, may be
+         * followed by array suffix or field name) is valid for the method.
+         */
+        private static boolean hasIndex(JMethod method, String text) {
+            String indexStr;
+            if (text.endsWith(ARRAY_SUFFIX)) {
+                indexStr = text.substring(0, text.length() - ARRAY_SUFFIX.length());
+            } else if (text.contains(".")) {
+                indexStr = text.substring(0, text.indexOf('.'));
+            } else {
+                indexStr = text;
+            }
+            int index = InvokeUtils.toInt(indexStr);
+            return switch (index) {
+                case InvokeUtils.BASE -> !method.isStatic();
+                case InvokeUtils.RESULT -> !method.getReturnType().equals(VoidType.VOID);
+                default -> index >= 0 && index < method.getParamCount();
+            };
+        }
+
         private IndexRef toIndexRef(JMethod method, String text) {
             IndexRef.Kind kind;
             String indexStr;
@@ -434,13 +541,9 @@ record TaintConfig(List<Source> sources,
             if (node instanceof ArrayNode arrayNode) {
                 List<ParamSanitizer> sanitizers = new ArrayList<>(arrayNode.size());
                 for (JsonNode elem : arrayNode) {
-                    String methodSig = elem.get("method").asText();
-                    JMethod method = hierarchy.getMethod(methodSig);
-                    if (method != null) {
+                    for (JMethod method : resolveMethods(elem, "sanitizer", "index")) {
                         int index = InvokeUtils.toInt(elem.get("index").asText());
                         sanitizers.add(new ParamSanitizer(method, index));
-                    } else {
-                        logger.warn("Cannot find sanitizer method '{}'", methodSig);
                     }
                 }
                 return Collections.unmodifiableList(sanitizers);
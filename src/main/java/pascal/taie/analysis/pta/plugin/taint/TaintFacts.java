@@ -0,0 +1,421 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.taint;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallGraphs;
+import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.core.solver.Transfer;
+import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.InvokeInstanceExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Records the facts derived from each taint rule, so that when the
+ * taint configuration is reloaded in interactive mode, the taint analysis
+ * can retract only the facts affected by the changed rules.
+ * <p>
+ * The unit of retraction is {@link SourcePoint}: the taint objects of a source
+ * point are propagated independently of other source points, thus
+ * after retracting all taint objects of the affected source points,
+ * the handlers of new configuration re-generate them (if their sources
+ * still exist) and the solver re-propagates only these taint objects.
+ * <p>
+ * The transfer functions, taint filter and back-propagation statements
+ * are also kept here, so that the handlers created for new configuration
+ * reuse them instead of adding duplicate ones to the solver.
+ * <p>
+ * Retraction undoes the points-to relations of taint objects and
+ * the PFG edges of removed transfers. Taint transfer edges never carry
+ * {@link pascal.taie.analysis.pta.core.solver.Identity}, so they are never
+ * merged into PFG cycles, and removing them does not break merged cycles.
+ * The other facts derived from the removed taint objects, i.e., call edges
+ * resolved on tainted receivers, and instance fields and array indexes
+ * of taint objects, are kept as a full reload does, as retracting them
+ * requires re-deriving everything that flowed out of them. Such facts may
+ * only make the result less precise than a fresh run, and they are limited
+ * to the retracted source points, which are logged.
+ */
+class TaintFacts {
+
+    private static final Logger logger = LogManager.getLogger(TaintFacts.class);
+
+    private final Solver solver;
+
+    private final CSManager csManager;
+
+    private final TaintManager manager;
+
+    /**
+     * Map from a source to the source points generated from it.
+     */
+    private final MultiMap<Source, SourcePoint> sourcePoints = Maps.newMultiMap();
+
+    /**
+     * Map from a source point to the pointers where its taint objects
+     * are generated.
+     */
+    private final MultiMap<SourcePoint, Pointer> seeds = Maps.newMultiMap();
+
+    /**
+     * Map from a taint transfer to the PFG edges and transfer functions
+     * added for it.
+     */
+    private final MultiMap<TaintTransfer, TransferFact> transferFacts = Maps.newMultiMap();
+
+    /**
+     * Map from a PFG edge and transfer function to the taint transfers
+     * providing it. Different taint transfers may add the same edge and
+     * transfer function, e.g., the rules expanded from overlapping wildcards.
+     */
+    private final MultiMap<TransferFact, TaintTransfer> transferProviders = Maps.newMultiMap();
+
+    /**
+     * Map from a sanitizer to the parameters it filters.
+     */
+    private final MultiMap<ParamSanitizer, CSVar> sanitizedParams = Maps.newMultiMap();
+
+    private final Map<Type, Transfer> transferFunctions = Maps.newHybridMap();
+
+    private final Map<Var, List<Stmt>> backPropStmts = Maps.newMap();
+
+    private final Predicate<CSObj> taintFilter;
+
+    /**
+     * Counter for generating temporary variables.
+     */
+    private int counter = 0;
+
+    TaintFacts(Solver solver, TaintManager manager) {
+        this.solver = solver;
+        this.csManager = solver.getCSManager();
+        this.manager = manager;
+        this.taintFilter = o -> !manager.isTaint(o.getObject());
+    }
+
+    void addSourcePoint(Source source, SourcePoint sourcePoint, Pointer seed) {
+        sourcePoints.put(source, sourcePoint);
+        seeds.put(sourcePoint, seed);
+    }
+
+    void addTransferEdge(TaintTransfer transfer, TaintTransferEdge edge, Transfer tf) {
+        TransferFact fact = new TransferFact(edge, tf);
+        transferFacts.put(transfer, fact);
+        transferProviders.put(fact, transfer);
+    }
+
+    void addSanitizedParam(ParamSanitizer sanitizer, CSVar param) {
+        sanitizedParams.put(sanitizer, param);
+    }
+
+    Map<Type, Transfer> getTransferFunctions() {
+        return transferFunctions;
+    }
+
+    Map<Var, List<Stmt>> getBackPropStmts() {
+        return backPropStmts;
+    }
+
+    Predicate<CSObj> getTaintFilter() {
+        return taintFilter;
+    }
+
+    int nextTempVarId() {
+        return counter++;
+    }
+
+    /**
+     * Retracts the facts affected by the changes from {@code oldConfig}
+     * to {@code newConfig}, i.e., the taint objects whose source points
+     * are affected by removed sources, removed transfers, and added or
+     * removed sanitizers, the PFG edges of removed transfers, and the
+     * filters of removed sanitizers. Changes of sinks affect no facts.
+     *
+     * @return the source points whose taint objects are retracted.
+     */
+    Set<SourcePoint> retract(TaintConfig oldConfig, TaintConfig newConfig) {
+        Set<SourcePoint> affected = Sets.newSet();
+        // removed sources
+        for (Source source : minus(oldConfig.sources(), newConfig.sources())) {
+            affected.addAll(sourcePoints.get(source));
+            sourcePoints.removeAll(source);
+        }
+        // removed transfers, the taint objects that may flow through
+        // the edges of the transfers are those pointed to by the sources.
+        // The edges are removed after retracting the taint objects,
+        // so that the retraction reaches the objects transferred by them
+        List<TransferFact> removedFacts = new ArrayList<>();
+        for (TaintTransfer transfer : minus(oldConfig.transfers(), newConfig.transfers())) {
+            for (TransferFact fact : transferFacts.get(transfer)) {
+                transferProviders.remove(fact, transfer);
+                if (!transferProviders.containsKey(fact)) {
+                    addSourcePoints(fact.edge().source(), affected);
+                    removedFacts.add(fact);
+                }
+            }
+            transferFacts.removeAll(transfer);
+        }
+        // removed sanitizers, the taint objects blocked by the sanitizers
+        // are those pointed to by corresponding arguments at call sites
+        CallGraph<CSCallSite, CSMethod> callGraph = solver.getCallGraph();
+        for (ParamSanitizer sanitizer : minus(
+                oldConfig.paramSanitizers(), newConfig.paramSanitizers())) {
+            for (CSVar param : sanitizedParams.get(sanitizer)) {
+                param.removeFilter(taintFilter);
+                CSMethod csMethod = csManager.getCSMethod(
+                        param.getContext(), sanitizer.method());
+                callGraph.edgesInTo(csMethod)
+                        .filter(e -> e.getKind() != CallKind.OTHER)
+                        .map(Edge::getCallSite)
+                        .forEach(csCallSite -> {
+                            Var arg = InvokeUtils.getVar(
+                                    csCallSite.getCallSite(), sanitizer.index());
+                            addSourcePoints(csManager.getCSVar(
+                                    csCallSite.getContext(), arg), affected);
+                        });
+            }
+            sanitizedParams.removeAll(sanitizer);
+        }
+        // added sanitizers, the taint objects that should be blocked
+        // are those pointed to by the parameters
+        for (ParamSanitizer sanitizer : minus(
+                newConfig.paramSanitizers(), oldConfig.paramSanitizers())) {
+            IR ir = sanitizer.method().getIR();
+            Var param = sanitizer.index() == InvokeUtils.BASE
+                    ? ir.getThis() : ir.getParam(sanitizer.index());
+            csManager.getCSVarsOf(param).forEach(p -> addSourcePoints(p, affected));
+        }
+        if (!affected.isEmpty()) {
+            retractTaints(affected);
+        }
+        removedFacts.forEach(TaintFacts::removeTransfer);
+        return affected;
+    }
+
+    /**
+     * @return elements in {@code c1} but not in {@code c2}.
+     */
+    private static <T> Set<T> minus(Collection<T> c1, Collection<T> c2) {
+        Set<T> result = Sets.newSet(c1);
+        c2.forEach(result::remove);
+        return result;
+    }
+
+    /**
+     * Removes the transfer function of given fact from the PFG edge
+     * in the graph, and removes the edge if it has no transfer functions.
+     */
+    private static void removeTransfer(TransferFact fact) {
+        Pointer source = fact.edge().source();
+        source.getOutEdges()
+                .stream()
+                .filter(fact.edge()::equals)
+                .findFirst()
+                .ifPresent(edge -> {
+                    edge.removeTransfer(fact.function());
+                    if (edge.getTransfers().isEmpty()) {
+                        source.removeEdgesIf(edge::equals);
+                    }
+                });
+    }
+
+    private void addSourcePoints(Pointer pointer, Set<SourcePoint> result) {
+        pointer.objects()
+                .map(CSObj::getObject)
+                .filter(manager::isTaint)
+                .map(manager::getSourcePoint)
+                .forEach(result::add);
+    }
+
+    /**
+     * Removes the taint objects of given source points from the pointers.
+     * Starting from the pointers where the taint objects are generated,
+     * this method traverses the pointer flow graph (and receiver-to-this
+     * flows which are not represented by PFG edges) to visit only the
+     * pointers that point to the taint objects.
+     */
+    private void retractTaints(Set<SourcePoint> affected) {
+        Predicate<CSObj> isAffected = o -> manager.isTaint(o.getObject())
+                && affected.contains(manager.getSourcePoint(o.getObject()));
+        // the pointers in a merged PFG cycle share the same points-to set,
+        // so the objects removed from a set are recorded for all of them
+        Map<PointsToSet, List<CSObj>> removed = new IdentityHashMap<>();
+        Set<CSObj> derived = Sets.newSet();
+        Set<Pointer> visited = Sets.newSet();
+        Queue<Pointer> workList = new ArrayDeque<>();
+        affected.forEach(sp -> workList.addAll(seeds.get(sp)));
+        while (!workList.isEmpty()) {
+            Pointer pointer = workList.poll();
+            if (!visited.add(pointer)) {
+                continue;
+            }
+            PointsToSet pts = pointer.getPointsToSet();
+            if (pts == null) {
+                continue;
+            }
+            List<CSObj> objs = removed.get(pts);
+            if (objs == null) {
+                objs = pts.objects().filter(isAffected).toList();
+                if (objs.isEmpty()) {
+                    continue;
+                }
+                pts.removeIf(isAffected);
+                removed.put(pts, objs);
+            }
+            pointer.getOutEdges().forEach(e -> workList.add(e.target()));
+            if (pointer instanceof CSVar csVar) {
+                addReceiversOfRemovedCallEdges(csVar, objs, derived);
+                addThisVars(csVar, workList);
+            }
+        }
+        addBasesOfUsedFields(removed.values(), derived);
+        if (!derived.isEmpty()) {
+            logger.info("Kept call edges, instance fields and array indexes" +
+                    " derived from retracted taint objects of {} source point(s)",
+                    derived.stream()
+                            .map(o -> manager.getSourcePoint(o.getObject()))
+                            .distinct()
+                            .count());
+        }
+        affected.forEach(seeds::removeAll);
+        manager.removeTaintsIf(taint -> affected.contains(manager.getSourcePoint(taint)));
+    }
+
+    /**
+     * Adds the removed receiver objects of {@code csVar}, on which some
+     * call edges are resolved but not on the remaining ones, to {@code result}.
+     */
+    private void addReceiversOfRemovedCallEdges(
+            CSVar csVar, List<CSObj> removed, Set<CSObj> result) {
+        Var var = csVar.getVar();
+        for (Invoke invoke : var.getInvokes()) {
+            if (invoke.getInvokeExp() instanceof InvokeInstanceExp ie
+                    && ie.getBase() == var) {
+                CSCallSite csCallSite = csManager.getCSCallSite(
+                        csVar.getContext(), invoke);
+                Set<CSMethod> remaining = resolveCallees(csCallSite, csVar.objects());
+                for (CSObj recvObj : removed) {
+                    Set<CSMethod> callees = resolveCallees(csCallSite, Stream.of(recvObj));
+                    if (!remaining.containsAll(callees)) {
+                        result.add(recvObj);
+                    }
+                }
+            }
+        }
+    }
+
+    private Set<CSMethod> resolveCallees(CSCallSite csCallSite, Stream<CSObj> recvObjs) {
+        Invoke callSite = csCallSite.getCallSite();
+        ContextSelector selector = solver.getContextSelector();
+        Set<CSMethod> callees = Sets.newSet();
+        recvObjs.forEach(recvObj -> {
+            JMethod callee = CallGraphs.resolveCallee(
+                    recvObj.getObject().getType(), callSite);
+            if (callee != null) {
+                callees.add(csManager.getCSMethod(
+                        selector.selectContext(csCallSite, recvObj, callee), callee));
+            }
+        });
+        return callees;
+    }
+
+    /**
+     * Adds the removed taint objects, whose instance fields or array indexes
+     * have been involved in pointer analysis, to {@code result}.
+     */
+    private void addBasesOfUsedFields(
+            Collection<List<CSObj>> removed, Set<CSObj> result) {
+        Set<CSObj> removedObjs = Sets.newSet();
+        removed.forEach(removedObjs::addAll);
+        Predicate<Pointer> isUsed = p -> !p.getObjects().isEmpty()
+                || !p.getOutEdges().isEmpty();
+        csManager.getInstanceFields().forEach(f -> {
+            if (removedObjs.contains(f.getBase()) && isUsed.test(f)) {
+                result.add(f.getBase());
+            }
+        });
+        csManager.getArrayIndexes().forEach(a -> {
+            if (removedObjs.contains(a.getArray()) && isUsed.test(a)) {
+                result.add(a.getArray());
+            }
+        });
+    }
+
+    /**
+     * Adds this variables of the callees whose receiver is {@code csVar}.
+     */
+    private void addThisVars(CSVar csVar, Queue<Pointer> workList) {
+        CallGraph<CSCallSite, CSMethod> callGraph = solver.getCallGraph();
+        Var var = csVar.getVar();
+        for (Invoke invoke : var.getInvokes()) {
+            if (invoke.getInvokeExp() instanceof InvokeInstanceExp ie
+                    && ie.getBase() == var) {
+                CSCallSite csCallSite = csManager.getCSCallSite(
+                        csVar.getContext(), invoke);
+                for (CSMethod callee : callGraph.getCalleesOf(csCallSite)) {
+                    Var thisVar = callee.getMethod().getIR().getThis();
+                    if (thisVar != null) {
+                        workList.add(csManager.getCSVar(callee.getContext(), thisVar));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A PFG edge and the transfer function added to it for a taint transfer.
+     */
+    private record TransferFact(TaintTransferEdge edge, Transfer function) {
+    }
+}
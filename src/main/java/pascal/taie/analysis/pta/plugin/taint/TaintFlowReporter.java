@@ -0,0 +1,213 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.taint;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Lists;
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes taint flows to a file one by one as soon as they are reported,
+ * so that the flows need not be kept until the end of the analysis.
+ * Two formats are supported:
+ * <ul>
+ *     <li>{@code jsonl}: one JSON object per line for each taint flow;
+ *     <li>{@code sarif}: a SARIF 2.1.0 log, where each taint flow is
+ *     a result whose code flow is the witness path.
+ * </ul>
+ */
+class TaintFlowReporter {
+
+    private static final Logger logger = LogManager.getLogger(TaintFlowReporter.class);
+
+    private static final String RULE_ID = "taint-flow";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final String format;
+
+    private final File file;
+
+    private final JsonGenerator generator;
+
+    private int count = 0;
+
+    TaintFlowReporter(String format, File outputDir) {
+        this.format = format;
+        this.file = switch (format) {
+            case "jsonl" -> new File(outputDir, "taint-flows.jsonl");
+            case "sarif" -> new File(outputDir, "taint-flows.sarif");
+            default -> throw new ConfigException(
+                    "Unknown taint report format: " + format);
+        };
+        try {
+            OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+            generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            if (format.equals("jsonl")) {
+                generator.setRootValueSeparator(null);
+            } else {
+                startSarifLog();
+            }
+        } catch (IOException e) {
+            throw new ConfigException("Failed to open " + file, e);
+        }
+        logger.info("Streaming taint flows to {}", file.getAbsolutePath());
+    }
+
+    /**
+     * Writes a taint flow.
+     *
+     * @param flow the taint flow
+     * @param path the pointers along which taint flows from the source
+     *             to the sink, or an empty list if no path is found.
+     */
+    void report(TaintFlow flow, List<Pointer> path) {
+        try {
+            List<String> pathStrs = Lists.map(path, Pointer::toString);
+            if (format.equals("jsonl")) {
+                Map<String, Object> record = Maps.newLinkedHashMap();
+                SourcePoint source = flow.sourcePoint();
+                SinkPoint sink = flow.sinkPoint();
+                record.put("source", source.toString());
+                record.put("sourceMethod", source.getContainer().getSignature());
+                record.put("sourceLine", getLineNumber(getStmt(source)));
+                record.put("sink", sink.toString());
+                record.put("sinkMethod", sink.sinkCall().getContainer().getSignature());
+                record.put("sinkLine", sink.sinkCall().getLineNumber());
+                record.put("path", pathStrs);
+                generator.writeObject(record);
+                generator.writeRaw('\n');
+            } else {
+                generator.writeObject(toSarifResult(flow, pathStrs));
+            }
+            generator.flush();
+            ++count;
+        } catch (IOException e) {
+            logger.error("Failed to write taint flow to {} due to {}", file, e);
+        }
+    }
+
+    /**
+     * Finishes the report and closes the file.
+     */
+    void close() {
+        try {
+            if (format.equals("sarif")) {
+                generator.writeEndArray(); // results
+                generator.writeEndObject(); // run
+                generator.writeEndArray(); // runs
+                generator.writeEndObject(); // log
+            }
+            generator.close();
+        } catch (IOException e) {
+            logger.error("Failed to close {} due to {}", file, e);
+        }
+        logger.info("Reported {} taint flow(s) to {}", count, file.getAbsolutePath());
+    }
+
+    private void startSarifLog() throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("$schema",
+                "https://json.schemastore.org/sarif-2.1.0.json");
+        generator.writeStringField("version", "2.1.0");
+        generator.writeArrayFieldStart("runs");
+        generator.writeStartObject();
+        generator.writeObjectField("tool", Map.of("driver", Map.of(
+                "name", "Tai-e",
+                "informationUri", "https://github.com/pascal-lab/Tai-e",
+                "rules", List.of(Map.of(
+                        "id", RULE_ID,
+                        "shortDescription", Map.of("text",
+                                "Tainted data flows from source to sink"))))));
+        generator.writeArrayFieldStart("results");
+    }
+
+    private static Map<String, Object> toSarifResult(TaintFlow flow, List<String> path) {
+        SourcePoint source = flow.sourcePoint();
+        SinkPoint sink = flow.sinkPoint();
+        Map<String, Object> result = Maps.newLinkedHashMap();
+        result.put("ruleId", RULE_ID);
+        result.put("level", "error");
+        result.put("message", Map.of("text", flow.toString()));
+        result.put("locations", List.of(toSarifLocation(
+                sink.sinkCall().getContainer(), sink.sinkCall().getLineNumber())));
+        result.put("relatedLocations", List.of(toSarifLocation(
+                source.getContainer(), getLineNumber(getStmt(source)))));
+        if (!path.isEmpty()) {
+            List<Map<String, Object>> locations = Lists.map(path, p ->
+                    Map.of("location", Map.of("message", Map.of("text", p))));
+            result.put("codeFlows", List.of(Map.of("threadFlows",
+                    List.of(Map.of("locations", locations)))));
+        }
+        return result;
+    }
+
+    private static Map<String, Object> toSarifLocation(JMethod method, int lineNumber) {
+        String className = method.getDeclaringClass().getName();
+        int dollar = className.indexOf('$');
+        if (dollar > 0) { // use the source file of outermost class
+            className = className.substring(0, dollar);
+        }
+        Map<String, Object> physical = Maps.newLinkedHashMap();
+        physical.put("artifactLocation", Map.of("uri",
+                className.replace('.', '/') + ".java"));
+        if (lineNumber > 0) {
+            physical.put("region", Map.of("startLine", lineNumber));
+        }
+        return Map.of("physicalLocation", physical,
+                "logicalLocations", List.of(Map.of(
+                        "fullyQualifiedName", method.getSignature())));
+    }
+
+    @Nullable
+    private static Stmt getStmt(SourcePoint source) {
+        if (source instanceof CallSourcePoint callSource) {
+            return callSource.sourceCall();
+        } else if (source instanceof FieldSourcePoint fieldSource) {
+            return fieldSource.loadField();
+        } else {
+            return null;
+        }
+    }
+
+    private static int getLineNumber(@Nullable Stmt stmt) {
+        return stmt != null ? stmt.getLineNumber() : -1;
+    }
+}
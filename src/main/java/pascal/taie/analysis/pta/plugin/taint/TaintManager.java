@@ -32,6 +32,7 @@ import pascal.taie.util.collection.Sets;
 
 import java.util.Collections;
 import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * Manages taint objects.
@@ -80,6 +81,14 @@ class TaintManager {
         throw new AnalysisException(obj + " is not a taint object");
     }
 
+    /**
+     * Removes the taint objects that satisfy given predicate,
+     * which are retracted from the pointer analysis.
+     */
+    void removeTaintsIf(Predicate<Obj> filter) {
+        taintObjs.removeIf(filter);
+    }
+
     /**
      * @return all taint objects generated via this manager.
      */
@@ -0,0 +1,619 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.taint;
+
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.InvokeInstanceExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Cast;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Answers demand-driven taint queries, i.e., whether a sink point may
+ * receive taint from any source of a {@link TaintConfig}, without running
+ * whole-program pointer analysis.
+ * <p>
+ * A query explores the program backward from the sink point, following
+ * only the value flows that may reach it:
+ * <ul>
+ *     <li>assignments and casts within a method;
+ *     <li>method returns and parameter passing, where the call sites
+ *     entered on the way are kept in a bounded call stack, so that
+ *     returning from a method only goes back to the matching call site
+ *     (realizable paths), unless the stack has been truncated;
+ *     <li>taint transfers given in the configuration;
+ *     <li>field and array accesses, which are matched field-based
+ *     (i.e., by field signature and element type, regardless of
+ *     the base objects). Besides stores, the values of a field or
+ *     an array element may also come from the taint transfers to it
+ *     (e.g., {@code to: 1.f}) and the sources which generate taint in it
+ *     (e.g., {@code index: 0[*]}), and the transfers from it
+ *     (e.g., {@code from: 0.f}) read all these values.
+ * </ul>
+ * The exploration stops as soon as a source is reached, and the source
+ * and the flow to the sink are returned as the witness. As field accesses
+ * are matched regardless of aliasing, the answer may be over-approximate.
+ * If the number of explored nodes exceeds the given budget, the answer
+ * is {@link Answer#UNKNOWN}.
+ */
+public class TaintQueryEngine {
+
+    /**
+     * Maximum depth of call stacks of the query nodes.
+     */
+    private static final int MAX_STACK_DEPTH = 8;
+
+    public enum Answer {
+        /**
+         * The sink point may receive taint.
+         */
+        TAINTED,
+        /**
+         * The sink point cannot receive taint.
+         */
+        NOT_TAINTED,
+        /**
+         * The budget was exhausted before the query is answered.
+         */
+        UNKNOWN,
+    }
+
+    /**
+     * Result of a taint query.
+     *
+     * @param answer  the answer to the query.
+     * @param witness a taint flow to the queried sink point if the answer is
+     *                {@link Answer#TAINTED}, otherwise {@code null}.
+     * @param path    the statements along which taint flows from the source
+     *                to the sink point, empty if there is no witness.
+     * @param steps   the number of explored nodes.
+     */
+    public record Result(Answer answer, @Nullable TaintFlow witness,
+                         List<Stmt> path, int steps) {
+    }
+
+    /**
+     * Immutable call stack of a query node.
+     */
+    private record CallStack(Invoke top, @Nullable CallStack rest, int depth) {
+
+        @Nullable
+        static CallStack push(@Nullable CallStack stack, Invoke callSite) {
+            if (stack != null && stack.depth == MAX_STACK_DEPTH) {
+                // truncate the stack, and the returns will
+                // go to all callers conservatively
+                return new CallStack(callSite, null, 1);
+            }
+            return new CallStack(callSite, stack,
+                    stack == null ? 1 : stack.depth + 1);
+        }
+    }
+
+    /**
+     * A node in the backward exploration.
+     *
+     * @param var    the variable which may hold taint.
+     * @param stack  the call stack, {@code null} if it is empty.
+     * @param parent the node to which taint flows from this node,
+     *               {@code null} for the sink point.
+     * @param stmt   the statement through which taint flows
+     *               from this node to its parent.
+     */
+    private record Node(Var var, @Nullable CallStack stack,
+                        @Nullable Node parent, @Nullable Stmt stmt) {
+    }
+
+    private record Key(Var var, @Nullable CallStack stack) {
+    }
+
+    private final CallGraph<Invoke, JMethod> callGraph;
+
+    private final TypeSystem typeSystem;
+
+    private final int budget;
+
+    private final MultiMap<JMethod, CallSource> callSources = Maps.newMultiMap();
+
+    private final MultiMap<JMethod, ParamSource> paramSources = Maps.newMultiMap();
+
+    private final Map<JField, FieldSource> fieldSources = Maps.newMap();
+
+    private final MultiMap<JMethod, Sink> sinks = Maps.newMultiMap();
+
+    private final MultiMap<JMethod, TaintTransfer> transfers = Maps.newMultiMap();
+
+    private final Set<ParamSanitizer> sanitizers;
+
+    /**
+     * Definitions and invocations of variables, built lazily per method.
+     */
+    private final Map<JMethod, MethodIndex> methodIndexes = Maps.newMap();
+
+    private record MethodIndex(MultiMap<Var, Stmt> defs,
+                               MultiMap<Var, Invoke> invokes) {
+    }
+
+    /**
+     * A write of values to a field or to array elements in reachable
+     * methods, i.e., a store, a taint transfer to a field/array,
+     * or a source which generates taint in a field/array.
+     *
+     * @param base   the variable pointing to the written object,
+     *               {@code null} for static field stores.
+     * @param from   the variable whose value is written,
+     *               {@code null} if this write is a source.
+     * @param stmt   the statement which performs the write,
+     *               {@code null} for parameter sources.
+     * @param source the source point if this write is a source,
+     *               otherwise {@code null}.
+     */
+    private record Write(@Nullable Var base, @Nullable Var from,
+                         @Nullable Stmt stmt, @Nullable SourcePoint source) {
+    }
+
+    /**
+     * Field and array writes in reachable methods, built lazily.
+     */
+    private MultiMap<JField, Write> fieldWrites;
+
+    private List<Write> arrayWrites;
+
+    /**
+     * @param config    the taint configuration
+     * @param callGraph the call graph which defines the reachable methods
+     *                  and the call edges to explore, e.g., a call graph
+     *                  built by class hierarchy analysis.
+     * @param budget    maximum number of explored nodes of a query
+     */
+    TaintQueryEngine(TaintConfig config, CallGraph<Invoke, JMethod> callGraph,
+                     TypeSystem typeSystem, int budget) {
+        this.callGraph = callGraph;
+        this.typeSystem = typeSystem;
+        this.budget = budget;
+        config.sources().forEach(src -> {
+            if (src instanceof CallSource callSrc) {
+                callSources.put(callSrc.method(), callSrc);
+            } else if (src instanceof ParamSource paramSrc) {
+                paramSources.put(paramSrc.method(), paramSrc);
+            } else if (src instanceof FieldSource fieldSrc) {
+                fieldSources.put(fieldSrc.field(), fieldSrc);
+            }
+        });
+        config.sinks().forEach(sink -> sinks.put(sink.method(), sink));
+        config.transfers().forEach(tf -> transfers.put(tf.method(), tf));
+        sanitizers = Set.copyOf(config.paramSanitizers());
+    }
+
+    /**
+     * Creates a query engine for taint configuration at given path.
+     *
+     * @see TaintConfig#loadConfig(String, ClassHierarchy, TypeSystem)
+     */
+    public TaintQueryEngine(String configPath, CallGraph<Invoke, JMethod> callGraph,
+                            ClassHierarchy hierarchy, TypeSystem typeSystem,
+                            int budget) {
+        this(TaintConfig.loadConfig(configPath, hierarchy, typeSystem),
+                callGraph, typeSystem, budget);
+    }
+
+    /**
+     * @return all sink points in the reachable methods of the call graph.
+     */
+    public Set<SinkPoint> getSinkPoints() {
+        Set<SinkPoint> sinkPoints = Sets.newOrderedSet();
+        callGraph.reachableMethods()
+                .sorted(Comparator.comparing(JMethod::toString))
+                .flatMap(m -> m.getIR().invokes(false))
+                .forEach(callSite -> callGraph.getCalleesOf(callSite)
+                        .forEach(callee -> sinks.get(callee).forEach(sink ->
+                                sinkPoints.add(new SinkPoint(callSite, sink.indexRef())))));
+        return sinkPoints;
+    }
+
+    /**
+     * Queries whether given sink point may receive taint.
+     */
+    public Result query(SinkPoint sinkPoint) {
+        IndexRef indexRef = sinkPoint.indexRef();
+        Var arg = InvokeUtils.getVar(sinkPoint.sinkCall(), indexRef.index());
+        Queue<Node> queue = new ArrayDeque<>();
+        Set<Key> visited = Sets.newSet();
+        Consumer<Node> enqueue = node -> {
+            if (visited.add(new Key(node.var(), node.stack()))) {
+                queue.add(node);
+            }
+        };
+        Node sinkNode = new Node(arg, null, null, sinkPoint.sinkCall());
+        if (indexRef.kind() == IndexRef.Kind.VAR) {
+            enqueue.accept(sinkNode);
+        } else {
+            SourcePoint source = exploreContents(arg, indexRef, sinkNode, enqueue);
+            if (source != null) {
+                return new Result(Answer.TAINTED, new TaintFlow(source, sinkPoint),
+                        getPath(source, sinkNode), 0);
+            }
+        }
+        int steps = 0;
+        while (!queue.isEmpty()) {
+            if (++steps > budget) {
+                return new Result(Answer.UNKNOWN, null, List.of(), steps);
+            }
+            Node node = queue.poll();
+            SourcePoint source = explore(node, enqueue);
+            if (source != null) {
+                return new Result(Answer.TAINTED,
+                        new TaintFlow(source, sinkPoint), getPath(source, node), steps);
+            }
+        }
+        return new Result(Answer.NOT_TAINTED, null, List.of(), steps);
+    }
+
+    /**
+     * Explores the predecessors of given node, i.e., the nodes whose
+     * values may flow to it.
+     *
+     * @return the source point if the node is reached by a source,
+     * otherwise {@code null}.
+     */
+    @Nullable
+    private SourcePoint explore(Node node, Consumer<Node> enqueue) {
+        Var var = node.var();
+        JMethod method = var.getMethod();
+        IR ir = method.getIR();
+        MethodIndex index = getMethodIndex(method);
+        // values from definitions of the variable
+        for (Stmt def : index.defs().get(var)) {
+            if (def instanceof Copy copy) {
+                enqueue.accept(new Node(copy.getRValue(), node.stack(), node, def));
+            } else if (def instanceof Cast cast) {
+                enqueue.accept(new Node(cast.getRValue().getValue(),
+                        node.stack(), node, def));
+            } else if (def instanceof LoadField load) {
+                JField field = load.getFieldRef().resolveNullable();
+                if (fieldSources.containsKey(field)) {
+                    return new FieldSourcePoint(method, load);
+                }
+                SourcePoint source = exploreWrites(
+                        getFieldWrites().get(field), node, enqueue);
+                if (source != null) {
+                    return source;
+                }
+            } else if (def instanceof LoadArray load) {
+                SourcePoint source = exploreWrites(
+                        arrayWritesTo(load.getArrayAccess().getBase()), node, enqueue);
+                if (source != null) {
+                    return source;
+                }
+            } else if (def instanceof Invoke invoke) {
+                SourcePoint source = exploreResult(node, invoke, enqueue);
+                if (source != null) {
+                    return source;
+                }
+            }
+        }
+        // values from the invocations which transfer taint to the variable,
+        // or which generate taint in the variable
+        for (Invoke invoke : index.invokes().get(var)) {
+            for (JMethod callee : callGraph.getCalleesOf(invoke)) {
+                for (CallSource src : callSources.get(callee)) {
+                    if (isVarAt(invoke, src.indexRef(), var)) {
+                        return new CallSourcePoint(invoke, src.indexRef());
+                    }
+                }
+                for (TaintTransfer tf : transfers.get(callee)) {
+                    if (isVarAt(invoke, tf.to(), var)) {
+                        SourcePoint source = exploreTransfer(
+                                node, invoke, tf, enqueue);
+                        if (source != null) {
+                            return source;
+                        }
+                    }
+                }
+            }
+        }
+        // values from callers
+        if (ir.isThisOrParam(var)) {
+            int paramIndex = var == ir.getThis()
+                    ? InvokeUtils.BASE : ir.getParams().indexOf(var);
+            for (ParamSource src : paramSources.get(method)) {
+                if (src.indexRef().kind() == IndexRef.Kind.VAR
+                        && src.indexRef().index() == paramIndex) {
+                    return new ParamSourcePoint(method, src.indexRef());
+                }
+            }
+            if (!sanitizers.contains(new ParamSanitizer(method, paramIndex))) {
+                CallStack stack = node.stack();
+                if (stack != null) {
+                    // return to the matching call site
+                    enqueueArg(stack.top(), paramIndex, stack.rest(), node, enqueue);
+                } else {
+                    callGraph.getCallersOf(method).forEach(callSite ->
+                            enqueueArg(callSite, paramIndex, null, node, enqueue));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Explores the values that may flow to the result of {@code invoke}.
+     */
+    @Nullable
+    private SourcePoint exploreResult(Node node, Invoke invoke, Consumer<Node> enqueue) {
+        for (JMethod callee : callGraph.getCalleesOf(invoke)) {
+            for (CallSource src : callSources.get(callee)) {
+                if (src.indexRef().kind() == IndexRef.Kind.VAR
+                        && src.indexRef().index() == InvokeUtils.RESULT) {
+                    return new CallSourcePoint(invoke, src.indexRef());
+                }
+            }
+            for (TaintTransfer tf : transfers.get(callee)) {
+                if (tf.to().kind() == IndexRef.Kind.VAR
+                        && tf.to().index() == InvokeUtils.RESULT) {
+                    SourcePoint source = exploreTransfer(node, invoke, tf, enqueue);
+                    if (source != null) {
+                        return source;
+                    }
+                }
+            }
+            if (!callee.isAbstract()) {
+                CallStack stack = CallStack.push(node.stack(), invoke);
+                callee.getIR().getReturnVars().forEach(ret ->
+                        enqueue.accept(new Node(ret, stack, node, invoke)));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Explores the values that {@code tf} at {@code invoke} transfers
+     * to the variable of {@code node}.
+     */
+    @Nullable
+    private SourcePoint exploreTransfer(Node node, Invoke invoke,
+                                        TaintTransfer tf, Consumer<Node> enqueue) {
+        Var from = InvokeUtils.getVar(invoke, tf.from().index());
+        if (from == null) {
+            return null;
+        }
+        if (tf.from().kind() == IndexRef.Kind.VAR) {
+            enqueue.accept(new Node(from, node.stack(), node, invoke));
+            return null;
+        }
+        // the transferred values are the contents of a field/array of from
+        Node fromNode = new Node(from, node.stack(), node, invoke);
+        return exploreContents(from, tf.from(), fromNode, enqueue);
+    }
+
+    /**
+     * Explores the values that may be written to the field or array
+     * elements referenced by {@code indexRef}, of the objects pointed to
+     * by {@code base}.
+     */
+    @Nullable
+    private SourcePoint exploreContents(Var base, IndexRef indexRef,
+                                        Node node, Consumer<Node> enqueue) {
+        Collection<Write> writes = indexRef.kind() == IndexRef.Kind.FIELD
+                ? getFieldWrites().get(indexRef.field())
+                : arrayWritesTo(base);
+        return exploreWrites(writes, node, enqueue);
+    }
+
+    /**
+     * Explores the values of given writes.
+     *
+     * @return the source point if any write is a source, otherwise {@code null}.
+     */
+    @Nullable
+    private static SourcePoint exploreWrites(Collection<Write> writes, Node node,
+                                             Consumer<Node> enqueue) {
+        for (Write write : writes) {
+            if (write.source() != null) {
+                return write.source();
+            }
+        }
+        // writes are matched regardless of the call stacks
+        writes.forEach(write -> enqueue.accept(
+                new Node(write.from(), null, node, write.stmt())));
+        return null;
+    }
+
+    private static void enqueueArg(Invoke callSite, int paramIndex,
+                                   @Nullable CallStack stack, Node node,
+                                   Consumer<Node> enqueue) {
+        InvokeExp invokeExp = callSite.getInvokeExp();
+        Var arg;
+        if (paramIndex == InvokeUtils.BASE) {
+            if (!(invokeExp instanceof InvokeInstanceExp instanceExp)) {
+                return;
+            }
+            arg = instanceExp.getBase();
+        } else if (paramIndex < invokeExp.getArgCount()) {
+            arg = invokeExp.getArg(paramIndex);
+        } else {
+            return;
+        }
+        enqueue.accept(new Node(arg, stack, node, callSite));
+    }
+
+    private static boolean isVarAt(Invoke invoke, IndexRef indexRef, Var var) {
+        return indexRef.kind() == IndexRef.Kind.VAR
+                && indexRef.index() != InvokeUtils.RESULT
+                && InvokeUtils.getVar(invoke, indexRef.index()) == var;
+    }
+
+    /**
+     * @return the statements from the source to the sink.
+     */
+    private static List<Stmt> getPath(SourcePoint source, Node node) {
+        List<Stmt> path = new ArrayList<>();
+        if (source instanceof CallSourcePoint callSource) {
+            path.add(callSource.sourceCall());
+        } else if (source instanceof FieldSourcePoint fieldSource) {
+            path.add(fieldSource.loadField());
+        }
+        for (Node n = node; n != null; n = n.parent()) {
+            if (n.stmt() != null && (path.isEmpty()
+                    || path.get(path.size() - 1) != n.stmt())) {
+                path.add(n.stmt());
+            }
+        }
+        return Collections.unmodifiableList(path);
+    }
+
+    private MethodIndex getMethodIndex(JMethod method) {
+        return methodIndexes.computeIfAbsent(method, m -> {
+            MultiMap<Var, Stmt> defs = Maps.newMultiMap();
+            MultiMap<Var, Invoke> invokes = Maps.newMultiMap();
+            for (Stmt stmt : m.getIR()) {
+                stmt.getDef().ifPresent(def -> {
+                    if (def instanceof Var v) {
+                        defs.put(v, stmt);
+                    }
+                });
+                if (stmt instanceof Invoke invoke) {
+                    InvokeExp invokeExp = invoke.getInvokeExp();
+                    if (invokeExp instanceof InvokeInstanceExp instanceExp) {
+                        invokes.put(instanceExp.getBase(), invoke);
+                    }
+                    invokeExp.getArgs().forEach(arg -> invokes.put(arg, invoke));
+                }
+            }
+            return new MethodIndex(defs, invokes);
+        });
+    }
+
+    private MultiMap<JField, Write> getFieldWrites() {
+        if (fieldWrites == null) {
+            fieldWrites = Maps.newMultiMap();
+            arrayWrites = new ArrayList<>();
+            callGraph.reachableMethods().forEach(m -> {
+                m.getIR().forEach(stmt -> {
+                    if (stmt instanceof StoreField store) {
+                        JField field = store.getFieldRef().resolveNullable();
+                        if (field != null) {
+                            Var base = store.getFieldAccess()
+                                    instanceof InstanceFieldAccess access
+                                    ? access.getBase() : null;
+                            fieldWrites.put(field, new Write(
+                                    base, store.getRValue(), store, null));
+                        }
+                    } else if (stmt instanceof StoreArray store) {
+                        arrayWrites.add(new Write(store.getArrayAccess().getBase(),
+                                store.getRValue(), store, null));
+                    } else if (stmt instanceof Invoke invoke) {
+                        callGraph.getCalleesOf(invoke).forEach(callee ->
+                                collectWrites(invoke, callee));
+                    }
+                });
+                for (ParamSource src : paramSources.get(m)) {
+                    IndexRef indexRef = src.indexRef();
+                    IR ir = m.getIR();
+                    Var param = indexRef.index() == InvokeUtils.BASE
+                            ? ir.getThis() : ir.getParam(indexRef.index());
+                    if (indexRef.kind() != IndexRef.Kind.VAR && param != null) {
+                        addWrite(indexRef, new Write(param, null, null,
+                                new ParamSourcePoint(m, indexRef)));
+                    }
+                }
+            });
+        }
+        return fieldWrites;
+    }
+
+    /**
+     * Collects the writes of the sources and transfers which generate or
+     * transfer taint to fields/arrays at {@code invoke}.
+     */
+    private void collectWrites(Invoke invoke, JMethod callee) {
+        for (CallSource src : callSources.get(callee)) {
+            IndexRef indexRef = src.indexRef();
+            Var base = InvokeUtils.getVar(invoke, indexRef.index());
+            if (indexRef.kind() != IndexRef.Kind.VAR && base != null) {
+                addWrite(indexRef, new Write(base, null, invoke,
+                        new CallSourcePoint(invoke, indexRef)));
+            }
+        }
+        for (TaintTransfer tf : transfers.get(callee)) {
+            IndexRef to = tf.to();
+            Var base = InvokeUtils.getVar(invoke, to.index());
+            Var from = InvokeUtils.getVar(invoke, tf.from().index());
+            // transfers to fields/arrays are always from variables
+            if (to.kind() != IndexRef.Kind.VAR && base != null && from != null) {
+                addWrite(to, new Write(base, from, invoke, null));
+            }
+        }
+    }
+
+    private void addWrite(IndexRef indexRef, Write write) {
+        if (indexRef.kind() == IndexRef.Kind.FIELD) {
+            fieldWrites.put(indexRef.field(), write);
+        } else {
+            arrayWrites.add(write);
+        }
+    }
+
+    /**
+     * @return the array writes which may write values to the array
+     * pointed to by {@code array}, matched by the array types.
+     */
+    private List<Write> arrayWritesTo(Var array) {
+        getFieldWrites(); // ensure that array writes have been collected
+        return arrayWrites.stream()
+                .filter(write -> {
+                    Var base = write.base();
+                    return typeSystem.isSubtype(array.getType(), base.getType())
+                            || typeSystem.isSubtype(base.getType(), array.getType());
+                })
+                .toList();
+    }
+}
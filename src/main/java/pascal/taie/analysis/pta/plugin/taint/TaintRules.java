@@ -0,0 +1,151 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.taint;
+
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Taint rules of a {@link TaintConfig} compiled into a dispatch table,
+ * which maps each method to all the rules on it, so that the handlers
+ * match a method against all rules by a single lookup, and the methods
+ * without any rules can be skipped quickly.
+ * <p>
+ * Wildcards and overriders in the configuration have been resolved to
+ * concrete methods when loading the configuration, thus the table only
+ * needs exact matching.
+ */
+class TaintRules {
+
+    /**
+     * Rules on a method.
+     */
+    record MethodRules(List<CallSource> callSources,
+                       List<ParamSource> paramSources,
+                       List<TaintTransfer> transfers,
+                       List<Sink> sinks,
+                       List<ParamSanitizer> sanitizers) {
+
+        private static final MethodRules EMPTY = new MethodRules(
+                List.of(), List.of(), List.of(), List.of(), List.of());
+
+        /**
+         * @return {@code true} if there are rules that are matched
+         * at call sites of the method.
+         */
+        boolean hasCallRules() {
+            return !callSources.isEmpty() || !transfers.isEmpty()
+                    || !sinks.isEmpty();
+        }
+    }
+
+    private final Map<JMethod, MethodRules> table;
+
+    private final int ruleCount;
+
+    TaintRules(TaintConfig config) {
+        Map<JMethod, Builder> builders = Maps.newMap();
+        Function<JMethod, Builder> builderOf =
+                m -> builders.computeIfAbsent(m, k -> new Builder());
+        int count = 0;
+        for (Source source : config.sources()) {
+            if (source instanceof CallSource callSrc) {
+                builderOf.apply(callSrc.method()).callSources.add(callSrc);
+                ++count;
+            } else if (source instanceof ParamSource paramSrc) {
+                builderOf.apply(paramSrc.method()).paramSources.add(paramSrc);
+                ++count;
+            }
+        }
+        for (TaintTransfer transfer : config.transfers()) {
+            builderOf.apply(transfer.method()).transfers.add(transfer);
+            ++count;
+        }
+        for (Sink sink : config.sinks()) {
+            builderOf.apply(sink.method()).sinks.add(sink);
+            ++count;
+        }
+        for (ParamSanitizer sanitizer : config.paramSanitizers()) {
+            builderOf.apply(sanitizer.method()).sanitizers.add(sanitizer);
+            ++count;
+        }
+        table = Maps.newMap(builders.size());
+        builders.forEach((method, builder) -> table.put(method, builder.build()));
+        ruleCount = count;
+    }
+
+    /**
+     * @return the rules on given method. If there is no rule on the method,
+     * returns a {@link MethodRules} with empty lists.
+     */
+    MethodRules get(JMethod method) {
+        return table.getOrDefault(method, MethodRules.EMPTY);
+    }
+
+    /**
+     * @return {@code true} if there are rules that are matched at call
+     * sites of given method.
+     */
+    boolean hasCallRules(JMethod method) {
+        MethodRules rules = table.get(method);
+        return rules != null && rules.hasCallRules();
+    }
+
+    /**
+     * @return number of methods that have rules.
+     */
+    int getMethodCount() {
+        return table.size();
+    }
+
+    /**
+     * @return number of method rules.
+     */
+    int getRuleCount() {
+        return ruleCount;
+    }
+
+    private static class Builder {
+
+        private final List<CallSource> callSources = new ArrayList<>(0);
+
+        private final List<ParamSource> paramSources = new ArrayList<>(0);
+
+        private final List<TaintTransfer> transfers = new ArrayList<>(0);
+
+        private final List<Sink> sinks = new ArrayList<>(0);
+
+        private final List<ParamSanitizer> sanitizers = new ArrayList<>(0);
+
+        private MethodRules build() {
+            return new MethodRules(List.copyOf(callSources),
+                    List.copyOf(paramSources), List.copyOf(transfers),
+                    List.copyOf(sinks), List.copyOf(sanitizers));
+        }
+    }
+}
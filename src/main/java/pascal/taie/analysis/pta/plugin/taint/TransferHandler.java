@@ -65,14 +65,6 @@ class TransferHandler extends OnFlyHandler {
 
     private final Context emptyContext;
 
-    /**
-     * Map from method (which causes taint transfer) to set of relevant
-     * {@link TaintTransfer}.
-     */
-    private final MultiMap<JMethod, TaintTransfer> transfers = Maps.newMultiMap();
-
-    private final Map<Type, Transfer> transferFunctions = Maps.newHybridMap();
-
     private enum Kind {
         VAR_TO_ARRAY, VAR_TO_FIELD, ARRAY_TO_VAR, FIELD_TO_VAR
     }
@@ -95,21 +87,9 @@ class TransferHandler extends OnFlyHandler {
      */
     private final boolean enableBackPropagate = true;
 
-    /**
-     * Cache statements generated for back propagation.
-     */
-    private final Map<Var, List<Stmt>> backPropStmts = Maps.newMap();
-
-    /**
-     * Counter for generating temporary variables.
-     */
-    private int counter = 0;
-
     TransferHandler(HandlerContext context) {
         super(context);
         emptyContext = solver.getContextSelector().getEmptyContext();
-        context.config().transfers()
-                .forEach(t -> this.transfers.put(t.method(), t));
     }
 
     private void processTransfer(Context context, Invoke callSite, TaintTransfer transfer) {
@@ -126,9 +106,8 @@ class TransferHandler extends OnFlyHandler {
             Kind kind = switch (to.kind()) {
                 case VAR -> {
                     Transfer tf = getTransferFunction(transfer.type());
-                    solver.addPFGEdge(
-                            new TaintTransferEdge(csFrom, csTo),
-                            tf);
+                    addTransferEdge(new TaintTransferEdge(csFrom, csTo),
+                            tf, transfer);
                     yield null;
                 }
                 case ARRAY -> Kind.VAR_TO_ARRAY;
@@ -177,41 +156,50 @@ class TransferHandler extends OnFlyHandler {
                 baseObjs.objects()
                         .map(csManager::getArrayIndex)
                         .forEach(arrayIndex ->
-                                solver.addPFGEdge(
+                                addTransferEdge(
                                         new TaintTransferEdge(csVar, arrayIndex),
-                                        tf));
+                                        tf, info.transfer()));
             }
             case VAR_TO_FIELD -> {
                 JField f = info.transfer().to().field();
                 baseObjs.objects()
                         .map(o -> csManager.getInstanceField(o, f))
                         .forEach(oDotF ->
-                                solver.addPFGEdge(
+                                addTransferEdge(
                                         new TaintTransferEdge(csVar, oDotF),
-                                        tf));
+                                        tf, info.transfer()));
             }
             case ARRAY_TO_VAR -> {
                 baseObjs.objects()
                         .map(csManager::getArrayIndex)
                         .forEach(arrayIndex ->
-                                solver.addPFGEdge(
+                                addTransferEdge(
                                         new TaintTransferEdge(arrayIndex, csVar),
-                                        tf));
+                                        tf, info.transfer()));
             }
             case FIELD_TO_VAR -> {
                 JField f = info.transfer().from().field();
                 baseObjs.objects()
                         .map(o -> csManager.getInstanceField(o, f))
                         .forEach(oDotF ->
-                                solver.addPFGEdge(
+                                addTransferEdge(
                                         new TaintTransferEdge(oDotF, csVar),
-                                        tf));
+                                        tf, info.transfer()));
             }
         }
     }
 
+    /**
+     * Adds the edge to PFG and records it as a fact of the transfer.
+     */
+    private void addTransferEdge(TaintTransferEdge edge, Transfer tf,
+                                 TaintTransfer transfer) {
+        solver.addPFGEdge(edge, tf);
+        facts.addTransferEdge(transfer, edge, tf);
+    }
+
     private Transfer getTransferFunction(Type toType) {
-        return transferFunctions.computeIfAbsent(toType,
+        return facts.getTransferFunctions().computeIfAbsent(toType,
                 type -> ((edge, input) -> {
                     PointsToSet newTaints = solver.makePointsToSet();
                     input.objects()
@@ -228,7 +216,7 @@ class TransferHandler extends OnFlyHandler {
     private void backPropagateTaint(Var to, Context ctx) {
         CSMethod csMethod = csManager.getCSMethod(ctx, to.getMethod());
         solver.addStmts(csMethod,
-                backPropStmts.computeIfAbsent(to, this::getBackPropagateStmts));
+                facts.getBackPropStmts().computeIfAbsent(to, this::getBackPropagateStmts));
     }
 
     private List<Stmt> getBackPropagateStmts(Var var) {
@@ -270,7 +258,7 @@ class TransferHandler extends OnFlyHandler {
     }
 
     private Var getTempVar(JMethod container, Type type) {
-        String varName = "%taint-temp-" + counter++;
+        String varName = "%taint-temp-" + facts.nextTempVarId();
         return new Var(container, varName, type, -1);
     }
 
@@ -282,7 +270,7 @@ class TransferHandler extends OnFlyHandler {
             // TODO: handle OTHER call edges
             return;
         }
-        Set<TaintTransfer> tfs = transfers.get(edge.getCallee().getMethod());
+        List<TaintTransfer> tfs = rules.get(edge.getCallee().getMethod()).transfers();
         if (!tfs.isEmpty()) {
             Context context = edge.getCallSite().getContext();
             Invoke callSite = edge.getCallSite().getCallSite();
@@ -303,7 +291,7 @@ class TransferHandler extends OnFlyHandler {
                 stmt instanceof Invoke invoke &&
                 !invoke.isDynamic()) {
             JMethod callee = invoke.getMethodRef().resolveNullable();
-            if (transfers.containsKey(callee)) {
+            if (callee != null && !rules.get(callee).transfers().isEmpty()) {
                 callSiteTransfers.put(container, invoke);
             }
         }
@@ -318,7 +306,7 @@ class TransferHandler extends OnFlyHandler {
                 Context context = csMethod.getContext();
                 callSites.forEach(callSite -> {
                     JMethod callee = callSite.getMethodRef().resolve();
-                    transfers.get(callee).forEach(transfer ->
+                    rules.get(callee).transfers().forEach(transfer ->
                             processTransfer(context, callSite, transfer));
                 });
             }
@@ -0,0 +1,472 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.pts;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.BDDManager;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.ref.Cleaner;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Points-to set which is represented by a BDD over the indexes of
+ * the objects. All BDD points-to sets made by the same factory share
+ * a {@link BDDManager}, so that the common parts of the sets are
+ * stored only once.
+ * <p>
+ * Most points-to sets are small, for which a BDD and its reference
+ * cost more than the objects themselves, thus a set stores the indexes
+ * of its objects in a sorted array until it contains more than
+ * {@value #EXPLICIT_LIMIT} objects. Then the set switches to a BDD,
+ * references the BDD in the manager, and the reference is released
+ * when the set is updated or becomes unreachable (via a {@link Cleaner}),
+ * so that the manager can collect the nodes which are not used by
+ * any set. The objects added to a BDD set one by one are buffered and
+ * merged into the BDD by a single operation. Each operation on
+ * the manager is performed in a session, so that the intermediate
+ * BDDs are not collected before they are referenced.
+ * <p>
+ * Only the sets of objects are symbolic: the context-sensitive
+ * elements are still created explicitly by the {@code CSManager},
+ * as the solver and the plugins operate on them.
+ */
+class BDDPointsToSet implements PointsToSet {
+
+    /**
+     * Releases the BDDs of unreachable sets.
+     */
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    /**
+     * Maximum number of objects stored explicitly.
+     */
+    private static final int EXPLICIT_LIMIT = 16;
+
+    /**
+     * Maximum number of buffered objects of a BDD set.
+     */
+    private static final int BUFFER_SIZE = 16;
+
+    private static final int[] EMPTY = new int[0];
+
+    private final Indexer<CSObj> indexer;
+
+    private final BDDManager manager;
+
+    /**
+     * If this set is explicit, the indexes of its objects in ascending
+     * order; otherwise, the indexes of the buffered objects, which are
+     * not in the BDD.
+     */
+    private int[] elems = EMPTY;
+
+    /**
+     * Number of indexes in {@link #elems}.
+     */
+    private int elemCount;
+
+    /**
+     * Reference to the BDD that represents this set, {@code null}
+     * if this set is explicit.
+     */
+    @Nullable
+    private Ref ref;
+
+    /**
+     * Id of the BDD that represents this set (without buffered objects).
+     */
+    private int root = BDDManager.FALSE;
+
+    /**
+     * Cached size of a BDD set, -1 means unknown.
+     */
+    private int size;
+
+    BDDPointsToSet(Indexer<CSObj> indexer, BDDManager manager) {
+        this.indexer = indexer;
+        this.manager = manager;
+    }
+
+    /**
+     * Must be called in a session of the manager if {@code root} is
+     * not referenced.
+     *
+     * @return a set that represents {@code root}.
+     */
+    private BDDPointsToSet newSet(int root) {
+        BDDPointsToSet set = new BDDPointsToSet(indexer, manager);
+        long count = manager.count(root);
+        if (count <= EXPLICIT_LIMIT) {
+            set.elems = new int[(int) count];
+            manager.forEach(root, i -> set.elems[set.elemCount++] = i);
+        } else {
+            set.toBDD(root);
+        }
+        return set;
+    }
+
+    private boolean isExplicit() {
+        return ref == null;
+    }
+
+    /**
+     * Switches this set to BDD {@code root}. Must be called in a session
+     * of the manager if {@code root} is not referenced.
+     */
+    private void toBDD(int root) {
+        ref = new Ref(manager);
+        CLEANER.register(this, ref);
+        elems = new int[BUFFER_SIZE];
+        elemCount = 0;
+        setRoot(root);
+    }
+
+    private void setRoot(int root) {
+        manager.ref(root);
+        manager.deref(this.root);
+        ref.root = root;
+        this.root = root;
+        this.size = -1;
+    }
+
+    /**
+     * Must be called in a session of the manager.
+     *
+     * @return the BDD that represents this set.
+     */
+    private int getBDD() {
+        if (isExplicit()) {
+            return manager.of(elems, 0, elemCount);
+        }
+        flush();
+        return root;
+    }
+
+    /**
+     * Merges the buffered objects into the BDD of this set.
+     */
+    private void flush() {
+        if (elemCount > 0) {
+            Arrays.sort(elems, 0, elemCount);
+            int oldSize = size;
+            manager.begin();
+            try {
+                setRoot(manager.or(root, manager.of(elems, 0, elemCount)));
+            } finally {
+                manager.end();
+            }
+            size = oldSize;
+            elemCount = 0;
+        }
+    }
+
+    @Override
+    public boolean addObject(CSObj obj) {
+        int index = indexer.getIndex(obj);
+        if (isExplicit()) {
+            int pos = Arrays.binarySearch(elems, 0, elemCount, index);
+            if (pos >= 0) {
+                return false;
+            }
+            if (elemCount < EXPLICIT_LIMIT) {
+                pos = -pos - 1;
+                if (elemCount == elems.length) {
+                    elems = Arrays.copyOf(elems, Math.max(2, elemCount * 2));
+                }
+                System.arraycopy(elems, pos, elems, pos + 1, elemCount - pos);
+                elems[pos] = index;
+                ++elemCount;
+                return true;
+            }
+            manager.begin();
+            try {
+                int oldSize = elemCount;
+                toBDD(manager.of(elems, 0, elemCount));
+                size = oldSize;
+            } finally {
+                manager.end();
+            }
+        } else if (isBuffered(index) || manager.contains(root, index)) {
+            return false;
+        }
+        if (elemCount == elems.length) {
+            flush();
+        }
+        elems[elemCount++] = index;
+        if (size != -1) {
+            ++size;
+        }
+        return true;
+    }
+
+    private boolean isBuffered(int index) {
+        for (int i = 0; i < elemCount; ++i) {
+            if (elems[i] == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code true} if given set is a BDD set of the same manager.
+     */
+    private boolean isBDDSet(PointsToSet pts) {
+        return pts instanceof BDDPointsToSet other
+                && other.manager == manager && !other.isExplicit();
+    }
+
+    @Override
+    public boolean addAll(PointsToSet pts) {
+        if (isExplicit() && !isBDDSet(pts)) {
+            boolean changed = false;
+            for (CSObj o : pts) {
+                changed |= addObject(o);
+            }
+            return changed;
+        }
+        manager.begin();
+        try {
+            int other = getRoot(pts);
+            return update(manager.or(getBDD(), other));
+        } finally {
+            manager.end();
+        }
+    }
+
+    @Override
+    public PointsToSet addAllDiff(PointsToSet pts) {
+        if (isExplicit() && !isBDDSet(pts)) {
+            BDDPointsToSet diff = new BDDPointsToSet(indexer, manager);
+            for (CSObj o : pts) {
+                if (addObject(o)) {
+                    diff.addObject(o);
+                }
+            }
+            return diff;
+        }
+        manager.begin();
+        try {
+            int self = getBDD();
+            int diff = manager.diff(getRoot(pts), self);
+            update(manager.or(self, diff));
+            return newSet(diff);
+        } finally {
+            manager.end();
+        }
+    }
+
+    /**
+     * Must be called in a session of the manager.
+     *
+     * @return the BDD that represents the given points-to set.
+     */
+    private int getRoot(PointsToSet pts) {
+        if (pts instanceof BDDPointsToSet other && other.manager == manager) {
+            return other.getBDD();
+        } else {
+            int[] indexes = new int[pts.size()];
+            int n = 0;
+            for (CSObj o : pts) {
+                indexes[n++] = indexer.getIndex(o);
+            }
+            Arrays.sort(indexes, 0, n);
+            return manager.of(indexes, 0, n);
+        }
+    }
+
+    /**
+     * Updates this set to BDD {@code newRoot}, which is not explicit.
+     * Must be called in a session of the manager.
+     */
+    private boolean update(int newRoot) {
+        if (isExplicit()) {
+            int oldSize = elemCount;
+            toBDD(newRoot);
+            return manager.count(newRoot) != oldSize;
+        }
+        if (newRoot != root) {
+            setRoot(newRoot);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void removeIf(Predicate<CSObj> filter) {
+        if (isExplicit()) {
+            int n = 0;
+            for (int i = 0; i < elemCount; ++i) {
+                if (!filter.test(indexer.getObject(elems[i]))) {
+                    elems[n++] = elems[i];
+                }
+            }
+            elemCount = n;
+            return;
+        }
+        flush();
+        int[] removed = new int[size()];
+        int[] count = { 0 };
+        manager.forEach(root, i -> {
+            if (filter.test(indexer.getObject(i))) {
+                removed[count[0]++] = i;
+            }
+        });
+        if (count[0] > 0) {
+            manager.begin();
+            try {
+                update(manager.diff(root, manager.of(removed, 0, count[0])));
+            } finally {
+                manager.end();
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(CSObj obj) {
+        int index = indexer.getIndex(obj);
+        if (isExplicit()) {
+            return Arrays.binarySearch(elems, 0, elemCount, index) >= 0;
+        }
+        return isBuffered(index) || manager.contains(root, index);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return elemCount == 0 && root == BDDManager.FALSE;
+    }
+
+    @Override
+    public int size() {
+        if (isExplicit()) {
+            return elemCount;
+        }
+        if (size == -1) {
+            size = (int) manager.count(root) + elemCount;
+        }
+        return size;
+    }
+
+    @Override
+    public Set<CSObj> getObjects() {
+        return new ObjectSet();
+    }
+
+    @Override
+    public Stream<CSObj> objects() {
+        return getObjects().stream();
+    }
+
+    @Override
+    public PointsToSet copy() {
+        if (isExplicit()) {
+            BDDPointsToSet copy = new BDDPointsToSet(indexer, manager);
+            copy.elems = Arrays.copyOf(elems, elemCount);
+            copy.elemCount = elemCount;
+            return copy;
+        }
+        flush();
+        return newSet(root);
+    }
+
+    @Override
+    public String toString() {
+        return getObjects().toString();
+    }
+
+    /**
+     * Reference of a set to its BDD, which is released
+     * when the set becomes unreachable.
+     */
+    private static class Ref implements Runnable {
+
+        private final BDDManager manager;
+
+        private volatile int root = BDDManager.FALSE;
+
+        private Ref(BDDManager manager) {
+            this.manager = manager;
+        }
+
+        @Override
+        public void run() {
+            manager.deref(root);
+        }
+    }
+
+    /**
+     * Unmodifiable view of the objects in this set.
+     */
+    private class ObjectSet extends AbstractSet<CSObj> {
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof CSObj obj && BDDPointsToSet.this.contains(obj);
+        }
+
+        @Override
+        @Nonnull
+        public Iterator<CSObj> iterator() {
+            int[] indexes;
+            if (isExplicit()) {
+                indexes = Arrays.copyOf(elems, elemCount);
+            } else {
+                flush();
+                indexes = new int[size()];
+                int[] count = { 0 };
+                manager.forEach(root, i -> indexes[count[0]++] = i);
+            }
+            return new Iterator<>() {
+
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < indexes.length;
+                }
+
+                @Override
+                public CSObj next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return indexer.getObject(indexes[next++]);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return BDDPointsToSet.this.size();
+        }
+    }
+}
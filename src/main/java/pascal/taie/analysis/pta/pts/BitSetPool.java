@@ -0,0 +1,303 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.pts;
+
+import pascal.taie.util.collection.IBitSet;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.SparseBitSet;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of immutable bit sets shared by {@link SharedPointsToSet}.
+ * <p>
+ * The pool hash-conses bit sets, i.e., equivalent bit sets are represented
+ * by the same {@link Node}, so that the points-to sets with the same content
+ * share a single copy of bits. Only the bit sets stored in points-to sets
+ * are interned, and the intern table refers to the nodes weakly, so that
+ * the nodes which are no longer used are reclaimed by garbage collection.
+ * Transient bit sets (e.g., difference sets) are represented by
+ * {@link #wrap(IBitSet) unshared nodes}. The pool also caches the results
+ * of unions of interned nodes, which are the dominant operations during
+ * propagation, and evicts the least recently used unions when the cache
+ * is full. The pool is thread-safe.
+ */
+class BitSetPool {
+
+    /**
+     * Limit of the number of cached unions.
+     */
+    private static final int UNION_CACHE_LIMIT = 1 << 20;
+
+    /**
+     * Number of segments of the union cache. Each segment is locked
+     * separately, which reduces contention of the parallel solver.
+     */
+    private static final int UNION_CACHE_SEGMENTS = 64;
+
+    private final ConcurrentMap<IBitSet, NodeRef> interned = Maps.newConcurrentMap();
+
+    /**
+     * Queue of the references to the interned nodes that have been
+     * reclaimed, whose entries are removed from {@link #interned}.
+     */
+    private final ReferenceQueue<Node> reclaimed = new ReferenceQueue<>();
+
+    /**
+     * Segments of the union cache, each of which evicts the least recently
+     * used union when it is full. The cached unions keep their nodes alive,
+     * thus the size of the cache also bounds the number of nodes
+     * that are retained only by the cache.
+     */
+    private final List<Map<Long, Union>> unionCaches = new ArrayList<>(UNION_CACHE_SEGMENTS);
+
+    private final AtomicInteger nodeCounter = new AtomicInteger();
+
+    private final AtomicLong unionCount = new AtomicLong();
+
+    private final AtomicLong unionCacheHits = new AtomicLong();
+
+    /**
+     * The empty bit set.
+     */
+    private final Node empty = intern(new SparseBitSet());
+
+    BitSetPool() {
+        for (int i = 0; i < UNION_CACHE_SEGMENTS; ++i) {
+            unionCaches.add(Maps.newLRUMap(UNION_CACHE_LIMIT / UNION_CACHE_SEGMENTS));
+        }
+    }
+
+    Node getEmpty() {
+        return empty;
+    }
+
+    /**
+     * @return the node representing given bit set. The bit set
+     * must not be modified after being passed to this method.
+     */
+    Node intern(IBitSet bits) {
+        if (bits.isEmpty() && empty != null) {
+            return empty;
+        }
+        // prime the lazily-computed states (e.g., hash code) of the bit set
+        // before publishing it to other threads
+        bits.hashCode();
+        removeReclaimed();
+        while (true) {
+            NodeRef ref = interned.get(bits);
+            Node node = ref != null ? ref.get() : null;
+            if (node != null) {
+                return node;
+            }
+            Node newNode = new Node(nodeCounter.getAndIncrement(), bits, true);
+            NodeRef newRef = new NodeRef(newNode, reclaimed);
+            if (ref == null ? interned.putIfAbsent(bits, newRef) == null
+                    : interned.replace(bits, ref, newRef)) {
+                return newNode;
+            }
+        }
+    }
+
+    /**
+     * @return the interned node which has the same bits as given node.
+     */
+    Node intern(Node node) {
+        return node.isShared() ? node : intern(node.bits);
+    }
+
+    /**
+     * @return an unshared node representing given bit set, which is
+     * not interned. The bit set must not be modified after being
+     * passed to this method.
+     */
+    Node wrap(IBitSet bits) {
+        return bits.isEmpty() ? empty : new Node(0, bits, false);
+    }
+
+    private void removeReclaimed() {
+        Reference<? extends Node> ref;
+        while ((ref = reclaimed.poll()) != null) {
+            NodeRef nodeRef = (NodeRef) ref;
+            interned.remove(nodeRef.bits, nodeRef);
+        }
+    }
+
+    /**
+     * @return the interned node representing the union of given two nodes.
+     */
+    Node union(Node n1, Node n2) {
+        if (n1 == n2 || n2 == empty) {
+            return intern(n1);
+        }
+        if (n1 == empty) {
+            return intern(n2);
+        }
+        unionCount.incrementAndGet();
+        if (!n1.isShared() || !n2.isShared()) {
+            // the unions of unshared nodes are not reused, thus not cached
+            return or(n1, n2);
+        }
+        if (Integer.compareUnsigned(n1.id, n2.id) > 0) {
+            Node n = n1;
+            n1 = n2;
+            n2 = n;
+        }
+        long key = (Integer.toUnsignedLong(n1.id) << 32) | Integer.toUnsignedLong(n2.id);
+        Map<Long, Union> cache = unionCaches.get(Long.hashCode(key * 0x9E3779B97F4A7C15L)
+                & (UNION_CACHE_SEGMENTS - 1));
+        Union union;
+        synchronized (cache) {
+            union = cache.get(key);
+        }
+        // the ids are reused after the counter wraps around,
+        // thus we also check the operands of the cached union
+        if (union != null && union.n1 == n1 && union.n2 == n2) {
+            unionCacheHits.incrementAndGet();
+            return union.result;
+        }
+        Node result = or(n1, n2);
+        synchronized (cache) {
+            cache.put(key, new Union(n1, n2, result));
+        }
+        return result;
+    }
+
+    /**
+     * @return the interned node representing the union of given two nodes.
+     */
+    private Node or(Node n1, Node n2) {
+        // shared bit sets are only read (never used as the receiver of
+        // bulk operations), thus they are safe to be accessed concurrently
+        IBitSet bits = n1.bits.copy();
+        return bits.or(n2.bits) ? intern(bits) : intern(n1);
+    }
+
+    /**
+     * @return the node representing the bit set of given node with
+     * the bit at {@code index} set.
+     */
+    Node add(Node node, int index) {
+        if (node.bits.get(index)) {
+            return node;
+        }
+        IBitSet bits = node.bits.copy();
+        bits.set(index);
+        return intern(bits);
+    }
+
+    /**
+     * @return the node representing the bits that are in {@code n1}
+     * but not in {@code n2}. The result is an unshared node unless
+     * it is {@code n1} or empty.
+     */
+    Node diff(Node n1, Node n2) {
+        if (n1 == n2 || n1 == empty) {
+            return empty;
+        }
+        if (n2 == empty) {
+            return n1;
+        }
+        IBitSet bits = n1.bits.copy();
+        bits.andNot(n2.bits);
+        return wrap(bits);
+    }
+
+    /**
+     * @return number of bit sets interned by this pool.
+     */
+    int getNodeCount() {
+        return nodeCounter.get();
+    }
+
+    /**
+     * @return number of non-trivial unions performed by this pool.
+     */
+    long getUnionCount() {
+        return unionCount.get();
+    }
+
+    /**
+     * @return number of unions answered by the union cache.
+     */
+    long getUnionCacheHits() {
+        return unionCacheHits.get();
+    }
+
+    /**
+     * Cached result of the union of two nodes.
+     */
+    private record Union(Node n1, Node n2, Node result) {
+    }
+
+    /**
+     * Weak reference to an interned node, which also keeps the key
+     * of the node in the intern table.
+     */
+    private static final class NodeRef extends WeakReference<Node> {
+
+        private final IBitSet bits;
+
+        private NodeRef(Node node, ReferenceQueue<Node> queue) {
+            super(node, queue);
+            this.bits = node.bits;
+        }
+    }
+
+    /**
+     * Immutable bit set with an id. The ids of interned nodes are unique
+     * unless more than 2^32 nodes are interned.
+     */
+    static final class Node {
+
+        private final int id;
+
+        /**
+         * Whether this node is interned.
+         */
+        private final boolean shared;
+
+        final IBitSet bits;
+
+        final int size;
+
+        private Node(int id, IBitSet bits, boolean shared) {
+            this.id = id;
+            this.shared = shared;
+            this.bits = bits;
+            this.size = bits.cardinality();
+        }
+
+        private boolean isShared() {
+            return shared;
+        }
+    }
+}
@@ -25,20 +25,34 @@ package pascal.taie.analysis.pta.pts;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.util.Indexer;
 import pascal.taie.util.collection.HybridBitSet;
+import pascal.taie.util.collection.IBitSet;
 import pascal.taie.util.collection.SetEx;
 
 class HybridBitPointsToSet extends DelegatePointsToSet {
 
+    private final HybridBitSet<CSObj> bitSet;
+
     public HybridBitPointsToSet(Indexer<CSObj> indexer, boolean isSparse) {
         this(new HybridBitSet<>(indexer, isSparse));
     }
 
-    private HybridBitPointsToSet(SetEx<CSObj> set) {
+    private HybridBitPointsToSet(HybridBitSet<CSObj> set) {
         super(set);
+        this.bitSet = set;
+    }
+
+    @Override
+    public boolean isSubsetOf(IBitSet indexes) {
+        return bitSet.isSubsetOf(indexes);
+    }
+
+    @Override
+    public PointsToSet intersect(IBitSet indexes) {
+        return new HybridBitPointsToSet(bitSet.intersect(indexes));
     }
 
     @Override
     protected PointsToSet newSet(SetEx<CSObj> set) {
-        return new HybridBitPointsToSet(set);
+        return new HybridBitPointsToSet((HybridBitSet<CSObj>) set);
     }
 }
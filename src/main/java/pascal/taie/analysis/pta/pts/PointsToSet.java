@@ -24,6 +24,7 @@ package pascal.taie.analysis.pta.pts;
 
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.util.Copyable;
+import pascal.taie.util.collection.IBitSet;
 
 import java.util.Iterator;
 import java.util.Set;
@@ -73,6 +74,31 @@ public interface PointsToSet extends Iterable<CSObj>, Copyable<PointsToSet> {
      */
     boolean contains(CSObj obj);
 
+    /**
+     * @return true if the indexes of all objects in this set are set in
+     * given bit set, otherwise false. For the points-to sets backed by
+     * bit sets, this is a word-wise containment check.
+     */
+    default boolean isSubsetOf(IBitSet indexes) {
+        for (CSObj o : this) {
+            if (!indexes.get(o.getIndex())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return a new set that contains the objects in this set whose
+     * indexes are set in given bit set. For the points-to sets backed
+     * by bit sets, this is a word-wise AND. This set is not modified.
+     */
+    default PointsToSet intersect(IBitSet indexes) {
+        PointsToSet result = copy();
+        result.removeIf(o -> !indexes.get(o.getIndex()));
+        return result;
+    }
+
     /**
      * @return whether this set if empty.
      */
@@ -23,7 +23,9 @@
 package pascal.taie.analysis.pta.pts;
 
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.config.ConfigException;
 import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.BDDManager;
 
 import java.util.function.Supplier;
 
@@ -35,7 +37,32 @@ public class PointsToSetFactory {
     private final Supplier<PointsToSet> factory;
 
     public PointsToSetFactory(Indexer<CSObj> objIndexer) {
-        factory = () -> new HybridBitPointsToSet(objIndexer, true);
+        this(objIndexer, "hybrid");
+    }
+
+    /**
+     * @param objIndexer indexer of the objects in the points-to sets
+     * @param kind       kind of points-to sets to make, i.e.,
+     *                   {@code "hybrid"} (hybrid bit sets owned by each
+     *                   points-to set), {@code "shared"} (hash-consed
+     *                   immutable bit sets shared among points-to sets),
+     *                   or {@code "bdd"} (BDDs whose nodes are shared
+     *                   among points-to sets)
+     */
+    public PointsToSetFactory(Indexer<CSObj> objIndexer, String kind) {
+        factory = switch (kind) {
+            case "hybrid" -> () -> new HybridBitPointsToSet(objIndexer, true);
+            case "shared" -> {
+                BitSetPool pool = new BitSetPool();
+                yield () -> new SharedPointsToSet(objIndexer, pool);
+            }
+            case "bdd" -> {
+                BDDManager manager = new BDDManager();
+                yield () -> new BDDPointsToSet(objIndexer, manager);
+            }
+            default -> throw new ConfigException(
+                    "Unknown points-to set kind: " + kind);
+        };
     }
 
     public PointsToSet make() {
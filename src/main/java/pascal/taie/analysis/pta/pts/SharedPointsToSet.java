@@ -0,0 +1,263 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.pts;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.IBitSet;
+import pascal.taie.util.collection.SparseBitSet;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Points-to set which refers to an immutable bit set interned in
+ * a {@link BitSetPool}. Points-to sets with the same content share
+ * the same bit set, and updating a points-to set replaces its bit set
+ * by another interned one (i.e., copy-on-write), thus {@link #copy()}
+ * is cheap. Transient sets, e.g., the results of {@link #addAllDiff}
+ * and {@link #intersect}, refer to bit sets that are not interned.
+ * <p>
+ * Adding single objects one by one would copy and intern the whole bit set
+ * for each object, thus such objects are added to a private mutable copy
+ * of the bit set, which is interned when the set is shared with others,
+ * e.g., when it is copied or united with other sets.
+ */
+class SharedPointsToSet implements PointsToSet {
+
+    private final Indexer<CSObj> indexer;
+
+    private final BitSetPool pool;
+
+    /**
+     * The interned bit set of this set. It is out of date
+     * if {@link #pending} is not {@code null}.
+     */
+    private BitSetPool.Node node;
+
+    /**
+     * Mutable bits of this set that have not been interned,
+     * or {@code null} if all bits of this set are in {@link #node}.
+     */
+    private IBitSet pending;
+
+    /**
+     * Number of bits in {@link #pending}.
+     */
+    private int pendingSize;
+
+    SharedPointsToSet(Indexer<CSObj> indexer, BitSetPool pool) {
+        this(indexer, pool, pool.getEmpty());
+    }
+
+    private SharedPointsToSet(Indexer<CSObj> indexer, BitSetPool pool,
+                              BitSetPool.Node node) {
+        this.indexer = indexer;
+        this.pool = pool;
+        this.node = node;
+    }
+
+    /**
+     * @return the current bits of this set, which must not be modified.
+     */
+    private IBitSet bits() {
+        return pending != null ? pending : node.bits;
+    }
+
+    /**
+     * Interns the pending bits (if any) of this set.
+     *
+     * @return the node representing this set.
+     */
+    private BitSetPool.Node node() {
+        if (pending != null) {
+            node = pool.intern(pending);
+            pending = null;
+        }
+        return node;
+    }
+
+    @Override
+    public boolean addObject(CSObj obj) {
+        int index = indexer.getIndex(obj);
+        if (bits().get(index)) {
+            return false;
+        }
+        if (pending == null) {
+            pending = node.bits.copy();
+            pendingSize = node.size;
+        }
+        pending.set(index);
+        ++pendingSize;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(PointsToSet pts) {
+        if (pts instanceof SharedPointsToSet other && other.pool == pool) {
+            BitSetPool.Node old = node();
+            node = pool.union(old, other.node());
+            return node != old;
+        } else {
+            boolean changed = false;
+            for (CSObj o : pts) {
+                changed |= addObject(o);
+            }
+            return changed;
+        }
+    }
+
+    @Override
+    public PointsToSet addAllDiff(PointsToSet pts) {
+        BitSetPool.Node other;
+        if (pts instanceof SharedPointsToSet s && s.pool == pool) {
+            other = s.node();
+        } else {
+            IBitSet bits = new SparseBitSet();
+            pts.forEach(o -> bits.set(indexer.getIndex(o)));
+            other = pool.wrap(bits);
+        }
+        // the difference set is transient, thus it is not interned
+        // unless it is stored in a points-to set later
+        BitSetPool.Node diff = pool.diff(other, node());
+        node = pool.union(node, diff);
+        return new SharedPointsToSet(indexer, pool, diff);
+    }
+
+    @Override
+    public void removeIf(Predicate<CSObj> filter) {
+        IBitSet bits = null;
+        IBitSet oldBits = bits();
+        for (int i = oldBits.nextSetBit(0); i >= 0; i = oldBits.nextSetBit(i + 1)) {
+            if (filter.test(indexer.getObject(i))) {
+                if (bits == null) {
+                    bits = oldBits.copy();
+                }
+                bits.clear(i);
+            }
+        }
+        if (bits != null) {
+            node = pool.intern(bits);
+            pending = null;
+        }
+    }
+
+    @Override
+    public boolean contains(CSObj obj) {
+        return bits().get(indexer.getIndex(obj));
+    }
+
+    @Override
+    public boolean isSubsetOf(IBitSet indexes) {
+        return indexes.contains(bits());
+    }
+
+    @Override
+    public PointsToSet intersect(IBitSet indexes) {
+        IBitSet bits = bits().copy();
+        bits.and(indexes);
+        return new SharedPointsToSet(indexer, pool, pool.wrap(bits));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int size() {
+        return pending != null ? pendingSize : node.size;
+    }
+
+    @Override
+    public Set<CSObj> getObjects() {
+        return new ObjectSet(node());
+    }
+
+    @Override
+    public Stream<CSObj> objects() {
+        return getObjects().stream();
+    }
+
+    @Override
+    public PointsToSet copy() {
+        return new SharedPointsToSet(indexer, pool, node());
+    }
+
+    @Override
+    public String toString() {
+        return getObjects().toString();
+    }
+
+    /**
+     * Unmodifiable view of the objects in an immutable bit set.
+     */
+    private class ObjectSet extends AbstractSet<CSObj> {
+
+        private final BitSetPool.Node node;
+
+        private ObjectSet(BitSetPool.Node node) {
+            this.node = node;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof CSObj obj &&
+                    node.bits.get(indexer.getIndex(obj));
+        }
+
+        @Override
+        @Nonnull
+        public Iterator<CSObj> iterator() {
+            return new Iterator<>() {
+
+                private int next = node.bits.nextSetBit(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public CSObj next() {
+                    if (next < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    CSObj obj = indexer.getObject(next);
+                    next = node.bits.nextSetBit(next + 1);
+                    return obj;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return node.size;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.store;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants of the binary format of stored pointer analysis results.
+ * <p>
+ * A stored result starts with a header:
+ * <pre>
+ * magic (8 bytes) | version (int) | number of sections (int)
+ * | [section id (int) | offset (long) | length (long)]*
+ * </pre>
+ * followed by the sections. Each section is an array of big-endian
+ * {@code int}s (except the bytes of the string table), and its first
+ * {@code int} is the number of its entries. All elements (strings,
+ * methods, variables, objects, etc.) are referred to by their indexes
+ * in the corresponding sections, and the entries of every section are
+ * sorted so that they can be searched by binary search, without
+ * decoding the whole file. The string table is sorted lexicographically,
+ * thus comparing two string indexes is equivalent to comparing the
+ * strings themselves.
+ * <p>
+ * {@link #VERSION} must be increased whenever the layout changes.
+ * Unknown sections are ignored by readers, so new sections can be added
+ * without breaking old readers.
+ */
+final class StoreFormat {
+
+    private StoreFormat() {
+    }
+
+    static final byte[] MAGIC = "TAIE-PTA".getBytes(StandardCharsets.US_ASCII);
+
+    static final int VERSION = 1;
+
+    /**
+     * count | byte offsets (count + 1) | UTF-8 bytes.
+     */
+    static final int STRINGS = 1;
+
+    /**
+     * count | signatures | start indexes of variables (count + 1).
+     */
+    static final int METHODS = 2;
+
+    /**
+     * count | names | start indexes of points-to sets in {@link #POOL}
+     * (count + 1). Variables are grouped by their methods.
+     */
+    static final int VARS = 3;
+
+    /**
+     * count | descriptions | types.
+     */
+    static final int OBJS = 4;
+
+    /**
+     * count | object indexes of context-insensitive points-to sets.
+     */
+    static final int POOL = 5;
+
+    /**
+     * count | field signatures | start indexes in {@link #POOL} (count + 1).
+     */
+    static final int STATIC_FIELDS = 6;
+
+    /**
+     * count | (base object, field signature)* | start indexes in
+     * {@link #POOL} (count + 1).
+     */
+    static final int INSTANCE_FIELDS = 7;
+
+    /**
+     * count | array objects | start indexes in {@link #POOL} (count + 1).
+     */
+    static final int ARRAYS = 8;
+
+    /**
+     * count | (caller, call site index, line number, call kind, callee)*.
+     */
+    static final int CALL_EDGES = 9;
+
+    /**
+     * count | reachable methods.
+     */
+    static final int REACHABLE_METHODS = 10;
+
+    /**
+     * count | entry methods.
+     */
+    static final int ENTRY_METHODS = 11;
+
+    /**
+     * count | descriptions of context-sensitive objects.
+     */
+    static final int CS_OBJS = 12;
+
+    /**
+     * count | (variable, context)* | start indexes in {@link #CS_POOL}
+     * (count + 1).
+     */
+    static final int CS_VARS = 13;
+
+    /**
+     * count | indexes of context-sensitive objects.
+     */
+    static final int CS_POOL = 14;
+
+    /**
+     * Size of section header.
+     */
+    static final int SECTION_HEADER_SIZE = 4 + 8 + 8;
+
+    /**
+     * Number of {@code int}s of each call edge.
+     */
+    static final int CALL_EDGE_SIZE = 5;
+}
@@ -0,0 +1,460 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.store;
+
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static pascal.taie.analysis.pta.store.StoreFormat.ARRAYS;
+import static pascal.taie.analysis.pta.store.StoreFormat.CALL_EDGES;
+import static pascal.taie.analysis.pta.store.StoreFormat.CALL_EDGE_SIZE;
+import static pascal.taie.analysis.pta.store.StoreFormat.CS_OBJS;
+import static pascal.taie.analysis.pta.store.StoreFormat.CS_POOL;
+import static pascal.taie.analysis.pta.store.StoreFormat.CS_VARS;
+import static pascal.taie.analysis.pta.store.StoreFormat.ENTRY_METHODS;
+import static pascal.taie.analysis.pta.store.StoreFormat.INSTANCE_FIELDS;
+import static pascal.taie.analysis.pta.store.StoreFormat.MAGIC;
+import static pascal.taie.analysis.pta.store.StoreFormat.METHODS;
+import static pascal.taie.analysis.pta.store.StoreFormat.OBJS;
+import static pascal.taie.analysis.pta.store.StoreFormat.POOL;
+import static pascal.taie.analysis.pta.store.StoreFormat.REACHABLE_METHODS;
+import static pascal.taie.analysis.pta.store.StoreFormat.SECTION_HEADER_SIZE;
+import static pascal.taie.analysis.pta.store.StoreFormat.STATIC_FIELDS;
+import static pascal.taie.analysis.pta.store.StoreFormat.STRINGS;
+import static pascal.taie.analysis.pta.store.StoreFormat.VARS;
+import static pascal.taie.analysis.pta.store.StoreFormat.VERSION;
+
+/**
+ * Pointer analysis result stored by {@link StoredResultWriter}.
+ * <p>
+ * The stored file is memory-mapped, and the queries are answered by
+ * binary searches on the mapped sections, thus loading a stored result
+ * is almost free, and only the queried parts are decoded. The elements
+ * of the program are represented by their string descriptions, i.e.,
+ * signatures of methods and fields, names of variables, and
+ * {@code toString()} of (context-sensitive) objects and contexts, so that
+ * the stored result can be queried without building the world.
+ * <p>
+ * The queries of this class are thread-safe. Each section is mapped
+ * separately, thus the size of stored results is not limited to 2GB,
+ * but the size of each section is.
+ */
+public class StoredResult {
+
+    private final Map<Integer, ByteBuffer> sections;
+
+    private final int nStrings;
+
+    private final int nMethods;
+
+    private final int nVars;
+
+    private final int nObjs;
+
+    private StoredResult(Map<Integer, ByteBuffer> sections) {
+        this.sections = sections;
+        nStrings = count(STRINGS);
+        nMethods = count(METHODS);
+        nVars = count(VARS);
+        nObjs = count(OBJS);
+    }
+
+    /**
+     * Loads the result stored in given file.
+     *
+     * @throws AnalysisException if the file cannot be read or its format
+     *                           is not supported
+     */
+    public static StoredResult load(File file) {
+        // each section is mapped separately (the mappings remain valid
+        // after the channel is closed), thus the offsets of sections
+        // are not limited by the size of a single mapping
+        try (FileChannel channel = FileChannel.open(
+                file.toPath(), StandardOpenOption.READ)) {
+            int prefixSize = MAGIC.length + 8;
+            if (channel.size() < prefixSize) {
+                throw new AnalysisException(file + " is not a stored pointer analysis result");
+            }
+            ByteBuffer prefix = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, prefixSize);
+            byte[] magic = new byte[MAGIC.length];
+            prefix.get(0, magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new AnalysisException(file + " is not a stored pointer analysis result");
+            }
+            int version = prefix.getInt(MAGIC.length);
+            if (version != VERSION) {
+                throw new AnalysisException(String.format(
+                        "Unsupported version of stored result: %d (expected: %d)",
+                        version, VERSION));
+            }
+            int nSections = prefix.getInt(MAGIC.length + 4);
+            ByteBuffer headers = channel.map(FileChannel.MapMode.READ_ONLY,
+                    prefixSize, (long) nSections * SECTION_HEADER_SIZE);
+            Map<Integer, ByteBuffer> sections = Maps.newMap(nSections);
+            for (int i = 0; i < nSections; ++i) {
+                int header = i * SECTION_HEADER_SIZE;
+                int id = headers.getInt(header);
+                long offset = headers.getLong(header + 4);
+                long length = headers.getLong(header + 12);
+                if (length > Integer.MAX_VALUE) {
+                    throw new AnalysisException(String.format(
+                            "Section %d of %s is too large: %d bytes",
+                            id, file, length));
+                }
+                sections.put(id, channel.map(
+                        FileChannel.MapMode.READ_ONLY, offset, length));
+            }
+            return new StoredResult(sections);
+        } catch (IOException e) {
+            throw new AnalysisException("Failed to load stored result from " + file, e);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // queries
+    // ------------------------------------------------------------------------
+
+    /**
+     * @return signatures of reachable methods.
+     */
+    public Stream<String> reachableMethods() {
+        return methods(REACHABLE_METHODS);
+    }
+
+    /**
+     * @return signatures of entry methods.
+     */
+    public Stream<String> entryMethods() {
+        return methods(ENTRY_METHODS);
+    }
+
+    /**
+     * @return names of the variables of given method.
+     */
+    public List<String> getVars(String methodSig) {
+        int m = findMethod(methodSig);
+        if (m < 0) {
+            return List.of();
+        }
+        return IntStream.range(varStart(m), varStart(m + 1))
+                .mapToObj(v -> getString(get(VARS, 1 + v)))
+                .toList();
+    }
+
+    /**
+     * @return descriptions of the objects pointed to by given variable.
+     */
+    public List<String> getPointsToSet(String methodSig, String varName) {
+        int v = findVar(methodSig, varName);
+        return v < 0 ? List.of() : getObjects(VARS, nVars, v);
+    }
+
+    /**
+     * @return contexts of given variable and the descriptions of
+     * the context-sensitive objects pointed to by the variable
+     * under each context.
+     */
+    public Map<String, List<String>> getCSPointsToSets(
+            String methodSig, String varName) {
+        Map<String, List<String>> result = Maps.newLinkedHashMap();
+        int v = findVar(methodSig, varName);
+        if (v >= 0) {
+            int n = count(CS_VARS);
+            // CS variables are sorted by (variable, context)
+            for (int i = lowerBound(CS_VARS, 2, 0, n, v); i < n
+                    && get(CS_VARS, 1 + 2 * i) == v; ++i) {
+                String context = getString(get(CS_VARS, 2 + 2 * i));
+                int start = get(CS_VARS, 1 + 2 * n + i);
+                int end = get(CS_VARS, 1 + 2 * n + i + 1);
+                List<String> pts = new ArrayList<>(end - start);
+                for (int j = start; j < end; ++j) {
+                    pts.add(getString(get(CS_OBJS, 1 + get(CS_POOL, 1 + j))));
+                }
+                result.put(context, pts);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return descriptions of the objects pointed to by given static field.
+     */
+    public List<String> getStaticFieldPointsToSet(String fieldSig) {
+        int f = findString(fieldSig);
+        if (f < 0) {
+            return List.of();
+        }
+        int n = count(STATIC_FIELDS);
+        int i = lowerBound(STATIC_FIELDS, 1, 0, n, f);
+        return i < n && get(STATIC_FIELDS, 1 + i) == f ?
+                getObjects(STATIC_FIELDS, n, i) : List.of();
+    }
+
+    /**
+     * @return descriptions of the objects pointed to by given field
+     * of the objects described by {@code baseObj}.
+     */
+    public List<String> getInstanceFieldPointsToSet(String baseObj, String fieldSig) {
+        int f = findString(fieldSig);
+        if (f < 0) {
+            return List.of();
+        }
+        int n = count(INSTANCE_FIELDS);
+        return collectObjects(baseObj, o -> {
+            int i = lowerBound(INSTANCE_FIELDS, 2, 0, n, o);
+            for (; i < n && get(INSTANCE_FIELDS, 1 + 2 * i) == o; ++i) {
+                if (get(INSTANCE_FIELDS, 2 + 2 * i) == f) {
+                    return getObjects(INSTANCE_FIELDS, 2 * n, i);
+                }
+            }
+            return List.of();
+        });
+    }
+
+    /**
+     * @return descriptions of the objects stored in the arrays
+     * described by {@code arrayObj}.
+     */
+    public List<String> getArrayPointsToSet(String arrayObj) {
+        int n = count(ARRAYS);
+        return collectObjects(arrayObj, o -> {
+            int i = lowerBound(ARRAYS, 1, 0, n, o);
+            return i < n && get(ARRAYS, 1 + i) == o ?
+                    getObjects(ARRAYS, n, i) : List.of();
+        });
+    }
+
+    /**
+     * @return type of the object described by {@code obj},
+     * or {@code null} if the object does not exist.
+     */
+    public String getObjectType(String obj) {
+        int s = findString(obj);
+        if (s < 0) {
+            return null;
+        }
+        int o = lowerBound(OBJS, 1, 0, nObjs, s);
+        return o < nObjs && get(OBJS, 1 + o) == s ?
+                getString(get(OBJS, 1 + nObjs + o)) : null;
+    }
+
+    /**
+     * Call edge in stored call graph.
+     */
+    public record CallEdge(String caller, int callSiteIndex, int lineNumber,
+                           String kind, String callee) {
+    }
+
+    /**
+     * @return call edges out of the call sites in given method,
+     * sorted by indexes of the call sites.
+     */
+    public List<CallEdge> getCallEdgesOutOf(String methodSig) {
+        int m = findMethod(methodSig);
+        if (m < 0) {
+            return List.of();
+        }
+        int n = count(CALL_EDGES);
+        List<CallEdge> edges = new ArrayList<>();
+        for (int i = lowerBound(CALL_EDGES, CALL_EDGE_SIZE, 0, n, m);
+             i < n && get(CALL_EDGES, 1 + CALL_EDGE_SIZE * i) == m; ++i) {
+            int base = 1 + CALL_EDGE_SIZE * i;
+            edges.add(new CallEdge(methodSig,
+                    get(CALL_EDGES, base + 1),
+                    get(CALL_EDGES, base + 2),
+                    getString(get(CALL_EDGES, base + 3)),
+                    getMethod(get(CALL_EDGES, base + 4))));
+        }
+        return edges;
+    }
+
+    /**
+     * @return number of call edges.
+     */
+    public int getNumberOfCallEdges() {
+        return count(CALL_EDGES);
+    }
+
+    /**
+     * @return number of variables.
+     */
+    public int getNumberOfVars() {
+        return nVars;
+    }
+
+    /**
+     * @return number of (context-insensitive) objects.
+     */
+    public int getNumberOfObjects() {
+        return nObjs;
+    }
+
+    // ------------------------------------------------------------------------
+    // decoding helpers
+    // ------------------------------------------------------------------------
+
+    private int count(int section) {
+        ByteBuffer buffer = sections.get(section);
+        return buffer == null ? 0 : buffer.getInt(0);
+    }
+
+    /**
+     * @return the i-th {@code int} of given section.
+     */
+    private int get(int section, int i) {
+        return sections.get(section).getInt(i * 4);
+    }
+
+    private String getString(int i) {
+        ByteBuffer strings = sections.get(STRINGS);
+        int start = strings.getInt((1 + i) * 4);
+        int end = strings.getInt((2 + i) * 4);
+        byte[] bytes = new byte[end - start];
+        strings.get((nStrings + 2) * 4 + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return index of given string, or -1 if it is absent.
+     */
+    private int findString(String s) {
+        int low = 0, high = nStrings - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = getString(mid).compareTo(s);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the first entry whose first {@code int} is not less than
+     * {@code key} among the entries [from, to) of given section,
+     * where each entry consists of {@code entrySize} {@code int}s.
+     */
+    private int lowerBound(int section, int entrySize, int from, int to, int key) {
+        int low = from, high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (get(section, 1 + entrySize * mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int findMethod(String methodSig) {
+        int s = findString(methodSig);
+        if (s < 0) {
+            return -1;
+        }
+        int m = lowerBound(METHODS, 1, 0, nMethods, s);
+        return m < nMethods && get(METHODS, 1 + m) == s ? m : -1;
+    }
+
+    private String getMethod(int m) {
+        return getString(get(METHODS, 1 + m));
+    }
+
+    private Stream<String> methods(int section) {
+        return IntStream.range(0, count(section))
+                .mapToObj(i -> getMethod(get(section, 1 + i)));
+    }
+
+    private int varStart(int m) {
+        return get(METHODS, 1 + nMethods + m);
+    }
+
+    private int findVar(String methodSig, String varName) {
+        int m = findMethod(methodSig);
+        int name = findString(varName);
+        if (m < 0 || name < 0) {
+            return -1;
+        }
+        // variables of a method are sorted by their names
+        int v = lowerBound(VARS, 1, varStart(m), varStart(m + 1), name);
+        return v < varStart(m + 1) && get(VARS, 1 + v) == name ? v : -1;
+    }
+
+    /**
+     * @param section section whose entries refer to points-to sets in
+     *                {@link StoreFormat#POOL}
+     * @param starts  offset (in {@code int}s, after the count)
+     *                of start indexes in the section
+     * @param i       index of the entry
+     * @return descriptions of the objects in the points-to set of the entry.
+     */
+    private List<String> getObjects(int section, int starts, int i) {
+        int start = get(section, 1 + starts + i);
+        int end = get(section, 1 + starts + i + 1);
+        List<String> objs = new ArrayList<>(end - start);
+        for (int j = start; j < end; ++j) {
+            objs.add(getString(get(OBJS, 1 + get(POOL, 1 + j))));
+        }
+        return objs;
+    }
+
+    /**
+     * Objects with the same description are indistinguishable in
+     * the queries, thus this method merges the results of the objects
+     * described by {@code obj}.
+     */
+    private List<String> collectObjects(
+            String obj, IntFunction<List<String>> query) {
+        int s = findString(obj);
+        if (s < 0) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>();
+        for (int o = lowerBound(OBJS, 1, 0, nObjs, s);
+             o < nObjs && get(OBJS, 1 + o) == s; ++o) {
+            query.apply(o).stream()
+                    .filter(e -> !result.contains(e))
+                    .forEach(result::add);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,466 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.store;
+
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.InstanceField;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.element.StaticField;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+import static pascal.taie.analysis.pta.store.StoreFormat.ARRAYS;
+import static pascal.taie.analysis.pta.store.StoreFormat.CALL_EDGES;
+import static pascal.taie.analysis.pta.store.StoreFormat.CS_OBJS;
+import static pascal.taie.analysis.pta.store.StoreFormat.CS_POOL;
+import static pascal.taie.analysis.pta.store.StoreFormat.CS_VARS;
+import static pascal.taie.analysis.pta.store.StoreFormat.ENTRY_METHODS;
+import static pascal.taie.analysis.pta.store.StoreFormat.INSTANCE_FIELDS;
+import static pascal.taie.analysis.pta.store.StoreFormat.MAGIC;
+import static pascal.taie.analysis.pta.store.StoreFormat.METHODS;
+import static pascal.taie.analysis.pta.store.StoreFormat.OBJS;
+import static pascal.taie.analysis.pta.store.StoreFormat.POOL;
+import static pascal.taie.analysis.pta.store.StoreFormat.REACHABLE_METHODS;
+import static pascal.taie.analysis.pta.store.StoreFormat.SECTION_HEADER_SIZE;
+import static pascal.taie.analysis.pta.store.StoreFormat.STATIC_FIELDS;
+import static pascal.taie.analysis.pta.store.StoreFormat.STRINGS;
+import static pascal.taie.analysis.pta.store.StoreFormat.VARS;
+import static pascal.taie.analysis.pta.store.StoreFormat.VERSION;
+
+/**
+ * Writes pointer analysis results in the format described
+ * in {@link StoreFormat}, which can be read by {@link StoredResult}.
+ */
+public class StoredResultWriter {
+
+    private final PointerAnalysisResult result;
+
+    /**
+     * Maps each string to its index in the (sorted) string table.
+     */
+    private final Map<String, Integer> strings = Maps.newMap();
+
+    private final Map<JMethod, Integer> methods = Maps.newMap();
+
+    private final List<JMethod> methodList;
+
+    private final Map<Var, Integer> vars = Maps.newMap();
+
+    private final List<Var> varList = new ArrayList<>();
+
+    private final Map<Obj, Integer> objs = Maps.newMap();
+
+    private final List<Obj> objList;
+
+    private final Map<CSObj, Integer> csObjs = Maps.newMap();
+
+    private final List<CSObj> csObjList;
+
+    private final List<Section> sections = new ArrayList<>();
+
+    private StoredResultWriter(PointerAnalysisResult result) {
+        this.result = result;
+        CallGraph<Invoke, JMethod> callGraph = result.getCallGraph();
+        // collect and sort elements
+        Set<JMethod> allMethods = Sets.newSet();
+        callGraph.reachableMethods().forEach(allMethods::add);
+        result.getVars().forEach(v -> allMethods.add(v.getMethod()));
+        result.getObjects().forEach(o ->
+                o.getContainerMethod().ifPresent(allMethods::add));
+        methodList = sortAndIndex(allMethods, JMethod::getSignature, methods);
+        objList = sortAndIndex(result.getObjects(), Obj::toString, objs);
+        csObjList = sortAndIndex(result.getCSObjects(), CSObj::toString, csObjs);
+        Map<JMethod, List<Var>> varsOfMethods = Maps.newMap();
+        result.getVars().forEach(v -> varsOfMethods
+                .computeIfAbsent(v.getMethod(), __ -> new ArrayList<>())
+                .add(v));
+        methodList.forEach(m -> varsOfMethods.getOrDefault(m, List.of())
+                .stream()
+                .sorted(Comparator.comparing(Var::getName))
+                .forEach(v -> {
+                    vars.put(v, varList.size());
+                    varList.add(v);
+                }));
+        // build the string table
+        Set<String> allStrings = Sets.newOrderedSet();
+        methodList.forEach(m -> allStrings.add(m.getSignature()));
+        varList.forEach(v -> allStrings.add(v.getName()));
+        objList.forEach(o -> {
+            allStrings.add(o.toString());
+            allStrings.add(o.getType().toString());
+        });
+        csObjList.forEach(o -> allStrings.add(o.toString()));
+        result.getCSVars().forEach(v -> allStrings.add(v.getContext().toString()));
+        result.getStaticFields().forEach(f -> allStrings.add(f.getField().getSignature()));
+        result.getInstanceFields().forEach(f -> allStrings.add(f.getField().getSignature()));
+        callGraph.edges().forEach(e -> allStrings.add(e.getKind().name()));
+        for (String s : allStrings) {
+            strings.put(s, strings.size());
+        }
+    }
+
+    private static <E> List<E> sortAndIndex(
+            Collection<E> elems, Function<E, String> toString,
+            Map<E, Integer> indexes) {
+        List<E> list = new ArrayList<>(elems);
+        list.sort(Comparator.comparing(toString));
+        for (E e : list) {
+            indexes.put(e, indexes.size());
+        }
+        return list;
+    }
+
+    /**
+     * Writes given pointer analysis result to the file.
+     */
+    public static void write(PointerAnalysisResult result, File file)
+            throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            new StoredResultWriter(result).write(out);
+        }
+    }
+
+    private void write(OutputStream out) throws IOException {
+        writeStrings();
+        writeMethods();
+        writeObjects();
+        writeCIPointsToSets();
+        writeCallGraph();
+        writeCSPointsToSets();
+        DataOutputStream dos = new DataOutputStream(out);
+        dos.write(MAGIC);
+        dos.writeInt(VERSION);
+        dos.writeInt(sections.size());
+        long offset = MAGIC.length + 4 + 4 +
+                (long) SECTION_HEADER_SIZE * sections.size();
+        for (Section section : sections) {
+            dos.writeInt(section.id);
+            dos.writeLong(offset);
+            dos.writeLong(section.bytes.length);
+            offset += section.bytes.length;
+        }
+        for (Section section : sections) {
+            dos.write(section.bytes);
+        }
+        dos.flush();
+    }
+
+    private void writeStrings() throws IOException {
+        String[] table = new String[strings.size()];
+        strings.forEach((s, i) -> table[i] = s);
+        List<byte[]> encoded = new ArrayList<>(table.length);
+        for (String s : table) {
+            encoded.add(s.getBytes(StandardCharsets.UTF_8));
+        }
+        SectionWriter w = new SectionWriter(STRINGS);
+        w.writeInt(table.length);
+        int offset = 0;
+        w.writeInt(offset);
+        for (byte[] bytes : encoded) {
+            offset += bytes.length;
+            w.writeInt(offset);
+        }
+        for (byte[] bytes : encoded) {
+            w.out.write(bytes);
+        }
+        w.finish();
+    }
+
+    private void writeMethods() throws IOException {
+        SectionWriter w = new SectionWriter(METHODS);
+        w.writeInt(methodList.size());
+        for (JMethod m : methodList) {
+            w.writeInt(strings.get(m.getSignature()));
+        }
+        // variables of each method are contiguous in varList
+        int start = 0;
+        w.writeInt(start);
+        Map<JMethod, Integer> varCounts = Maps.newMap();
+        varList.forEach(v -> varCounts.merge(v.getMethod(), 1, Integer::sum));
+        for (JMethod m : methodList) {
+            start += varCounts.getOrDefault(m, 0);
+            w.writeInt(start);
+        }
+        w.finish();
+        w = new SectionWriter(REACHABLE_METHODS);
+        writeMethodIds(w, result.getCallGraph().reachableMethods());
+        w.finish();
+        w = new SectionWriter(ENTRY_METHODS);
+        writeMethodIds(w, result.getCallGraph().entryMethods());
+        w.finish();
+    }
+
+    private void writeMethodIds(SectionWriter w, Stream<JMethod> methods)
+            throws IOException {
+        int[] ids = methods.mapToInt(this.methods::get).sorted().toArray();
+        w.writeInt(ids.length);
+        for (int id : ids) {
+            w.writeInt(id);
+        }
+    }
+
+    private void writeObjects() throws IOException {
+        SectionWriter w = new SectionWriter(OBJS);
+        w.writeInt(objList.size());
+        for (Obj o : objList) {
+            w.writeInt(strings.get(o.toString()));
+        }
+        for (Obj o : objList) {
+            w.writeInt(strings.get(o.getType().toString()));
+        }
+        w.finish();
+        w = new SectionWriter(CS_OBJS);
+        w.writeInt(csObjList.size());
+        for (CSObj o : csObjList) {
+            w.writeInt(strings.get(o.toString()));
+        }
+        w.finish();
+    }
+
+    private void writeCIPointsToSets() throws IOException {
+        Pool pool = new Pool(POOL);
+        // variables
+        SectionWriter w = new SectionWriter(VARS);
+        w.writeInt(varList.size());
+        for (Var v : varList) {
+            w.writeInt(strings.get(v.getName()));
+        }
+        List<int[]> varPts = new ArrayList<>(varList.size());
+        for (Var v : varList) {
+            varPts.add(toIds(result.getPointsToSet(v), objs::get));
+        }
+        pool.writeStarts(w, varPts);
+        w.finish();
+        // static fields
+        Map<Integer, int[]> staticFields = Maps.newOrderedMap();
+        for (StaticField f : result.getStaticFields()) {
+            staticFields.put(strings.get(f.getField().getSignature()),
+                    toCIIds(f));
+        }
+        w = new SectionWriter(STATIC_FIELDS);
+        w.writeInt(staticFields.size());
+        for (int field : staticFields.keySet()) {
+            w.writeInt(field);
+        }
+        pool.writeStarts(w, staticFields.values());
+        w.finish();
+        // instance fields, whose points-to sets are merged by
+        // the context-insensitive (base object, field) pairs
+        Map<Long, Set<Integer>> instanceFields = Maps.newOrderedMap();
+        for (InstanceField f : result.getInstanceFields()) {
+            long key = ((long) objs.get(f.getBase().getObject()) << 32) |
+                    strings.get(f.getField().getSignature());
+            Set<Integer> pts = instanceFields.computeIfAbsent(key, __ -> Sets.newOrderedSet());
+            f.getObjects().forEach(o -> pts.add(objs.get(o.getObject())));
+        }
+        w = new SectionWriter(INSTANCE_FIELDS);
+        w.writeInt(instanceFields.size());
+        for (long key : instanceFields.keySet()) {
+            w.writeInt((int) (key >>> 32));
+            w.writeInt((int) key);
+        }
+        pool.writeStarts(w, instanceFields.values()
+                .stream()
+                .map(pts -> pts.stream().mapToInt(Integer::intValue).toArray())
+                .toList());
+        w.finish();
+        // array indexes
+        Map<Integer, Set<Integer>> arrays = Maps.newOrderedMap();
+        for (ArrayIndex a : result.getArrayIndexes()) {
+            Set<Integer> pts = arrays.computeIfAbsent(
+                    objs.get(a.getArray().getObject()), __ -> Sets.newOrderedSet());
+            a.getObjects().forEach(o -> pts.add(objs.get(o.getObject())));
+        }
+        w = new SectionWriter(ARRAYS);
+        w.writeInt(arrays.size());
+        for (int array : arrays.keySet()) {
+            w.writeInt(array);
+        }
+        pool.writeStarts(w, arrays.values()
+                .stream()
+                .map(pts -> pts.stream().mapToInt(Integer::intValue).toArray())
+                .toList());
+        w.finish();
+        pool.finish();
+    }
+
+    private void writeCallGraph() throws IOException {
+        List<int[]> edges = new ArrayList<>();
+        CallGraph<Invoke, JMethod> callGraph = result.getCallGraph();
+        callGraph.edges().forEach(e -> edges.add(toEdge(e)));
+        edges.sort(Arrays::compare);
+        SectionWriter w = new SectionWriter(CALL_EDGES);
+        w.writeInt(edges.size());
+        for (int[] edge : edges) {
+            for (int i : edge) {
+                w.writeInt(i);
+            }
+        }
+        w.finish();
+    }
+
+    private int[] toEdge(Edge<Invoke, JMethod> edge) {
+        Invoke callSite = edge.getCallSite();
+        return new int[]{
+                methods.get(callSite.getContainer()),
+                callSite.getIndex(),
+                callSite.getLineNumber(),
+                strings.get(edge.getKind().name()),
+                methods.get(edge.getCallee()),
+        };
+    }
+
+    private void writeCSPointsToSets() throws IOException {
+        List<CSVar> csVars = new ArrayList<>(result.getCSVars());
+        List<int[]> keys = new ArrayList<>(csVars.size());
+        for (CSVar v : csVars) {
+            keys.add(new int[]{
+                    vars.get(v.getVar()),
+                    strings.get(v.getContext().toString()),
+            });
+        }
+        Integer[] order = new Integer[csVars.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, (i1, i2) -> Arrays.compare(keys.get(i1), keys.get(i2)));
+        SectionWriter w = new SectionWriter(CS_VARS);
+        w.writeInt(order.length);
+        List<int[]> ptsList = new ArrayList<>(order.length);
+        for (int i : order) {
+            w.writeInt(keys.get(i)[0]);
+            w.writeInt(keys.get(i)[1]);
+            ptsList.add(toIds(csVars.get(i).getObjects(), csObjs::get));
+        }
+        Pool pool = new Pool(CS_POOL);
+        pool.writeStarts(w, ptsList);
+        w.finish();
+        pool.finish();
+    }
+
+    private int[] toCIIds(Pointer pointer) {
+        return pointer.objects()
+                .mapToInt(o -> objs.get(o.getObject()))
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    private static <E> int[] toIds(Collection<E> elems, ToIntFunction<E> toId) {
+        return elems.stream().mapToInt(toId).sorted().toArray();
+    }
+
+    private record Section(int id, byte[] bytes) {
+    }
+
+    /**
+     * Writes the content of a section.
+     */
+    private class SectionWriter {
+
+        private final int id;
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        private SectionWriter(int id) {
+            this.id = id;
+        }
+
+        private void writeInt(int i) throws IOException {
+            out.writeInt(i);
+        }
+
+        private void finish() throws IOException {
+            out.flush();
+            sections.add(new Section(id, bytes.toByteArray()));
+        }
+    }
+
+    /**
+     * Section which stores the contents of points-to sets contiguously.
+     */
+    private class Pool {
+
+        private final SectionWriter content;
+
+        private final ByteArrayOutputStream elems = new ByteArrayOutputStream();
+
+        private final DataOutputStream out = new DataOutputStream(elems);
+
+        private int size;
+
+        private Pool(int id) {
+            this.content = new SectionWriter(id);
+        }
+
+        /**
+         * Appends given points-to sets to this pool, and writes their
+         * start indexes in the pool to {@code w}.
+         */
+        private void writeStarts(SectionWriter w, Collection<int[]> ptsList)
+                throws IOException {
+            w.writeInt(size);
+            for (int[] pts : ptsList) {
+                for (int i : pts) {
+                    out.writeInt(i);
+                }
+                size += pts.length;
+                w.writeInt(size);
+            }
+        }
+
+        private void finish() throws IOException {
+            out.flush();
+            content.writeInt(size);
+            content.out.write(elems.toByteArray());
+            content.finish();
+        }
+    }
+}
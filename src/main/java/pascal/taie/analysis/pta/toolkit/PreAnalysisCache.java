@@ -0,0 +1,285 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.frontend.cache.CachedWorldBuilder;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Caches the results of the advanced analyses which are computed from
+ * the context-insensitive pre-analysis, i.e., the precision-critical
+ * methods selected by Zipper, the context sensitivity variants selected
+ * by Scaler, and the allocation sites merged by Mahjong, so that
+ * repeated runs on the same program skip the pre-analysis entirely.
+ * <p>
+ * The cache files are stored in the {@code cache} folder, and are keyed
+ * by the hash of the analyzed program, the advanced analysis argument
+ * and the options of pointer analysis. Methods and allocation sites are
+ * stored by their signatures (and indexes), and if any of them cannot be
+ * found in the current world, the cache is treated as a miss.
+ */
+public class PreAnalysisCache {
+
+    private static final Logger logger = LogManager.getLogger(PreAnalysisCache.class);
+
+    private static final String CACHE_DIR = "cache";
+
+    private static final char SEP = '\t';
+
+    private final File cacheFile;
+
+    public PreAnalysisCache(AnalysisOptions options, String advanced) {
+        this(options, advanced, new File(CACHE_DIR));
+    }
+
+    /**
+     * @param cacheDir the directory where the cache file is stored.
+     */
+    public PreAnalysisCache(AnalysisOptions options, String advanced,
+                            File cacheDir) {
+        cacheFile = new File(cacheDir,
+                "pre-analysis-" + getKey(options, advanced) + ".txt")
+                .getAbsoluteFile();
+    }
+
+    /**
+     * @return the cached precision-critical methods,
+     * or {@code null} if the cache misses.
+     */
+    @Nullable
+    public Set<JMethod> loadMethods() {
+        List<String> lines = readLines();
+        if (lines == null) {
+            return null;
+        }
+        Set<JMethod> methods = Sets.newSet(lines.size());
+        for (String line : lines) {
+            JMethod method = getMethod(line);
+            if (method == null) {
+                return miss(line);
+            }
+            methods.add(method);
+        }
+        return hit(methods);
+    }
+
+    public void storeMethods(Set<JMethod> methods) {
+        writeLines(methods.stream()
+                .map(JMethod::getSignature)
+                .sorted()
+                .toList());
+    }
+
+    /**
+     * @return the cached context sensitivity variants of methods,
+     * or {@code null} if the cache misses.
+     */
+    @Nullable
+    public Map<JMethod, String> loadContextVariants() {
+        List<String> lines = readLines();
+        if (lines == null) {
+            return null;
+        }
+        Map<JMethod, String> csMap = Maps.newMap(lines.size());
+        for (String line : lines) {
+            int i = line.indexOf(SEP);
+            JMethod method = i > 0 ? getMethod(line.substring(i + 1)) : null;
+            if (method == null) {
+                return miss(line);
+            }
+            csMap.put(method, line.substring(0, i));
+        }
+        return hit(csMap);
+    }
+
+    public void storeContextVariants(Map<JMethod, String> csMap) {
+        writeLines(csMap.entrySet()
+                .stream()
+                .map(e -> e.getValue() + SEP + e.getKey().getSignature())
+                .sorted()
+                .toList());
+    }
+
+    /**
+     * @return the cached groups of merged allocation sites,
+     * or {@code null} if the cache misses.
+     */
+    @Nullable
+    public List<Set<New>> loadSiteGroups() {
+        List<String> lines = readLines();
+        if (lines == null) {
+            return null;
+        }
+        List<Set<New>> groups = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            // each line is a group, and each site is stored as
+            // index of the New statement followed by its container method
+            String[] items = line.split(String.valueOf(SEP));
+            Set<New> group = Sets.newSet(items.length / 2);
+            for (int i = 0; i + 1 < items.length; i += 2) {
+                New site = getNew(items[i], items[i + 1]);
+                if (site == null) {
+                    return miss(line);
+                }
+                group.add(site);
+            }
+            if (group.isEmpty()) {
+                return miss(line);
+            }
+            groups.add(group);
+        }
+        return hit(groups);
+    }
+
+    public void storeSiteGroups(Collection<? extends Collection<New>> groups) {
+        writeLines(groups.stream()
+                .map(group -> {
+                    StringBuilder sb = new StringBuilder();
+                    group.stream()
+                            .sorted(Comparator.comparing((New site) ->
+                                            site.getContainer().getSignature())
+                                    .thenComparingInt(Stmt::getIndex))
+                            .forEach(site -> {
+                                if (!sb.isEmpty()) {
+                                    sb.append(SEP);
+                                }
+                                sb.append(site.getIndex()).append(SEP)
+                                        .append(site.getContainer().getSignature());
+                            });
+                    return sb.toString();
+                })
+                .sorted()
+                .toList());
+    }
+
+    @Nullable
+    private static JMethod getMethod(String signature) {
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        try {
+            return hierarchy.getMethod(signature);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static New getNew(String index, String signature) {
+        JMethod method = getMethod(signature);
+        if (method == null || method.isAbstract() || method.isNative()) {
+            return null;
+        }
+        try {
+            Stmt stmt = method.getIR().getStmt(Integer.parseInt(index));
+            return stmt instanceof New newStmt ? newStmt : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private List<String> readLines() {
+        if (!cacheFile.exists()) {
+            return null;
+        }
+        try {
+            return Files.readAllLines(cacheFile.toPath(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Failed to read pre-analysis cache {}: {}",
+                    cacheFile, e.toString());
+            return null;
+        }
+    }
+
+    private void writeLines(List<String> lines) {
+        File dir = cacheFile.getParentFile();
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+        try (PrintStream out = new PrintStream(cacheFile, StandardCharsets.UTF_8)) {
+            lines.forEach(out::println);
+            logger.info("Pre-analysis result is cached to {}", cacheFile);
+        } catch (IOException e) {
+            logger.warn("Failed to write pre-analysis cache {}: {}",
+                    cacheFile, e.toString());
+        }
+    }
+
+    private <R> R hit(R result) {
+        logger.info("Loaded pre-analysis result from {}," +
+                " pre-analysis is skipped", cacheFile);
+        return result;
+    }
+
+    private <R> R miss(String line) {
+        logger.warn("Pre-analysis cache {} is stale ({}), ignored",
+                cacheFile, line);
+        return null;
+    }
+
+    /**
+     * @return the key of cache, which is a digest of the program hash,
+     * the advanced analysis argument and the options of pointer analysis.
+     */
+    private static String getKey(AnalysisOptions options, String advanced) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // the program hash is memoized per Options, thus it is
+            // computed at most once for the world
+            String program = CachedWorldBuilder.getProgramHash(
+                    World.get().getOptions());
+            for (String s : List.of(program, advanced, options.toSortedString())) {
+                digest.update(s.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new AnalysisException("Failed to compute pre-analysis cache key", e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.mahjong;
+
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Computes signatures of DFAs, which are hashes of their canonical forms.
+ * <p>
+ * A DFA is canonicalized by minimizing it with Moore's partition
+ * refinement (where states are distinguished by their outputs, and the
+ * dead state is distinguished from all other states), and then numbering
+ * the blocks of the minimized DFA in breadth-first order from the start
+ * block, following the out edges in the order of field names. Equivalent
+ * DFAs have the same canonical form, and thus the same signature, so that
+ * DFAs with different signatures need not be checked for equivalence.
+ * DFAs with the same signature may still be inequivalent due to hash
+ * collisions, thus they should be checked by {@link DFAEquivChecker}.
+ */
+final class DFASignatures {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Block of the dead state.
+     */
+    private static final int DEAD_BLOCK = -1;
+
+    private static final Comparator<Field> FIELD_ORDER =
+            Comparator.comparing(Field::toString);
+
+    private DFASignatures() {
+    }
+
+    static long compute(DFA dfa) {
+        List<DFAState> states = new ArrayList<>(dfa.getStates());
+        Map<DFAState, Integer> blocks = minimize(dfa, states);
+        // number the blocks in breadth-first order from the start block
+        Map<Integer, DFAState> reprs = Maps.newMap();
+        states.forEach(s -> reprs.putIfAbsent(blocks.get(s), s));
+        Map<Integer, Integer> numbers = Maps.newMap();
+        Queue<Integer> queue = new ArrayDeque<>();
+        int start = blocks.get(dfa.getStartState());
+        numbers.put(start, 0);
+        queue.add(start);
+        long hash = FNV_OFFSET;
+        while (!queue.isEmpty()) {
+            DFAState s = reprs.get(queue.poll());
+            for (Type type : sortedOutput(dfa, s)) {
+                hash = mix(hash, type.getName().hashCode());
+            }
+            hash = mix(hash, -1);
+            for (Field f : sortedFields(dfa, s)) {
+                int next = blocks.get(dfa.nextState(s, f));
+                Integer number = numbers.get(next);
+                if (number == null) {
+                    number = numbers.size();
+                    numbers.put(next, number);
+                    queue.add(next);
+                }
+                hash = mix(hash, f.toString().hashCode());
+                hash = mix(hash, number);
+            }
+            hash = mix(hash, -2);
+        }
+        return hash;
+    }
+
+    /**
+     * Minimizes the DFA by partition refinement.
+     *
+     * @return the map from each state to its block, i.e., the id of the
+     * equivalence class of the state. The map also contains the dead state.
+     */
+    private static Map<DFAState, Integer> minimize(DFA dfa, List<DFAState> states) {
+        Map<DFAState, Integer> blocks = Maps.newMap(states.size() + 1);
+        blocks.put(dfa.getDeadState(), DEAD_BLOCK);
+        // initial partition: states with the same output are in same block
+        Map<Object, Integer> keys = Maps.newMap();
+        for (DFAState s : states) {
+            blocks.put(s, keys.computeIfAbsent(dfa.outputOf(s),
+                    __ -> keys.size()));
+        }
+        int nBlocks = keys.size();
+        while (true) {
+            // refine: states with the same block and the same blocks
+            // of successors along each field remain in the same block
+            Map<Object, Integer> newKeys = Maps.newMap();
+            Map<DFAState, Integer> newBlocks = Maps.newMap(states.size() + 1);
+            newBlocks.put(dfa.getDeadState(), DEAD_BLOCK);
+            for (DFAState s : states) {
+                List<Object> key = new ArrayList<>();
+                key.add(blocks.get(s));
+                for (Field f : sortedFields(dfa, s)) {
+                    key.add(f);
+                    key.add(blocks.get(dfa.nextState(s, f)));
+                }
+                newBlocks.put(s, newKeys.computeIfAbsent(key,
+                        __ -> newKeys.size()));
+            }
+            blocks = newBlocks;
+            if (newKeys.size() == nBlocks) {
+                return blocks;
+            }
+            nBlocks = newKeys.size();
+        }
+    }
+
+    private static List<Field> sortedFields(DFA dfa, DFAState s) {
+        List<Field> fields = new ArrayList<>(dfa.outEdgesOf(s));
+        fields.sort(FIELD_ORDER);
+        return fields;
+    }
+
+    private static List<Type> sortedOutput(DFA dfa, DFAState s) {
+        Set<Type> output = dfa.outputOf(s);
+        List<Type> types = new ArrayList<>(output);
+        types.sort(Comparator.comparing(Type::getName));
+        return types;
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+}
@@ -23,38 +23,76 @@
 package pascal.taie.analysis.pta.toolkit.mahjong;
 
 import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.core.heap.NewObj;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.stmt.New;
 import pascal.taie.language.type.Type;
 import pascal.taie.util.Timer;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
 import pascal.taie.util.collection.UnionFindSet;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public class Mahjong {
 
+    private static final Logger logger = LogManager.getLogger(Mahjong.class);
+
     private static final DFAEquivChecker dfaEqChecker = new DFAEquivChecker();
 
     private DFAFactory dfaFactory;
 
     /**
+     * Signatures of the DFAs of the objects that can be merged.
      * This map may be manipulated by multiple threads simultaneously.
      */
-    private ConcurrentMap<Obj, Boolean> canMerged;
+    private ConcurrentMap<Obj, Long> signatures;
+
+    /**
+     * DFAs of the objects that can be merged. The DFAs are built (and
+     * their states are computed) once when computing the signatures,
+     * and then reused by the equivalence checks.
+     */
+    private ConcurrentMap<Obj, DFA> dfas;
 
     public static HeapModel run(PointerAnalysisResult pta,
                                 AnalysisOptions options) {
-        return new Mahjong().buildHeapModel(pta, options);
+        return makeHeapModel(options, mergeAllocationSites(pta));
+    }
+
+    /**
+     * Computes the allocation sites whose objects can be merged.
+     *
+     * @return groups of allocation sites, and the objects allocated
+     * at the sites in each group should be merged.
+     */
+    public static List<Set<New>> mergeAllocationSites(PointerAnalysisResult pta) {
+        return new Mahjong().computeMergedSites(pta);
     }
 
-    HeapModel buildHeapModel(PointerAnalysisResult pta,
-                             AnalysisOptions options) {
+    /**
+     * @return the heap model which merges the objects allocated at
+     * the sites in each of the given groups.
+     */
+    public static HeapModel makeHeapModel(
+            AnalysisOptions options, Collection<? extends Collection<New>> siteGroups) {
+        return new MahjongHeapModel(options, siteGroups);
+    }
+
+    private List<Set<New>> computeMergedSites(PointerAnalysisResult pta) {
         FieldPointsToGraph fpg = Timer.runAndCount(
                 () -> new FieldPointsToGraph(pta),
                 "Building field points-to graph", Level.INFO);
@@ -63,81 +101,108 @@ public class Mahjong {
         UnionFindSet<Obj> uf = Timer.runAndCount(
                 () -> mergeTypeConsistentObjects(fpg),
                 "Merging type-consistent objects", Level.INFO);
-        // build resulting heap model based on merge map
-        return new MahjongHeapModel(options, uf.getDisjointSets());
+        // currently, perform merging for only NewObj
+        List<Set<New>> siteGroups = new ArrayList<>();
+        for (Set<Obj> objs : uf.getDisjointSets()) {
+            if (objs.size() > 1) {
+                Set<New> sites = Sets.newSet();
+                objs.forEach(obj -> {
+                    if (obj instanceof NewObj newObj) {
+                        sites.add(newObj.getAllocation());
+                    }
+                });
+                if (!sites.isEmpty()) {
+                    siteGroups.add(sites);
+                }
+            }
+        }
+        return siteGroups;
     }
 
     private UnionFindSet<Obj> mergeTypeConsistentObjects(FieldPointsToGraph fpg) {
         Set<Obj> allObjs = fpg.getObjects();
-        canMerged = Maps.newConcurrentMap(allObjs.size());
+        // compute signatures of the DFAs of the objects that can be merged
+        signatures = Maps.newConcurrentMap(allObjs.size());
+        dfas = Maps.newConcurrentMap(allObjs.size());
+        Timer.runAndCount(() -> allObjs.parallelStream().forEach(o -> {
+            DFA dfa = dfaFactory.getDFA(o);
+            if (canBeMerged(dfa)) {
+                signatures.put(o, DFASignatures.compute(dfa));
+                dfas.put(o, dfa);
+            }
+        }), "Computing DFA signatures", Level.INFO);
+        // group the objects that can be merged by their types,
+        // and then by their signatures
+        Map<Type, Map<Long, List<Obj>>> groupedObjs = signatures.keySet()
+                .stream()
+                .sorted(Comparator.comparingInt(Obj::getIndex))
+                .collect(Collectors.groupingBy(Obj::getType,
+                        Collectors.groupingBy(signatures::get,
+                                Maps::newLinkedHashMap, Collectors.toList())));
         UnionFindSet<Obj> uf = new UnionFindSet<>(allObjs);
-        // group the objects by their types
-        Map<Type, Set<Obj>> groupedObjs = allObjs.stream()
-                .collect(Collectors.groupingBy(
-                        Obj::getType, Collectors.toSet()));
-        // compute object merging, and store results in a union-find set
-        groupedObjs.entrySet()
+        AtomicLong checks = new AtomicLong();
+        // compute object merging for each type in parallel, and store
+        // results in a union-find set. Only the objects with the same
+        // signature can be equivalent, and as equivalence is transitive,
+        // each object is only checked against one object of each
+        // equivalence class found so far.
+        Timer.runAndCount(() -> groupedObjs.values()
                 .parallelStream()
-                .forEach(entry -> {
-                    Set<Obj> objs = entry.getValue();
-                    DFAMap dfaMap = new DFAMap();
-                    for (Obj o1 : objs) {
-                        if (canBeMerged(o1, dfaMap)) {
-                            for (Obj o2 : objs) {
-                                if (canBeMerged(o2, dfaMap)) {
-                                    if (o1.getIndex() < o2.getIndex()
-                                            && !uf.isConnected(o1, o2)
-                                            && canBeMerged(o1, o2, dfaMap)) {
-                                        uf.union(o1, o2);
-                                    }
+                .forEach(buckets -> {
+                    for (List<Obj> bucket : buckets.values()) {
+                        List<Obj> reprs = new ArrayList<>();
+                        for (Obj o : bucket) {
+                            boolean merged = false;
+                            for (Obj repr : reprs) {
+                                checks.incrementAndGet();
+                                if (isEquivalent(repr, o)) {
+                                    uf.union(repr, o);
+                                    merged = true;
+                                    break;
                                 }
                             }
+                            if (!merged) {
+                                reprs.add(o);
+                            }
                         }
                     }
-                });
+                }), "Checking DFA equivalence", Level.INFO);
+        long pairs = groupedObjs.values()
+                .stream()
+                .mapToLong(buckets -> {
+                    long n = buckets.values().stream().mapToInt(List::size).sum();
+                    return n * (n - 1) / 2;
+                })
+                .sum();
+        logger.info("{} objects can be merged, {} types, {} signatures," +
+                        " {} equivalence checks (out of {} pairs)",
+                signatures.size(), groupedObjs.size(),
+                groupedObjs.values().stream().mapToInt(Map::size).sum(),
+                checks.get(), pairs);
         return uf;
     }
 
     /**
-     * @return {@code true} if o1 and o2 can be merged.
+     * @return {@code true} if the DFAs of o1 and o2 are equivalent.
      */
-    private boolean canBeMerged(Obj o1, Obj o2, DFAMap dfaMap) {
-        DFA dfa1 = dfaMap.getDFA(o1);
-        DFA dfa2 = dfaMap.getDFA(o2);
-        return dfaEqChecker.isEquivalent(dfa1, dfa2);
+    private boolean isEquivalent(Obj o1, Obj o2) {
+        return dfaEqChecker.isEquivalent(dfas.get(o1), dfas.get(o2));
     }
 
     /**
-     * @return {@code true} if o can be merged with other objects.
+     * @return {@code true} if the object of given DFA can be merged
+     * with other objects.
      */
-    private boolean canBeMerged(Obj o, DFAMap dfaMap) {
-        if (!canMerged.containsKey(o)) {
-            boolean result = true;
-            // Check whether the types of objects pointed (directly/indirectly)
-            // by o are single.
-            DFA dfa = dfaMap.getDFA(o);
-            for (DFAState s : dfa.getStates()) {
-                if (dfa.outputOf(s).size() > 1) {
-                    // o (directly/indirectly) points to objects of multiple types
-                    result = false;
-                    break;
-                }
+    private static boolean canBeMerged(DFA dfa) {
+        // Check whether the types of objects pointed (directly/indirectly)
+        // by the object are single.
+        for (DFAState s : dfa.getStates()) {
+            if (dfa.outputOf(s).size() > 1) {
+                // the object (directly/indirectly) points to objects
+                // of multiple types
+                return false;
             }
-            canMerged.put(o, result);
-        }
-        return canMerged.get(o);
-    }
-
-    /**
-     * During equivalence check, each thread holds a DFAMap which contains
-     * the DFA of the objects of the type.
-     */
-    private class DFAMap {
-
-        private final Map<Obj, DFA> map = Maps.newMap();
-
-        private DFA getDFA(Obj o) {
-            return map.computeIfAbsent(o, dfaFactory::getDFA);
         }
+        return true;
     }
 }
@@ -24,7 +24,6 @@ package pascal.taie.analysis.pta.toolkit.mahjong;
 
 import pascal.taie.analysis.pta.core.heap.AbstractHeapModel;
 import pascal.taie.analysis.pta.core.heap.MergedObj;
-import pascal.taie.analysis.pta.core.heap.NewObj;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.config.AnalysisOptions;
 import pascal.taie.ir.stmt.New;
@@ -35,34 +34,30 @@ import pascal.taie.util.collection.Maps;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 
 class MahjongHeapModel extends AbstractHeapModel {
 
     // currently, perform merging for only NewObj
     private final Map<New, MergedObj> mergeMap;
 
-    MahjongHeapModel(AnalysisOptions options, Collection<Set<Obj>> objGroups) {
+    MahjongHeapModel(AnalysisOptions options,
+                     Collection<? extends Collection<New>> siteGroups) {
         super(options);
-        mergeMap = buildMergeMap(objGroups);
+        mergeMap = buildMergeMap(siteGroups);
     }
 
-    private Map<New, MergedObj> buildMergeMap(Collection<Set<Obj>> objGroups) {
+    private Map<New, MergedObj> buildMergeMap(
+            Collection<? extends Collection<New>> siteGroups) {
         Map<New, MergedObj> mergeMap = Maps.newMap();
-        objGroups.stream()
-                .filter(objs -> objs.size() > 1)
-                .forEach(objs -> {
-                    Type type = CollectionUtils.getOne(objs).getType();
-                    MergedObj mergedObj = add(new MergedObj(type,
-                            "<Mahjong-merged " + type + ">"));
-                    objs.forEach(obj -> {
-                        if (obj instanceof NewObj newObj) {
-                            New allocSite = newObj.getAllocation();
-                            mergeMap.put(allocSite, mergedObj);
-                            mergedObj.addRepresentedObj(getNewObj(allocSite));
-                        }
-                    });
-                });
+        siteGroups.forEach(sites -> {
+            Type type = CollectionUtils.getOne(sites).getRValue().getType();
+            MergedObj mergedObj = add(new MergedObj(type,
+                    "<Mahjong-merged " + type + ">"));
+            sites.forEach(allocSite -> {
+                mergeMap.put(allocSite, mergedObj);
+                mergedObj.addRepresentedObj(getNewObj(allocSite));
+            });
+        });
         return mergeMap;
     }
 
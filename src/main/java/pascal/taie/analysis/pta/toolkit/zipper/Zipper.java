@@ -37,6 +37,7 @@ import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.New;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.Type;
+import pascal.taie.util.AnalysisException;
 import pascal.taie.util.MutableInt;
 import pascal.taie.util.Timer;
 import pascal.taie.util.collection.Maps;
@@ -44,11 +45,18 @@ import pascal.taie.util.collection.Sets;
 
 import javax.annotation.Nullable;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -68,6 +76,12 @@ public class Zipper {
      */
     private final float pv;
 
+    /**
+     * Number of worker threads for building and analyzing
+     * precision-flow graphs.
+     */
+    private final int threads;
+
     private final ObjectAllocationGraph oag;
 
     private final PotentialContextElement pce;
@@ -78,6 +92,8 @@ public class Zipper {
 
     private AtomicInteger totalPFGEdges;
 
+    private AtomicInteger maxPFGNodes;
+
     private Map<Type, Collection<JMethod>> pcmMap;
 
     private int pcmThreshold;
@@ -88,6 +104,14 @@ public class Zipper {
      * Parses Zipper argument and runs Zipper.
      */
     public static Set<JMethod> run(PointerAnalysisResult pta, String arg) {
+        return run(pta, arg, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Parses Zipper argument and runs Zipper with given number of threads.
+     */
+    public static Set<JMethod> run(PointerAnalysisResult pta, String arg,
+                                   int threads) {
         boolean isExpress;
         float pv;
         if (arg.equals("zipper")) {
@@ -102,14 +126,20 @@ public class Zipper {
         } else {
             throw new IllegalArgumentException("Illegal Zipper argument: " + arg);
         }
-        return new Zipper(pta, isExpress, pv)
+        return new Zipper(pta, isExpress, pv, threads)
                 .selectPrecisionCriticalMethods();
     }
 
     public Zipper(PointerAnalysisResult ptaBase, boolean isExpress, float pv) {
+        this(ptaBase, isExpress, pv, Runtime.getRuntime().availableProcessors());
+    }
+
+    public Zipper(PointerAnalysisResult ptaBase, boolean isExpress, float pv,
+                  int threads) {
         this.pta = new PointerAnalysisResultExImpl(ptaBase, true);
         this.isExpress = isExpress;
         this.pv = pv;
+        this.threads = threads;
         this.oag = Timer.runAndCount(() -> new ObjectAllocationGraph(pta),
                 "Building OAG", Level.INFO);
         this.pce = Timer.runAndCount(() -> new PotentialContextElement(pta, oag),
@@ -127,6 +157,7 @@ public class Zipper {
     public Set<JMethod> selectPrecisionCriticalMethods() {
         totalPFGNodes = new AtomicInteger(0);
         totalPFGEdges = new AtomicInteger(0);
+        maxPFGNodes = new AtomicInteger(0);
         pcmMap = Maps.newConcurrentMap(1024);
 
         // prepare information for Zipper-e
@@ -148,11 +179,12 @@ public class Zipper {
 
         // build and analyze precision-flow graphs
         Set<Type> types = pta.getObjectTypes();
-        Timer.runAndCount(() -> types.parallelStream().forEach(this::analyze),
+        Timer.runAndCount(() -> analyzeInParallel(types),
                 "Building and analyzing PFG", Level.INFO);
         logger.info("#types: {}", types.size());
         logger.info("#avg. nodes in PFG: {}", totalPFGNodes.get() / types.size());
         logger.info("#avg. edges in PFG: {}", totalPFGEdges.get() / types.size());
+        logger.info("#max. nodes in PFG: {}", maxPFGNodes.get());
 
         // collect all precision-critical methods
         Set<JMethod> pcms = pcmMap.values()
@@ -163,9 +195,46 @@ public class Zipper {
         return pcms;
     }
 
+    /**
+     * Builds and analyzes the precision-flow graphs of given types by
+     * a fixed number of worker threads. Each worker builds and analyzes
+     * one graph at a time and discards it before taking the next type,
+     * so that at most {@link #threads} graphs are alive at the same time.
+     * The types with more objects, whose graphs are usually larger,
+     * are processed first to balance the workload among the workers.
+     */
+    private void analyzeInParallel(Set<Type> types) {
+        List<Type> sortedTypes = types.stream()
+                .sorted(Comparator.comparingInt(
+                        (Type t) -> pta.getObjectsOf(t).size()).reversed())
+                .toList();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "zipper-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(sortedTypes.size());
+            for (Type type : sortedTypes) {
+                futures.add(executor.submit(() -> analyze(type)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnalysisException("Zipper is interrupted", e);
+        } catch (ExecutionException e) {
+            throw new AnalysisException("Zipper failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private void analyze(Type type) {
         PrecisionFlowGraph pfg = new PFGBuilder(pta, ofg, oag, pce, type).build();
         totalPFGNodes.addAndGet(pfg.getNumberOfNodes());
+        maxPFGNodes.accumulateAndGet(pfg.getNumberOfNodes(), Math::max);
         totalPFGEdges.addAndGet(pfg.getNodes()
                 .stream()
                 .mapToInt(pfg::getOutDegreeOf)
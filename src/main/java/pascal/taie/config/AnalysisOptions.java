@@ -27,6 +27,7 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import pascal.taie.util.collection.Maps;
 
 import java.io.IOException;
 import java.util.Collections;
@@ -123,6 +124,17 @@ public class AnalysisOptions {
         return "AnalysisOptions" + options;
     }
 
+    /**
+     * @return a string representation of the options whose keys are
+     * sorted, which, unlike {@link #toString()}, does not depend on
+     * the order in which the options were given.
+     */
+    public String toSortedString() {
+        Map<String, Object> sorted = Maps.newOrderedMap();
+        sorted.putAll(options);
+        return "AnalysisOptions" + sorted;
+    }
+
     /**
      * Serializer for AnalysisOptions, which serializes each AnalysisOptions
      * object as a map.
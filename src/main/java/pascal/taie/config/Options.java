@@ -211,6 +211,17 @@ public class Options implements Serializable {
         return preBuildIR;
     }
 
+    @JsonProperty
+    @Option(names = "--lazy-class-loading",
+            description = "Build non-application classes on demand when" +
+                    " they are first requested (default: ${DEFAULT-VALUE})",
+            defaultValue = "false")
+    private boolean lazyClassLoading;
+
+    public boolean isLazyClassLoading() {
+        return lazyClassLoading;
+    }
+
     @JsonProperty
     @Option(names = {"-wc", "--world-cache-mode"},
             description = "Enable world cache mode to save build time"
@@ -233,6 +244,30 @@ public class Options implements Serializable {
         return scope;
     }
 
+    @JsonProperty
+    @Option(names = "--analysis-threads",
+            description = "Number of worker threads for method/class analyses," +
+                    " non-positive value means the number of available processors" +
+                    " (default: ${DEFAULT-VALUE})",
+            defaultValue = "-1")
+    private int analysisThreads;
+
+    public int getAnalysisThreads() {
+        return analysisThreads;
+    }
+
+    @JsonProperty
+    @Option(names = "--plan-threads",
+            description = "Number of analyses in the plan that can run concurrently," +
+                    " non-positive value means the number of available processors" +
+                    " (default: ${DEFAULT-VALUE})",
+            defaultValue = "1")
+    private int planThreads;
+
+    public int getPlanThreads() {
+        return planThreads;
+    }
+
     @JsonProperty
     @Option(names = "--no-native-model",
             description = "Enable native model (default: ${DEFAULT-VALUE})",
@@ -315,6 +350,18 @@ public class Options implements Serializable {
             throw new ConfigException("Conflict options: " +
                     "--analysis and --plan-file should not be used simultaneously");
         }
+        if (options.lazyClassLoading && options.worldCacheMode) {
+            // the cached world cannot load classes that were not built
+            // before it was written to the disk
+            throw new ConfigException("Conflict options: " +
+                    "--lazy-class-loading and --world-cache-mode should not be used simultaneously");
+        }
+        if (options.lazyClassLoading && options.scope == Scope.ALL) {
+            // the class hierarchy only contains the classes built so far,
+            // thus the class and method analyses would miss other classes
+            throw new ConfigException("Conflict options: " +
+                    "--lazy-class-loading and --scope ALL should not be used simultaneously");
+        }
         if (options.getClassPath() != null
                 && options.mainClass == null
                 && options.inputClasses.isEmpty()
@@ -509,8 +556,11 @@ public class Options implements Serializable {
                 ", worldBuilderClass=" + worldBuilderClass +
                 ", outputDir='" + outputDir + '\'' +
                 ", preBuildIR=" + preBuildIR +
+                ", lazyClassLoading=" + lazyClassLoading +
                 ", worldCacheMode=" + worldCacheMode +
                 ", scope=" + scope +
+                ", analysisThreads=" + analysisThreads +
+                ", planThreads=" + planThreads +
                 ", nativeModel=" + nativeModel +
                 ", planFile=" + planFile +
                 ", analyses=" + analyses +
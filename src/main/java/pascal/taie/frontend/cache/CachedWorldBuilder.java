@@ -28,6 +28,7 @@ import pascal.taie.World;
 import pascal.taie.WorldBuilder;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.Options;
+import pascal.taie.util.AnalysisException;
 import pascal.taie.util.Timer;
 
 import java.io.BufferedInputStream;
@@ -35,14 +36,31 @@ import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.stream.Stream;
 
 /**
  * A {@link WorldBuilder} that loads the cached world if it exists, or delegates to the
  * underlying {@link WorldBuilder} otherwise.
+ * <p>
+ * The world cache consists of two files: the world without IR (serialized
+ * by Java serialization), and the IR of all methods, which is memory-mapped
+ * and loaded lazily by {@link MappedIRBuilder}. The cache files are keyed
+ * by a digest of the contents of the class paths.
  */
 public class CachedWorldBuilder implements WorldBuilder {
 
@@ -50,6 +68,18 @@ public class CachedWorldBuilder implements WorldBuilder {
 
     private static final String CACHE_DIR = "cache";
 
+    private static final String WORLD_SUFFIX = ".bin";
+
+    private static final String IR_SUFFIX = ".ir";
+
+    /**
+     * Memorized program hashes of the options. Computing a hash reads
+     * all files in the class paths, thus it is computed once for
+     * each options object.
+     */
+    private static final Map<Options, String> programHashes =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
     private final WorldBuilder delegate;
 
     public CachedWorldBuilder(WorldBuilder delegate) {
@@ -64,27 +94,29 @@ public class CachedWorldBuilder implements WorldBuilder {
                     + " but world cache mode option is not enabled");
             System.exit(-1);
         }
-        File worldCacheFile = getWorldCacheFile(options);
-        if (loadCache(options, worldCacheFile)) {
+        String key = getProgramHash(options);
+        File worldCacheFile = getCacheFile(key, WORLD_SUFFIX);
+        File irCacheFile = getCacheFile(key, IR_SUFFIX);
+        if (loadCache(options, worldCacheFile, irCacheFile)) {
             return;
         }
         runWorldBuilder(options, analyses);
-        saveCache(worldCacheFile);
+        saveCache(worldCacheFile, irCacheFile);
     }
 
-    private boolean loadCache(Options options, File worldCacheFile) {
-        if (!worldCacheFile.exists()) {
+    private boolean loadCache(Options options, File worldCacheFile,
+                              File irCacheFile) {
+        if (!worldCacheFile.exists() || !irCacheFile.exists()) {
             logger.info("World cache not found in {}", worldCacheFile);
             return false;
         }
         logger.info("Loading the world cache from {}", worldCacheFile);
         Timer timer = new Timer("Load the world cache");
         timer.start();
-        ObjectInputStream ois = null;
-        try {
-            ois = new ObjectInputStream(
-                    new BufferedInputStream(new FileInputStream(worldCacheFile)));
+        try (ObjectInputStream ois = new ObjectInputStream(
+                new BufferedInputStream(new FileInputStream(worldCacheFile)))) {
             World world = (World) ois.readObject();
+            world.setIRBuilder(new MappedIRBuilder(irCacheFile));
             World.set(world);
             world.setOptions(options);
             return true;
@@ -92,13 +124,6 @@ public class CachedWorldBuilder implements WorldBuilder {
             logger.error("Failed to load world cache from {} due to {}",
                     worldCacheFile, e);
         } finally {
-            if (ois != null) {
-                try {
-                    ois.close();
-                } catch (Exception e) {
-                    logger.error("Failed to close input stream", e);
-                }
-            }
             timer.stop();
             logger.info(timer);
         }
@@ -114,62 +139,110 @@ public class CachedWorldBuilder implements WorldBuilder {
         logger.info(timer);
     }
 
-    private void saveCache(File worldCacheFile) {
+    private void saveCache(File worldCacheFile, File irCacheFile) {
         logger.info("Saving the world cache to {}", worldCacheFile);
         Timer timer = new Timer("Save the world cache");
         timer.start();
-        ObjectOutputStream oos = null;
+        World world = World.get();
         try {
-            oos = new ObjectOutputStream(
-                    new BufferedOutputStream(new FileOutputStream(worldCacheFile)));
-            oos.writeObject(World.get());
-            oos.close();
+            // the IR of methods is not serialized with the world,
+            // but stored separately to be loaded lazily
+            world.getIRBuilder().buildAll(world.getClassHierarchy());
+            MappedIRBuilder.write(world.getClassHierarchy(), irCacheFile);
+            try (ObjectOutputStream oos = new ObjectOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(worldCacheFile)))) {
+                oos.writeObject(world);
+            }
         } catch (Exception e) {
-            logger.error("Failed to save world cache from {} due to {}",
+            logger.error("Failed to save world cache to {} due to {}",
                     worldCacheFile, e);
+            // avoid leaving incomplete cache
+            worldCacheFile.delete();
+            irCacheFile.delete();
         } finally {
-            if (oos != null) {
-                try {
-                    oos.close();
-                } catch (Exception e) {
-                    logger.error("Failed to close output stream", e);
-                }
-            }
             timer.stop();
             logger.info(timer);
         }
     }
 
     public static File getWorldCacheFile(Options options) {
+        return getCacheFile(getProgramHash(options), WORLD_SUFFIX);
+    }
+
+    public static File getIRCacheFile(Options options) {
+        return getCacheFile(getProgramHash(options), IR_SUFFIX);
+    }
+
+    private static File getCacheFile(String key, String suffix) {
         File cacheDir = new File(CACHE_DIR);
         if (!cacheDir.exists()) {
             cacheDir.mkdirs();
         }
-        return new File(cacheDir,
-                "world-cache-" + getWorldCacheHash(options) + ".bin").getAbsoluteFile();
+        return new File(cacheDir, "world-cache-" + key + suffix).getAbsoluteFile();
+    }
+
+    /**
+     * Computes the hash of the analyzed program, which is a digest of the
+     * options that affect world building and the contents of the class paths,
+     * so that any change of the analyzed program changes the hash.
+     * The hash is used as the key of world cache.
+     * The hash is computed once for each options object.
+     */
+    public static String getProgramHash(Options options) {
+        return programHashes.computeIfAbsent(options,
+                CachedWorldBuilder::computeProgramHash);
+    }
+
+    private static String computeProgramHash(Options options) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, String.valueOf(options.getMainClass()));
+            update(digest, String.valueOf(options.getInputClasses()));
+            update(digest, String.valueOf(options.getJavaVersion()));
+            update(digest, String.valueOf(options.isPrependJVM()));
+            update(digest, String.valueOf(options.isAllowPhantom()));
+            update(digest, options.getWorldBuilderClass() != null
+                    ? options.getWorldBuilderClass().getName() : "");
+            List<String> paths = new ArrayList<>();
+            paths.addAll(options.getClassPath());
+            paths.addAll(options.getAppClassPath());
+            for (String path : paths) {
+                update(digest, path);
+                Path root = Path.of(path);
+                if (Files.isRegularFile(root)) {
+                    updateFile(digest, root);
+                } else if (Files.isDirectory(root)) {
+                    List<Path> files;
+                    try (Stream<Path> stream = Files.walk(root)) {
+                        files = stream.filter(Files::isRegularFile)
+                                .sorted()
+                                .toList();
+                    }
+                    for (Path file : files) {
+                        update(digest, root.relativize(file).toString());
+                        updateFile(digest, file);
+                    }
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new AnalysisException("Failed to compute program hash", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String s) {
+        digest.update(s.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
     }
 
-    private static int getWorldCacheHash(Options options) {
-        int result = options.getMainClass() != null
-                ? options.getMainClass().hashCode() : 0;
-        result = 31 * result + (options.getInputClasses() != null
-                ? options.getInputClasses().hashCode() : 0);
-        result = 31 * result + options.getJavaVersion();
-        result = 31 * result + (options.isPrependJVM() ? 1 : 0);
-        result = 31 * result + (options.isAllowPhantom() ? 1 : 0);
-        result = 31 * result + (options.getWorldBuilderClass() != null
-                ? options.getWorldBuilderClass().getName().hashCode() : 0);
-        // add the timestamp to the cache key calculation
-        List<String> paths = new ArrayList<>();
-        paths.addAll(options.getClassPath());
-        paths.addAll(options.getAppClassPath());
-        for (String path : paths) {
-            File file = new File(path);
-            if (file.exists()) {
-                result = 31 * result + (int) file.lastModified();
+    private static void updateFile(MessageDigest digest, Path file)
+            throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, n);
             }
         }
-        result = Math.abs(result);
-        return result;
     }
 }
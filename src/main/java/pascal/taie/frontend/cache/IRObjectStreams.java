@@ -0,0 +1,213 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import pascal.taie.World;
+import pascal.taie.ir.proginfo.FieldRef;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JClassLoader;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.Subsignature;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.Type;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Object streams for serializing the IR of each method separately.
+ * <p>
+ * The IR refers to the objects of the world, e.g., classes, methods,
+ * fields and types. Serializing them with each IR would duplicate them
+ * and break their identities, thus {@link Output} replaces them by symbolic
+ * handles, and {@link Input} resolves the handles to the objects of
+ * the current world. The internally-canonicalized objects (e.g.,
+ * {@link MethodRef}) are also re-canonicalized in this way.
+ */
+final class IRObjectStreams {
+
+    private IRObjectStreams() {
+    }
+
+    static class Output extends ObjectOutputStream {
+
+        private final ClassHierarchy hierarchy = World.get().getClassHierarchy();
+
+        /**
+         * Caches whether the world objects can be resolved from their
+         * handles. This cache is shared among the streams of all methods.
+         */
+        private final Map<Object, Boolean> resolvable;
+
+        Output(OutputStream out, Map<Object, Boolean> resolvable)
+                throws IOException {
+            super(out);
+            this.resolvable = resolvable;
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) {
+            if (obj instanceof JClass c) {
+                return isResolvable(c, () -> hierarchy.getClass(c.getName())) ?
+                        new ClassHandle(c.getName()) : c;
+            } else if (obj instanceof JMethod m) {
+                return isResolvable(m, () -> hierarchy.getMethod(m.getSignature())) ?
+                        new MethodHandle(m.getSignature()) : m;
+            } else if (obj instanceof JField f) {
+                return isResolvable(f, () -> hierarchy.getField(f.getSignature())) ?
+                        new FieldHandle(f.getSignature()) : f;
+            } else if (obj instanceof ClassType || obj instanceof ArrayType) {
+                Type t = (Type) obj;
+                return isResolvable(t, () -> World.get().getTypeSystem().getType(t.getName())) ?
+                        new TypeHandle(t.getName()) : t;
+            } else if (obj instanceof JClassLoader loader) {
+                if (loader == hierarchy.getDefaultClassLoader()) {
+                    return new LoaderHandle(false);
+                } else if (loader == hierarchy.getBootstrapClassLoader()) {
+                    return new LoaderHandle(true);
+                }
+            } else if (obj instanceof MethodRef ref) {
+                return new MethodRefHandle(ref.getDeclaringClass(),
+                        ref.getName(), ref.getParameterTypes(),
+                        ref.getReturnType(), ref.isStatic());
+            } else if (obj instanceof FieldRef ref) {
+                return new FieldRefHandle(ref.getDeclaringClass(),
+                        ref.getName(), ref.getType(), ref.isStatic());
+            } else if (obj instanceof Subsignature subsig) {
+                return new SubsignatureHandle(subsig.toString());
+            }
+            return obj;
+        }
+
+        private boolean isResolvable(Object obj,
+                                     Supplier<Object> resolver) {
+            return resolvable.computeIfAbsent(obj, __ -> {
+                try {
+                    return resolver.get() == obj;
+                } catch (RuntimeException e) {
+                    return false;
+                }
+            });
+        }
+    }
+
+    static class Input extends ObjectInputStream {
+
+        Input(InputStream in) throws IOException {
+            super(in);
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Object resolveObject(Object obj) {
+            return obj instanceof Handle handle ? handle.resolve() : obj;
+        }
+    }
+
+    private interface Handle extends Serializable {
+
+        Object resolve();
+    }
+
+    private record ClassHandle(String name) implements Handle {
+
+        @Override
+        public Object resolve() {
+            return World.get().getClassHierarchy().getClass(name);
+        }
+    }
+
+    private record MethodHandle(String signature) implements Handle {
+
+        @Override
+        public Object resolve() {
+            return World.get().getClassHierarchy().getMethod(signature);
+        }
+    }
+
+    private record FieldHandle(String signature) implements Handle {
+
+        @Override
+        public Object resolve() {
+            return World.get().getClassHierarchy().getField(signature);
+        }
+    }
+
+    private record TypeHandle(String name) implements Handle {
+
+        @Override
+        public Object resolve() {
+            return World.get().getTypeSystem().getType(name);
+        }
+    }
+
+    private record LoaderHandle(boolean isBootstrap) implements Handle {
+
+        @Override
+        public Object resolve() {
+            ClassHierarchy hierarchy = World.get().getClassHierarchy();
+            return isBootstrap ? hierarchy.getBootstrapClassLoader()
+                    : hierarchy.getDefaultClassLoader();
+        }
+    }
+
+    private record MethodRefHandle(JClass declaringClass, String name,
+                                   List<Type> parameterTypes, Type returnType,
+                                   boolean isStatic) implements Handle {
+
+        @Override
+        public Object resolve() {
+            return MethodRef.get(declaringClass, name,
+                    parameterTypes, returnType, isStatic);
+        }
+    }
+
+    private record FieldRefHandle(JClass declaringClass, String name,
+                                  Type type, boolean isStatic) implements Handle {
+
+        @Override
+        public Object resolve() {
+            return FieldRef.get(declaringClass, name, type, isStatic);
+        }
+    }
+
+    private record SubsignatureHandle(String subsignature) implements Handle {
+
+        @Override
+        public Object resolve() {
+            return Subsignature.get(subsignature);
+        }
+    }
+}
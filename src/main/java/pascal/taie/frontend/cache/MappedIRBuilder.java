@@ -0,0 +1,278 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import pascal.taie.ir.IR;
+import pascal.taie.ir.IRBuilder;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link IRBuilder} that loads the IR of each method lazily from
+ * an IR cache file written by {@link #write(ClassHierarchy, File)}.
+ * <p>
+ * The IR cache file consists of the IR of each method serialized separately
+ * (by {@link IRObjectStreams}) and an index of them:
+ * <pre>
+ * magic (8 bytes) | version (int) | number of methods (int)
+ * | offset of index (long) | IR of each method
+ * | index: IR offsets (long * (n + 1)) | signature offsets (int * (n + 1))
+ * | UTF-8 bytes of sorted signatures
+ * </pre>
+ * The file is memory-mapped, and the index is searched without being
+ * decoded, thus loading a cache file costs almost nothing, and the methods
+ * whose IR is never requested cost no memory.
+ */
+public class MappedIRBuilder implements IRBuilder {
+
+    private static final byte[] MAGIC = "TAIE-IR\0".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = MAGIC.length + 4 + 4 + 8;
+
+    /**
+     * Size of each mapped chunk of the IR area. The IR of a method is
+     * never split across chunks.
+     */
+    private static final long CHUNK_SIZE = 1L << 30;
+
+    private final File file;
+
+    /**
+     * Mapped chunks of the file before the index.
+     */
+    private final ByteBuffer[] chunks;
+
+    private final ByteBuffer index;
+
+    private final int nMethods;
+
+    public MappedIRBuilder(File file) {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(
+                file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            byte[] magic = new byte[MAGIC.length];
+            header.get(0, magic);
+            if (!Arrays.equals(magic, MAGIC)
+                    || header.getInt(MAGIC.length) != VERSION) {
+                throw new AnalysisException(file + " is not a valid IR cache");
+            }
+            nMethods = header.getInt(MAGIC.length + 4);
+            long indexOffset = header.getLong(MAGIC.length + 8);
+            chunks = new ByteBuffer[(int) ((indexOffset + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+            for (int i = 0; i < chunks.length; ++i) {
+                long start = i * CHUNK_SIZE;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        start, Math.min(CHUNK_SIZE, indexOffset - start));
+            }
+            index = channel.map(FileChannel.MapMode.READ_ONLY,
+                    indexOffset, channel.size() - indexOffset);
+        } catch (IOException e) {
+            throw new AnalysisException("Failed to load IR cache from " + file, e);
+        }
+    }
+
+    @Override
+    public IR buildIR(JMethod method) {
+        int i = find(method.getSignature());
+        if (i < 0) {
+            throw new AnalysisException("IR of " + method + " is not found in " + file);
+        }
+        long start = index.getLong(8 * i);
+        long end = index.getLong(8 * (i + 1));
+        ByteBuffer chunk = chunks[(int) (start / CHUNK_SIZE)];
+        ByteBuffer bytes = chunk.slice((int) (start % CHUNK_SIZE), (int) (end - start));
+        try (IRObjectStreams.Input in = new IRObjectStreams.Input(
+                new ByteBufferInputStream(bytes))) {
+            return (IR) in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new AnalysisException("Failed to load IR of " + method, e);
+        }
+    }
+
+    @Override
+    public void buildAll(ClassHierarchy hierarchy) {
+        getMethods(hierarchy).forEach(JMethod::getIR);
+    }
+
+    /**
+     * @return the index of given signature, or -1 if it is absent.
+     */
+    private int find(String signature) {
+        int low = 0, high = nMethods - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = getSignature(mid).compareTo(signature);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private String getSignature(int i) {
+        int sigOffsets = 8 * (nMethods + 1);
+        int start = index.getInt(sigOffsets + 4 * i);
+        int end = index.getInt(sigOffsets + 4 * (i + 1));
+        byte[] bytes = new byte[end - start];
+        index.get(sigOffsets + 4 * (nMethods + 1) + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the methods whose IR is stored in IR cache.
+     */
+    private static List<JMethod> getMethods(ClassHierarchy hierarchy) {
+        return hierarchy.allClasses()
+                .map(JClass::getDeclaredMethods)
+                .flatMap(Collection::stream)
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .toList();
+    }
+
+    /**
+     * Writes the IR of all methods in given hierarchy to IR cache file.
+     */
+    public static void write(ClassHierarchy hierarchy, File file) throws IOException {
+        List<JMethod> methods = new ArrayList<>(getMethods(hierarchy));
+        methods.sort(Comparator.comparing(JMethod::getSignature));
+        int n = methods.size();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                     new FileOutputStream(raf.getFD())))) {
+            raf.setLength(0);
+            out.write(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(n);
+            out.writeLong(0); // placeholder of index offset
+            // write IRs
+            Map<Object, Boolean> resolvable = Maps.newMap();
+            long[] irOffsets = new long[n + 1];
+            long offset = HEADER_SIZE;
+            for (int i = 0; i < n; ++i) {
+                byte[] ir = serialize(methods.get(i).getIR(), resolvable);
+                if (ir.length > CHUNK_SIZE) {
+                    throw new AnalysisException("IR of " + methods.get(i) + " is too large");
+                }
+                long chunkEnd = (offset / CHUNK_SIZE + 1) * CHUNK_SIZE;
+                if (offset + ir.length > chunkEnd) {
+                    // pad to the next chunk
+                    out.write(new byte[(int) (chunkEnd - offset)]);
+                    offset = chunkEnd;
+                }
+                irOffsets[i] = offset;
+                out.write(ir);
+                offset += ir.length;
+            }
+            irOffsets[n] = offset;
+            // write index
+            for (long irOffset : irOffsets) {
+                out.writeLong(irOffset);
+            }
+            List<byte[]> sigs = methods.stream()
+                    .map(m -> m.getSignature().getBytes(StandardCharsets.UTF_8))
+                    .toList();
+            int sigOffset = 0;
+            out.writeInt(sigOffset);
+            for (byte[] sig : sigs) {
+                sigOffset += sig.length;
+                out.writeInt(sigOffset);
+            }
+            for (byte[] sig : sigs) {
+                out.write(sig);
+            }
+            out.flush();
+            // fill index offset
+            raf.seek(MAGIC.length + 8);
+            raf.writeLong(offset);
+        }
+    }
+
+    private static byte[] serialize(IR ir, Map<Object, Boolean> resolvable)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new IRObjectStreams.Output(bytes, resolvable)) {
+            out.writeObject(ir);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            len = Math.min(len, buffer.remaining());
+            buffer.get(b, off, len);
+            return len;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
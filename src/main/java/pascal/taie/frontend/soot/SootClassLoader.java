@@ -23,14 +23,21 @@
 package pascal.taie.frontend.soot;
 
 import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.ClassNames;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JClassLoader;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
 import soot.Scene;
 import soot.SootClass;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 class SootClassLoader implements JClassLoader {
 
@@ -42,7 +49,25 @@ class SootClassLoader implements JClassLoader {
 
     private transient Converter converter;
 
-    private final Map<String, JClass> classes = Maps.newMap(1024);
+    private final Map<String, JClass> classes = Maps.newConcurrentMap(1024);
+
+    /**
+     * Classes that are being built. They are published to {@link #classes}
+     * after the outermost building finishes, so that other threads never
+     * see partially-built classes.
+     */
+    private final transient Map<String, JClass> building = Maps.newMap();
+
+    private transient int buildingDepth = 0;
+
+    /**
+     * Classes that are being built by {@link #loadClasses(List)}.
+     * It is set only on the threads that build the classes.
+     * It is {@code null} if this loader is restored from a world cache,
+     * where no classes are built.
+     */
+    private final transient ThreadLocal<Map<String, JClass>> batch =
+            new ThreadLocal<>();
 
     SootClassLoader(Scene scene, ClassHierarchy hierarchy, boolean allowPhantom) {
         this.scene = scene;
@@ -53,25 +78,159 @@ class SootClassLoader implements JClassLoader {
     @Override
     public JClass loadClass(String name) {
         JClass jclass = classes.get(name);
-        if (jclass == null && scene != null) {
+        if (jclass == null) {
+            Map<String, JClass> batchClasses = batch != null ? batch.get() : null;
+            if (batchClasses != null) {
+                // the classes referenced by the classes being built
+                // have all been resolved by loadClasses()
+                return batchClasses.get(name);
+            }
+            if (scene != null) {
+                jclass = buildClass(name);
+            }
+        }
+        // TODO: add warning for missing classes
+        return jclass;
+    }
+
+    /**
+     * In lazy class loading mode, most classes in the scene have not been
+     * built yet, thus the names are collected from the scene directly.
+     */
+    @Override
+    public synchronized Set<String> getAvailableNames() {
+        if (scene == null) {
+            return JClassLoader.super.getAvailableNames();
+        }
+        Set<String> names = Sets.newSet(4096);
+        for (SootClass sootClass : scene.getClasses()) {
+            if (sootClass.isPhantom() && !allowPhantom) {
+                continue;
+            }
+            names.add(sootClass.getName());
+            if (sootClass.resolvingLevel() >= SootClass.SIGNATURES) {
+                sootClass.getMethods().forEach(m -> names.add(m.getName()));
+                sootClass.getFields().forEach(f -> names.add(f.getName()));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Builds the class of given name. In lazy class loading mode,
+     * classes may be requested by analyses that run in multiple threads,
+     * thus building is serialized, as neither Soot nor class hierarchy
+     * supports concurrent modification.
+     */
+    private synchronized JClass buildClass(String name) {
+        JClass jclass = classes.get(name);
+        if (jclass == null) {
+            jclass = building.get(name);
+        }
+        if (jclass == null) {
             SootClass sootClass = scene.getSootClassUnsafe(name, false);
             if (sootClass != null && (!sootClass.isPhantom() || allowPhantom)) {
                 // TODO: handle phantom class more comprehensively
                 jclass = new JClass(this, sootClass.getName(),
                         sootClass.moduleName);
-                // New class must be put into classes map at first,
+                // New class must be put into building map at first,
                 // at build(jclass) may also trigger the loading of
-                // the new created class. Not putting the class into classes
+                // the new created class. Not putting the class into building
                 // may cause infinite recursion.
-                classes.put(name, jclass);
-                new SootClassBuilder(converter, sootClass).build(jclass);
-                hierarchy.addClass(jclass);
+                building.put(name, jclass);
+                ++buildingDepth;
+                try {
+                    new SootClassBuilder(converter, sootClass).build(jclass);
+                    hierarchy.addClass(jclass);
+                } finally {
+                    if (--buildingDepth == 0) {
+                        classes.putAll(building);
+                        building.clear();
+                    }
+                }
             }
         }
-        // TODO: add warning for missing classes
         return jclass;
     }
 
+    /**
+     * Loads given classes in parallel. As Soot is not thread-safe, the
+     * classes and all classes they refer to during building (superclasses,
+     * interfaces and outer classes) are first resolved on the calling
+     * thread. Then conversion of the classes (types, signatures, fields
+     * and methods) is performed on the common fork-join pool, where
+     * the classes being built are visible only to the building threads.
+     * Finally, the classes are added to the class hierarchy in the order
+     * of their names (each class after its superclass, interfaces and
+     * outer class), and then published to other threads. The order of
+     * {@code sootClasses} is ignored, as Soot may give the classes
+     * (e.g., the nested classes from Java sources) in different orders
+     * in different runs, so that the indexes of the classes are
+     * deterministic.
+     */
+    synchronized void loadClasses(List<SootClass> sootClasses) {
+        // 1. resolve new classes sequentially
+        Map<String, SootClass> newSootClasses = Maps.newLinkedHashMap();
+        Deque<SootClass> workList = new ArrayDeque<>(sootClasses.size());
+        sootClasses.stream()
+                .sorted(Comparator.comparing(SootClass::getName))
+                .forEach(workList::add);
+        while (!workList.isEmpty()) {
+            SootClass sootClass = workList.poll();
+            String name = sootClass.getName();
+            if (classes.containsKey(name) ||
+                    newSootClasses.containsKey(name) ||
+                    (sootClass.isPhantom() && !allowPhantom)) {
+                continue;
+            }
+            newSootClasses.put(name, sootClass);
+            if (!name.equals(ClassNames.OBJECT) && sootClass.hasSuperclass()) {
+                workList.add(sootClass.getSuperclass());
+            }
+            workList.addAll(sootClass.getInterfaces());
+            if (sootClass.hasOuterClass()) {
+                workList.add(sootClass.getOuterClass());
+            }
+            // trigger the resolution of the members, if any is pending
+            sootClass.getFields();
+            sootClass.getMethods();
+        }
+        Map<String, JClass> newClasses = Maps.newMap(newSootClasses.size());
+        newSootClasses.forEach((name, sootClass) -> newClasses.put(name,
+                new JClass(this, name, sootClass.moduleName)));
+        // 2. build classes in parallel
+        newSootClasses.values().parallelStream().forEach(sootClass -> {
+            batch.set(newClasses);
+            try {
+                new SootClassBuilder(converter, sootClass)
+                        .build(newClasses.get(sootClass.getName()));
+            } finally {
+                batch.remove();
+            }
+        });
+        // 3. add classes to hierarchy in deterministic order, i.e., each
+        // class is added after its superclass, interfaces and outer class
+        Set<JClass> pending = Sets.newSet(newClasses.values());
+        newSootClasses.keySet().forEach(name ->
+                addToHierarchy(newClasses.get(name), pending));
+        // 4. publish the built classes
+        classes.putAll(newClasses);
+    }
+
+    /**
+     * Adds {@code jclass} to hierarchy if it is pending, after adding
+     * its pending superclass, interfaces and outer class.
+     */
+    private void addToHierarchy(JClass jclass, Set<JClass> pending) {
+        if (jclass != null && pending.remove(jclass)) {
+            addToHierarchy(jclass.getSuperClass(), pending);
+            jclass.getInterfaces().forEach(iface ->
+                    addToHierarchy(iface, pending));
+            addToHierarchy(jclass.getOuterClass(), pending);
+            hierarchy.addClass(jclass);
+        }
+    }
+
     @Override
     public Collection<JClass> getLoadedClasses() {
         return classes.values();
@@ -199,7 +199,7 @@ public class SootWorldBuilder extends AbstractWorldBuilder {
         // set at first.
         world.setOptions(options);
         // initialize class hierarchy
-        ClassHierarchy hierarchy = new ClassHierarchyImpl();
+        ClassHierarchyImpl hierarchy = new ClassHierarchyImpl();
         SootClassLoader loader = new SootClassLoader(
                 scene, hierarchy, options.isAllowPhantom());
         hierarchy.setDefaultClassLoader(loader);
@@ -212,10 +212,20 @@ public class SootWorldBuilder extends AbstractWorldBuilder {
         Converter converter = new Converter(loader, typeSystem);
         loader.setConverter(converter);
         // build classes in hierarchy
-        buildClasses(hierarchy, scene);
+        if (options.isLazyClassLoading()) {
+            buildApplicationClasses(hierarchy, scene);
+        } else {
+            buildClasses(hierarchy, scene);
+            // all classes have been built, and the queries
+            // of the hierarchy need no locking since now
+            hierarchy.freeze();
+        }
         // set main method
         if (options.getMainClass() != null) {
             if (scene.hasMainClass()) {
+                // build main class before converting main method, as
+                // it may not be built yet in lazy class loading mode
+                converter.convertClass(scene.getMainClass());
                 world.setMainMethod(
                         converter.convertMethod(scene.getMainMethod()));
             } else {
@@ -243,9 +253,26 @@ public class SootWorldBuilder extends AbstractWorldBuilder {
     }
 
     protected static void buildClasses(ClassHierarchy hierarchy, Scene scene) {
-        // TODO: parallelize?
-        new ArrayList<>(scene.getClasses()).forEach(c ->
-                hierarchy.getDefaultClassLoader().loadClass(c.getName()));
+        SootClassLoader loader = (SootClassLoader) hierarchy.getDefaultClassLoader();
+        loader.loadClasses(new ArrayList<>(scene.getClasses()));
+    }
+
+    /**
+     * Builds application classes only. Other classes, e.g., the JDK classes,
+     * are built on demand by {@link SootClassLoader} when they are first
+     * requested by class hierarchy, type system, IR builder or analyses,
+     * thus the classes that are unreachable from the entries of the
+     * analysis are never built.
+     * <p>
+     * Note that in this mode, the subclass queries of {@link ClassHierarchy}
+     * only cover the classes that have been built so far.
+     */
+    protected static void buildApplicationClasses(ClassHierarchy hierarchy, Scene scene) {
+        SootClassLoader loader = (SootClassLoader) hierarchy.getDefaultClassLoader();
+        loader.loadClasses(new ArrayList<>(scene.getApplicationClasses()));
+        logger.info("Lazy class loading: built {} application classes" +
+                        " out of {} classes in the scene",
+                hierarchy.allClasses().count(), scene.getClasses().size());
     }
 
     private static void runSoot(String[] args) {
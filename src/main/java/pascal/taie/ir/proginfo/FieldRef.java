@@ -69,7 +69,7 @@ public class FieldRef extends MemberRef {
      * @see #resolveNullable()
      */
     @Nullable
-    private transient JField field;
+    private transient volatile JField field;
 
     public static FieldRef get(
             JClass declaringClass, String name, Type type, boolean isStatic) {
@@ -33,15 +33,20 @@ import pascal.taie.language.type.Type;
 import pascal.taie.util.collection.HybridBitSet;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
 import pascal.taie.util.collection.TwoKeyMap;
 
 import javax.annotation.Nullable;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 public class ClassHierarchyImpl implements ClassHierarchy {
@@ -55,7 +60,7 @@ public class ClassHierarchyImpl implements ClassHierarchy {
     // TODO: properly manage class loaders
     private final Map<String, JClassLoader> loaders = Maps.newSmallMap();
 
-    private JClass JavaLangObject;
+    private volatile JClass JavaLangObject;
 
     private final List<JClass> classes = new ArrayList<>(1024);
 
@@ -84,13 +89,49 @@ public class ClassHierarchyImpl implements ClassHierarchy {
     /**
      * Cache results of method dispatch.
      */
-    private final TwoKeyMap<JClass, Subsignature, JMethod> dispatchTable = Maps.newTwoKeyMap();
+    private final TwoKeyMap<JClass, Subsignature, JMethod> dispatchTable =
+            Maps.newTwoKeyMap(Maps.newConcurrentMap(), Maps::newConcurrentMap);
 
     /**
      * Cache results of {@link #getAllSubclassesOf(JClass)}.
      */
     private final Map<JClass, Set<JClass>> allSubclasses = Maps.newConcurrentMap();
 
+    /**
+     * Guards {@link #classes}, the direct subclass/inner class maps and
+     * {@link #allSubclasses}, as classes may be added by one thread
+     * while other threads are querying the hierarchy. The lock is only
+     * taken when there is no {@link #snapshot}.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The classes and the relations among them.
+     */
+    private record Relations(List<JClass> classes,
+                             MultiMap<JClass, JClass> directSubinterfaces,
+                             MultiMap<JClass, JClass> directImplementors,
+                             MultiMap<JClass, JClass> directSubclasses,
+                             MultiMap<JClass, JClass> directInnerClasses,
+                             Map<JClass, Set<JClass>> allSubclasses)
+            implements Serializable {
+    }
+
+    /**
+     * The relations being built, read under {@link #lock}.
+     */
+    private final Relations current = new Relations(classes,
+            directSubinterfaces, directImplementors, directSubclasses,
+            directInnerClasses, allSubclasses);
+
+    /**
+     * Immutable snapshot of the relations, which is published by
+     * {@link #freeze()} and read without locking. It is dropped when
+     * a class is added afterwards, e.g., in lazy class loading mode.
+     */
+    @Nullable
+    private volatile Relations snapshot;
+
     @Override
     public void setDefaultClassLoader(JClassLoader loader) {
         this.defaultLoader = loader;
@@ -121,8 +162,23 @@ public class ClassHierarchyImpl implements ClassHierarchy {
                 .toList();
     }
 
+    /**
+     * Classes may be added by multiple threads, e.g., when classes are
+     * loaded on demand by parallel analyses, thus this method holds
+     * the write lock to assign the class indexes consistently.
+     */
     @Override
     public void addClass(JClass jclass) {
+        lock.writeLock().lock();
+        try {
+            snapshot = null;
+            addClass0(jclass);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addClass0(JClass jclass) {
         // Add direct subinterface
         if (jclass.isInterface()) {
             jclass.getInterfaces().forEach(iface ->
@@ -157,14 +213,62 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         return jclass.getIndex();
     }
 
+    /**
+     * Publishes an immutable snapshot of the hierarchy, so that the queries
+     * need no locking until another class is added. This should be called
+     * once all classes are loaded, e.g., after eager class loading.
+     */
+    public void freeze() {
+        lock.readLock().lock();
+        try {
+            snapshot = new Relations(List.copyOf(classes),
+                    copy(directSubinterfaces), copy(directImplementors),
+                    copy(directSubclasses), copy(directInnerClasses),
+                    Maps.newConcurrentMap());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return an immutable copy of {@code map} which keeps the order
+     * of the values.
+     */
+    private static MultiMap<JClass, JClass> copy(MultiMap<JClass, JClass> map) {
+        MultiMap<JClass, JClass> copy = Maps.newMultiMap(Sets::newLinkedSet);
+        copy.putAll(map);
+        return Maps.unmodifiableMultiMap(copy);
+    }
+
     @Override
     public JClass getObject(int index) {
-        return classes.get(index);
+        Relations s = snapshot;
+        if (s != null) {
+            return s.classes().get(index);
+        }
+        lock.readLock().lock();
+        try {
+            return classes.get(index);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
+    /**
+     * @return a snapshot of the classes that have been added so far.
+     */
     @Override
     public Stream<JClass> allClasses() {
-        return classes.stream();
+        Relations s = snapshot;
+        if (s != null) {
+            return s.classes().stream();
+        }
+        lock.readLock().lock();
+        try {
+            return List.copyOf(classes).stream();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
@@ -463,43 +567,78 @@ public class ClassHierarchyImpl implements ClassHierarchy {
 
     @Override
     public Collection<JClass> getAllSubclassesOf(JClass jclass) {
-        return allSubclasses.computeIfAbsent(jclass, c -> {
+        Relations s = snapshot;
+        if (s != null) {
+            return getAllSubclassesOf(s, jclass);
+        }
+        // computed under the read lock, so that a result computed
+        // before adding a class is never cached after adding it
+        lock.readLock().lock();
+        try {
+            return getAllSubclassesOf(current, jclass);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<JClass> getAllSubclassesOf(Relations r, JClass jclass) {
+        return r.allSubclasses().computeIfAbsent(jclass, c -> {
             Set<JClass> subclasses = new HybridBitSet<>(this, true);
-            getAllSubclassesOf0(c, subclasses);
+            getAllSubclassesOf0(r, c, subclasses);
             return subclasses;
         });
     }
 
-    private void getAllSubclassesOf0(JClass jclass, Set<JClass> result) {
+    private static void getAllSubclassesOf0(
+            Relations r, JClass jclass, Set<JClass> result) {
         result.add(jclass);
         if (jclass.isInterface()) {
-            getDirectSubinterfacesOf(jclass).forEach(subiface ->
-                    getAllSubclassesOf0(subiface, result));
-            getDirectImplementorsOf(jclass).forEach(impl ->
-                    getAllSubclassesOf0(impl, result));
+            r.directSubinterfaces().get(jclass).forEach(subiface ->
+                    getAllSubclassesOf0(r, subiface, result));
+            r.directImplementors().get(jclass).forEach(impl ->
+                    getAllSubclassesOf0(r, impl, result));
         } else {
-            getDirectSubclassesOf(jclass).forEach(subclass ->
-                    getAllSubclassesOf0(subclass, result));
+            r.directSubclasses().get(jclass).forEach(subclass ->
+                    getAllSubclassesOf0(r, subclass, result));
         }
     }
 
     @Override
     public Collection<JClass> getDirectSubinterfacesOf(JClass jclass) {
-        return directSubinterfaces.get(jclass);
+        return get(Relations::directSubinterfaces, jclass);
     }
 
     @Override
     public Collection<JClass> getDirectImplementorsOf(JClass jclass) {
-        return directImplementors.get(jclass);
+        return get(Relations::directImplementors, jclass);
     }
 
     @Override
     public Collection<JClass> getDirectSubclassesOf(JClass jclass) {
-        return directSubclasses.get(jclass);
+        return get(Relations::directSubclasses, jclass);
     }
 
     @Override
     public Collection<JClass> getDirectInnerClassesOf(JClass jclass) {
-        return directInnerClasses.get(jclass);
+        return get(Relations::directInnerClasses, jclass);
+    }
+
+    /**
+     * @return the classes mapped from {@code jclass} in the map of
+     * the snapshot if it exists, otherwise a copy of them in the map
+     * of the current relations.
+     */
+    private Collection<JClass> get(
+            Function<Relations, MultiMap<JClass, JClass>> map, JClass jclass) {
+        Relations s = snapshot;
+        if (s != null) {
+            return map.apply(s).get(jclass);
+        }
+        lock.readLock().lock();
+        try {
+            return List.copyOf(map.apply(current).get(jclass));
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 }
@@ -22,12 +22,30 @@
 
 package pascal.taie.language.classes;
 
+import pascal.taie.util.collection.Sets;
+
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Set;
 
 public interface JClassLoader extends Serializable {
 
     JClass loadClass(String name);
 
     Collection<JClass> getLoadedClasses();
+
+    /**
+     * @return the names of the classes that are available to this loader,
+     * including the classes that have not been loaded yet, together with
+     * the names of their methods and fields.
+     */
+    default Set<String> getAvailableNames() {
+        Set<String> names = Sets.newSet();
+        getLoadedClasses().forEach(c -> {
+            names.add(c.getName());
+            c.getDeclaredMethods().forEach(m -> names.add(m.getName()));
+            c.getDeclaredFields().forEach(f -> names.add(f.getName()));
+        });
+        return names;
+    }
 }
@@ -73,10 +73,12 @@ public class JMethod extends ClassMember {
 
     /**
      * Notes: This field is {@code transient} because it is serialized separately.
+     * It is {@code volatile} as the IR may be requested by concurrent
+     * analyses, which must see the same IR of a method.
      *
-     * @see pascal.taie.frontend.cache.CachedIRBuilder
+     * @see pascal.taie.frontend.cache.MappedIRBuilder
      */
-    private transient IR ir;
+    private transient volatile IR ir;
 
     public JMethod(JClass declaringClass, String name, Set<Modifier> modifiers,
                    List<Type> paramTypes, Type returnType, List<ClassType> exceptions,
@@ -181,18 +183,43 @@ public class JMethod extends ClassMember {
     }
 
     public IR getIR() {
-        if (ir == null) {
+        IR result = ir;
+        if (result == null) {
             if (isAbstract()) {
                 throw new AnalysisException("Abstract method " + this +
                         " has no method body");
             }
-            if (isNative()) {
-                ir = World.get().getNativeModel().buildNativeIR(this);
-            } else {
-                ir = World.get().getIRBuilder().buildIR(this);
+            // build the IR at most once, so that all threads
+            // share the same IR (and its statements and variables)
+            synchronized (this) {
+                result = ir;
+                if (result == null) {
+                    result = isNative()
+                            ? World.get().getNativeModel().buildNativeIR(this)
+                            : World.get().getIRBuilder().buildIR(this);
+                    ir = result;
+                }
             }
         }
-        return ir;
+        return result;
+    }
+
+    /**
+     * Replaces the IR of this method, e.g., after the body of this method
+     * is changed. The results of the analyses that have used the previous
+     * IR are not updated by this method.
+     *
+     * @throws IllegalArgumentException if the given IR is not of this method
+     * @see pascal.taie.analysis.pta.core.solver.DefaultSolver#update
+     */
+    public void setIR(IR ir) {
+        if (ir.getMethod() != this) {
+            throw new IllegalArgumentException(
+                    "IR of " + ir.getMethod() + " cannot be set to " + this);
+        }
+        synchronized (this) {
+            this.ir = ir;
+        }
     }
 
     /**
@@ -35,7 +35,7 @@ public class ClassType implements ReferenceType {
     /**
      * The cache of {@link ClassType#getJClass()}.
      */
-    private transient JClass jclass;
+    private transient volatile JClass jclass;
 
     public ClassType(JClassLoader loader, String name) {
         this.loader = loader;
@@ -30,17 +30,61 @@ import java.util.function.Supplier;
 
 /**
  * Map-based implementation for {@link ResultHolder}.
+ * <p>
+ * By default, the results are kept in a plain map which is updated in place.
+ * When independent analyses in a plan are executed concurrently
+ * (see {@link #setConcurrentUpdates(boolean)}), the holders switch to
+ * a copy-on-write map, so that they can be read without locking and
+ * updated by different threads. Updates are rare (once per analysis)
+ * and the map is small, thus copying it is cheap.
+ * <p>
+ * In the concurrent mode, like
+ * {@link java.util.concurrent.ConcurrentMap#computeIfAbsent},
+ * {@link #getResult(String, Supplier)} calls the supplier at most once
+ * for each key, and other threads requesting the same key wait for it.
  */
 public abstract class AbstractResultHolder implements ResultHolder {
 
+    /**
+     * Whether the results may be updated by concurrent analyses.
+     */
+    private static volatile boolean concurrentUpdates = false;
+
     /**
      * Map from analysis ID to the corresponding analysis result.
+     * In the concurrent mode, this map is never modified after
+     * it is published.
+     */
+    private transient volatile Map<String, Object> results = Maps.newHybridMap();
+
+    /**
+     * Map from analysis ID to the lock for computing the corresponding
+     * result by {@link #getResult(String, Supplier)} in the concurrent mode.
+     * It is created on first use, as most holders (e.g., IRs) never
+     * compute their results concurrently.
      */
-    private final transient Map<String, Object> results = Maps.newHybridMap();
+    private transient volatile Map<String, Object> computeLocks;
+
+    /**
+     * Sets whether the results of all holders may be updated by
+     * concurrent analyses. This must not be changed while any analysis
+     * is running.
+     */
+    public static void setConcurrentUpdates(boolean concurrentUpdates) {
+        AbstractResultHolder.concurrentUpdates = concurrentUpdates;
+    }
 
     @Override
     public <R> void storeResult(String key, R result) {
-        results.put(key, result);
+        if (concurrentUpdates) {
+            synchronized (this) {
+                Map<String, Object> newResults = Maps.newHybridMap(results);
+                newResults.put(key, result);
+                results = newResults;
+            }
+        } else {
+            results.put(key, result);
+        }
     }
 
     @Override
@@ -60,7 +104,42 @@ public abstract class AbstractResultHolder implements ResultHolder {
 
     @Override
     public <R> R getResult(String key, Supplier<R> supplier) {
-        return (R) results.computeIfAbsent(key, __ -> supplier.get());
+        Object result = results.get(key);
+        if (result == null) {
+            if (concurrentUpdates) {
+                // compute the result under the lock of the key instead of
+                // this holder, as the supplier may access (other results of)
+                // this holder
+                synchronized (getComputeLock(key)) {
+                    result = results.get(key);
+                    if (result == null) {
+                        result = supplier.get();
+                        if (result != null) {
+                            storeResult(key, result);
+                        }
+                    }
+                }
+            } else {
+                result = supplier.get();
+                if (result != null) {
+                    storeResult(key, result);
+                }
+            }
+        }
+        return (R) result;
+    }
+
+    private Object getComputeLock(String key) {
+        Map<String, Object> locks = computeLocks;
+        if (locks == null) {
+            synchronized (this) {
+                locks = computeLocks;
+                if (locks == null) {
+                    computeLocks = locks = Maps.newConcurrentMap();
+                }
+            }
+        }
+        return locks.computeIfAbsent(key, k -> new Object());
     }
 
     @Override
@@ -70,11 +149,27 @@ public abstract class AbstractResultHolder implements ResultHolder {
 
     @Override
     public void clearResult(String key) {
-        results.remove(key);
+        if (concurrentUpdates) {
+            synchronized (this) {
+                if (results.containsKey(key)) {
+                    Map<String, Object> newResults = Maps.newHybridMap(results);
+                    newResults.remove(key);
+                    results = newResults;
+                }
+            }
+        } else {
+            results.remove(key);
+        }
     }
 
     @Override
     public void clearAll() {
-        results.clear();
+        if (concurrentUpdates) {
+            synchronized (this) {
+                results = Maps.newHybridMap();
+            }
+        } else {
+            results.clear();
+        }
     }
 }
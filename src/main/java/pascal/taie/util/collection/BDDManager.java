@@ -0,0 +1,528 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Manager of reduced ordered binary decision diagrams (BDDs) which
+ * represent sets of non-negative integers.
+ * <p>
+ * Each integer is encoded by {@value #BITS} boolean variables, and
+ * variable {@code 0} corresponds to the most significant bit. A BDD is
+ * identified by the {@code int} id of its root node. All BDDs created by
+ * the same manager share their nodes, and nodes are hash-consed, thus two
+ * sets are equal iff their ids are equal. Results of the binary operations
+ * are memorized in an operation cache.
+ * <p>
+ * Nodes are reclaimed by garbage collection. The users of a manager keep
+ * their BDDs alive by reference counting, i.e., {@link #ref(int)} and
+ * {@link #deref(int)}, and a collection frees the nodes which are not
+ * reachable from any referenced BDD. The results of operations are
+ * not referenced, thus users perform a sequence of operations and
+ * reference the results in a <em>session</em>, i.e., between
+ * {@link #begin()} and {@link #end()}. When the node table is full,
+ * the manager grows the table, and schedules a collection which is
+ * performed when no session is active. Collections do not move
+ * nodes, thus the ids of the live BDDs are stable.
+ * <p>
+ * All public methods of this class are synchronized.
+ */
+public class BDDManager {
+
+    /**
+     * Id of the BDD representing the empty set.
+     */
+    public static final int FALSE = 0;
+
+    /**
+     * Id of the BDD representing the set of all integers in the domain.
+     */
+    public static final int TRUE = 1;
+
+    /**
+     * Number of variables (bits) used to encode an integer.
+     */
+    private static final int BITS = 31;
+
+    private static final int OP_OR = 0;
+
+    private static final int OP_AND = 1;
+
+    private static final int OP_DIFF = 2;
+
+    private static final int CACHE_SIZE = 1 << 18;
+
+    /**
+     * Value of {@link #vars} for free nodes.
+     */
+    private static final int FREE = -1;
+
+    private int[] vars;
+
+    private int[] lows;
+
+    private int[] highs;
+
+    /**
+     * External reference counts of the nodes.
+     */
+    private int[] refs;
+
+    /**
+     * Number of allocated node slots (including free ones).
+     */
+    private int nodeCount;
+
+    /**
+     * Number of free node slots, which are chained by {@link #lows}.
+     */
+    private int freeCount;
+
+    /**
+     * Head of the chain of free nodes, 0 if there is no free node.
+     */
+    private int freeHead;
+
+    /**
+     * Number of active sessions.
+     */
+    private int sessions;
+
+    /**
+     * Whether a garbage collection is scheduled.
+     */
+    private boolean gcPending;
+
+    /**
+     * Number of performed garbage collections.
+     */
+    private int gcCount;
+
+    /**
+     * Open-addressing hash table of nodes, which maps
+     * (var, low, high) to node ids. 0 denotes an empty slot.
+     */
+    private int[] uniqueTable;
+
+    /**
+     * Direct-mapped cache of binary operations.
+     */
+    private final int[] cacheOps = new int[CACHE_SIZE];
+
+    private final int[] cacheLefts = new int[CACHE_SIZE];
+
+    private final int[] cacheRights = new int[CACHE_SIZE];
+
+    private final int[] cacheResults = new int[CACHE_SIZE];
+
+    public BDDManager() {
+        int capacity = 1 << 16;
+        vars = new int[capacity];
+        lows = new int[capacity];
+        highs = new int[capacity];
+        refs = new int[capacity];
+        uniqueTable = new int[capacity * 2];
+        // terminals are placed below all variables
+        vars[FALSE] = vars[TRUE] = BITS;
+        nodeCount = 2;
+        Arrays.fill(cacheOps, -1);
+    }
+
+    /**
+     * Begins a session, during which the nodes created by the operations
+     * are not collected.
+     */
+    public synchronized void begin() {
+        ++sessions;
+    }
+
+    /**
+     * Ends a session, and performs the scheduled garbage collection
+     * if no session is active.
+     */
+    public synchronized void end() {
+        if (--sessions == 0 && gcPending) {
+            gc();
+        }
+    }
+
+    /**
+     * Increases the reference count of given BDD, so that it will not
+     * be collected.
+     */
+    public synchronized void ref(int root) {
+        if (root > TRUE) {
+            ++refs[root];
+        }
+    }
+
+    /**
+     * Decreases the reference count of given BDD.
+     */
+    public synchronized void deref(int root) {
+        if (root > TRUE) {
+            --refs[root];
+        }
+    }
+
+    /**
+     * Frees the nodes which are not reachable from the referenced BDDs.
+     * The caller must ensure that it does not use unreferenced BDDs
+     * after the collection.
+     */
+    public synchronized void gc() {
+        gcPending = false;
+        ++gcCount;
+        // mark the nodes reachable from referenced BDDs
+        boolean[] marked = new boolean[nodeCount];
+        // each node on the stack has been marked, and the size of
+        // the stack is bounded by the number of nodes
+        int[] stack = new int[nodeCount];
+        for (int root = TRUE + 1; root < nodeCount; ++root) {
+            if (refs[root] > 0 && !marked[root]) {
+                int top = 0;
+                stack[top++] = root;
+                marked[root] = true;
+                while (top > 0) {
+                    int node = stack[--top];
+                    int low = lows[node];
+                    if (low > TRUE && !marked[low]) {
+                        marked[low] = true;
+                        stack[top++] = low;
+                    }
+                    int high = highs[node];
+                    if (high > TRUE && !marked[high]) {
+                        marked[high] = true;
+                        stack[top++] = high;
+                    }
+                }
+            }
+        }
+        // sweep unmarked nodes
+        freeHead = 0;
+        freeCount = 0;
+        for (int node = nodeCount - 1; node > TRUE; --node) {
+            if (!marked[node]) {
+                vars[node] = FREE;
+                highs[node] = FREE;
+                lows[node] = freeHead;
+                freeHead = node;
+                ++freeCount;
+            }
+        }
+        rebuildUniqueTable(uniqueTable.length);
+        // the cached results may refer to freed nodes
+        Arrays.fill(cacheOps, -1);
+    }
+
+    /**
+     * @return the BDD representing set {@code {value}}.
+     */
+    public synchronized int singleton(int value) {
+        checkValue(value);
+        int root = TRUE;
+        for (int var = BITS - 1; var >= 0; --var) {
+            root = bit(value, var) ?
+                    mk(var, FALSE, root) : mk(var, root, FALSE);
+        }
+        return root;
+    }
+
+    /**
+     * @return the BDD representing the set of {@code values[from..to)},
+     * which must be in ascending order.
+     */
+    public synchronized int of(int[] values, int from, int to) {
+        for (int i = from; i < to; ++i) {
+            checkValue(values[i]);
+        }
+        return build(values, from, to, 0);
+    }
+
+    /**
+     * Builds the BDD of {@code values[from..to)} from variable {@code var},
+     * where the values share their bits before {@code var}.
+     */
+    private int build(int[] values, int from, int to, int var) {
+        if (from == to) {
+            return FALSE;
+        }
+        if (var == BITS) {
+            return TRUE;
+        }
+        // the values whose bit of var is not set come first
+        int lo = from, hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (bit(values[mid], var)) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return mk(var, build(values, from, lo, var + 1),
+                build(values, lo, to, var + 1));
+    }
+
+    /**
+     * @return the BDD representing the union of two sets.
+     */
+    public synchronized int or(int a, int b) {
+        return apply(OP_OR, a, b);
+    }
+
+    /**
+     * @return the BDD representing the intersection of two sets.
+     */
+    public synchronized int and(int a, int b) {
+        return apply(OP_AND, a, b);
+    }
+
+    /**
+     * @return the BDD representing the elements in {@code a}
+     * but not in {@code b}.
+     */
+    public synchronized int diff(int a, int b) {
+        return apply(OP_DIFF, a, b);
+    }
+
+    /**
+     * @return {@code true} if set {@code root} contains {@code value}.
+     */
+    public synchronized boolean contains(int root, int value) {
+        checkValue(value);
+        int node = root;
+        while (node > TRUE) {
+            node = bit(value, vars[node]) ? highs[node] : lows[node];
+        }
+        return node == TRUE;
+    }
+
+    /**
+     * @return number of elements in set {@code root}.
+     */
+    public synchronized long count(int root) {
+        if (root == FALSE) {
+            return 0;
+        }
+        return count(root, new HashMap<>()) << vars[root];
+    }
+
+    /**
+     * Number of satisfying assignments of the variables
+     * from {@code vars[node]} to the last one.
+     */
+    private long count(int node, Map<Integer, Long> memo) {
+        if (node <= TRUE) {
+            return node;
+        }
+        Long result = memo.get(node);
+        if (result == null) {
+            int var = vars[node];
+            int low = lows[node];
+            int high = highs[node];
+            result = (count(low, memo) << (vars[low] - var - 1)) +
+                    (count(high, memo) << (vars[high] - var - 1));
+            memo.put(node, result);
+        }
+        return result;
+    }
+
+    /**
+     * Performs the given action for each element of set {@code root}
+     * in ascending order.
+     */
+    public synchronized void forEach(int root, IntConsumer action) {
+        forEach(root, 0, 0, action);
+    }
+
+    private void forEach(int node, int var, int prefix, IntConsumer action) {
+        if (node == FALSE) {
+            return;
+        }
+        if (var == BITS) {
+            action.accept(prefix);
+        } else if (vars[node] == var) {
+            forEach(lows[node], var + 1, prefix << 1, action);
+            forEach(highs[node], var + 1, (prefix << 1) | 1, action);
+        } else { // variable var is not tested by node
+            forEach(node, var + 1, prefix << 1, action);
+            forEach(node, var + 1, (prefix << 1) | 1, action);
+        }
+    }
+
+    /**
+     * @return number of live (not freed) nodes in this manager.
+     */
+    public synchronized int getNodeCount() {
+        return nodeCount - freeCount;
+    }
+
+    /**
+     * @return number of performed garbage collections.
+     */
+    public synchronized int getGCCount() {
+        return gcCount;
+    }
+
+    private int apply(int op, int a, int b) {
+        switch (op) {
+            case OP_OR -> {
+                if (a == b || b == FALSE) {
+                    return a;
+                }
+                if (a == FALSE) {
+                    return b;
+                }
+                if (a == TRUE || b == TRUE) {
+                    return TRUE;
+                }
+            }
+            case OP_AND -> {
+                if (a == b || b == TRUE) {
+                    return a;
+                }
+                if (a == TRUE) {
+                    return b;
+                }
+                if (a == FALSE || b == FALSE) {
+                    return FALSE;
+                }
+            }
+            case OP_DIFF -> {
+                if (a == b || a == FALSE || b == TRUE) {
+                    return FALSE;
+                }
+                if (b == FALSE) {
+                    return a;
+                }
+            }
+        }
+        if (op != OP_DIFF && a > b) { // OR and AND are commutative
+            int t = a;
+            a = b;
+            b = t;
+        }
+        int slot = hash(op, a, b) & (CACHE_SIZE - 1);
+        if (cacheOps[slot] == op && cacheLefts[slot] == a
+                && cacheRights[slot] == b) {
+            return cacheResults[slot];
+        }
+        int var = Math.min(vars[a], vars[b]);
+        int aLow = vars[a] == var ? lows[a] : a;
+        int aHigh = vars[a] == var ? highs[a] : a;
+        int bLow = vars[b] == var ? lows[b] : b;
+        int bHigh = vars[b] == var ? highs[b] : b;
+        int low = apply(op, aLow, bLow);
+        int high = apply(op, aHigh, bHigh);
+        int result = mk(var, low, high);
+        cacheOps[slot] = op;
+        cacheLefts[slot] = a;
+        cacheRights[slot] = b;
+        cacheResults[slot] = result;
+        return result;
+    }
+
+    /**
+     * @return the node (var, low, high), which is created if absent.
+     */
+    private int mk(int var, int low, int high) {
+        if (low == high) {
+            return low;
+        }
+        int mask = uniqueTable.length - 1;
+        int slot = hash(var, low, high) & mask;
+        int node;
+        while ((node = uniqueTable[slot]) != 0) {
+            if (vars[node] == var && lows[node] == low && highs[node] == high) {
+                return node;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (freeHead != 0) {
+            node = freeHead;
+            freeHead = lows[node];
+            --freeCount;
+        } else {
+            if (nodeCount == vars.length) {
+                // the node table is full, grow it, and collect
+                // the garbage once no session is active
+                int capacity = vars.length * 2;
+                vars = Arrays.copyOf(vars, capacity);
+                lows = Arrays.copyOf(lows, capacity);
+                highs = Arrays.copyOf(highs, capacity);
+                refs = Arrays.copyOf(refs, capacity);
+                gcPending = true;
+            }
+            node = nodeCount++;
+        }
+        vars[node] = var;
+        lows[node] = low;
+        highs[node] = high;
+        uniqueTable[slot] = node;
+        if (nodeCount * 2 > uniqueTable.length) {
+            rebuildUniqueTable(uniqueTable.length * 2);
+        }
+        return node;
+    }
+
+    private void rebuildUniqueTable(int capacity) {
+        uniqueTable = new int[capacity];
+        int mask = uniqueTable.length - 1;
+        for (int node = TRUE + 1; node < nodeCount; ++node) {
+            if (vars[node] == FREE) {
+                continue;
+            }
+            int slot = hash(vars[node], lows[node], highs[node]) & mask;
+            while (uniqueTable[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            uniqueTable[slot] = node;
+        }
+    }
+
+    private static int hash(int x, int y, int z) {
+        int h = (x * 31 + y) * 31 + z;
+        h *= 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return {@code true} if the bit of {@code value}
+     * corresponding to {@code var} is set.
+     */
+    private static boolean bit(int value, int var) {
+        return ((value >>> (BITS - 1 - var)) & 1) != 0;
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException(
+                    "BDDManager only supports non-negative integers: " + value);
+        }
+    }
+}
@@ -108,6 +108,43 @@ public final class HybridBitSet<E> extends AbstractHybridSet<E>
         return super.retainAll(c);
     }
 
+    /**
+     * @return true if the indexes of all elements in this set are set
+     * in given bit set. For large set, this is a word-wise check.
+     */
+    public boolean isSubsetOf(IBitSet indexes) {
+        if (isLargeSet) {
+            return indexes.contains(((GenericBitSet<E>) set).bitSet);
+        }
+        for (E e : this) {
+            if (!indexes.get(indexer.getIndex(e))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return a new set of the elements in this set whose indexes are set
+     * in given bit set. For large set, this is a word-wise AND.
+     */
+    public HybridBitSet<E> intersect(IBitSet indexes) {
+        HybridBitSet<E> result = new HybridBitSet<>(indexer, isSparse);
+        if (isLargeSet) {
+            GenericBitSet<E> bits = (GenericBitSet<E>) ((SetEx<E>) set).copy();
+            bits.bitSet.and(indexes);
+            result.set = bits;
+            result.isLargeSet = true;
+        } else {
+            for (E e : this) {
+                if (indexes.get(indexer.getIndex(e))) {
+                    result.add(e);
+                }
+            }
+        }
+        return result;
+    }
+
     @Override
     public HybridBitSet<E> addAllDiff(Collection<? extends E> c) {
         HybridBitSet<E> diff = new HybridBitSet<>(indexer, isSparse);
@@ -66,6 +66,15 @@ public class IndexableSet<E extends Indexable> extends AbstractSetEx<E> {
         return o instanceof Indexable i && bitSet.clear(i.getIndex());
     }
 
+    /**
+     * Clears the bits directly, as this set does not support iteration
+     * which is used by the default implementation.
+     */
+    @Override
+    public void clear() {
+        bitSet.clear();
+    }
+
     @Override
     public Iterator<E> iterator() {
         throw new UnsupportedOperationException(
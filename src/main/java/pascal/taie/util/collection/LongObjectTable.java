@@ -0,0 +1,178 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import java.util.function.Consumer;
+
+/**
+ * Hash table which maps primitive {@code long} keys to objects.
+ * <p>
+ * The table uses open addressing with linear probing, and stores keys
+ * and values in two parallel arrays, thus neither boxes the keys nor
+ * allocates entry objects. It does not permit {@code null} values,
+ * and it does not support removal.
+ * <p>
+ * This table is designed for hot lookups whose keys are composed
+ * of dense integer indexes, e.g., two {@code int} indexes packed by
+ * {@link #key(int, int)}.
+ *
+ * @param <V> the type of mapped values
+ */
+public class LongObjectTable<V> {
+
+    private static final String NULL_VALUE_MSG = "LongObjectTable does not permit null values";
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] keys;
+
+    private Object[] values;
+
+    /**
+     * Number of bits of the table capacity.
+     */
+    private int bits;
+
+    private int size = 0;
+
+    public LongObjectTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongObjectTable(int initialCapacity) {
+        int capacity = Integer.highestOneBit(
+                Math.max(DEFAULT_CAPACITY, initialCapacity) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * @return the key composed of two {@code int}s.
+     */
+    public static long key(int high, int low) {
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return the value to which the given key is mapped,
+     * or {@code null} if this table contains no mapping for the key.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            Object value = values[i];
+            if (value == null) {
+                return null;
+            }
+            if (keys[i] == key) {
+                return (V) value;
+            }
+        }
+    }
+
+    /**
+     * Associates the given value with the given key.
+     *
+     * @return the previous value associated with the key,
+     * or {@code null} if there was no mapping for the key.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException(NULL_VALUE_MSG);
+        }
+        int mask = keys.length - 1;
+        int i = slot(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V oldValue = (V) values[i];
+                values[i] = value;
+                return oldValue;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > (keys.length >>> 1) + (keys.length >>> 2)) {
+            resize();
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Performs the given action for each value in this table.
+     * The iteration order is unspecified.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        for (Object value : values) {
+            if (value != null) {
+                action.accept((V) value);
+            }
+        }
+    }
+
+    /**
+     * Fibonacci hashing, which spreads the keys composed of
+     * small integers over the whole table.
+     */
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - bits));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        bits = Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; ++j) {
+            if (oldValues[j] != null) {
+                int i = slot(oldKeys[j]);
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LongObjectTable{size=" + size +
+                ", capacity=" + keys.length + "}";
+    }
+}
@@ -66,6 +66,19 @@ public final class Maps {
         return new LinkedHashMap<>();
     }
 
+    /**
+     * @return a map which evicts its least recently accessed entry
+     * when it holds more than {@code maxSize} entries.
+     */
+    public static <K, V> Map<K, V> newLRUMap(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
     public static <K extends Comparable<K>, V> Map<K, V> newOrderedMap() {
         return new TreeMap<>();
     }
@@ -24,6 +24,7 @@ package pascal.taie;
 
 import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.Suite;
+import pascal.taie.analysis.AnalysisExecutorTest;
 import pascal.taie.analysis.bugfinder.BugFinderTestSuite;
 import pascal.taie.analysis.dataflow.DataflowTestSuite;
 import pascal.taie.analysis.deadcode.DeadCodeTestFull;
@@ -53,6 +54,7 @@ import pascal.taie.util.UtilTestSuite;
         FieldTest.class,
         SerializationTest.class,
         // analysis
+        AnalysisExecutorTest.class,
         BugFinderTestSuite.class,
         DataflowTestSuite.class,
         DeadCodeTestFull.class,
@@ -0,0 +1,94 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AnalysisExecutorTest {
+
+    @Test
+    void testLargestFirst() {
+        AnalysisExecutor executor = new AnalysisExecutor(1);
+        List<String> visited = new ArrayList<>();
+        List<String> stored = new ArrayList<>();
+        executor.execute("test", List.of("a", "bbb", "cc", "d"),
+                new int[]{1, 3, 2, 1},
+                s -> {
+                    visited.add(s);
+                    return s.length() > 1 ? s.toUpperCase() : null;
+                },
+                (s, r) -> stored.add(s + "=" + r));
+        assertEquals(List.of("bbb", "cc", "a", "d"), visited);
+        assertEquals(List.of("bbb=BBB", "cc=CC"), stored);
+    }
+
+    @Test
+    void testParallel() {
+        AnalysisExecutor executor = new AnalysisExecutor(4);
+        List<Integer> items = IntStream.range(0, 1000).boxed().toList();
+        int[] costs = items.stream().mapToInt(i -> i % 17).toArray();
+        Map<Integer, Integer> results = Maps.newConcurrentMap();
+        Thread caller = Thread.currentThread();
+        try {
+            executor.execute("test", items, costs, i -> i * 2, (i, r) -> {
+                // results are stored by the calling thread
+                assertSame(caller, Thread.currentThread());
+                results.put(i, r);
+            });
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(items.size(), results.size());
+        items.forEach(i -> assertEquals(i * 2, results.get(i)));
+    }
+
+    @Test
+    void testFailure() {
+        AnalysisExecutor executor = new AnalysisExecutor(2);
+        try {
+            assertThrows(AnalysisException.class, () ->
+                    executor.execute("test", List.of(1, 2, 3), new int[3],
+                            i -> {
+                                if (i == 2) {
+                                    throw new AnalysisException("failure");
+                                }
+                                return i;
+                            },
+                            (i, r) -> {
+                            }));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -25,8 +25,10 @@ package pascal.taie.analysis.dataflow;
 import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.Suite;
 import pascal.taie.analysis.dataflow.analysis.AvailExpTest;
+import pascal.taie.analysis.dataflow.analysis.BitVectorTest;
 import pascal.taie.analysis.dataflow.analysis.LiveVarTestFull;
 import pascal.taie.analysis.dataflow.analysis.ReachDefTest;
+import pascal.taie.analysis.dataflow.analysis.SparseLiveVarTest;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPTestSuite;
 import pascal.taie.analysis.dataflow.fact.FactTest;
 
@@ -35,8 +37,10 @@ import pascal.taie.analysis.dataflow.fact.FactTest;
         FactTest.class,
         CPTestSuite.class,
         LiveVarTestFull.class,
+        SparseLiveVarTest.class,
         ReachDefTest.class,
         AvailExpTest.class,
+        BitVectorTest.class,
 })
 public class DataflowTestSuite {
 }
@@ -0,0 +1,129 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.MethodAnalysis;
+import pascal.taie.analysis.dataflow.analysis.availexp.AvailableExpression;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Stmt;
+import picocli.CommandLine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Microbenchmark of gen/kill analyses on bit vectors against the ones on
+ * {@link pascal.taie.analysis.dataflow.fact.SetFact}.
+ * <p>
+ * It builds the IR of the given method, and then measures the time of
+ * live variable analysis (with and without strongly live variables),
+ * reaching definition analysis and available expression analysis on
+ * the method with option {@code bit-vector} disabled and enabled.
+ * Both kinds of analyses must produce the same facts for every statement.
+ * By default, it analyzes {@code LargeMethod.compute()} in the test
+ * resources, and other methods can be given via {@code -cp},
+ * {@code -class} and {@code -method}, e.g.,
+ * <pre>
+ * BitVectorBenchmark -cp app.jar -class Foo -method bar -iterations 50
+ * </pre>
+ */
+@CommandLine.Command
+public class BitVectorBenchmark {
+
+    @CommandLine.Option(names = "-cp", defaultValue = "src/test/resources/dataflow")
+    private String classPath;
+
+    @CommandLine.Option(names = "-class", defaultValue = "LargeMethod")
+    private String className;
+
+    @CommandLine.Option(names = "-method", defaultValue = "compute")
+    private String methodName;
+
+    @CommandLine.Option(names = "-warmup", defaultValue = "10")
+    private int warmup;
+
+    @CommandLine.Option(names = "-iterations", defaultValue = "20")
+    private int iterations;
+
+    public static void main(String[] args) {
+        BitVectorBenchmark benchmark = CommandLine.populateCommand(
+                new BitVectorBenchmark(), args);
+        Main.main(new String[]{
+                "-pp", "-cp", benchmark.classPath,
+                "--input-classes", benchmark.className,
+                "-a", CFGBuilder.ID});
+        IR ir = World.get().getClassHierarchy()
+                .getClass(benchmark.className)
+                .getDeclaredMethod(benchmark.methodName)
+                .getIR();
+        System.out.printf("%s: %d statements%n", ir.getMethod(), ir.getStmts().size());
+        benchmark.measure(ir, LiveVariable.ID, LiveVariable::new,
+                "strongly", false, "sparse", false);
+        benchmark.measure(ir, LiveVariable.ID, LiveVariable::new,
+                "strongly", true, "sparse", false);
+        benchmark.measure(ir, ReachingDefinition.ID, ReachingDefinition::new);
+        benchmark.measure(ir, AvailableExpression.ID, AvailableExpression::new);
+    }
+
+    private void measure(
+            IR ir, String id,
+            Function<AnalysisConfig, ? extends MethodAnalysis<? extends DataflowResult<Stmt, ?>>> constructor,
+            Object... options) {
+        List<String> expected = null;
+        for (boolean bitVector : List.of(false, true)) {
+            List<Object> opts = new ArrayList<>(List.of(options));
+            opts.add("bit-vector");
+            opts.add(bitVector);
+            AnalysisConfig config = AnalysisConfig.of(id, opts.toArray());
+            MethodAnalysis<? extends DataflowResult<Stmt, ?>> analysis =
+                    constructor.apply(config);
+            for (int i = 0; i < warmup; ++i) {
+                analysis.analyze(ir);
+            }
+            DataflowResult<Stmt, ?> result = null;
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; ++i) {
+                result = analysis.analyze(ir);
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%s %s: %.3f ms/op%n", id, config.getOptions(),
+                    elapsed / 1_000_000.0 / iterations);
+            List<String> facts = new ArrayList<>();
+            for (Stmt stmt : ir) {
+                facts.add(result.getInFact(stmt) + " " + result.getOutFact(stmt));
+            }
+            if (expected == null) {
+                expected = facts;
+            } else if (!expected.equals(facts)) {
+                throw new AssertionError("set-fact and bit-vector results disagree: "
+                        + id + " " + config.getOptions());
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.MethodAnalysis;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.analysis.availexp.AvailableExpression;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests gen/kill analyses on bit vectors against the ones on
+ * {@link pascal.taie.analysis.dataflow.fact.SetFact}, which are used by default.
+ */
+public class BitVectorTest {
+
+    private static final String DIR = "src/test/resources/dataflow/";
+
+    @Test
+    void testBitVector() {
+        Tests.testInput("AvailExp", DIR, AvailableExpression.ID,
+                "bit-vector:true");
+        Tests.testInput("ReachDef", DIR, ReachingDefinition.ID,
+                "bit-vector:true");
+        Tests.testInput("Fibonacci", DIR + "livevar", LiveVariable.ID,
+                "strongly:false;bit-vector:true");
+        Tests.testInput("StronglyBranchLoop", DIR + "livevar", LiveVariable.ID,
+                "strongly:true;bit-vector:true");
+    }
+
+    /**
+     * Checks that bit-vector and set-fact analyses produce the same results
+     * for every statement of a large method. Their running time is measured
+     * by {@link BitVectorBenchmark}.
+     */
+    @Test
+    void testLargeMethod() {
+        Main.main(new String[]{
+                "-pp", "-cp", DIR, "--input-classes", "LargeMethod",
+                "-a", CFGBuilder.ID});
+        IR ir = World.get().getClassHierarchy()
+                .getClass("LargeMethod")
+                .getDeclaredMethod("compute")
+                .getIR();
+        compare(ir, LiveVariable.ID, LiveVariable::new,
+                "strongly", false, "sparse", false);
+        compare(ir, LiveVariable.ID, LiveVariable::new,
+                "strongly", true, "sparse", false);
+        compare(ir, ReachingDefinition.ID, ReachingDefinition::new);
+        compare(ir, AvailableExpression.ID, AvailableExpression::new);
+    }
+
+    private static void compare(
+            IR ir, String id,
+            Function<AnalysisConfig, ? extends MethodAnalysis<? extends DataflowResult<Stmt, ?>>> constructor,
+            Object... options) {
+        List<String> expected = null;
+        for (boolean bitVector : List.of(false, true)) {
+            List<Object> opts = new ArrayList<>(List.of(options));
+            opts.add("bit-vector");
+            opts.add(bitVector);
+            AnalysisConfig config = AnalysisConfig.of(id, opts.toArray());
+            DataflowResult<Stmt, ?> result = constructor.apply(config).analyze(ir);
+            List<String> facts = new ArrayList<>();
+            for (Stmt stmt : ir) {
+                facts.add(result.getInFact(stmt) + " " + result.getOutFact(stmt));
+            }
+            if (expected == null) {
+                expected = facts;
+            } else {
+                assertEquals(expected, facts, id + " " + config.getOptions());
+            }
+        }
+    }
+}
@@ -29,8 +29,10 @@ import org.junit.platform.suite.api.Suite;
 @SelectClasses({
         CPTestFull.class,
         EdgeRefineTest.class,
+        IDECPTest.class,
         InterCPAliasTest.class,
         MeetValueTest.class,
+        SparseCPTest.class,
         ValueTest.class,
 })
 public class CPTestSuite {
@@ -0,0 +1,128 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.ifds.IDEConstantPropagation;
+import pascal.taie.analysis.dataflow.ifds.IDEResult;
+import pascal.taie.analysis.dataflow.inter.InterConstantPropagation;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IDECPTest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/inter";
+
+    private static void analyze(String mainClass) {
+        Main.main(new String[]{
+                "-pp", "-cp", CLASS_PATH, "-m", mainClass,
+                "-a", "cg=algorithm:cha",
+                "-a", InterConstantPropagation.ID + "=edge-refine:false;alias-aware:false",
+                "-a", IDEConstantPropagation.ID + "=edge-refine:false"});
+    }
+
+    /**
+     * The IDE analysis distinguishes calling contexts, thus it is
+     * at least as precise as the context-insensitive one, i.e.,
+     * every variable which is a constant in the result of
+     * {@link InterConstantPropagation} is the same constant here.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Example",
+            "Reference",
+            "Fibonacci",
+            "MultiIntArgs",
+            "ArgRet",
+            "Call",
+            "MultiReturn",
+            "PlusPlus",
+            "DeadLoop",
+            "ContextSensitivity",
+    })
+    void testAtLeastAsPrecise(String mainClass) {
+        analyze(mainClass);
+        DataflowResult<Stmt, CPFact> inter = World.get().getResult(InterConstantPropagation.ID);
+        IDEResult<Stmt, Var, Value> ide = World.get().getResult(IDEConstantPropagation.ID);
+        int[] constants = {0};
+        World.get().getClassHierarchy()
+                .applicationClasses()
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .forEach(m -> {
+                    for (Stmt stmt : m.getIR()) {
+                        CPFact interIn = inter.getInFact(stmt);
+                        if (interIn == null) {
+                            continue;
+                        }
+                        interIn.forEach((var, value) -> {
+                            if (value.isConstant()) {
+                                assertEquals(value, ide.getValue(stmt, var),
+                                        m + ": " + var + " at " + stmt);
+                                ++constants[0];
+                            }
+                        });
+                    }
+                });
+        assertTrue(constants[0] > 0);
+    }
+
+    @Test
+    void testContextSensitivity() {
+        analyze("ContextSensitivity");
+        IDEResult<Stmt, Var, Value> ide = World.get().getResult(IDEConstantPropagation.ID);
+        JMethod main = World.get().getMainMethod();
+        IR ir = main.getIR();
+        List<Stmt> stmts = ir.getStmts();
+        // values at the last statement (i.e., the return) of main()
+        Stmt last = stmts.get(stmts.size() - 1);
+        assertEquals(Value.makeConstant(1), ide.getValue(last, getVar(ir, "a")));
+        assertEquals(Value.makeConstant(2), ide.getValue(last, getVar(ir, "b")));
+        assertEquals(Value.makeConstant(11), ide.getValue(last, getVar(ir, "c")));
+        assertEquals(Value.makeConstant(12), ide.getValue(last, getVar(ir, "d")));
+        assertEquals(Value.makeConstant(25), ide.getValue(last, getVar(ir, "e")));
+        // the context-insensitive analysis merges the arguments of id()
+        DataflowResult<Stmt, CPFact> inter = World.get().getResult(InterConstantPropagation.ID);
+        assertEquals(Value.getNAC(), inter.getInFact(last).get(getVar(ir, "a")));
+    }
+
+    private static Var getVar(IR ir, String name) {
+        return ir.getVars()
+                .stream()
+                .filter(v -> v.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -27,6 +27,7 @@ import org.junit.jupiter.api.Test;
 import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class FactTest {
@@ -75,8 +76,75 @@ public class FactTest {
         assertTrue(f3.isEmpty());
     }
 
+    @Test
+    void testBitVectorSetAndClear() {
+        BitVectorFact fact = new BitVectorFact(130);
+        assertTrue(fact.isEmpty());
+        assertTrue(fact.set(0));
+        assertTrue(fact.set(64));
+        assertTrue(fact.set(129));
+        assertFalse(fact.set(64));
+        assertEquals(3, fact.cardinality());
+        assertEquals("[0, 64, 129]", fact.toString());
+        assertTrue(fact.clear(64));
+        assertFalse(fact.clear(64));
+        assertFalse(fact.get(64));
+        assertEquals(129, fact.nextSetBit(1));
+        assertEquals(-1, fact.nextSetBit(130));
+    }
+
+    @Test
+    void testBitVectorSetAll() {
+        BitVectorFact fact = new BitVectorFact(70);
+        fact.setAll();
+        assertEquals(70, fact.cardinality());
+        assertEquals(69, fact.nextSetBit(69));
+        assertEquals(-1, fact.nextSetBit(70));
+    }
+
+    @Test
+    void testBitVectorUnionAndIntersect() {
+        BitVectorFact fact = newBitVectorFact(100, 1, 70);
+        assertTrue(fact.union(newBitVectorFact(100, 2, 70)));
+        assertFalse(fact.union(newBitVectorFact(100, 1)));
+        assertEquals(newBitVectorFact(100, 1, 2, 70), fact);
+        assertTrue(fact.intersect(newBitVectorFact(100, 2, 70, 99)));
+        assertFalse(fact.intersect(newBitVectorFact(100, 2, 70)));
+        assertEquals(newBitVectorFact(100, 2, 70), fact);
+    }
+
+    @Test
+    void testBitVectorTransfer() {
+        BitVectorFact source = newBitVectorFact(100, 1, 2, 65);
+        BitVectorFact gen = newBitVectorFact(100, 3, 66);
+        BitVectorFact kill = newBitVectorFact(100, 2, 3, 65);
+        BitVectorFact target = new BitVectorFact(100);
+        assertTrue(target.transfer(source, gen, kill));
+        assertEquals(newBitVectorFact(100, 1, 3, 66), target);
+        assertFalse(target.transfer(source, gen, kill));
+        assertTrue(target.transfer(source, null, null));
+        assertEquals(source, target);
+    }
+
+    @Test
+    void testBitVectorCopy() {
+        BitVectorFact fact = newBitVectorFact(10, 1, 5);
+        BitVectorFact copy = fact.copy();
+        assertEquals(fact, copy);
+        copy.set(7);
+        assertFalse(fact.get(7));
+    }
+
     @SafeVarargs
     private static <T> SetFact<T> newSetFact(T... args) {
         return new SetFact<>(Arrays.asList(args));
     }
+
+    private static BitVectorFact newBitVectorFact(int size, int... indexes) {
+        BitVectorFact fact = new BitVectorFact(size);
+        for (int i : indexes) {
+            fact.set(i);
+        }
+        return fact;
+    }
 }
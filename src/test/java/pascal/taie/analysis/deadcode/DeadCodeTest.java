@@ -22,9 +22,29 @@
 
 package pascal.taie.analysis.deadcode;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.StmtResult;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.exception.ThrowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.misc.ResultProcessor;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.IRPrinter;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.Throw;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 public class DeadCodeTest {
 
@@ -47,4 +67,92 @@ public class DeadCodeTest {
         testDCD(inputClass);
     }
 
+    @Test
+    void testConcurrentPlan() {
+        // independent analyses run concurrently, and only the results
+        // of dead-code (and process-result) are kept
+        Tests.testInput("Loops", "src/test/resources/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "live-var=strongly:false",
+                "-a", "const-prop=edge-refine:false",
+                "-a", "clone-idiom",
+                "-a", "null-pointer",
+                "--plan-threads", "4",
+                "-kr", DeadCodeDetection.ID + "," + ResultProcessor.ID);
+    }
+
+    /**
+     * Runs independent analyses concurrently, and checks that all results
+     * stored in classes and IRs equal the ones of a sequential run.
+     */
+    @Test
+    void testConcurrentPlanResults() {
+        Map<String, List<String>> expected = runPlan("1");
+        assertFalse(expected.isEmpty());
+        for (int i = 0; i < 3; ++i) {
+            assertEquals(expected, runPlan("4"));
+        }
+    }
+
+    private static Map<String, List<String>> runPlan(String planThreads) {
+        Main.main("-pp", "-cp", "src/test/resources/deadcode/",
+                "--input-classes", "Loops",
+                "-a", "live-var=strongly:false",
+                "-a", "const-prop=edge-refine:false",
+                "-a", DeadCodeDetection.ID,
+                "-a", "clone-idiom",
+                "-a", "null-pointer",
+                "--plan-threads", planThreads);
+        Map<String, List<String>> results = Maps.newOrderedMap();
+        World.get().getClassHierarchy().applicationClasses().forEach(c -> {
+            c.getKeys().forEach(id -> results.put(c + "/" + id,
+                    toStrings(null, c.getResult(id))));
+            c.getDeclaredMethods()
+                    .stream()
+                    .filter(m -> !m.isAbstract())
+                    .forEach(m -> {
+                        IR ir = m.getIR();
+                        ir.getKeys().forEach(id -> results.put(m + "/" + id,
+                                toStrings(ir, ir.getResult(id))));
+                    });
+        });
+        return results;
+    }
+
+    private static List<String> toStrings(IR ir, Object result) {
+        if (result instanceof StmtResult<?> stmtResult) {
+            return ir.stmts()
+                    .filter(stmtResult::isRelevant)
+                    .map(s -> IRPrinter.toString(s) + " " + stmtResult.getResult(s))
+                    .toList();
+        } else if (result instanceof ThrowResult throwResult) {
+            return ir.stmts()
+                    .map(s -> IRPrinter.toString(s) + " "
+                            + toStrings(ir, throwResult.mayThrowImplicitly(s))
+                            + toStrings(ir, s instanceof Invoke invoke
+                            ? throwResult.mayThrowExplicitly(invoke)
+                            : s instanceof Throw t
+                            ? throwResult.mayThrowExplicitly(t) : null))
+                    .toList();
+        } else if (result instanceof CFG<?> cfg) {
+            return toStrings(cfg);
+        } else if (result instanceof Collection<?> c) {
+            return c.stream()
+                    .map(e -> e instanceof Stmt s ? IRPrinter.toString(s) : e.toString())
+                    .sorted()
+                    .toList();
+        } else {
+            return List.of(String.valueOf(result));
+        }
+    }
+
+    private static <N> List<String> toStrings(CFG<N> cfg) {
+        return cfg.getNodes()
+                .stream()
+                .flatMap(n -> cfg.getOutEdgesOf(n).stream())
+                .map(Object::toString)
+                .sorted()
+                .toList();
+    }
+
 }
@@ -52,6 +52,12 @@ public class BenchmarkRunner {
     @CommandLine.Option(names = "-advanced", defaultValue = "null")
     private String advanced;
 
+    @CommandLine.Option(names = "-solver", defaultValue = "default")
+    private String solver;
+
+    @CommandLine.Option(names = "-solver-threads", defaultValue = "-1")
+    private int solverThreads;
+
     @CommandLine.Parameters
     private List<String> benchmarks;
 
@@ -90,6 +96,8 @@ public class BenchmarkRunner {
                 "merge-string-objects", "false",
                 "cs", cs,
                 "advanced", advanced,
+                "solver", solver,
+                "solver-threads", Integer.toString(solverThreads),
                 "reflection-inference", "null",
                 "reflection-log", new File(BENCHMARK_HOME, info.reflectionLog()).toString());
         Collections.addAll(args,
@@ -0,0 +1,204 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import pascal.taie.Main;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.IndexedCSManager;
+import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.classes.JMethod;
+import picocli.CommandLine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark of {@link IndexedCSManager} against {@link MapBasedCSManager}.
+ * <p>
+ * It runs pointer analysis on the given program with each manager and
+ * reports the solving time. Then it replays the lookups of all the
+ * context-sensitive variables, objects and methods of the analysis on
+ * fresh managers of both kinds, and reports the time per lookup, where
+ * the first pass (which creates the elements) is excluded. By default,
+ * it analyzes {@code CastHeavy} in the test resources, and larger programs
+ * can be given via {@code -cp} and {@code -m}, e.g.,
+ * <pre>
+ * CSManagerBenchmark -cp app.jar,lib.jar -m Main -cs 2-obj
+ * </pre>
+ */
+@CommandLine.Command
+public class CSManagerBenchmark {
+
+    @CommandLine.Option(names = "-cp", split = ",", defaultValue =
+            "src/test/resources/pta,src/test/resources/pta/basic")
+    private List<String> classPath;
+
+    @CommandLine.Option(names = "-m", defaultValue = "CastHeavy")
+    private String mainClass;
+
+    @CommandLine.Option(names = "-cs", defaultValue = "1-obj")
+    private String cs;
+
+    @CommandLine.Option(names = "-warmup", defaultValue = "3")
+    private int warmup;
+
+    @CommandLine.Option(names = "-iterations", defaultValue = "5")
+    private int iterations;
+
+    /**
+     * Minimum number of lookups in each iteration of the replay,
+     * so that small programs are measured over enough lookups.
+     */
+    @CommandLine.Option(names = "-ops", defaultValue = "10000000")
+    private int minOps;
+
+    /**
+     * Options of the benchmark run, read by {@link Measure}.
+     */
+    private static CSManagerBenchmark current;
+
+    public static void main(String[] args) {
+        current = CommandLine.populateCommand(new CSManagerBenchmark(), args);
+        long mapTime = current.solve("map");
+        long indexedTime = current.solve("indexed");
+        System.out.printf("solving time: map %.2fs, indexed %.2fs%n",
+                mapTime / 1e9, indexedTime / 1e9);
+        Measure.replay();
+    }
+
+    /**
+     * @return the solving time of pointer analysis with given manager.
+     */
+    private long solve(String csManager) {
+        List<String> args = new ArrayList<>();
+        args.add("-pp");
+        classPath.forEach(cp -> Collections.addAll(args, "-cp", cp));
+        Collections.addAll(args, "-m", mainClass,
+                "-a", "pta=cs:" + cs + ";implicit-entries:false;"
+                        + "cs-manager:" + csManager + ";"
+                        + "plugins:[" + Measure.class.getName() + "]");
+        Main.main(args.toArray(new String[0]));
+        return Measure.solvingTime;
+    }
+
+    /**
+     * Records the solving time and the context-sensitive elements
+     * of the analysis, and replays the lookups of the elements.
+     */
+    public static class Measure implements Plugin {
+
+        private static long solvingTime;
+
+        private static List<CSVar> csVars;
+
+        private static List<CSObj> csObjs;
+
+        private static List<CSMethod> csMethods;
+
+        private Solver solver;
+
+        private long start;
+
+        @Override
+        public void setSolver(Solver solver) {
+            this.solver = solver;
+        }
+
+        @Override
+        public void onStart() {
+            start = System.nanoTime();
+        }
+
+        @Override
+        public void onFinish() {
+            solvingTime = System.nanoTime() - start;
+            CSManager csManager = solver.getCSManager();
+            csVars = List.copyOf(csManager.getCSVars());
+            csObjs = List.copyOf(csManager.getObjects());
+            csMethods = solver.getCallGraph().reachableMethods().toList();
+        }
+
+        private static void replay() {
+            int lookups = csVars.size() + csObjs.size() + csMethods.size();
+            int rounds = Math.max(1, current.minOps / lookups);
+            System.out.printf("%d CS variables, %d CS objects, %d CS methods," +
+                            " %d lookups per iteration%n",
+                    csVars.size(), csObjs.size(), csMethods.size(),
+                    (long) rounds * lookups);
+            long mapTime = 0, indexedTime = 0;
+            for (int i = 0; i < current.warmup + current.iterations; ++i) {
+                long map = time(MapBasedCSManager::new, rounds);
+                long indexed = time(IndexedCSManager::new, rounds);
+                if (i >= current.warmup) {
+                    mapTime += map;
+                    indexedTime += indexed;
+                }
+            }
+            double ops = (double) current.iterations * rounds * lookups;
+            System.out.printf("map:     %.1f ns/lookup%n", mapTime / ops);
+            System.out.printf("indexed: %.1f ns/lookup%n", indexedTime / ops);
+        }
+
+        /**
+         * @return the time of looking up all elements for given rounds
+         * on a fresh manager, excluding the first pass.
+         */
+        private static long time(Supplier<CSManager> supplier, int rounds) {
+            CSManager csManager = supplier.get();
+            lookup(csManager);
+            long start = System.nanoTime();
+            for (int r = 0; r < rounds; ++r) {
+                lookup(csManager);
+            }
+            return System.nanoTime() - start;
+        }
+
+        private static void lookup(CSManager csManager) {
+            for (CSVar csVar : csVars) {
+                Context context = csVar.getContext();
+                Var var = csVar.getVar();
+                csManager.getCSVar(context, var);
+            }
+            for (CSObj csObj : csObjs) {
+                Context context = csObj.getContext();
+                Obj obj = csObj.getObject();
+                csManager.getCSObj(context, obj);
+            }
+            for (CSMethod csMethod : csMethods) {
+                Context context = csMethod.getContext();
+                JMethod method = csMethod.getMethod();
+                csManager.getCSMethod(context, method);
+            }
+        }
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.ConcurrentCSManager;
+import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.selector.ContextSelectorFactory;
+import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
+import pascal.taie.analysis.pta.core.solver.DefaultSolver;
+import pascal.taie.analysis.pta.core.solver.ParallelSolver;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.plugin.ClassInitializer;
+import pascal.taie.analysis.pta.plugin.CompositePlugin;
+import pascal.taie.analysis.pta.plugin.EntryPointHandler;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.IRBuildHelper;
+import pascal.taie.ir.exp.InvokeSpecial;
+import pascal.taie.ir.exp.NewInstance;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.Subsignature;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.util.MultiStringsSource;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link DefaultSolver#update(Map)}. The results of incremental
+ * updates are expected to equal the results of solving the changed
+ * program from scratch.
+ */
+public class IncrementalUpdateTest {
+
+    private static final String MAIN = "IncrementalUpdate";
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ci", "1-obj", "2-call", "2-type"})
+    void testUpdate(String cs) {
+        AnalysisOptions options = buildWorld(BasicTest.DIR, MAIN);
+        JMethod make = getMethod("Factory", "make");
+        JMethod put = getMethod("Box", "put");
+        IR makeIR = make.getIR();
+        IR putIR = put.getIR();
+        DefaultSolver solver = solve(options, cs);
+        Map<String, Set<String>> original = getResults(solver);
+        List<Map<JMethod, IR>> changes = List.of(
+                // allocates Square instead of Circle
+                Map.of(make, newShape(make, "Square")),
+                // returns nothing
+                Map.of(make, new IRBuildHelper(make).buildEmpty()),
+                // stores nothing
+                Map.of(put, new IRBuildHelper(put).buildEmpty()),
+                // both of above
+                Map.of(make, newShape(make, "Shape"),
+                        put, new IRBuildHelper(put).buildEmpty()));
+        for (Map<JMethod, IR> change : changes) {
+            solver.update(change);
+            Map<String, Set<String>> updated = getResults(solver);
+            assertNotEquals(original, updated);
+            assertEquals(getResults(solve(options, cs)), updated,
+                    "incremental update " + change + " with " + cs);
+            // revert the change
+            solver.update(Map.of(make, makeIR, put, putIR));
+            assertEquals(original, getResults(solver),
+                    "reverting update " + change + " with " + cs);
+        }
+    }
+
+    /**
+     * Empties the body of each reachable method in turn, and checks
+     * the updated results and the results after restoring the body.
+     */
+    @ParameterizedTest
+    @MultiStringsSource({"basic", "LinkedQueue", "ci"})
+    @MultiStringsSource({"basic", "RedBlackBST", "1-obj"})
+    @MultiStringsSource({"basic", "MultiArray", "ci"})
+    @MultiStringsSource({"basic", "Dispatch", "1-type"})
+    @MultiStringsSource({"contextsensitivity", "TwoObject", "2-obj"})
+    @MultiStringsSource({"contextsensitivity", "TwoCall", "2-call"})
+    @MultiStringsSource({"contextsensitivity", "LinkedQueue", "2-obj"})
+    void testEmptyBodies(String dir, String main, String cs) {
+        AnalysisOptions options = buildWorld(dir, main);
+        DefaultSolver solver = solve(options, cs);
+        Map<String, Set<String>> original = getResults(solver);
+        List<JMethod> methods = solver.getCallGraph()
+                .reachableMethods()
+                .map(CSMethod::getMethod)
+                .distinct()
+                .filter(JMethod::isApplication)
+                .toList();
+        for (JMethod method : methods) {
+            IR ir = method.getIR();
+            solver.update(Map.of(method, new IRBuildHelper(method).buildEmpty()));
+            assertEquals(getResults(solve(options, cs)), getResults(solver),
+                    "emptying " + method + " with " + cs);
+            solver.update(Map.of(method, ir));
+            assertEquals(original, getResults(solver),
+                    "restoring " + method + " with " + cs);
+        }
+    }
+
+    /**
+     * Applies a sequence of changes without reverting them.
+     */
+    @Test
+    void testConsecutiveUpdates() {
+        AnalysisOptions options = buildWorld(BasicTest.DIR, MAIN);
+        JMethod make = getMethod("Factory", "make");
+        JMethod put = getMethod("Box", "put");
+        IR makeIR = make.getIR();
+        IR putIR = put.getIR();
+        DefaultSolver solver = solve(options, "1-obj");
+        for (Map<JMethod, IR> change : List.of(
+                Map.of(make, newShape(make, "Square")),
+                Map.of(put, new IRBuildHelper(put).buildEmpty()),
+                Map.of(make, newShape(make, "Circle")),
+                Map.of(put, putIR),
+                Map.of(make, makeIR))) {
+            solver.update(change);
+            assertEquals(getResults(solve(options, "1-obj")), getResults(solver),
+                    "incremental update " + change);
+        }
+        // the result of the solver is rebuilt after the updates
+        assertEquals(getReachableMethods(solve(options, "1-obj")),
+                getReachableMethods(solver));
+    }
+
+    @Test
+    void testUnsupportedSolvers() {
+        AnalysisOptions options = buildWorld(BasicTest.DIR, MAIN);
+        JMethod make = getMethod("Factory", "make");
+        Map<JMethod, IR> change = Map.of(make, newShape(make, "Square"));
+        // update before solving
+        DefaultSolver unsolved = newSolver(options, "ci", new MapBasedCSManager());
+        unsolved.setPlugin(new EntryPointHandler());
+        assertThrows(IllegalStateException.class, () -> unsolved.update(change));
+        // parallel solver
+        DefaultSolver parallel = new ParallelSolver(options,
+                new AllocationSiteBasedModel(options),
+                ContextSelectorFactory.makePlainSelector("ci"),
+                new ConcurrentCSManager());
+        assertThrows(UnsupportedOperationException.class,
+                () -> parallel.update(change));
+        // plugin which handles new facts
+        DefaultSolver withPlugins = newSolver(options, "ci", new MapBasedCSManager());
+        CompositePlugin plugin = new CompositePlugin();
+        plugin.addPlugin(new EntryPointHandler(), new ClassInitializer());
+        plugin.setSolver(withPlugins);
+        withPlugins.setPlugin(plugin);
+        withPlugins.solve();
+        assertThrows(UnsupportedOperationException.class,
+                () -> withPlugins.update(change));
+    }
+
+    @Test
+    void testMergePFGCycles() {
+        AnalysisOptions options = buildWorld(BasicTest.DIR, MAIN, "merge-pfg-cycles:true");
+        JMethod make = getMethod("Factory", "make");
+        DefaultSolver solver = solve(options, "ci");
+        assertThrows(UnsupportedOperationException.class,
+                () -> solver.update(Map.of(make, newShape(make, "Square"))));
+    }
+
+    /**
+     * Builds the world for given program, and returns the options
+     * of pointer analysis.
+     */
+    private static AnalysisOptions buildWorld(String dir, String main, String... opts) {
+        List<String> args = new ArrayList<>(List.of(opts));
+        args.add("plugins:[" + OptionsRecorder.class.getName() + "]");
+        Tests.testPTA(false, dir, main, args.toArray(String[]::new));
+        return OptionsRecorder.options;
+    }
+
+    private static JMethod getMethod(String className, String methodName) {
+        return World.get().getClassHierarchy()
+                .getClass(className)
+                .getDeclaredMethod(methodName);
+    }
+
+    /**
+     * @return an IR of given method which returns a new object of given class.
+     */
+    private static IR newShape(JMethod method, String className) {
+        JClass jclass = World.get().getClassHierarchy().getClass(className);
+        ClassType type = jclass.getType();
+        IRBuildHelper helper = new IRBuildHelper(method);
+        Var shape = helper.newTempVar(type);
+        JMethod init = jclass.getDeclaredMethod(Subsignature.getNoArgInit());
+        return helper.build(List.of(
+                new New(method, shape, new NewInstance(type)),
+                new Invoke(method, new InvokeSpecial(init.getRef(), shape, List.of())),
+                new Copy(helper.getReturnVar(), shape),
+                helper.newReturn()));
+    }
+
+    /**
+     * @return a solver without plugins (except entry point handler)
+     * which has solved the program of current world.
+     */
+    private static DefaultSolver solve(AnalysisOptions options, String cs) {
+        DefaultSolver solver = newSolver(options, cs, new MapBasedCSManager());
+        Plugin plugin = new EntryPointHandler();
+        plugin.setSolver(solver);
+        solver.setPlugin(plugin);
+        solver.solve();
+        return solver;
+    }
+
+    private static DefaultSolver newSolver(
+            AnalysisOptions options, String cs, CSManager csManager) {
+        return new DefaultSolver(options, new AllocationSiteBasedModel(options),
+                ContextSelectorFactory.makePlainSelector(cs), csManager);
+    }
+
+    /**
+     * @return string representations of the non-empty points-to sets
+     * of the variables of the reachable methods and the heap pointers,
+     * and the call edges, of given solver.
+     */
+    private static Map<String, Set<String>> getResults(Solver solver) {
+        Map<String, Set<String>> results = Maps.newMap();
+        CSManager csManager = solver.getCSManager();
+        solver.getCallGraph().reachableMethods().forEach(csMethod -> {
+            for (Var var : csMethod.getMethod().getIR().getVars()) {
+                CSVar csVar = csManager.getCSVar(csMethod.getContext(), var);
+                addPointsToSet(results, csMethod + "/" + var.getName(), csVar);
+            }
+        });
+        csManager.getStaticFields()
+                .forEach(p -> addPointsToSet(results, p.toString(), p));
+        csManager.getInstanceFields()
+                .forEach(p -> addPointsToSet(results, p.toString(), p));
+        csManager.getArrayIndexes()
+                .forEach(p -> addPointsToSet(results, p.toString(), p));
+        results.put("reachable-methods", solver.getCallGraph()
+                .reachableMethods()
+                .map(CSMethod::toString)
+                .collect(Collectors.toSet()));
+        results.put("call-edges", solver.getCallGraph()
+                .edges()
+                .map(e -> e.getCallSite() + " -> " + e.getCallee())
+                .collect(Collectors.toSet()));
+        return results;
+    }
+
+    private static void addPointsToSet(
+            Map<String, Set<String>> results, String key, Pointer pointer) {
+        PointsToSet pts = pointer.getPointsToSet();
+        if (pts != null && !pts.isEmpty()) {
+            results.put(key, pts.objects()
+                    .map(CSObj::toString)
+                    .collect(Collectors.toSet()));
+        }
+    }
+
+    /**
+     * @return signatures of the reachable methods in the (context-insensitive)
+     * call graph of the result of given solver.
+     */
+    private static Set<String> getReachableMethods(Solver solver) {
+        return solver.getResult()
+                .getCallGraph()
+                .reachableMethods()
+                .map(JMethod::getSignature)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Records the options of the last pointer analysis.
+     */
+    public static class OptionsRecorder implements Plugin {
+
+        private static AnalysisOptions options;
+
+        @Override
+        public void setSolver(Solver solver) {
+            options = solver.getOptions();
+        }
+    }
+}
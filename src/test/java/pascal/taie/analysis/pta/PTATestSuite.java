@@ -25,6 +25,7 @@ package pascal.taie.analysis.pta;
 import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.Suite;
 import pascal.taie.analysis.pta.core.cs.context.ContextTest;
+import pascal.taie.analysis.pta.toolkit.mahjong.MahjongTest;
 
 @Suite
 @SelectClasses({
@@ -32,9 +33,13 @@ import pascal.taie.analysis.pta.core.cs.context.ContextTest;
         BasicTestFull.class,
         ContextSensitivityTestFull.class,
         ExceptionTest.class,
+        IncrementalUpdateTest.class,
         LambdaTest.class,
         Java9StringConcatTest.class,
+        MahjongTest.class,
         ReflectionTest.class,
+        SolverTest.class,
+        StoredResultTest.class,
         TaintTest.class,
         WorldCacheTest.class,
 })
@@ -0,0 +1,158 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import pascal.taie.Main;
+import pascal.taie.analysis.pta.core.solver.ParallelSolver;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import picocli.CommandLine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures the speedup of {@link ParallelSolver} over the default solver.
+ * <p>
+ * It runs pointer analysis on the given program with the default solver,
+ * and then with the parallel solver for each given number of threads,
+ * and reports the solving time of each configuration (the minimum over
+ * the iterations) and its speedup over the default solver. All runs must
+ * reach the same numbers of points-to relations and call edges.
+ * By default, it analyzes {@code CastHeavy} in the test resources, and
+ * larger programs can be given via {@code -cp} and {@code -m}, e.g.,
+ * <pre>
+ * ParallelSolverBenchmark -cp app.jar,lib.jar -m Main -threads 1,2,4,8
+ * </pre>
+ * The programs in java-benchmarks can be analyzed by
+ * {@link BenchmarkRunner} with {@code -solver parallel -solver-threads N},
+ * whose pointer analysis time can be compared in the same way.
+ */
+@CommandLine.Command
+public class ParallelSolverBenchmark {
+
+    @CommandLine.Option(names = "-cp", split = ",", defaultValue =
+            "src/test/resources/pta,src/test/resources/pta/basic")
+    private List<String> classPath;
+
+    @CommandLine.Option(names = "-m", defaultValue = "CastHeavy")
+    private String mainClass;
+
+    @CommandLine.Option(names = "-cs", defaultValue = "ci")
+    private String cs;
+
+    @CommandLine.Option(names = "-threads", split = ",", defaultValue = "1,2,4")
+    private List<Integer> threads;
+
+    @CommandLine.Option(names = "-iterations", defaultValue = "3")
+    private int iterations;
+
+    public static void main(String[] args) {
+        ParallelSolverBenchmark benchmark = CommandLine.populateCommand(
+                new ParallelSolverBenchmark(), args);
+        benchmark.run();
+    }
+
+    private void run() {
+        Result base = measure("default", 1);
+        System.out.printf("%-12s %8s %8s %12s %10s%n",
+                "solver", "threads", "time(s)", "#var-pts", "speedup");
+        print("default", 1, base, base);
+        for (int n : threads) {
+            Result result = measure("parallel", n);
+            if (result.pointsTo != base.pointsTo
+                    || result.callEdges != base.callEdges) {
+                throw new AssertionError("parallel solver with " + n
+                        + " threads disagrees with default solver: "
+                        + result + " != " + base);
+            }
+            print("parallel", n, result, base);
+        }
+    }
+
+    /**
+     * @return the result with the minimum solving time over the iterations.
+     */
+    private Result measure(String solver, int nThreads) {
+        Result best = null;
+        for (int i = 0; i < iterations; ++i) {
+            List<String> args = new ArrayList<>();
+            args.add("-pp");
+            classPath.forEach(cp -> Collections.addAll(args, "-cp", cp));
+            Collections.addAll(args, "-m", mainClass,
+                    "-a", "pta=cs:" + cs + ";implicit-entries:false;"
+                            + "solver:" + solver + ";solver-threads:" + nThreads + ";"
+                            + "plugins:[" + Measure.class.getName() + "]");
+            Main.main(args.toArray(new String[0]));
+            if (best == null || Measure.result.nanos < best.nanos) {
+                best = Measure.result;
+            }
+        }
+        return best;
+    }
+
+    private static void print(String solver, int nThreads,
+                              Result result, Result base) {
+        System.out.printf("%-12s %8d %8.2f %12d %9.2fx%n",
+                solver, nThreads, result.nanos / 1e9, result.pointsTo,
+                (double) base.nanos / result.nanos);
+    }
+
+    private record Result(long nanos, long pointsTo, long callEdges) {
+    }
+
+    /**
+     * Records the solving time and the size of the result.
+     */
+    public static class Measure implements Plugin {
+
+        private static Result result;
+
+        private Solver solver;
+
+        private long start;
+
+        @Override
+        public void setSolver(Solver solver) {
+            this.solver = solver;
+        }
+
+        @Override
+        public void onStart() {
+            start = System.nanoTime();
+        }
+
+        @Override
+        public void onFinish() {
+            long nanos = System.nanoTime() - start;
+            long pointsTo = solver.getCSManager()
+                    .getCSVars()
+                    .stream()
+                    .mapToLong(v -> v.getObjects().size())
+                    .sum();
+            long callEdges = solver.getCallGraph().edges().count();
+            result = new Result(nanos, pointsTo, callEdges);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import pascal.taie.Main;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import picocli.CommandLine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Measures the memory of the points-to sets of each representation
+ * (option {@code points-to-set}).
+ * <p>
+ * For each representation, it runs pointer analysis on the given program,
+ * and after the analysis finishes, measures the used heap with and without
+ * the points-to sets of all pointers. As the analysis is deterministic,
+ * the heap without points-to sets of the {@code hybrid} run (which has no
+ * structures shared among points-to sets) is the same for all runs, and
+ * the memory of the points-to sets of a representation is the difference
+ * between its used heap and that baseline. The representations that share
+ * structures among points-to sets (i.e., {@code shared} and {@code bdd})
+ * pay off in deep context-sensitive analyses, e.g.,
+ * <pre>
+ * PointsToSetMemoryBenchmark -cp app.jar,lib.jar -m Main -cs 3-obj
+ * </pre>
+ * Run it with a fixed heap size (e.g., {@code -Xms8g -Xmx8g}), so that
+ * the measurements are not disturbed by resizing of the heap.
+ */
+@CommandLine.Command
+public class PointsToSetMemoryBenchmark {
+
+    private static final String BASELINE = "hybrid";
+
+    private static final double MB = 1024.0 * 1024.0;
+
+    @CommandLine.Option(names = "-cp", split = ",", defaultValue =
+            "src/test/resources/pta,src/test/resources/pta/basic")
+    private List<String> classPath;
+
+    @CommandLine.Option(names = "-m", defaultValue = "LinkedQueue")
+    private String mainClass;
+
+    @CommandLine.Option(names = "-cs", defaultValue = "2-obj")
+    private String cs;
+
+    @CommandLine.Option(names = "-kinds", split = ",",
+            defaultValue = "hybrid,shared,bdd")
+    private List<String> kinds;
+
+    /**
+     * Used heap (in bytes) with and without points-to sets,
+     * recorded by {@link Measure} for the current run.
+     */
+    private static long withSets, withoutSets;
+
+    public static void main(String[] args) {
+        PointsToSetMemoryBenchmark benchmark = CommandLine.populateCommand(
+                new PointsToSetMemoryBenchmark(), args);
+        List<String> kinds = new ArrayList<>(benchmark.kinds);
+        // the baseline is measured first
+        kinds.remove(BASELINE);
+        kinds.add(0, BASELINE);
+        long baseline = 0;
+        List<String> results = new ArrayList<>();
+        for (String kind : kinds) {
+            benchmark.run(kind);
+            if (kind.equals(BASELINE)) {
+                baseline = withoutSets;
+            }
+            if (benchmark.kinds.contains(kind)) {
+                results.add(String.format("%-8s heap: %9.1f MB, points-to sets: %9.1f MB",
+                        kind, withSets / MB, (withSets - baseline) / MB));
+            }
+        }
+        System.out.printf("Memory of points-to sets (%s, %s):%n",
+                benchmark.mainClass, benchmark.cs);
+        results.forEach(System.out::println);
+    }
+
+    private void run(String kind) {
+        List<String> taieArgs = new ArrayList<>();
+        taieArgs.add("-pp");
+        classPath.forEach(cp -> Collections.addAll(taieArgs, "-cp", cp));
+        Collections.addAll(taieArgs, "-m", mainClass,
+                "-a", "pta=cs:" + cs + ";implicit-entries:false;"
+                        + "points-to-set:" + kind + ";"
+                        + "plugins:[" + Measure.class.getName() + "]");
+        Main.main(taieArgs.toArray(new String[0]));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; ++i) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Measures the used heap after pointer analysis finishes,
+     * then drops the points-to sets and measures it again.
+     */
+    public static class Measure implements Plugin {
+
+        private Solver solver;
+
+        @Override
+        public void setSolver(Solver solver) {
+            this.solver = solver;
+        }
+
+        @Override
+        public void onFinish() {
+            List<Pointer> pointers = solver.getCSManager().pointers().toList();
+            long objects = pointers.stream()
+                    .map(Pointer::getPointsToSet)
+                    .filter(Objects::nonNull)
+                    .mapToLong(PointsToSet::size)
+                    .sum();
+            withSets = usedHeap();
+            pointers.forEach(p -> p.setPointsToSet(null));
+            withoutSets = usedHeap();
+            System.out.printf("%d pointers, %d points-to relations%n",
+                    pointers.size(), objects);
+        }
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.plugin.ContextBudgetMonitor;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.ir.exp.CastExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Cast;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.MultiStringsSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests alternative pointer analysis solvers. The solvers are expected
+ * to produce the same results as the default solver.
+ */
+public class SolverTest {
+
+    @ParameterizedTest
+    @MultiStringsSource({"Assign", "solver:parallel", "solver-threads:4"})
+    @MultiStringsSource({"InstanceField", "solver:parallel", "solver-threads:4"})
+    @MultiStringsSource({"LinkedQueue", "solver:parallel", "solver-threads:4"})
+    @MultiStringsSource({"RedBlackBST", "solver:parallel", "solver-threads:4"})
+    @MultiStringsSource({"Cycle", "solver:parallel", "solver-threads:2"})
+    @MultiStringsSource({"Array", "solver:parallel", "solver-threads:2"})
+    @MultiStringsSource({"Cast", "solver:parallel", "solver-threads:2"})
+    void testParallel(String mainClass, String... opts) {
+        Tests.testPTA(BasicTest.DIR, mainClass, opts);
+    }
+
+    /**
+     * Runs the parallel solver repeatedly with many threads on a program
+     * where different variables store to the fields of the same objects,
+     * and checks that the results equal the results of the default solver.
+     */
+    @Test
+    void testParallelSharedStores() {
+        Tests.testPTA(false, BasicTest.DIR, "SharedFieldStore");
+        Map<String, Set<String>> expected = getVarPointsToSets();
+        for (int i = 0; i < 5; ++i) {
+            Tests.testPTA(false, BasicTest.DIR, "SharedFieldStore",
+                    "solver:parallel", "solver-threads:16", "solver-min-batch:1");
+            assertEquals(expected, getVarPointsToSets());
+        }
+    }
+
+    /**
+     * @return points-to sets of all variables in the result of
+     * the last pointer analysis.
+     */
+    private static Map<String, Set<String>> getVarPointsToSets() {
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        return result.getVars()
+                .stream()
+                .collect(Collectors.toMap(
+                        v -> v.getMethod() + "/" + v.getName(),
+                        v -> result.getPointsToSet(v)
+                                .stream()
+                                .map(Obj::toString)
+                                .collect(Collectors.toSet())));
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"TwoObject", "cs:2-obj", "solver:parallel"})
+    @MultiStringsSource({"TwoType", "cs:2-type", "solver:parallel"})
+    @MultiStringsSource({"TwoCall", "cs:2-call", "solver:parallel"})
+    void testParallelCS(String mainClass, String... opts) {
+        Tests.testPTA(ContextSensitivityTest.DIR, mainClass, opts);
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"LinkedQueue", "worklist-policy:lifo"})
+    @MultiStringsSource({"RedBlackBST", "worklist-policy:lifo"})
+    @MultiStringsSource({"LinkedQueue", "worklist-policy:topo"})
+    @MultiStringsSource({"RedBlackBST", "worklist-policy:topo"})
+    @MultiStringsSource({"LinkedQueue", "worklist-policy:pts-size"})
+    @MultiStringsSource({"RedBlackBST", "worklist-policy:pts-size"})
+    @MultiStringsSource({"Cycle", "worklist-policy:topo", "solver:parallel"})
+    void testWorkListPolicy(String mainClass, String... opts) {
+        Tests.testPTA(BasicTest.DIR, mainClass, opts);
+    }
+
+    /**
+     * Checks the processing order of {@code topo} policy. In TopoOrder,
+     * x and y are added to the work list in this order and there is
+     * a PFG edge y -> x, thus {@code topo} processes y before x,
+     * and x only once with the objects from both allocation sites,
+     * while {@code fifo} processes x before y, and x twice.
+     */
+    @Test
+    void testTopologicalOrder() {
+        for (String[] opts : List.of(
+                new String[]{"worklist-policy:topo"},
+                new String[]{"worklist-policy:topo", "worklist-rerank-interval:1"})) {
+            List<String> processed = getProcessedVars(opts);
+            assertEquals(List.of("y", "x"), processed.stream()
+                    .filter(v -> v.equals("x") || v.equals("y"))
+                    .toList());
+        }
+        List<String> processed = getProcessedVars("worklist-policy:fifo");
+        assertEquals(List.of("x", "y", "x"), processed.stream()
+                .filter(v -> v.equals("x") || v.equals("y"))
+                .toList());
+    }
+
+    /**
+     * @return names of the variables of TopoOrder.main() in the order
+     * that the solver processes their points-to sets.
+     */
+    private static List<String> getProcessedVars(String... opts) {
+        ProcessedVarRecorder.processed.clear();
+        List<String> args = new ArrayList<>(List.of(opts));
+        args.add("plugins:[" + ProcessedVarRecorder.class.getName() + "]");
+        Tests.testPTA(false, BasicTest.DIR, "TopoOrder", args.toArray(String[]::new));
+        return List.copyOf(ProcessedVarRecorder.processed);
+    }
+
+    /**
+     * Records the variables of main method in the order that the solver
+     * processes their points-to sets.
+     */
+    public static class ProcessedVarRecorder implements Plugin {
+
+        private static final List<String> processed = new ArrayList<>();
+
+        @Override
+        public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
+            Var var = csVar.getVar();
+            if (var.getMethod().equals(World.get().getMainMethod())) {
+                processed.add(var.getName());
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"Cycle", "merge-pfg-cycles:true"})
+    @MultiStringsSource({"Recursion", "merge-pfg-cycles:true"})
+    @MultiStringsSource({"LinkedQueue", "merge-pfg-cycles:true"})
+    @MultiStringsSource({"ComplexAssign", "merge-pfg-cycles:true"})
+    @MultiStringsSource({"Cast", "merge-pfg-cycles:true"})
+    @MultiStringsSource({"Cycle", "merge-pfg-cycles:true", "merge-pfg-cycles-threshold:1"})
+    @MultiStringsSource({"Recursion", "merge-pfg-cycles:true", "merge-pfg-cycles-threshold:1"})
+    @MultiStringsSource({"LinkedQueue", "merge-pfg-cycles:true", "merge-pfg-cycles-threshold:1"})
+    @MultiStringsSource({"Cast", "merge-pfg-cycles:true", "merge-pfg-cycles-threshold:1"})
+    void testMergePFGCycles(String mainClass, String... opts) {
+        Tests.testPTA(BasicTest.DIR, mainClass, opts);
+    }
+
+    /**
+     * Merges PFG cycles as early as possible in taint analysis, which
+     * adds non-identity transfers to PFG edges (possibly in merged cycles)
+     * and filters to pointers.
+     */
+    @ParameterizedTest
+    @MultiStringsSource({"CycleTaint", TaintTest.TAINT_CONFIG,
+            "merge-pfg-cycles:true", "merge-pfg-cycles-threshold:1"})
+    @MultiStringsSource({"LinkedQueue", TaintTest.TAINT_CONFIG,
+            "merge-pfg-cycles:true", "merge-pfg-cycles-threshold:1"})
+    @MultiStringsSource({"BackPropagation", TaintTest.TAINT_CONFIG,
+            "merge-pfg-cycles:true", "merge-pfg-cycles-threshold:1"})
+    @MultiStringsSource({"StringAppend", TaintTest.TAINT_CONFIG,
+            "merge-pfg-cycles:true", "merge-pfg-cycles-threshold:1"})
+    void testMergePFGCyclesTaint(String mainClass, String... opts) {
+        Tests.testPTA(TaintTest.DIR, mainClass, opts);
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"Assign", "points-to-set:shared"})
+    @MultiStringsSource({"LinkedQueue", "points-to-set:shared"})
+    @MultiStringsSource({"RedBlackBST", "points-to-set:shared"})
+    @MultiStringsSource({"Cast", "points-to-set:shared"})
+    @MultiStringsSource({"Cycle", "points-to-set:shared", "merge-pfg-cycles:true"})
+    @MultiStringsSource({"Array", "points-to-set:shared", "solver:parallel"})
+    void testSharedPointsToSet(String mainClass, String... opts) {
+        Tests.testPTA(BasicTest.DIR, mainClass, opts);
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"TwoObject", "cs:2-obj", "points-to-set:shared"})
+    @MultiStringsSource({"TwoCall", "cs:2-call", "points-to-set:shared"})
+    void testSharedPointsToSetCS(String mainClass, String... opts) {
+        Tests.testPTA(ContextSensitivityTest.DIR, mainClass, opts);
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"Assign", "points-to-set:bdd"})
+    @MultiStringsSource({"LinkedQueue", "points-to-set:bdd"})
+    @MultiStringsSource({"Cast", "points-to-set:bdd"})
+    @MultiStringsSource({"Array", "points-to-set:bdd", "solver:parallel"})
+    void testBDDPointsToSet(String mainClass, String... opts) {
+        Tests.testPTA(BasicTest.DIR, mainClass, opts);
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"TwoObject", "cs:2-obj", "points-to-set:bdd"})
+    @MultiStringsSource({"TwoCall", "cs:2-call", "points-to-set:bdd"})
+    void testBDDPointsToSetCS(String mainClass, String... opts) {
+        Tests.testPTA(ContextSensitivityTest.DIR, mainClass, opts);
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"Assign", "cs-manager:indexed"})
+    @MultiStringsSource({"InstanceField", "cs-manager:indexed"})
+    @MultiStringsSource({"Array", "cs-manager:indexed"})
+    @MultiStringsSource({"StaticField", "cs-manager:indexed"})
+    void testIndexedCSManager(String mainClass, String... opts) {
+        Tests.testPTA(BasicTest.DIR, mainClass, opts);
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"TwoObject", "cs:2-obj", "cs-manager:indexed"})
+    @MultiStringsSource({"TwoCall", "cs:2-call", "cs-manager:indexed"})
+    @MultiStringsSource({"TwoType", "cs:2-type", "cs-manager:indexed"})
+    void testIndexedCSManagerCS(String mainClass, String... opts) {
+        Tests.testPTA(ContextSensitivityTest.DIR, mainClass, opts);
+    }
+
+    /**
+     * Checks that the type filters on cast-heavy code keep exactly
+     * the objects of cast operands whose types are subtypes of cast types,
+     * and that all points-to set representations and solvers produce
+     * the same points-to sets for the variables.
+     */
+    @Test
+    void testTypeFilters() {
+        Map<String, Set<String>> expected = null;
+        for (String[] opts : List.of(
+                new String[]{},
+                new String[]{"points-to-set:shared"},
+                new String[]{"points-to-set:bdd"},
+                new String[]{"solver:parallel", "solver-threads:4"})) {
+            Tests.testPTA(false, BasicTest.DIR, "CastHeavy", opts);
+            PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+            TypeSystem typeSystem = World.get().getTypeSystem();
+            List<Cast> casts = World.get().getMainMethod().getIR()
+                    .stmts()
+                    .filter(s -> s instanceof Cast)
+                    .map(s -> (Cast) s)
+                    .toList();
+            assertFalse(casts.isEmpty());
+            boolean filtered = false;
+            for (Cast cast : casts) {
+                CastExp exp = cast.getRValue();
+                Set<Obj> input = result.getPointsToSet(exp.getValue());
+                Set<Obj> accepted = input.stream()
+                        .filter(o -> typeSystem.isSubtype(exp.getCastType(), o.getType()))
+                        .collect(Collectors.toSet());
+                assertEquals(accepted, Set.copyOf(result.getPointsToSet(cast.getLValue())),
+                        "wrongly filtered points-to set at " + cast);
+                filtered |= accepted.size() < input.size();
+            }
+            assertTrue(filtered);
+            Map<String, Set<String>> pts = getVarPointsToSets();
+            if (expected == null) {
+                expected = pts;
+            } else {
+                assertEquals(expected, pts);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"TwoObject", "cs:2-obj", "budget-time:3600"})
+    @MultiStringsSource({"TwoCall", "cs:2-call", "budget-memory:65536"})
+    void testBudgetNotExceeded(String mainClass, String... opts) {
+        Tests.testPTA(ContextSensitivityTest.DIR, mainClass, opts);
+    }
+
+    /**
+     * Runs pointer analysis with a memory budget that is always exceeded,
+     * and checks that some methods are demoted, and that the result lies
+     * between the results of the fully context-sensitive analysis and
+     * context-insensitive analysis.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"TwoObject", "LinkedQueue", "RecursiveObj"})
+    void testBudgetExceeded(String mainClass) {
+        String dir = ContextSensitivityTest.DIR;
+        Tests.testPTA(false, dir, mainClass, "cs:2-obj");
+        Map<String, Set<String>> precise = getVarPointsToSets();
+        Tests.testPTA(false, dir, mainClass, "cs:ci");
+        Map<String, Set<String>> ci = getVarPointsToSets();
+        Tests.testPTA(false, dir, mainClass, "cs:2-obj", "budget-memory:1");
+        Set<JMethod> demoted = World.get()
+                .<PointerAnalysisResult>getResult(PointerAnalysis.ID)
+                .getResult(ContextBudgetMonitor.class.getName());
+        assertFalse(demoted.isEmpty());
+        Map<String, Set<String>> budgeted = getVarPointsToSets();
+        precise.forEach((var, pts) -> assertTrue(
+                budgeted.getOrDefault(var, Set.of()).containsAll(pts),
+                "unsound points-to set of " + var));
+        budgeted.forEach((var, pts) -> assertTrue(
+                ci.getOrDefault(var, Set.of()).containsAll(pts),
+                "points-to set of " + var + " exceeds context-insensitive one"));
+    }
+}
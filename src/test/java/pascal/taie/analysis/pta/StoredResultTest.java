@@ -0,0 +1,174 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.StmtResult;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.pta.client.MayFailCast;
+import pascal.taie.analysis.pta.client.PolymorphicCallSite;
+import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
+import pascal.taie.analysis.pta.core.cs.element.InstanceField;
+import pascal.taie.analysis.pta.core.cs.element.StaticField;
+import pascal.taie.analysis.pta.plugin.ResultProcessor;
+import pascal.taie.analysis.pta.store.StoredResult;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.MultiStringsSource;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Pair;
+import pascal.taie.util.collection.Sets;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StoredResultTest {
+
+    @ParameterizedTest
+    @MultiStringsSource({"contextsensitivity", "LinkedQueue", "2-obj"})
+    @MultiStringsSource({"basic", "InstanceField", "ci"})
+    @MultiStringsSource({"basic", "Array", "ci"})
+    @MultiStringsSource({"basic", "MultiArray", "1-obj"})
+    @MultiStringsSource({"basic", "StaticField", "ci"})
+    void testStoredResult(String dir, String main, String cs) {
+        Main.main(new String[]{
+                "-pp",
+                "-cp", "src/test/resources/pta/" + dir,
+                "-m", main,
+                "-a", "pta=cs:" + cs + ";implicit-entries:false;dump-binary:true"
+        });
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        StoredResult stored = StoredResult.load(new File(
+                World.get().getOptions().getOutputDir(),
+                ResultProcessor.RESULTS_BINARY_FILE));
+        CallGraph<Invoke, JMethod> callGraph = result.getCallGraph();
+        assertEquals(callGraph.reachableMethods()
+                        .map(JMethod::getSignature)
+                        .collect(Collectors.toSet()),
+                stored.reachableMethods().collect(Collectors.toSet()));
+        assertEquals(callGraph.getNumberOfEdges(), stored.getNumberOfCallEdges());
+        assertEquals(result.getVars().size(), stored.getNumberOfVars());
+        for (Var var : result.getVars()) {
+            String method = var.getMethod().getSignature();
+            assertEquals(toStrings(result.getPointsToSet(var)),
+                    Set.copyOf(stored.getPointsToSet(method, var.getName())));
+        }
+        result.getCSVars().forEach(csVar -> {
+            Var var = csVar.getVar();
+            List<String> pts = stored.getCSPointsToSets(
+                            var.getMethod().getSignature(), var.getName())
+                    .get(csVar.getContext().toString());
+            assertEquals(toStrings(csVar.getObjects()), Set.copyOf(pts));
+        });
+        for (StaticField field : result.getStaticFields()) {
+            assertEquals(field.objects()
+                            .map(o -> o.getObject().toString())
+                            .collect(Collectors.toSet()),
+                    Set.copyOf(stored.getStaticFieldPointsToSet(
+                            field.getField().getSignature())));
+        }
+        // stored instance fields and arrays are queried by the descriptions
+        // of the (context-insensitive) base objects, thus the expected
+        // points-to sets are merged by the descriptions
+        MultiMap<Pair<String, String>, String> instanceFields = Maps.newMultiMap();
+        for (InstanceField field : result.getInstanceFields()) {
+            Pair<String, String> key = new Pair<>(
+                    field.getBase().getObject().toString(),
+                    field.getField().getSignature());
+            field.objects().forEach(o ->
+                    instanceFields.put(key, o.getObject().toString()));
+        }
+        instanceFields.forEachSet((key, pts) -> assertEquals(pts, Set.copyOf(
+                stored.getInstanceFieldPointsToSet(key.first(), key.second()))));
+        MultiMap<String, String> arrays = Maps.newMultiMap();
+        for (ArrayIndex array : result.getArrayIndexes()) {
+            String key = array.getArray().getObject().toString();
+            array.objects().forEach(o -> arrays.put(key, o.getObject().toString()));
+        }
+        arrays.forEachSet((key, pts) -> assertEquals(pts,
+                Set.copyOf(stored.getArrayPointsToSet(key))));
+    }
+
+    /**
+     * Checks that the clients querying the stored result
+     * find the same statements as the ones querying pta.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"Cast", "Dispatch", "CastHeavy"})
+    void testClients(String main, @TempDir Path tempDir) throws IOException {
+        Main.main("-pp", "-cp", "src/test/resources/pta",
+                "-cp", "src/test/resources/pta/basic", "-m", main,
+                "-a", "pta=implicit-entries:false;dump-binary:true",
+                "-a", MayFailCast.ID, "-a", PolymorphicCallSite.ID);
+        Set<String> expected = getWantedStmts();
+        Path stored = tempDir.resolve(ResultProcessor.RESULTS_BINARY_FILE);
+        Files.copy(new File(World.get().getOptions().getOutputDir(),
+                ResultProcessor.RESULTS_BINARY_FILE).toPath(), stored);
+        String storedOpt = "=stored-result:" + stored;
+        Main.main("-pp", "-cp", "src/test/resources/pta",
+                "-cp", "src/test/resources/pta/basic", "-m", main,
+                "-a", MayFailCast.ID + storedOpt,
+                "-a", PolymorphicCallSite.ID + storedOpt);
+        assertEquals(expected, getWantedStmts());
+    }
+
+    /**
+     * @return the statements in application classes
+     * which are wanted by may-fail-cast and poly-call.
+     */
+    private static Set<String> getWantedStmts() {
+        Set<String> wanted = Sets.newSet();
+        for (String id : List.of(MayFailCast.ID, PolymorphicCallSite.ID)) {
+            StmtResult<Boolean> result = World.get().getResult(id);
+            World.get().getClassHierarchy()
+                    .applicationClasses()
+                    .flatMap(c -> c.getDeclaredMethods().stream())
+                    .filter(m -> !m.isAbstract() && !m.isNative())
+                    .forEach(m -> m.getIR().forEach(stmt -> {
+                        if (result.isRelevant(stmt) && result.getResult(stmt)) {
+                            wanted.add(id + ":" + m + ":" + stmt);
+                        }
+                    }));
+        }
+        return wanted;
+    }
+
+    private static Set<String> toStrings(Set<?> set) {
+        return set.stream()
+                .map(Object::toString)
+                .collect(Collectors.toSet());
+    }
+}
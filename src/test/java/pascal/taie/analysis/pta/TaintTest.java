@@ -22,12 +22,37 @@
 
 package pascal.taie.analysis.pta;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.Main;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.plugin.taint.DemandTaintAnalysis;
+import pascal.taie.analysis.pta.plugin.taint.SinkPoint;
+import pascal.taie.analysis.pta.plugin.taint.TaintAnalysis;
+import pascal.taie.analysis.pta.plugin.taint.TaintFlow;
+import pascal.taie.analysis.pta.plugin.taint.TaintQueryEngine;
 import pascal.taie.util.MultiStringsSource;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TaintTest {
 
@@ -37,6 +62,9 @@ public class TaintTest {
 
     static final String TAINT_CONFIG = TAINT_CONFIG_PREFIX + "taint-config.yml";
 
+    @TempDir
+    Path tempDir;
+
     @ParameterizedTest
     @MultiStringsSource({"ArrayTaint", TAINT_CONFIG})
     @MultiStringsSource({"CharArray", TAINT_CONFIG})
@@ -92,4 +120,148 @@ public class TaintTest {
         }
     }
 
+    @ParameterizedTest
+    @MultiStringsSource({"SimpleTaint", TAINT_CONFIG})
+    @MultiStringsSource({"ArgToResult", TAINT_CONFIG})
+    @MultiStringsSource({"BaseToResult", TAINT_CONFIG})
+    @MultiStringsSource({"StringAppend", TAINT_CONFIG})
+    @MultiStringsSource({"ArrayFieldTransfer",
+            TAINT_CONFIG_PREFIX + "taint-config-array-field-transfer.yml"})
+    void testDemandDriven(String mainClass, String taintConfig) {
+        Tests.testPTA(false, DIR, mainClass, taintConfig);
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        Set<TaintFlow> taintFlows = pta.getResult(TaintAnalysis.class.getName());
+        Main.main(new String[]{
+                "-pp", "-cp", "src/test/resources/pta",
+                "-cp", "src/test/resources/pta/" + DIR, "-m", mainClass,
+                "-a", "cg=algorithm:cha",
+                "-a", DemandTaintAnalysis.ID + "=" + taintConfig});
+        Map<SinkPoint, TaintQueryEngine.Result> results =
+                World.get().getResult(DemandTaintAnalysis.ID);
+        Set<String> taintedSinks = results.entrySet()
+                .stream()
+                .filter(e -> e.getValue().answer() == TaintQueryEngine.Answer.TAINTED)
+                .map(e -> e.getKey().toString())
+                .collect(Collectors.toSet());
+        // demand-driven analysis should find all sinks
+        // which are tainted according to pointer analysis
+        taintFlows.forEach(flow -> assertTrue(
+                taintedSinks.contains(flow.sinkPoint().toString()),
+                "Missing tainted sink: " + flow.sinkPoint()));
+        // and the sinks which it answers as not tainted
+        // should be untainted according to pointer analysis
+        Set<String> ptaTaintedSinks = taintFlows.stream()
+                .map(flow -> flow.sinkPoint().toString())
+                .collect(Collectors.toSet());
+        results.forEach((sinkPoint, result) -> {
+            assertNotEquals(TaintQueryEngine.Answer.UNKNOWN, result.answer(),
+                    "Unknown sink: " + sinkPoint);
+            if (result.answer() == TaintQueryEngine.Answer.NOT_TAINTED) {
+                assertFalse(ptaTaintedSinks.contains(sinkPoint.toString()),
+                        "Wrong untainted sink: " + sinkPoint);
+            }
+        });
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"SimpleTaint", TAINT_CONFIG})
+    @MultiStringsSource({"ArrayFieldTransfer",
+            TAINT_CONFIG_PREFIX + "taint-config-array-field-transfer.yml"})
+    void testStreamingReport(String mainClass, String taintConfig) throws IOException {
+        for (String format : List.of("jsonl", "sarif")) {
+            Tests.testPTA(false, DIR, mainClass, taintConfig,
+                    "taint-report:" + format);
+            PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+            Set<TaintFlow> taintFlows = pta.getResult(TaintAnalysis.class.getName());
+            File report = new File(World.get().getOptions().getOutputDir(),
+                    "taint-flows." + format);
+            if (format.equals("jsonl")) {
+                assertEquals(taintFlows.size(),
+                        Files.readAllLines(report.toPath()).size());
+            } else {
+                JsonNode json = new ObjectMapper().readTree(report);
+                assertEquals(taintFlows.size(),
+                        json.get("runs").get(0).get("results").size());
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SimpleTaint", "StringAppend", "InterTaintTransfer"})
+    void testWildcardRules(String mainClass) {
+        Tests.testPTA(false, DIR, mainClass, TAINT_CONFIG);
+        Set<String> expected = getTaintFlows();
+        Tests.testPTA(false, DIR, mainClass,
+                TAINT_CONFIG_PREFIX + "taint-config-wildcard.yml");
+        assertEquals(expected, getTaintFlows());
+    }
+
+    private static Set<String> getTaintFlows() {
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        Set<TaintFlow> taintFlows = pta.getResult(TaintAnalysis.class.getName());
+        return taintFlows.stream()
+                .map(TaintFlow::toString)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Reloads the taint configuration with the rule containing
+     * {@code removedRule} removed in interactive mode, and checks that
+     * the analysis finds the same taint flows as a fresh run with
+     * the reduced configuration. Merging PFG cycles as early as possible
+     * checks that retraction works on pointers sharing points-to sets.
+     */
+    @ParameterizedTest
+    @MultiStringsSource({"SimpleTaint", "<SourceSink: java.lang.String source()>"})
+    @MultiStringsSource({"SimpleTaint", "<SourceSink: void sink(java.lang.String)>"})
+    @MultiStringsSource({"StringAppend",
+            "<java.lang.StringBuilder: java.lang.StringBuilder append(java.lang.String)>"})
+    @MultiStringsSource({"CycleTaint", "<SourceSink: java.lang.String source()>",
+            "merge-pfg-cycles:true", "merge-pfg-cycles-threshold:1"})
+    @MultiStringsSource({"StringAppend",
+            "<java.lang.StringBuilder: java.lang.StringBuilder append(java.lang.String)>",
+            "merge-pfg-cycles:true", "merge-pfg-cycles-threshold:1"})
+    void testReloadReducedConfig(String mainClass, String removedRule,
+                                 String... opts) throws IOException {
+        Path config = tempDir.resolve("taint-config.yml");
+        List<String> lines = Files.readAllLines(
+                Path.of("src/test/resources/pta/taint/taint-config.yml"));
+        List<String> reducedLines = lines.stream()
+                .filter(line -> !line.contains(removedRule))
+                .toList();
+        assertEquals(lines.size() - 1, reducedLines.size());
+        Files.write(config, lines);
+        List<String> reloadOpts = new ArrayList<>(List.of(opts));
+        reloadOpts.add("taint-config:" + config);
+        String[] freshOpts = reloadOpts.toArray(String[]::new);
+        reloadOpts.add("taint-interactive-mode:true");
+        InputStream originalSystemIn = System.in;
+        try {
+            // reduces the configuration before the analysis reads
+            // the command to reload it
+            System.setIn(new InputStream() {
+                private final InputStream commands =
+                        new ByteArrayInputStream("r\ne\n".getBytes());
+
+                private boolean reduced = false;
+
+                @Override
+                public int read() throws IOException {
+                    if (!reduced) {
+                        Files.write(config, reducedLines);
+                        reduced = true;
+                    }
+                    return commands.read();
+                }
+            });
+            Tests.testPTA(false, DIR, mainClass,
+                    reloadOpts.toArray(String[]::new));
+        } finally {
+            System.setIn(originalSystemIn);
+        }
+        Set<String> reloaded = getTaintFlows();
+        Tests.testPTA(false, DIR, mainClass, freshOpts);
+        assertEquals(getTaintFlows(), reloaded);
+    }
+
 }
@@ -0,0 +1,213 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import pascal.taie.Main;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.core.solver.TypeFilter;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.ir.stmt.Cast;
+import pascal.taie.language.type.NullType;
+import pascal.taie.language.type.ReferenceType;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.Maps;
+import picocli.CommandLine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Microbenchmark of {@link TypeFilter} on cast-heavy code.
+ * <p>
+ * It runs pointer analysis on the given program, collects the points-to
+ * sets of the operands of all reachable casts, and then measures
+ * the time of filtering these sets by the cast types with
+ * <ul>
+ *     <li>stream: type-checks every object and collects the objects
+ *     that pass into a new points-to set (the way the solver filtered
+ *     points-to sets before {@link TypeFilter} cached the type checks);
+ *     <li>mask: {@link TypeFilter}, one per cast type, as shared by
+ *     the solver.
+ * </ul>
+ * Both ways must produce sets of the same sizes. By default, it analyzes
+ * {@code CastHeavy} in the test resources, and larger programs can be
+ * given via {@code -cp} and {@code -m}, e.g.,
+ * <pre>
+ * TypeFilterBenchmark -cp app.jar,lib.jar -m Main -cs 2-obj
+ * </pre>
+ */
+@CommandLine.Command
+public class TypeFilterBenchmark {
+
+    @CommandLine.Option(names = "-cp", split = ",", defaultValue =
+            "src/test/resources/pta,src/test/resources/pta/basic")
+    private List<String> classPath;
+
+    @CommandLine.Option(names = "-m", defaultValue = "CastHeavy")
+    private String mainClass;
+
+    @CommandLine.Option(names = "-cs", defaultValue = "ci")
+    private String cs;
+
+    @CommandLine.Option(names = "-warmup", defaultValue = "5")
+    private int warmup;
+
+    @CommandLine.Option(names = "-iterations", defaultValue = "10")
+    private int iterations;
+
+    /**
+     * Minimum number of filtering operations in each iteration,
+     * so that small programs are measured over enough operations.
+     */
+    @CommandLine.Option(names = "-ops", defaultValue = "1000000")
+    private int minOps;
+
+    /**
+     * Options of the benchmark run, read by {@link Measure}.
+     */
+    private static TypeFilterBenchmark current;
+
+    public static void main(String[] args) {
+        current = CommandLine.populateCommand(new TypeFilterBenchmark(), args);
+        List<String> taieArgs = new ArrayList<>();
+        taieArgs.add("-pp");
+        current.classPath.forEach(cp -> Collections.addAll(taieArgs, "-cp", cp));
+        Collections.addAll(taieArgs, "-m", current.mainClass,
+                "-a", "pta=cs:" + current.cs + ";implicit-entries:false;"
+                        + "plugins:[" + Measure.class.getName() + "]");
+        Main.main(taieArgs.toArray(new String[0]));
+    }
+
+    /**
+     * Runs the benchmark after pointer analysis finishes.
+     */
+    public static class Measure implements Plugin {
+
+        private Solver solver;
+
+        @Override
+        public void setSolver(Solver solver) {
+            this.solver = solver;
+        }
+
+        @Override
+        public void onFinish() {
+            List<PointsToSet> inputs = new ArrayList<>();
+            List<Type> types = new ArrayList<>();
+            CSManager csManager = solver.getCSManager();
+            solver.getCallGraph().reachableMethods().forEach(csMethod ->
+                    collectCasts(csManager, csMethod, inputs, types));
+            if (inputs.isEmpty()) {
+                System.out.println("No cast operands point to objects");
+                return;
+            }
+            int rounds = Math.max(1, current.minOps / inputs.size());
+            System.out.printf("%d cast operands, %d operations per iteration%n",
+                    inputs.size(), rounds * inputs.size());
+            TypeSystem typeSystem = solver.getTypeSystem();
+            Map<Type, TypeFilter> filters = Maps.newMap();
+            types.forEach(t -> filters.computeIfAbsent(t,
+                    type -> new TypeFilter(type, solver, false)));
+            long streamSize = 0, maskSize = 0;
+            for (int i = 0; i < current.warmup; ++i) {
+                streamSize = streamFilter(typeSystem, inputs, types, rounds);
+                maskSize = maskFilter(filters, inputs, types, rounds);
+            }
+            if (streamSize != maskSize) {
+                throw new AssertionError("stream and mask filters disagree: "
+                        + streamSize + " != " + maskSize);
+            }
+            long streamTime = 0, maskTime = 0;
+            for (int i = 0; i < current.iterations; ++i) {
+                long start = System.nanoTime();
+                streamFilter(typeSystem, inputs, types, rounds);
+                streamTime += System.nanoTime() - start;
+                start = System.nanoTime();
+                maskFilter(filters, inputs, types, rounds);
+                maskTime += System.nanoTime() - start;
+            }
+            double ops = (double) current.iterations * rounds * inputs.size();
+            System.out.printf("stream: %.1f ns/op%n", streamTime / ops);
+            System.out.printf("mask:   %.1f ns/op%n", maskTime / ops);
+        }
+
+        private void collectCasts(CSManager csManager, CSMethod csMethod,
+                                  List<PointsToSet> inputs, List<Type> types) {
+            csMethod.getMethod().getIR().forEach(stmt -> {
+                if (stmt instanceof Cast cast) {
+                    PointsToSet pts = csManager.getCSVar(csMethod.getContext(),
+                            cast.getRValue().getValue()).getPointsToSet();
+                    if (pts != null && !pts.isEmpty()) {
+                        inputs.add(pts);
+                        types.add(cast.getRValue().getCastType());
+                    }
+                }
+            });
+        }
+
+        private long streamFilter(TypeSystem typeSystem, List<PointsToSet> inputs,
+                                  List<Type> types, int rounds) {
+            long size = 0;
+            for (int r = 0; r < rounds; ++r) {
+                for (int i = 0; i < inputs.size(); ++i) {
+                    Type type = types.get(i);
+                    PointsToSet result = inputs.get(i).objects()
+                            .filter(o -> isAssignable(typeSystem, o, type))
+                            .collect(solver::makePointsToSet,
+                                    PointsToSet::addObject, PointsToSet::addAll);
+                    size += result.size();
+                }
+            }
+            return size;
+        }
+
+        private static boolean isAssignable(
+                TypeSystem typeSystem, CSObj obj, Type type) {
+            Type from = obj.getObject().getType();
+            return (from instanceof NullType)
+                    ? type instanceof ReferenceType
+                    : typeSystem.isSubtype(type, from);
+        }
+
+        private static long maskFilter(Map<Type, TypeFilter> filters,
+                                       List<PointsToSet> inputs,
+                                       List<Type> types, int rounds) {
+            long size = 0;
+            for (int r = 0; r < rounds; ++r) {
+                for (int i = 0; i < inputs.size(); ++i) {
+                    size += filters.get(types.get(i))
+                            .apply(null, inputs.get(i))
+                            .size();
+                }
+            }
+            return size;
+        }
+    }
+}
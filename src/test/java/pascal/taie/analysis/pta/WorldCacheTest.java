@@ -26,9 +26,19 @@ package pascal.taie.analysis.pta;
 import org.junit.jupiter.api.Test;
 import pascal.taie.Main;
 import pascal.taie.World;
-import pascal.taie.frontend.cache.CachedIRBuilder;
 import pascal.taie.frontend.cache.CachedWorldBuilder;
+import pascal.taie.frontend.cache.MappedIRBuilder;
+import pascal.taie.ir.IRPrinter;
+import pascal.taie.util.collection.Maps;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class WorldCacheTest {
@@ -49,10 +59,37 @@ public class WorldCacheTest {
                         """
         };
         Main.main(args);
+        Map<String, String> builtIRs = dumpIRs(World.get());
         Main.main(args);
         World world2 = World.get();
+        Map<String, String> loadedIRs = dumpIRs(world2);
         CachedWorldBuilder.getWorldCacheFile(world2.getOptions()).delete();
-        assertTrue(world2.getIRBuilder() instanceof CachedIRBuilder);
+        CachedWorldBuilder.getIRCacheFile(world2.getOptions()).delete();
+        assertTrue(world2.getIRBuilder() instanceof MappedIRBuilder);
+        // looking up a missing class in the cached world finds nothing
+        assertNull(world2.getClassHierarchy().getClass("x.Missing"));
+        assertNotNull(world2.getClassHierarchy().getClass("LinkedQueue"));
+        // IR loaded from the cache equals the IR built from scratch
+        assertFalse(builtIRs.isEmpty());
+        assertEquals(builtIRs, loadedIRs);
+    }
+
+    /**
+     * @return textual IR of the non-abstract methods of the application
+     * classes in given world.
+     */
+    private static Map<String, String> dumpIRs(World world) {
+        Map<String, String> irs = Maps.newOrderedMap();
+        world.getClassHierarchy()
+                .applicationClasses()
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .forEach(m -> {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    IRPrinter.print(m.getIR(), new PrintStream(out));
+                    irs.put(m.getSignature(), out.toString());
+                });
+        return irs;
     }
 
 }
@@ -0,0 +1,89 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.toolkit.mahjong.Mahjong;
+import pascal.taie.analysis.pta.toolkit.zipper.Zipper;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class PreAnalysisCacheTest {
+
+    private static final String CS = "contextsensitivity";
+
+    @TempDir
+    File cacheDir;
+
+    @Test
+    void testHitAndMiss() {
+        Tests.testPTA(false, CS, "LinkedQueue");
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        Set<JMethod> pcms = Zipper.run(pta, "zipper");
+        List<Set<New>> siteGroups = Mahjong.mergeAllocationSites(pta);
+        assertFalse(siteGroups.isEmpty());
+        AnalysisOptions options = makeOptions("cs", "2-obj", "advanced", "zipper");
+        // first run stores the results
+        assertNull(new PreAnalysisCache(options, "zipper", cacheDir).loadMethods());
+        new PreAnalysisCache(options, "zipper", cacheDir).storeMethods(pcms);
+        new PreAnalysisCache(options, "mahjong", cacheDir).storeSiteGroups(siteGroups);
+        // second run hits the cache and obtains the same results,
+        // even if the options are given in different order
+        AnalysisOptions reordered = makeOptions("advanced", "zipper", "cs", "2-obj");
+        assertEquals(pcms, new PreAnalysisCache(reordered, "zipper", cacheDir)
+                .loadMethods());
+        assertEquals(Set.copyOf(siteGroups), Set.copyOf(
+                new PreAnalysisCache(options, "mahjong", cacheDir).loadSiteGroups()));
+        // different options miss the cache
+        AnalysisOptions changed = makeOptions("cs", "2-type", "advanced", "zipper");
+        assertNull(new PreAnalysisCache(changed, "zipper", cacheDir).loadMethods());
+        // changed program misses the cache
+        Tests.testPTA(false, CS, "TwoObject");
+        assertNull(new PreAnalysisCache(options, "zipper", cacheDir).loadMethods());
+        assertNull(new PreAnalysisCache(options, "mahjong", cacheDir).loadSiteGroups());
+    }
+
+    private static AnalysisOptions makeOptions(String... keyValues) {
+        Map<String, Object> options = Maps.newLinkedHashMap();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            options.put(keyValues[i], keyValues[i + 1]);
+        }
+        return new AnalysisOptions(options);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.mahjong;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.Obj;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MahjongTest {
+
+    private static final String CS = "contextsensitivity";
+
+    @Test
+    void testMahjong() {
+        Tests.testPTA(false, CS, "TwoObject", "cs:2-obj", "advanced:mahjong");
+    }
+
+    /**
+     * Checks that equivalent DFAs always have the same signature.
+     */
+    @Test
+    void testDFASignatures() {
+        Tests.testPTA(false, CS, "TwoObject");
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        DFAFactory dfaFactory = new DFAFactory(new FieldPointsToGraph(pta));
+        DFAEquivChecker checker = new DFAEquivChecker();
+        List<Obj> objs = List.copyOf(pta.getObjects());
+        int equivalentPairs = 0;
+        for (Obj o1 : objs) {
+            for (Obj o2 : objs) {
+                if (o1.getType().equals(o2.getType())) {
+                    DFA dfa1 = dfaFactory.getDFA(o1);
+                    DFA dfa2 = dfaFactory.getDFA(o2);
+                    if (checker.isEquivalent(dfa1, dfa2)) {
+                        ++equivalentPairs;
+                        assertEquals(DFASignatures.compute(dfa1),
+                                DFASignatures.compute(dfa2));
+                    }
+                }
+            }
+        }
+        assertTrue(equivalentPairs >= objs.size());
+    }
+}
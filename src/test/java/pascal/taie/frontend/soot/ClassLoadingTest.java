@@ -0,0 +1,152 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.soot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.ClassMember;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ClassLoadingTest {
+
+    private static final String CP = "src/test/resources/world";
+
+    private static final String PTA_ROOT = "src/test/resources/pta";
+
+    private static final String PTA_CP = PTA_ROOT + "/basic";
+
+    /**
+     * Classes are built in parallel, thus this test checks that
+     * the indexes of classes and the order of their members
+     * are the same in different runs.
+     */
+    @Test
+    void testDeterministicIndexes() {
+        List<String> first = buildAndDump();
+        for (int i = 0; i < 3; ++i) {
+            assertEquals(first, buildAndDump());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Strings", "Dispatch", "LinkedQueue", "ForNameJDK"})
+    void testLazyClassLoading(String main) {
+        Set<String> eager = analyzeAndDump(main);
+        Set<String> lazy = analyzeAndDump(main, "--lazy-class-loading");
+        assertEquals(eager, lazy);
+    }
+
+    @Test
+    void testLazyClassLoadingWithCHA() {
+        assertThrows(ConfigException.class, () ->
+                Main.main("-pp", "-cp", PTA_ROOT, "-cp", PTA_CP,
+                        "-m", "Dispatch",
+                        "--lazy-class-loading", "-a", "cg=algorithm:cha"));
+    }
+
+    @Test
+    void testLazyClassLoadingWithParallelSolver() {
+        assertThrows(ConfigException.class, () ->
+                Main.main("-pp", "-cp", PTA_ROOT, "-cp", PTA_CP,
+                        "-m", "Dispatch", "--lazy-class-loading",
+                        "-a", "pta=solver:parallel"));
+    }
+
+    @Test
+    void testLazyClassLoadingWithScopeAll() {
+        assertThrows(ConfigException.class, () ->
+                Main.main("-pp", "-cp", PTA_ROOT, "-cp", PTA_CP,
+                        "-m", "Dispatch", "-scope", "ALL",
+                        "--lazy-class-loading", "-a", "cfg"));
+    }
+
+    /**
+     * Runs pointer analysis (including the library methods) and
+     * call graph construction, and dumps the call edges and
+     * points-to sets of the variables in application methods.
+     */
+    private static Set<String> analyzeAndDump(String main, String... opts) {
+        List<String> args = new ArrayList<>(List.of(
+                "-pp", "-cp", PTA_ROOT, "-cp", PTA_CP, "-m", main,
+                "-a", "pta=implicit-entries:false;only-app:false",
+                "-a", "cg"));
+        Collections.addAll(args, opts);
+        Main.main(args.toArray(new String[0]));
+        Set<String> result = Sets.newOrderedSet();
+        CallGraph<Invoke, JMethod> callGraph =
+                World.get().getResult(CallGraphBuilder.ID);
+        // call sites are identified by their indexes, as the names of
+        // the temporary variables in library methods may differ
+        callGraph.edges().forEach(e -> result.add(e.getCallSite().getContainer()
+                + "/" + e.getCallSite().getIndex() + " -> " + e.getCallee()));
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        pta.getVars()
+                .stream()
+                .filter(v -> v.getMethod().isApplication())
+                .forEach(v -> result.add(v.getMethod() + "/" +
+                        v.getName() + " -> " + pta.getPointsToSet(v).stream()
+                        .map(Obj::toString)
+                        .sorted()
+                        .toList()));
+        return result;
+    }
+
+    private static List<String> buildAndDump() {
+        Main.buildWorld("-pp", "-cp", CP, "--input-classes", "OuterInner");
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        return hierarchy.allClasses()
+                .map(c -> {
+                    assertSame(c, hierarchy.getObject(c.getIndex()));
+                    return c.getIndex() + ":" + c.getName() +
+                            c.getDeclaredFields().stream()
+                                    .map(ClassMember::getName)
+                                    .toList() +
+                            c.getDeclaredMethods().stream()
+                                    .map(ClassMember::getSignature)
+                                    .toList();
+                })
+                .toList();
+    }
+}
@@ -27,8 +27,14 @@ import pascal.taie.Main;
 import pascal.taie.World;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 
 public class IRTest {
@@ -51,4 +57,28 @@ public class IRTest {
                     }
                 });
     }
+
+    /**
+     * Requests the IRs of the same methods from many threads at once,
+     * and checks that each method has only one IR.
+     */
+    @Test
+    void testConcurrentGetIR() {
+        Main.buildWorld("-pp", "-cp", "src/test/resources/world",
+                "--input-classes", "AllInOne");
+        List<JMethod> methods = World.get()
+                .getClassHierarchy()
+                .allClasses()
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> !m.isAbstract())
+                .toList();
+        ConcurrentMap<JMethod, IR> irs = Maps.newConcurrentMap();
+        IntStream.range(0, 8).parallel().forEach(i -> methods.forEach(m -> {
+            IR ir = irs.putIfAbsent(m, m.getIR());
+            if (ir != null) {
+                assertSame(ir, m.getIR(), m.toString());
+            }
+        }));
+        methods.forEach(m -> assertSame(irs.get(m), m.getIR(), m.toString()));
+    }
 }
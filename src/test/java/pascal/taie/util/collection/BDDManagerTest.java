@@ -0,0 +1,162 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BDDManagerTest {
+
+    @Test
+    void testSingleton() {
+        BDDManager m = new BDDManager();
+        int s = m.singleton(42);
+        assertEquals(s, m.singleton(42));
+        assertTrue(m.contains(s, 42));
+        assertFalse(m.contains(s, 43));
+        assertEquals(1, m.count(s));
+        assertEquals(BDDManager.FALSE, m.diff(s, s));
+    }
+
+    @Test
+    void testOperations() {
+        BDDManager m = new BDDManager();
+        Random random = new Random(0);
+        for (int i = 0; i < 100; ++i) {
+            int bound = i % 2 == 0 ? 200 : Integer.MAX_VALUE;
+            TreeSet<Integer> s1 = new TreeSet<>();
+            TreeSet<Integer> s2 = new TreeSet<>();
+            int b1 = add(m, s1, random, bound);
+            int b2 = add(m, s2, random, bound);
+            assertSet(m, b1, s1);
+            TreeSet<Integer> union = new TreeSet<>(s1);
+            union.addAll(s2);
+            assertSet(m, m.or(b1, b2), union);
+            assertEquals(m.or(b1, b2), m.or(b2, b1));
+            TreeSet<Integer> intersection = new TreeSet<>(s1);
+            intersection.retainAll(s2);
+            assertSet(m, m.and(b1, b2), intersection);
+            TreeSet<Integer> diff = new TreeSet<>(s1);
+            diff.removeAll(s2);
+            assertSet(m, m.diff(b1, b2), diff);
+        }
+    }
+
+    @Test
+    void testOf() {
+        BDDManager m = new BDDManager();
+        Random random = new Random(3);
+        for (int i = 0; i < 100; ++i) {
+            int bound = i % 2 == 0 ? 200 : Integer.MAX_VALUE;
+            TreeSet<Integer> set = new TreeSet<>();
+            int bdd = add(m, set, random, bound);
+            int[] values = set.stream().mapToInt(Integer::intValue).toArray();
+            assertEquals(bdd, m.of(values, 0, values.length));
+        }
+        assertEquals(BDDManager.FALSE, m.of(new int[0], 0, 0));
+    }
+
+    @Test
+    void testGC() {
+        BDDManager m = new BDDManager();
+        Random random = new Random(1);
+        List<Integer> kept = new ArrayList<>();
+        List<TreeSet<Integer>> keptSets = new ArrayList<>();
+        for (int i = 0; i < 200; ++i) {
+            TreeSet<Integer> set = new TreeSet<>();
+            int bdd = add(m, set, random, Integer.MAX_VALUE);
+            if (i % 10 == 0) {
+                m.ref(bdd);
+                kept.add(bdd);
+                keptSets.add(set);
+            }
+        }
+        int before = m.getNodeCount();
+        m.gc();
+        assertTrue(m.getNodeCount() < before);
+        assertEquals(1, m.getGCCount());
+        for (int i = 0; i < kept.size(); ++i) {
+            assertSet(m, kept.get(i), keptSets.get(i));
+        }
+        // freed nodes are reused, and the referenced BDDs are intact
+        for (int i = 0; i < 200; ++i) {
+            TreeSet<Integer> set = new TreeSet<>();
+            int bdd = add(m, set, random, Integer.MAX_VALUE);
+            assertSet(m, bdd, set);
+        }
+        for (int i = 0; i < kept.size(); ++i) {
+            assertSet(m, kept.get(i), keptSets.get(i));
+            m.deref(kept.get(i));
+        }
+        m.gc();
+        assertEquals(2, m.getNodeCount());
+    }
+
+    @Test
+    void testScheduledGC() {
+        BDDManager m = new BDDManager();
+        Random random = new Random(2);
+        int kept = BDDManager.FALSE;
+        TreeSet<Integer> keptSet = new TreeSet<>();
+        // create enough nodes to fill the node table
+        while (m.getGCCount() == 0) {
+            m.begin();
+            TreeSet<Integer> set = new TreeSet<>();
+            int bdd = add(m, set, random, Integer.MAX_VALUE);
+            if (kept == BDDManager.FALSE) {
+                m.ref(bdd);
+                kept = bdd;
+                keptSet = set;
+            }
+            m.end();
+        }
+        assertSet(m, kept, keptSet);
+    }
+
+    private static int add(BDDManager m, TreeSet<Integer> set,
+                           Random random, int bound) {
+        int bdd = BDDManager.FALSE;
+        for (int i = 0; i < 30; ++i) {
+            int v = random.nextInt(bound);
+            set.add(v);
+            bdd = m.or(bdd, m.singleton(v));
+        }
+        return bdd;
+    }
+
+    private static void assertSet(BDDManager m, int bdd, TreeSet<Integer> set) {
+        List<Integer> elems = new ArrayList<>();
+        m.forEach(bdd, elems::add);
+        assertEquals(new ArrayList<>(set), elems);
+        assertEquals(set.size(), m.count(bdd));
+        set.forEach(v -> assertTrue(m.contains(bdd, v)));
+    }
+}
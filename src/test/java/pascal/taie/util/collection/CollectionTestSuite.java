@@ -27,12 +27,15 @@ import org.junit.platform.suite.api.Suite;
 
 @Suite
 @SelectClasses({
+        BDDManagerTest.class,
         GenericBitSetTest.class,
         ArraySetTest.class,
         ArrayMapTest.class,
         HybridHashMapTest.class,
         HybridHashSetTest.class,
+        HybridIndexableSetTest.class,
         IndexMapTest.class,
+        LongObjectTableTest.class,
         MultiMapTest.class,
         RegularBitSetTest.class,
         SetQueueTest.class,
@@ -0,0 +1,60 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.util.Indexable;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HybridIndexableSetTest {
+
+    @Test
+    void testClear() {
+        for (int n : new int[]{1, 5, 100}) {
+            Set<Element> set = new HybridIndexableSet<>(true);
+            for (int i = 0; i < n; ++i) {
+                set.add(new Element(i));
+            }
+            assertEquals(n, set.size());
+            // the large set is used after the set grows
+            set.clear();
+            assertTrue(set.isEmpty());
+            assertFalse(set.contains(new Element(0)));
+            assertTrue(set.add(new Element(n - 1)));
+            assertEquals(1, set.size());
+        }
+    }
+
+    private record Element(int index) implements Indexable {
+
+        @Override
+        public int getIndex() {
+            return index;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LongObjectTableTest {
+
+    @Test
+    void testGetPut() {
+        LongObjectTable<String> table = new LongObjectTable<>();
+        assertNull(table.get(1));
+        assertNull(table.put(1, "a"));
+        assertEquals("a", table.put(1, "b"));
+        assertEquals("b", table.get(1));
+        assertNull(table.put(LongObjectTable.key(-1, -1), "c"));
+        assertEquals("c", table.get(-1L));
+        assertEquals(2, table.size());
+        assertThrows(NullPointerException.class, () -> table.put(2, null));
+    }
+
+    @Test
+    void testKey() {
+        assertEquals(0x0000000100000002L, LongObjectTable.key(1, 2));
+        assertEquals(0x00000001FFFFFFFFL, LongObjectTable.key(1, -1));
+    }
+
+    @Test
+    void testResize() {
+        LongObjectTable<Long> table = new LongObjectTable<>(4);
+        Map<Long, Long> map = new HashMap<>();
+        Random random = new Random(0);
+        for (int i = 0; i < 100000; ++i) {
+            long key = i % 2 == 0 ?
+                    LongObjectTable.key(random.nextInt(1000), random.nextInt(100)) :
+                    random.nextLong();
+            assertEquals(map.put(key, (long) i), table.put(key, (long) i));
+        }
+        assertEquals(map.size(), table.size());
+        map.forEach((k, v) -> assertEquals(v, table.get(k)));
+        Set<Long> values = new HashSet<>();
+        table.forEachValue(values::add);
+        assertEquals(new HashSet<>(map.values()), values);
+    }
+}
@@ -0,0 +1,762 @@
+/**
+ * Test case for comparing the performance of data-flow solvers,
+ * which contains a large method with many variables, branches and loops.
+ */
+class LargeMethod {
+
+    static int compute(int n) {
+        int v0 = n + 0;
+        int v1 = n + 1;
+        int v2 = n + 2;
+        int v3 = n + 3;
+        int v4 = n + 4;
+        int v5 = n + 5;
+        int v6 = n + 6;
+        int v7 = n + 7;
+        int v8 = n + 8;
+        int v9 = n + 9;
+        int v10 = n + 10;
+        int v11 = n + 11;
+        int v12 = n + 12;
+        int v13 = n + 13;
+        int v14 = n + 14;
+        int v15 = n + 15;
+        int v16 = n + 16;
+        int v17 = n + 17;
+        int v18 = n + 18;
+        int v19 = n + 19;
+        int v20 = n + 20;
+        int v21 = n + 21;
+        int v22 = n + 22;
+        int v23 = n + 23;
+        int v24 = n + 24;
+        int v25 = n + 25;
+        int v26 = n + 26;
+        int v27 = n + 27;
+        int v28 = n + 28;
+        int v29 = n + 29;
+        int v30 = n + 30;
+        int v31 = n + 31;
+        for (int i0 = 0; i0 < n; ++i0) {
+            v20 = v9 | v25;
+            v3 = v4 * v6;
+            v3 = v13 + v2;
+            v27 = v26 - v4;
+            if (v5 > v27) {
+                v3 = v7 | v14;
+                v3 = v25 + v14;
+                v8 = v18 - v26;
+            } else {
+                v7 = v19 + v11;
+                v12 = v23 & v6;
+                v4 = v3 ^ v13;
+            }
+            v27 = v20 & v29;
+        }
+        v29 = v23 - v19;
+        v11 = v15 & v5;
+        for (int i1 = 0; i1 < n; ++i1) {
+            v19 = v31 | v21;
+            v28 = v18 + v4;
+            v26 = v10 - v21;
+            v31 = v26 | v2;
+            if (v4 > v20) {
+                v21 = v22 & v31;
+                v29 = v4 * v5;
+                v30 = v4 | v3;
+            } else {
+                v19 = v28 | v18;
+                v24 = v22 ^ v1;
+                v22 = v10 ^ v7;
+            }
+            v3 = v13 - v18;
+        }
+        v15 = v25 + v31;
+        v10 = v28 & v25;
+        for (int i2 = 0; i2 < n; ++i2) {
+            v17 = v8 & v27;
+            v17 = v26 | v22;
+            v24 = v14 + v9;
+            v11 = v9 | v14;
+            if (v14 > v0) {
+                v31 = v11 * v16;
+                v0 = v9 & v26;
+                v23 = v20 | v8;
+            } else {
+                v3 = v29 ^ v25;
+                v25 = v6 | v30;
+                v25 = v3 + v12;
+            }
+            v13 = v28 + v10;
+        }
+        v21 = v3 + v6;
+        v9 = v6 & v23;
+        for (int i3 = 0; i3 < n; ++i3) {
+            v1 = v4 & v13;
+            v24 = v9 * v16;
+            v23 = v30 + v7;
+            v31 = v29 ^ v30;
+            if (v19 > v5) {
+                v9 = v6 | v21;
+                v16 = v30 & v10;
+                v1 = v13 - v23;
+            } else {
+                v1 = v19 | v5;
+                v16 = v23 * v10;
+                v14 = v21 - v12;
+            }
+            v25 = v14 & v12;
+        }
+        v31 = v22 + v1;
+        v17 = v30 - v16;
+        for (int i4 = 0; i4 < n; ++i4) {
+            v22 = v28 + v23;
+            v14 = v6 - v30;
+            v21 = v13 & v30;
+            v0 = v30 | v22;
+            if (v5 > v7) {
+                v24 = v12 - v30;
+                v27 = v21 | v5;
+                v25 = v29 | v5;
+            } else {
+                v10 = v8 - v1;
+                v29 = v9 | v30;
+                v22 = v9 + v8;
+            }
+            v0 = v6 ^ v8;
+        }
+        v12 = v13 * v1;
+        v13 = v18 & v15;
+        for (int i5 = 0; i5 < n; ++i5) {
+            v20 = v16 - v26;
+            v3 = v22 | v29;
+            v26 = v8 & v9;
+            v1 = v28 & v11;
+            if (v0 > v9) {
+                v11 = v9 & v30;
+                v7 = v3 | v20;
+                v30 = v6 - v3;
+            } else {
+                v12 = v17 + v2;
+                v28 = v1 ^ v4;
+                v20 = v12 ^ v17;
+            }
+            v30 = v15 & v16;
+        }
+        v12 = v28 ^ v8;
+        v7 = v25 * v28;
+        for (int i6 = 0; i6 < n; ++i6) {
+            v4 = v15 + v27;
+            v13 = v19 - v7;
+            v23 = v9 - v16;
+            v29 = v14 ^ v6;
+            if (v31 > v10) {
+                v14 = v10 & v27;
+                v25 = v21 - v26;
+                v22 = v20 | v5;
+            } else {
+                v23 = v1 & v21;
+                v29 = v28 ^ v1;
+                v21 = v18 + v4;
+            }
+            v14 = v6 * v5;
+        }
+        v17 = v2 * v11;
+        v8 = v27 ^ v16;
+        for (int i7 = 0; i7 < n; ++i7) {
+            v9 = v31 + v20;
+            v17 = v3 ^ v11;
+            v4 = v17 | v1;
+            v5 = v16 + v14;
+            if (v16 > v7) {
+                v29 = v0 & v21;
+                v26 = v17 + v8;
+                v15 = v7 * v10;
+            } else {
+                v3 = v11 * v12;
+                v19 = v13 ^ v18;
+                v11 = v17 + v22;
+            }
+            v16 = v2 + v0;
+        }
+        v12 = v30 ^ v15;
+        v6 = v27 & v31;
+        for (int i8 = 0; i8 < n; ++i8) {
+            v25 = v19 - v13;
+            v21 = v12 ^ v8;
+            v22 = v3 + v8;
+            v4 = v16 - v27;
+            if (v3 > v5) {
+                v24 = v18 | v15;
+                v18 = v2 - v29;
+                v10 = v17 + v28;
+            } else {
+                v16 = v23 & v21;
+                v20 = v15 * v2;
+                v13 = v22 + v11;
+            }
+            v21 = v24 ^ v5;
+        }
+        v17 = v12 & v15;
+        v0 = v5 + v16;
+        for (int i9 = 0; i9 < n; ++i9) {
+            v9 = v25 ^ v2;
+            v1 = v19 + v14;
+            v9 = v24 | v20;
+            v31 = v9 | v18;
+            if (v9 > v2) {
+                v27 = v8 | v1;
+                v14 = v5 + v1;
+                v8 = v23 ^ v6;
+            } else {
+                v28 = v3 | v1;
+                v15 = v31 + v16;
+                v29 = v4 | v5;
+            }
+            v4 = v30 + v16;
+        }
+        v16 = v15 - v13;
+        v29 = v31 + v24;
+        for (int i10 = 0; i10 < n; ++i10) {
+            v30 = v18 & v2;
+            v12 = v4 * v9;
+            v16 = v19 + v8;
+            v30 = v3 * v31;
+            if (v6 > v13) {
+                v31 = v18 ^ v29;
+                v29 = v7 * v12;
+                v5 = v30 * v1;
+            } else {
+                v29 = v4 * v28;
+                v24 = v13 & v4;
+                v5 = v9 * v16;
+            }
+            v8 = v17 | v7;
+        }
+        v23 = v14 ^ v31;
+        v25 = v1 + v10;
+        for (int i11 = 0; i11 < n; ++i11) {
+            v31 = v28 * v25;
+            v9 = v26 ^ v22;
+            v20 = v7 + v21;
+            v20 = v21 + v25;
+            if (v12 > v0) {
+                v18 = v16 + v23;
+                v25 = v24 * v4;
+                v27 = v17 * v3;
+            } else {
+                v6 = v3 | v18;
+                v9 = v15 ^ v17;
+                v20 = v12 ^ v23;
+            }
+            v1 = v25 | v13;
+        }
+        v5 = v3 ^ v26;
+        v8 = v18 + v31;
+        for (int i12 = 0; i12 < n; ++i12) {
+            v8 = v10 ^ v30;
+            v21 = v18 * v19;
+            v16 = v25 * v15;
+            v30 = v25 - v7;
+            if (v10 > v4) {
+                v13 = v31 ^ v14;
+                v21 = v28 - v27;
+                v12 = v15 - v5;
+            } else {
+                v21 = v5 - v20;
+                v23 = v16 + v12;
+                v26 = v24 ^ v13;
+            }
+            v17 = v21 ^ v3;
+        }
+        v17 = v23 | v8;
+        v13 = v5 - v17;
+        for (int i13 = 0; i13 < n; ++i13) {
+            v24 = v25 ^ v28;
+            v19 = v1 + v8;
+            v27 = v30 + v31;
+            v4 = v25 ^ v29;
+            if (v15 > v6) {
+                v14 = v9 | v6;
+                v29 = v5 + v2;
+                v8 = v14 | v2;
+            } else {
+                v19 = v8 & v16;
+                v27 = v7 + v6;
+                v19 = v12 * v24;
+            }
+            v14 = v0 ^ v19;
+        }
+        v17 = v20 ^ v15;
+        v15 = v1 | v26;
+        for (int i14 = 0; i14 < n; ++i14) {
+            v19 = v3 - v1;
+            v31 = v26 * v5;
+            v14 = v27 - v23;
+            v31 = v2 | v21;
+            if (v26 > v23) {
+                v25 = v12 * v0;
+                v4 = v13 - v31;
+                v19 = v12 ^ v14;
+            } else {
+                v14 = v16 + v18;
+                v31 = v11 ^ v14;
+                v26 = v3 ^ v9;
+            }
+            v3 = v13 & v1;
+        }
+        v9 = v26 | v3;
+        v3 = v11 ^ v25;
+        for (int i15 = 0; i15 < n; ++i15) {
+            v20 = v7 - v5;
+            v21 = v12 | v11;
+            v29 = v2 | v19;
+            v24 = v23 ^ v21;
+            if (v10 > v6) {
+                v0 = v5 + v17;
+                v22 = v26 & v7;
+                v13 = v24 * v22;
+            } else {
+                v27 = v5 | v3;
+                v30 = v12 & v23;
+                v28 = v12 * v20;
+            }
+            v30 = v1 - v26;
+        }
+        v25 = v2 + v24;
+        v29 = v4 * v3;
+        for (int i16 = 0; i16 < n; ++i16) {
+            v12 = v4 * v21;
+            v17 = v21 * v2;
+            v20 = v17 + v19;
+            v4 = v1 + v14;
+            if (v30 > v29) {
+                v24 = v16 ^ v27;
+                v8 = v31 + v11;
+                v19 = v9 * v15;
+            } else {
+                v20 = v29 & v23;
+                v5 = v12 - v25;
+                v15 = v26 | v4;
+            }
+            v2 = v30 - v20;
+        }
+        v27 = v6 * v4;
+        v5 = v13 ^ v6;
+        for (int i17 = 0; i17 < n; ++i17) {
+            v31 = v28 - v11;
+            v8 = v26 & v29;
+            v15 = v7 * v18;
+            v17 = v23 | v16;
+            if (v16 > v12) {
+                v28 = v15 - v11;
+                v15 = v9 & v18;
+                v12 = v20 ^ v4;
+            } else {
+                v16 = v15 | v14;
+                v6 = v29 + v2;
+                v0 = v30 ^ v14;
+            }
+            v23 = v2 - v18;
+        }
+        v7 = v3 & v12;
+        v12 = v4 & v23;
+        for (int i18 = 0; i18 < n; ++i18) {
+            v11 = v28 | v16;
+            v0 = v6 - v22;
+            v2 = v23 - v21;
+            v2 = v13 + v16;
+            if (v13 > v0) {
+                v20 = v26 - v23;
+                v19 = v4 + v13;
+                v31 = v30 ^ v4;
+            } else {
+                v6 = v25 | v9;
+                v5 = v10 | v25;
+                v17 = v26 | v18;
+            }
+            v19 = v26 * v3;
+        }
+        v22 = v26 * v1;
+        v12 = v25 + v13;
+        for (int i19 = 0; i19 < n; ++i19) {
+            v27 = v10 + v7;
+            v25 = v23 - v29;
+            v8 = v0 & v3;
+            v9 = v25 & v5;
+            if (v23 > v10) {
+                v9 = v22 - v18;
+                v10 = v4 ^ v6;
+                v31 = v12 - v19;
+            } else {
+                v2 = v30 + v20;
+                v24 = v5 | v10;
+                v14 = v25 ^ v12;
+            }
+            v11 = v13 ^ v2;
+        }
+        v10 = v24 + v22;
+        v9 = v15 + v12;
+        for (int i20 = 0; i20 < n; ++i20) {
+            v2 = v20 ^ v7;
+            v29 = v19 * v26;
+            v15 = v27 | v24;
+            v23 = v28 + v11;
+            if (v0 > v31) {
+                v29 = v15 & v28;
+                v29 = v11 ^ v30;
+                v6 = v4 * v8;
+            } else {
+                v27 = v23 ^ v5;
+                v2 = v8 | v5;
+                v20 = v5 & v3;
+            }
+            v24 = v8 + v1;
+        }
+        v7 = v12 ^ v8;
+        v18 = v10 + v14;
+        for (int i21 = 0; i21 < n; ++i21) {
+            v22 = v16 * v10;
+            v17 = v29 * v9;
+            v30 = v13 & v16;
+            v15 = v20 + v23;
+            if (v12 > v11) {
+                v25 = v10 | v17;
+                v20 = v24 * v10;
+                v7 = v3 ^ v23;
+            } else {
+                v6 = v16 | v25;
+                v23 = v16 * v24;
+                v9 = v23 + v21;
+            }
+            v28 = v14 & v11;
+        }
+        v3 = v18 * v16;
+        v20 = v0 - v2;
+        for (int i22 = 0; i22 < n; ++i22) {
+            v9 = v18 ^ v27;
+            v23 = v3 ^ v8;
+            v14 = v2 + v1;
+            v0 = v22 + v19;
+            if (v22 > v14) {
+                v26 = v19 - v8;
+                v23 = v30 - v10;
+                v0 = v15 ^ v9;
+            } else {
+                v6 = v4 | v9;
+                v17 = v25 + v16;
+                v3 = v22 & v28;
+            }
+            v31 = v15 + v10;
+        }
+        v2 = v3 ^ v1;
+        v11 = v15 + v10;
+        for (int i23 = 0; i23 < n; ++i23) {
+            v6 = v0 - v12;
+            v26 = v12 & v11;
+            v19 = v4 | v3;
+            v30 = v0 ^ v24;
+            if (v29 > v5) {
+                v28 = v11 + v14;
+                v16 = v14 + v2;
+                v21 = v16 * v3;
+            } else {
+                v27 = v16 | v18;
+                v13 = v5 - v0;
+                v16 = v15 - v12;
+            }
+            v20 = v12 * v24;
+        }
+        v15 = v24 ^ v30;
+        v0 = v1 | v27;
+        for (int i24 = 0; i24 < n; ++i24) {
+            v14 = v19 ^ v13;
+            v4 = v10 + v9;
+            v1 = v7 & v6;
+            v10 = v22 | v9;
+            if (v1 > v2) {
+                v8 = v2 | v4;
+                v2 = v4 - v23;
+                v4 = v24 - v6;
+            } else {
+                v13 = v7 + v2;
+                v5 = v18 + v30;
+                v8 = v6 * v13;
+            }
+            v20 = v21 * v27;
+        }
+        v1 = v22 * v16;
+        v3 = v23 & v20;
+        for (int i25 = 0; i25 < n; ++i25) {
+            v30 = v18 ^ v1;
+            v1 = v27 * v6;
+            v30 = v3 | v13;
+            v5 = v18 ^ v10;
+            if (v0 > v12) {
+                v18 = v3 * v0;
+                v31 = v6 ^ v11;
+                v22 = v16 * v10;
+            } else {
+                v13 = v14 - v31;
+                v7 = v5 | v31;
+                v6 = v20 + v22;
+            }
+            v25 = v5 | v27;
+        }
+        v1 = v23 * v13;
+        v16 = v27 ^ v10;
+        for (int i26 = 0; i26 < n; ++i26) {
+            v14 = v29 & v8;
+            v2 = v22 & v20;
+            v9 = v28 - v20;
+            v29 = v28 & v16;
+            if (v14 > v8) {
+                v21 = v29 & v15;
+                v12 = v17 | v19;
+                v9 = v15 & v20;
+            } else {
+                v22 = v10 * v15;
+                v12 = v16 - v6;
+                v6 = v12 - v24;
+            }
+            v9 = v19 * v27;
+        }
+        v12 = v6 - v17;
+        v24 = v29 + v2;
+        for (int i27 = 0; i27 < n; ++i27) {
+            v25 = v27 & v14;
+            v18 = v29 - v1;
+            v16 = v25 | v0;
+            v15 = v27 - v26;
+            if (v14 > v11) {
+                v7 = v29 * v27;
+                v16 = v6 - v26;
+                v25 = v10 ^ v16;
+            } else {
+                v30 = v29 & v1;
+                v26 = v11 + v20;
+                v24 = v31 + v6;
+            }
+            v16 = v13 | v10;
+        }
+        v12 = v22 & v6;
+        v29 = v13 & v30;
+        for (int i28 = 0; i28 < n; ++i28) {
+            v1 = v23 ^ v21;
+            v29 = v13 ^ v11;
+            v7 = v22 * v3;
+            v17 = v24 + v25;
+            if (v0 > v4) {
+                v26 = v22 + v16;
+                v14 = v19 & v25;
+                v14 = v25 - v29;
+            } else {
+                v10 = v8 | v4;
+                v12 = v30 - v14;
+                v22 = v26 * v29;
+            }
+            v8 = v30 - v22;
+        }
+        v17 = v24 ^ v16;
+        v11 = v30 | v0;
+        for (int i29 = 0; i29 < n; ++i29) {
+            v17 = v22 | v15;
+            v19 = v20 ^ v30;
+            v27 = v5 - v23;
+            v19 = v24 + v3;
+            if (v20 > v8) {
+                v22 = v0 + v13;
+                v18 = v16 & v6;
+                v9 = v14 ^ v11;
+            } else {
+                v22 = v9 ^ v13;
+                v10 = v5 - v19;
+                v31 = v13 | v5;
+            }
+            v28 = v7 ^ v16;
+        }
+        v14 = v8 ^ v30;
+        v3 = v30 - v29;
+        for (int i30 = 0; i30 < n; ++i30) {
+            v31 = v15 & v10;
+            v0 = v10 ^ v20;
+            v31 = v18 * v29;
+            v27 = v26 - v4;
+            if (v23 > v1) {
+                v1 = v2 + v21;
+                v30 = v31 + v9;
+                v13 = v26 * v8;
+            } else {
+                v6 = v23 ^ v21;
+                v13 = v18 * v27;
+                v27 = v16 * v3;
+            }
+            v18 = v22 ^ v31;
+        }
+        v21 = v17 - v22;
+        v31 = v7 - v21;
+        for (int i31 = 0; i31 < n; ++i31) {
+            v20 = v19 & v8;
+            v5 = v2 | v25;
+            v25 = v3 + v19;
+            v0 = v2 ^ v12;
+            if (v3 > v24) {
+                v9 = v5 + v13;
+                v29 = v11 | v6;
+                v11 = v2 + v26;
+            } else {
+                v0 = v23 * v8;
+                v16 = v19 ^ v11;
+                v2 = v20 ^ v1;
+            }
+            v3 = v31 + v2;
+        }
+        v26 = v25 + v28;
+        v0 = v24 ^ v9;
+        for (int i32 = 0; i32 < n; ++i32) {
+            v26 = v6 | v5;
+            v30 = v13 | v9;
+            v0 = v27 + v7;
+            v13 = v7 ^ v8;
+            if (v1 > v17) {
+                v15 = v28 + v11;
+                v23 = v9 * v5;
+                v31 = v29 + v16;
+            } else {
+                v2 = v0 + v3;
+                v5 = v24 * v19;
+                v10 = v31 * v3;
+            }
+            v23 = v28 | v30;
+        }
+        v10 = v9 * v7;
+        v10 = v26 ^ v30;
+        for (int i33 = 0; i33 < n; ++i33) {
+            v28 = v17 * v21;
+            v17 = v3 & v21;
+            v0 = v9 & v19;
+            v27 = v15 ^ v24;
+            if (v24 > v14) {
+                v28 = v18 * v0;
+                v16 = v17 - v27;
+                v2 = v18 & v9;
+            } else {
+                v9 = v17 * v31;
+                v5 = v31 - v24;
+                v14 = v19 | v3;
+            }
+            v25 = v29 * v13;
+        }
+        v0 = v24 & v29;
+        v5 = v22 - v4;
+        for (int i34 = 0; i34 < n; ++i34) {
+            v25 = v16 ^ v20;
+            v12 = v13 - v5;
+            v18 = v23 ^ v22;
+            v9 = v15 ^ v2;
+            if (v23 > v6) {
+                v23 = v29 - v5;
+                v20 = v1 * v22;
+                v1 = v6 - v2;
+            } else {
+                v31 = v13 * v16;
+                v27 = v6 & v28;
+                v8 = v16 * v2;
+            }
+            v12 = v11 + v24;
+        }
+        v1 = v3 & v2;
+        v23 = v29 + v31;
+        for (int i35 = 0; i35 < n; ++i35) {
+            v25 = v7 * v5;
+            v20 = v14 | v5;
+            v25 = v11 - v28;
+            v23 = v15 - v14;
+            if (v2 > v16) {
+                v22 = v3 + v1;
+                v16 = v30 + v3;
+                v9 = v20 - v0;
+            } else {
+                v19 = v28 ^ v6;
+                v20 = v23 ^ v16;
+                v7 = v23 ^ v30;
+            }
+            v10 = v28 - v15;
+        }
+        v0 = v29 + v12;
+        v10 = v14 & v4;
+        for (int i36 = 0; i36 < n; ++i36) {
+            v23 = v8 + v28;
+            v24 = v1 ^ v4;
+            v21 = v20 ^ v14;
+            v7 = v23 * v9;
+            if (v14 > v3) {
+                v11 = v28 ^ v9;
+                v9 = v17 ^ v26;
+                v15 = v9 * v1;
+            } else {
+                v18 = v21 * v10;
+                v31 = v6 ^ v20;
+                v30 = v7 & v9;
+            }
+            v3 = v13 * v30;
+        }
+        v7 = v16 * v12;
+        v27 = v16 - v15;
+        for (int i37 = 0; i37 < n; ++i37) {
+            v6 = v24 ^ v18;
+            v10 = v3 - v18;
+            v1 = v28 & v21;
+            v8 = v28 & v0;
+            if (v18 > v11) {
+                v23 = v27 ^ v2;
+                v13 = v17 - v11;
+                v11 = v14 & v12;
+            } else {
+                v5 = v31 - v17;
+                v13 = v8 & v12;
+                v19 = v12 + v0;
+            }
+            v26 = v3 * v22;
+        }
+        v18 = v31 + v5;
+        v26 = v30 | v8;
+        for (int i38 = 0; i38 < n; ++i38) {
+            v17 = v15 & v11;
+            v23 = v2 | v10;
+            v23 = v0 & v22;
+            v28 = v4 * v7;
+            if (v15 > v20) {
+                v24 = v3 + v18;
+                v31 = v28 & v1;
+                v8 = v1 + v15;
+            } else {
+                v14 = v11 + v10;
+                v19 = v16 + v1;
+                v6 = v12 + v16;
+            }
+            v29 = v15 + v28;
+        }
+        v22 = v6 + v11;
+        v17 = v7 ^ v29;
+        for (int i39 = 0; i39 < n; ++i39) {
+            v17 = v7 - v25;
+            v14 = v9 | v29;
+            v25 = v10 | v1;
+            v24 = v26 ^ v2;
+            if (v3 > v23) {
+                v21 = v25 * v15;
+                v27 = v20 & v25;
+                v3 = v20 | v9;
+            } else {
+                v22 = v15 | v27;
+                v0 = v23 & v6;
+                v11 = v4 ^ v20;
+            }
+            v12 = v1 - v14;
+        }
+        v26 = v25 | v29;
+        v2 = v17 * v6;
+        return v0 + v1 + v2 + v3 + v4 + v5 + v6 + v7;
+    }
+}
@@ -0,0 +1,23 @@
+class ContextSensitivity {
+
+    public static void main(String[] args) {
+        int a = id(1);
+        int b = id(2);
+        int c = addTen(a);
+        int d = addTen(b);
+        int e = addTwenty(5);
+    }
+
+    static int id(int x) {
+        return x;
+    }
+
+    static int addTen(int x) {
+        int y = x + 10;
+        return y;
+    }
+
+    static int addTwenty(int x) {
+        return addTen(addTen(x));
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Cast-heavy program: many objects of a class hierarchy flow through
+ * containers of Object, and are cast back to various types.
+ */
+class CastHeavy {
+
+    public static void main(String[] args) {
+        Object[] objs = new Object[8];
+        objs[0] = new Shape();
+        objs[1] = new Circle();
+        objs[2] = new Square();
+        objs[3] = new Rectangle();
+        objs[4] = new RoundedSquare();
+        objs[5] = new Label();
+        objs[6] = new Object();
+        objs[7] = "text";
+        Box box = new Box();
+        for (int i = 0; i < objs.length; ++i) {
+            box.put(objs[i]);
+        }
+        Object o = box.get();
+        Shape shape = (Shape) o;
+        PTAAssert.sizeEquals(5, shape);
+        Circle circle = (Circle) o;
+        PTAAssert.sizeEquals(1, circle);
+        Rectangle rect = (Rectangle) o;
+        PTAAssert.sizeEquals(3, rect);
+        Square square = (Square) rect;
+        PTAAssert.sizeEquals(2, square);
+        Drawable drawable = (Drawable) o;
+        PTAAssert.sizeEquals(2, drawable);
+        String s = (String) o;
+        PTAAssert.notEmpty(s);
+        // casts through chained boxes
+        Box box2 = new Box();
+        box2.put(shape);
+        box2.put(drawable);
+        Object o2 = box2.get();
+        RoundedSquare rs = (RoundedSquare) o2;
+        PTAAssert.sizeEquals(1, rs);
+        Label label = (Label) o2;
+        PTAAssert.sizeEquals(1, label);
+        Shape[] shapes = new Shape[4];
+        shapes[0] = (Shape) box2.get();
+        shapes[1] = (Shape) box.get();
+        Square sq = (Square) shapes[0];
+        PTAAssert.equals(sq, square);
+    }
+}
+
+class Box {
+
+    Object item;
+
+    void put(Object o) {
+        item = o;
+    }
+
+    Object get() {
+        return item;
+    }
+}
+
+interface Drawable {
+}
+
+class Shape {
+}
+
+class Circle extends Shape {
+}
+
+class Rectangle extends Shape {
+}
+
+class Square extends Rectangle {
+}
+
+class RoundedSquare extends Square implements Drawable {
+}
+
+class Label implements Drawable {
+}
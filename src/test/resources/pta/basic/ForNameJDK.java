@@ -0,0 +1,8 @@
+class ForNameJDK {
+
+    public static void main(String[] args) throws Exception {
+        Class<?> c = Class.forName("java.util.TreeMap");
+        Object o = c.newInstance();
+        o.toString();
+    }
+}
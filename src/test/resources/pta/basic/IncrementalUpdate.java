@@ -0,0 +1,75 @@
+/**
+ * Program whose method bodies are changed by IncrementalUpdateTest:
+ * Factory.make() allocates different shapes, and Box.put() stops
+ * storing its argument, which make some methods unreachable.
+ */
+class IncrementalUpdate {
+
+    static Shape last;
+
+    public static void main(String[] args) {
+        Shape s = Factory.make();
+        s.draw(new Canvas());
+        Box box = new Box();
+        box.put(s);
+        Shape t = box.get();
+        t.draw(new Canvas());
+        last = t;
+        Shape[][] grid = new Shape[2][2];
+        grid[0][0] = last;
+        Shape u = grid[1][0];
+        Box box2 = new Box();
+        box2.put(u);
+        Shape v = Factory.copy(box2.get());
+        v.draw(new Canvas());
+    }
+}
+
+class Factory {
+
+    static Shape make() {
+        return new Circle();
+    }
+
+    static Shape copy(Shape s) {
+        Shape r = s;
+        return r;
+    }
+}
+
+class Box {
+
+    Shape item;
+
+    void put(Shape s) {
+        item = s;
+    }
+
+    Shape get() {
+        return item;
+    }
+}
+
+class Canvas {
+
+    Shape drawn;
+}
+
+class Shape {
+
+    void draw(Canvas c) {
+        c.drawn = this;
+    }
+}
+
+class Circle extends Shape {
+
+    void draw(Canvas c) {
+        Canvas other = new Canvas();
+        other.drawn = this;
+        c.drawn = other.drawn;
+    }
+}
+
+class Square extends Shape {
+}
@@ -0,0 +1,74 @@
+/**
+ * Many variables store to and load from the fields (and elements)
+ * of the same objects, e.g., a.f = y and b.f = y where a and b point
+ * to the same object.
+ */
+class SharedFieldStore {
+
+    public static void main(String[] args) {
+        Cell c1 = new Cell();
+        Cell c2 = new Cell();
+        Cell a = c1;
+        Cell b = c1;
+        Cell c = pick(c1, c2);
+        Cell d = pick(c2, c1);
+        Object y = new Object();
+        Object z = "z";
+        a.item = y;
+        b.item = y;
+        c.item = y;
+        d.item = z;
+        a.next = b;
+        b.next = c;
+        c.next = d;
+        d.next = a;
+        Object[] arr = new Object[2];
+        Object[] arr2 = arr;
+        arr[0] = y;
+        arr2[1] = y;
+        arr[0] = z;
+        a.items = arr;
+        c.items = arr2;
+        for (int i = 0; i < 4; ++i) {
+            a = a.next;
+            a.store(y);
+            a.store(z);
+            b = b.next;
+            b.store(new Item());
+            b.store(a);
+        }
+        Object o1 = a.item;
+        Object o2 = b.next.item;
+        Object o3 = c.items[0];
+        Object o4 = d.next.next.items[1];
+        Object o5 = c.get().item;
+        PTAAssert.notEmpty(o1, o2, o3, o4, o5);
+    }
+
+    static Cell pick(Cell x, Cell y) {
+        return x != null ? x : y;
+    }
+}
+
+class Cell {
+
+    Object item;
+
+    Cell next;
+
+    Object[] items;
+
+    void store(Object o) {
+        this.item = o;
+        next.item = o;
+        items[0] = o;
+        next.items[1] = item;
+    }
+
+    Cell get() {
+        return next.next;
+    }
+}
+
+class Item {
+}
@@ -0,0 +1,8 @@
+public class TopoOrder {
+
+    public static void main(String[] args) {
+        Object x = new Object();
+        Object y = new Object();
+        x = y;
+    }
+}